@@ -3,6 +3,7 @@ package ru.anastasia.NauJava.config;
 import lombok.Getter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import ru.anastasia.NauJava.entity.report.ReportMode;
 
 /**
  * Конфигурация приложения
@@ -22,4 +23,129 @@ public class AppConfig {
     @Value("${app.version}")
     private String appVersion;
 
+    /**
+     * Число контактов в одном пакете записи при импорте
+     */
+    @Value("${app.contact-import.batch-size:1000}")
+    private int contactImportBatchSize;
+
+    /**
+     * Максимальное число ошибок по строкам в отчете об импорте
+     */
+    @Value("${app.contact-import.max-errors:1000}")
+    private int contactImportMaxErrors;
+
+    /**
+     * Число строк, получаемых из БД за одно обращение курсора при экспорте
+     */
+    @Value("${app.contact-export.fetch-size:500}")
+    private int contactExportFetchSize;
+
+    /**
+     * Число контактов в одной порции чтения при формировании отчета
+     */
+    @Value("${app.report.scan-chunk-size:1000}")
+    private int reportScanChunkSize;
+
+    /**
+     * Число диапазонов идентификаторов контактов, читаемых параллельно при формировании полного отчета
+     * (1 - последовательное чтение). Каждый диапазон держит свое соединение с БД на время чтения,
+     * поэтому произведение на {@code app.report.concurrency} должно оставаться меньше размера пула соединений
+     */
+    @Value("${app.report.scan-parallelism:4}")
+    private int reportScanParallelism;
+
+    /**
+     * Число одновременно формируемых отчетов
+     */
+    @Value("${app.report.concurrency:2}")
+    private int reportConcurrency;
+
+    /**
+     * Емкость очереди отчетов, ожидающих формирования
+     */
+    @Value("${app.report.queue-capacity:20}")
+    private int reportQueueCapacity;
+
+    /**
+     * Срок аренды формируемого отчета в секундах
+     */
+    @Value("${app.report.lease-seconds:60}")
+    private int reportLeaseSeconds;
+
+    /**
+     * Максимальное число попыток формирования отчета
+     */
+    @Value("${app.report.max-attempts:3}")
+    private int reportMaxAttempts;
+
+    /**
+     * Срок хранения завершенных отчетов в днях
+     */
+    @Value("${app.report.retention-days:30}")
+    private int reportRetentionDays;
+
+    /**
+     * Лимит суммарного размера сжатого содержимого отчетов в мегабайтах
+     */
+    @Value("${app.report.max-storage-mb:1024}")
+    private int reportMaxStorageMb;
+
+    /**
+     * Режим отчета, формируемого по расписанию ({@code app.report.schedule-cron})
+     */
+    @Value("${app.report.schedule-mode:FULL}")
+    private ReportMode reportScheduleMode;
+
+    /**
+     * Перекрытие разностного отчета с базовым в секундах: изменения читаются с отметки базового отчета
+     * минус перекрытие, чтобы не потерять транзакции, зафиксированные после снимка базового отчета,
+     * и изменения с отстающих часов узлов
+     */
+    @Value("${app.report.delta-overlap-seconds:600}")
+    private int reportDeltaOverlapSeconds;
+
+    /**
+     * Срок хранения истории запусков формирования отчетов в днях
+     */
+    @Value("${app.report.history-days:365}")
+    private int reportHistoryDays;
+
+    /**
+     * Число запусков на странице истории
+     */
+    @Value("${app.report.history-size:100}")
+    private int reportHistorySize;
+
+    /**
+     * Наибольшее суммарное число записей справочников (компаний, тегов, должностей) в кэше;
+     * справочник больше этого размера не кэшируется
+     */
+    @Value("${app.cache.reference.max-items:10000}")
+    private long referenceCacheMaxItems;
+
+    /**
+     * Время жизни справочника в кэше в секундах (наибольшее отставание от изменений с других узлов)
+     */
+    @Value("${app.cache.reference.ttl-seconds:300}")
+    private long referenceCacheTtlSeconds;
+
+    /**
+     * Сброс кэшей по уведомлениям PostgreSQL об изменениях на других узлах
+     */
+    @Value("${app.cache.invalidation.enabled:true}")
+    private boolean cacheInvalidationEnabled;
+
+    /**
+     * Наибольшее время ожидания уведомлений до проверки соединения слушателя в миллисекундах
+     */
+    @Value("${app.cache.invalidation.poll-interval-ms:10000}")
+    private int cacheInvalidationPollIntervalMs;
+
+    /**
+     * Пауза перед повторным подключением слушателя уведомлений в миллисекундах
+     */
+    @Value("${app.cache.invalidation.reconnect-delay-ms:5000}")
+    private long cacheInvalidationReconnectDelayMs;
+
 }
\ No newline at end of file
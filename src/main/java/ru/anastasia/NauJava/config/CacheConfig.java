@@ -0,0 +1,58 @@
+package ru.anastasia.NauJava.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Конфигурация кэша справочников
+ *
+ * <p>
+ * Кэш в памяти узла (Caffeine) ограничен суммарным числом закэшированных записей справочников
+ * и временем жизни. Сброс и заполнение кэша выполняются после фиксации транзакции, поэтому
+ * откаченное изменение не сбрасывает кэш, а параллельное чтение не кэширует данные до фиксации.
+ * Статистика попаданий публикуется в метриках {@code cache.gets}.
+ * </p>
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Все компании
+     */
+    public static final String COMPANIES = "companies";
+
+    /**
+     * Все теги
+     */
+    public static final String TAGS = "tags";
+
+    /**
+     * Все должности
+     */
+    public static final String JOB_TITLES = "jobTitles";
+
+    @Bean
+    public CacheManager cacheManager(AppConfig appConfig) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        caffeineCacheManager.setAllowNullValues(false);
+        caffeineCacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumWeight(Math.max(1, appConfig.getReferenceCacheMaxItems()))
+                .weigher((Object key, Object value) -> value instanceof Collection<?> items
+                        ? Math.max(1, items.size()) : 1)
+                .expireAfterWrite(Duration.ofSeconds(Math.max(1, appConfig.getReferenceCacheTtlSeconds())))
+                .recordStats());
+        // Кэши создаются при запуске, чтобы их метрики регистрировались сразу
+        caffeineCacheManager.setCacheNames(List.of(COMPANIES, TAGS, JOB_TITLES));
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
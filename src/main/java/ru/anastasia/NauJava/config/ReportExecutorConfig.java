@@ -0,0 +1,24 @@
+package ru.anastasia.NauJava.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import ru.anastasia.NauJava.service.report.ReportExecutor;
+
+/**
+ * Конфигурация исполнителя формирования отчетов
+ *
+ * <p>
+ * Планировщик нужен для опроса очереди отчетов в БД и продления аренды формируемых отчетов.
+ * </p>
+ */
+@Configuration
+@EnableScheduling
+public class ReportExecutorConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ReportExecutor reportExecutor(AppConfig appConfig) {
+        return new ReportExecutor(Math.max(1, appConfig.getReportConcurrency()),
+                Math.max(1, appConfig.getReportQueueCapacity()));
+    }
+}
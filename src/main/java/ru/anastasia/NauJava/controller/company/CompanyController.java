@@ -62,6 +62,7 @@ public class CompanyController {
         searchDto.setSearch(search);
 
         model.addAttribute("companies", companies);
+        model.addAttribute("contactCounts", companyService.countContactsByCompany());
         model.addAttribute("tags", tags);
         model.addAttribute("searchDto", searchDto);
         model.addAttribute("searchParam", search);
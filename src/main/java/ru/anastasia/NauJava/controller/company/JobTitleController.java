@@ -36,6 +36,7 @@ public class JobTitleController {
     public String listJobTitles(Model model) {
         List<JobTitle> jobTitles = jobTitleService.findAll();
         model.addAttribute("jobTitles", jobTitles);
+        model.addAttribute("contactCounts", jobTitleService.countContactsByJobTitle());
         return "jobtitle/list";
     }
 
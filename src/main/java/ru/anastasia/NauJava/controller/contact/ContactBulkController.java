@@ -0,0 +1,30 @@
+package ru.anastasia.NauJava.controller.contact;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.anastasia.NauJava.dto.contact.ContactBulkDto;
+import ru.anastasia.NauJava.dto.contact.ContactBulkResultDto;
+import ru.anastasia.NauJava.service.contact.ContactBulkService;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/contacts/bulk")
+@RequiredArgsConstructor
+public class ContactBulkController {
+
+    /**
+     * Сервис массовых операций над контактами
+     */
+    private final ContactBulkService contactBulkService;
+
+    @PostMapping
+    public ContactBulkResultDto bulk(@Valid @RequestBody ContactBulkDto request) {
+        log.info("POST /api/contacts/bulk - массовая операция над {} контактами", request.getContactIds().size());
+        return contactBulkService.apply(request);
+    }
+}
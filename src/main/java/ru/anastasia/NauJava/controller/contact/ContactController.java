@@ -6,8 +6,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
@@ -18,6 +20,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import ru.anastasia.NauJava.dto.company.ContactCompanyCreateDto;
 import ru.anastasia.NauJava.dto.contact.ContactCreateDto;
+import ru.anastasia.NauJava.dto.contact.ContactCursor;
 import ru.anastasia.NauJava.dto.contact.ContactUpdateDto;
 import ru.anastasia.NauJava.dto.event.EventCreateDto;
 import ru.anastasia.NauJava.dto.note.NoteCreateDto;
@@ -34,6 +37,8 @@ import ru.anastasia.NauJava.service.company.CompanyService;
 import ru.anastasia.NauJava.service.company.JobTitleService;
 import ru.anastasia.NauJava.service.contact.ContactManagementService;
 import ru.anastasia.NauJava.service.contact.ContactService;
+import ru.anastasia.NauJava.service.facade.dto.ContactCard;
+import ru.anastasia.NauJava.service.facade.dto.ContactCardSlice;
 import ru.anastasia.NauJava.service.facade.dto.ContactFullDetails;
 import ru.anastasia.NauJava.service.tag.TagService;
 
@@ -85,6 +90,11 @@ public class ContactController {
      */
     private static final String DEFAULT_PAGE_SIZE = "12";
 
+    /**
+     * Порядок срезов по курсору: страницы в том же порядке продолжаются срезами по курсору
+     */
+    private static final Sort KEYSET_SORT = Sort.by("lastName", "firstName", "id");
+
     @GetMapping
     public String listContacts(
             @RequestParam(value = "search", required = false) String search,
@@ -99,9 +109,11 @@ public class ContactController {
         List<Company> companies = companyService.findAll();
         List<Tag> tags = tagService.findAll();
 
-        Pageable pageable = PageRequest.of(page, size);
+        // Результаты поиска упорядочены по релевантности, остальные страницы - как срезы по курсору
+        boolean keysetOrder = !StringUtils.hasText(search);
+        Pageable pageable = keysetOrder ? PageRequest.of(page, size, KEYSET_SORT) : PageRequest.of(page, size);
 
-        Page<Contact> contactPage = contactService.searchContacts(search, companyName, tagName, pageable);
+        Page<ContactCard> contactPage = contactService.searchContacts(search, companyName, tagName, pageable);
         log.debug("Найдено контактов: {} из {}", contactPage.getNumberOfElements(), contactPage.getTotalElements());
 
         model.addAttribute("contacts", contactPage.getContent());
@@ -111,6 +123,49 @@ public class ContactController {
         model.addAttribute("pageSize", size);
         model.addAttribute("totalPages", contactPage.getTotalPages());
         model.addAttribute("totalCount", contactPage.getTotalElements());
+        model.addAttribute("nextCursor", keysetOrder ? nextCursor(contactPage) : null);
+
+        model.addAttribute("searchParam", search);
+        model.addAttribute("companyParam", companyName);
+        model.addAttribute("tagParam", tagName);
+        model.addAttribute("cursorMode", false);
+
+        return "contact/list";
+    }
+
+    @GetMapping(params = "cursor")
+    public String listContactsByCursor(
+            @RequestParam(value = "search", required = false) String search,
+            @RequestParam(value = "company", required = false) String companyName,
+            @RequestParam(value = "tag", required = false) String tagName,
+            @RequestParam(value = "cursor") String cursor,
+            @RequestParam(value = "size", defaultValue = DEFAULT_PAGE_SIZE) int size,
+            Model model,
+            RedirectAttributes redirectAttributes) {
+        log.info("GET /contacts - поиск контактов по курсору [search: {}, company: {}, tag: {}, size: {}]",
+                search, companyName, tagName, size);
+
+        ContactCardSlice slice;
+        try {
+            slice = contactService.searchContactsByCursor(search, companyName, tagName, cursor, size);
+        } catch (IllegalArgumentException e) {
+            log.warn("Некорректный курсор списка контактов, переход к первому срезу: {}", e.getMessage());
+            redirectAttributes.addAttribute("search", search);
+            redirectAttributes.addAttribute("company", companyName);
+            redirectAttributes.addAttribute("tag", tagName);
+            redirectAttributes.addAttribute("size", size);
+            redirectAttributes.addAttribute("cursor", "");
+            return "redirect:/contacts";
+        }
+
+        model.addAttribute("contacts", slice.getContent());
+        model.addAttribute("companies", companyService.findAll());
+        model.addAttribute("tags", tagService.findAll());
+        model.addAttribute("pageSize", size);
+        model.addAttribute("totalCount", slice.getTotalEstimate());
+        model.addAttribute("cursorMode", true);
+        model.addAttribute("nextCursor", slice.getNextCursor());
+        model.addAttribute("prevCursor", slice.getPrevCursor());
 
         model.addAttribute("searchParam", search);
         model.addAttribute("companyParam", companyName);
@@ -284,8 +339,8 @@ public class ContactController {
             Model model) {
         log.info("GET /contacts/favorites - получение избранных контактов");
 
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Contact> favoriteContactsPage = contactService.findFavorites(pageable);
+        Pageable pageable = PageRequest.of(page, size, KEYSET_SORT);
+        Page<ContactCard> favoriteContactsPage = contactService.findFavorites(pageable);
 
         model.addAttribute("contacts", favoriteContactsPage.getContent());
         model.addAttribute("contacts", favoriteContactsPage.getContent());
@@ -293,6 +348,8 @@ public class ContactController {
         model.addAttribute("pageSize", size);
         model.addAttribute("totalPages", favoriteContactsPage.getTotalPages());
         model.addAttribute("totalCount", favoriteContactsPage.getTotalElements());
+        model.addAttribute("nextCursor", nextCursor(favoriteContactsPage));
+        model.addAttribute("cursorMode", false);
 
         Long favoritesCount = contactService.countFavorites();
         model.addAttribute("favoritesCount", favoritesCount);
@@ -300,6 +357,35 @@ public class ContactController {
         return "contact/favorites";
     }
 
+    @GetMapping(value = "/favorites", params = "cursor")
+    public String favoriteContactsByCursor(
+            @RequestParam(value = "cursor") String cursor,
+            @RequestParam(value = "size", defaultValue = DEFAULT_PAGE_SIZE) int size,
+            Model model,
+            RedirectAttributes redirectAttributes) {
+        log.info("GET /contacts/favorites - получение избранных контактов по курсору");
+
+        ContactCardSlice slice;
+        try {
+            slice = contactService.findFavoritesByCursor(cursor, size);
+        } catch (IllegalArgumentException e) {
+            log.warn("Некорректный курсор избранных контактов, переход к первому срезу: {}", e.getMessage());
+            redirectAttributes.addAttribute("size", size);
+            redirectAttributes.addAttribute("cursor", "");
+            return "redirect:/contacts/favorites";
+        }
+
+        model.addAttribute("contacts", slice.getContent());
+        model.addAttribute("pageSize", size);
+        model.addAttribute("totalCount", slice.getTotalEstimate());
+        model.addAttribute("favoritesCount", slice.getTotalEstimate());
+        model.addAttribute("cursorMode", true);
+        model.addAttribute("nextCursor", slice.getNextCursor());
+        model.addAttribute("prevCursor", slice.getPrevCursor());
+
+        return "contact/favorites";
+    }
+
     @GetMapping("/birthdays")
     public String upcomingBirthdays(Model model) {
         log.info("GET /contacts/birthdays - получение контактов с предстоящими днями рождения (30 дней)");
@@ -350,4 +436,22 @@ public class ContactController {
 
         return "redirect:/contacts/" + id;
     }
-}
\ No newline at end of file
+
+    /**
+     * Получить курсор среза, следующего за страницей, упорядоченной по {@link #KEYSET_SORT}
+     *
+     * <p>
+     * Переход вперед со страницы продолжается по курсору, поэтому дальние страницы не читаются через OFFSET.
+     * </p>
+     *
+     * @param page Страница карточек
+     * @return Курсор или null, если следующей страницы нет
+     */
+    private static String nextCursor(Page<ContactCard> page) {
+        if (!page.hasNext() || page.getContent().isEmpty()) {
+            return null;
+        }
+        ContactCard last = page.getContent().getLast();
+        return new ContactCursor(last.getLastName(), last.getFirstName(), last.getId(), false).encode();
+    }
+}
@@ -0,0 +1,57 @@
+package ru.anastasia.NauJava.controller.contact;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.anastasia.NauJava.entity.enums.ContactExportFormat;
+import ru.anastasia.NauJava.service.contactexport.ContactExportService;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/contacts/export")
+@RequiredArgsConstructor
+public class ContactExportController {
+
+    /**
+     * Сервис экспорта контактов
+     */
+    private final ContactExportService contactExportService;
+
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(value = "format", defaultValue = "CSV") ContactExportFormat format,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+            @RequestParam(value = "search", required = false) String search,
+            @RequestParam(value = "company", required = false) String companyName,
+            @RequestParam(value = "tag", required = false) String tagName) {
+        log.info("GET /api/contacts/export - экспорт контактов [формат: {}, gzip: {}]", format, gzip);
+
+        String fileName = "contacts-" + LocalDate.now() + "." + format.getExtension() + (gzip ? ".gz" : "");
+        MediaType mediaType = gzip
+                ? MediaType.parseMediaType("application/gzip")
+                : new MediaType(MediaType.parseMediaType(format.getMediaType()), StandardCharsets.UTF_8);
+
+        // Тело пишется в отдельном потоке после возврата из метода, поэтому ответ не буферизуется целиком
+        StreamingResponseBody body = output ->
+                contactExportService.export(search, companyName, tagName, format, gzip, output);
+
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(fileName)
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,79 @@
+package ru.anastasia.NauJava.controller.contact;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import ru.anastasia.NauJava.dto.contactimport.ContactImportStatusDto;
+import ru.anastasia.NauJava.entity.enums.ContactImportFormat;
+import ru.anastasia.NauJava.exception.ApiError;
+import ru.anastasia.NauJava.exception.contactimport.ContactImportNotFoundException;
+import ru.anastasia.NauJava.exception.contactimport.ContactImportQueueFullException;
+import ru.anastasia.NauJava.service.contactimport.ContactImportService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/contacts/import")
+@RequiredArgsConstructor
+public class ContactImportController {
+
+    /**
+     * Сервис импорта контактов
+     */
+    private final ContactImportService contactImportService;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ContactImportStatusDto> upload(@RequestParam("file") MultipartFile file,
+                                                         @RequestParam(value = "format", required = false)
+                                                         ContactImportFormat format) throws IOException {
+        ContactImportFormat resolved = format != null ? format : ContactImportFormat.byFileName(file.getOriginalFilename());
+        log.info("POST /api/contacts/import - импорт файла {} ({} байт, формат: {})",
+                file.getOriginalFilename(), file.getSize(), resolved);
+
+        // Загруженный файл удаляется по окончании запроса, а импорт идет в фоне - переносим его во временный файл
+        Path temp = Files.createTempFile("contact-import-", ".tmp");
+        file.transferTo(temp);
+
+        return ResponseEntity.accepted().body(contactImportService.start(temp, file.getOriginalFilename(), resolved));
+    }
+
+    @GetMapping("/{id}")
+    public ContactImportStatusDto status(@PathVariable UUID id) {
+        log.debug("GET /api/contacts/import/{} - состояние импорта", id);
+        return contactImportService.getStatus(id);
+    }
+
+    /**
+     * Ошибки REST API отдаются в JSON, а не HTML-страницей общего обработчика
+     */
+    @ExceptionHandler(ContactImportNotFoundException.class)
+    public ResponseEntity<ApiError> exceptionNotFound(ContactImportNotFoundException e) {
+        return error(HttpStatus.NOT_FOUND, "Импорт контактов не найден.", e);
+    }
+
+    @ExceptionHandler(ContactImportQueueFullException.class)
+    public ResponseEntity<ApiError> exceptionQueueFull(ContactImportQueueFullException e) {
+        return error(HttpStatus.TOO_MANY_REQUESTS, "Слишком много незавершенных импортов.", e);
+    }
+
+    private static ResponseEntity<ApiError> error(HttpStatus status, String reason, RuntimeException e) {
+        log.warn("{} {}", reason, e.getMessage());
+        ApiError error = new ApiError(status.toString(), reason + " " + e.getMessage(), e.getMessage(), LocalDateTime.now());
+        return ResponseEntity.status(status).body(error);
+    }
+}
@@ -2,15 +2,30 @@ package ru.anastasia.NauJava.controller.report;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import ru.anastasia.NauJava.dto.report.ReportStatusDto;
 import ru.anastasia.NauJava.entity.report.Report;
+import ru.anastasia.NauJava.entity.report.ReportMode;
 import ru.anastasia.NauJava.entity.report.ReportStatus;
+import ru.anastasia.NauJava.service.report.ReportContentResource;
 import ru.anastasia.NauJava.service.report.ReportService;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
 @Slf4j
 @Controller
 @RequestMapping("/reports")
@@ -22,15 +37,18 @@ public class ReportController {
     private final ReportService reportService;
 
     @GetMapping
-    public String createAndRedirect() {
-        log.info("GET /reports - создание нового отчета");
+    public String createAndRedirect(@RequestParam(defaultValue = "FULL") ReportMode mode) {
+        log.info("GET /reports - запрос отчета [режим: {}]", mode);
 
         try {
-            Report report = reportService.createReport();
-            log.debug("Отчет создан [ID: {}, статус: {}]", report.getId(), report.getStatus());
+            Report report = reportService.requestReport(mode);
+            log.debug("Отчет получен [ID: {}, статус: {}]", report.getId(), report.getStatus());
 
-            reportService.generateReportAsync(report.getId());
-            log.info("Запущено асинхронное формирование отчета [ID: {}]", report.getId());
+            if (report.getStatus() != ReportStatus.COMPLETED) {
+                // Для уже формирующегося отчета взятие в работу не пройдет, и он продолжит формироваться
+                reportService.generateReportAsync(report.getId());
+                log.info("Запущено асинхронное формирование отчета [ID: {}]", report.getId());
+            }
 
             return "redirect:/reports/" + report.getId();
         } catch (Exception e) {
@@ -39,27 +57,60 @@ public class ReportController {
         }
     }
 
+    /**
+     * Последний сформированный отчет (например, сформированный по расписанию) без ожидания формирования
+     */
+    @GetMapping("/latest")
+    public String latest() {
+        Optional<Long> latestId = reportService.findLatestCompletedId();
+        log.debug("GET /reports/latest - последний сформированный отчет: {}", latestId);
+
+        return latestId.map(id -> "redirect:/reports/" + id)
+                .orElse("redirect:/reports");
+    }
+
+    /**
+     * История запусков формирования отчетов
+     */
+    @GetMapping("/history")
+    public String history(Model model) {
+        log.debug("GET /reports/history - история запусков формирования отчетов");
+
+        model.addAttribute("runs", reportService.getRunHistory());
+        return "report/history";
+    }
+
     @GetMapping("/{id}")
     public String getReport(@PathVariable Long id, Model model) {
         log.debug("GET /reports/{} - получение отчета", id);
 
         try {
-            Report report = reportService.getReport(id);
+            ReportStatusDto report = reportService.getReportStatus(id);
             log.debug("Статус отчета [ID: {}]: {}", id, report.getStatus());
 
             model.addAttribute("reportId", id);
 
             if (report.getStatus() == ReportStatus.CREATED) {
                 model.addAttribute("status", "CREATED");
+                model.addAttribute("message", "Отчёт ожидает в очереди...");
+                log.debug("Отчет в очереди на формирование [ID: {}]", id);
+            } else if (report.getStatus() == ReportStatus.RUNNING) {
+                model.addAttribute("status", "RUNNING");
+                model.addAttribute("progress", report.getProgress() != null ? report.getProgress() : 0);
                 model.addAttribute("message", "Отчёт формируется...");
-                log.debug("Отчет в процессе формирования [ID: {}]", id);
+                log.debug("Отчет в процессе формирования [ID: {}, прогресс: {}%]", id, report.getProgress());
+            } else if (report.getStatus() == ReportStatus.CANCELLED) {
+                model.addAttribute("status", "CANCELLED");
+                model.addAttribute("message", "Формирование отчёта отменено");
+                log.debug("Отчет отменен [ID: {}]", id);
             } else if (report.getStatus() == ReportStatus.ERROR) {
                 model.addAttribute("status", "ERROR");
-                model.addAttribute("message", "Ошибка при формировании отчёта");
+                model.addAttribute("message", report.getErrorMessage() != null
+                        ? "Ошибка при формировании отчёта: " + report.getErrorMessage()
+                        : "Ошибка при формировании отчёта");
                 log.warn("Ошибка формирования отчета [ID: {}]", id);
             } else {
                 model.addAttribute("status", "COMPLETED");
-                model.addAttribute("reportHtml", report.getContent());
                 log.debug("Отчет успешно сформирован [ID: {}]", id);
             }
 
@@ -69,4 +120,77 @@ public class ReportController {
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Состояние формирования отчета для опроса со страницы отчета
+     */
+    @GetMapping("/{id}/status")
+    @ResponseBody
+    public ResponseEntity<ReportStatusDto> getReportStatus(@PathVariable Long id) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(reportService.getReportStatus(id));
+    }
+
+    @PostMapping("/{id}/cancel")
+    public String cancelReport(@PathVariable Long id) {
+        log.info("POST /reports/{}/cancel - отмена формирования отчета", id);
+
+        boolean cancelled = reportService.cancelReport(id);
+        log.debug("Результат отмены отчета [ID: {}]: {}", id, cancelled);
+
+        return "redirect:/reports/" + id;
+    }
+
+    /**
+     * Содержимое отчета
+     *
+     * <p>
+     * Клиенту, принимающему gzip, хранимые сжатые байты отдаются как есть с {@code Content-Encoding: gzip};
+     * остальным содержимое распаковывается на лету. В обоих случаях поддерживаются запросы диапазонов (Range).
+     * ETag позволяет браузеру не загружать неизменившийся отчет повторно (ответ 304).
+     * </p>
+     */
+    @GetMapping("/{id}/content")
+    public ResponseEntity<Resource> getReportContent(@PathVariable Long id,
+                                                     @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING,
+                                                             required = false) String acceptEncoding) {
+        log.debug("GET /reports/{}/content - выгрузка содержимого отчета", id);
+
+        Optional<ReportContentResource> found = reportService.findContent(id);
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        ReportContentResource content = found.get();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        if (acceptsGzip(acceptEncoding)) {
+            return response
+                    .eTag(content.getEtag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(content);
+        }
+
+        return response
+                .eTag(content.getEtag() + "-identity")
+                .body(content.inflated());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].strip();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
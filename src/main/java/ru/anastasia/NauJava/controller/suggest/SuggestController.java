@@ -0,0 +1,43 @@
+package ru.anastasia.NauJava.controller.suggest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.anastasia.NauJava.dto.suggest.SuggestIndexStats;
+import ru.anastasia.NauJava.dto.suggest.SuggestionDto;
+import ru.anastasia.NauJava.service.suggest.SuggestService;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/suggest")
+@RequiredArgsConstructor
+public class SuggestController {
+
+    /**
+     * Сервис подсказок быстрого поиска
+     */
+    private final SuggestService suggestService;
+
+    /**
+     * Число подсказок по умолчанию
+     */
+    private static final String DEFAULT_LIMIT = "10";
+
+    @GetMapping
+    public List<SuggestionDto> suggest(@RequestParam(value = "q", defaultValue = "") String query,
+                                       @RequestParam(value = "limit", defaultValue = DEFAULT_LIMIT) int limit) {
+        log.debug("GET /api/suggest - подсказки [q: {}, limit: {}]", query, limit);
+        return suggestService.suggest(query, limit);
+    }
+
+    @GetMapping("/stats")
+    public SuggestIndexStats stats() {
+        log.info("GET /api/suggest/stats - статистика индекса быстрого поиска");
+        return suggestService.getStats();
+    }
+}
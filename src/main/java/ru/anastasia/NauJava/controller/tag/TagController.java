@@ -41,6 +41,7 @@ public class TagController {
         try {
             List<Tag> tags = tagService.findAll();
             model.addAttribute("tags", tags);
+            model.addAttribute("contactCounts", tagService.countContactsByTag());
             log.debug("Загружено тегов: {}", tags.size());
             return "tag/list";
         } catch (Exception e) {
@@ -0,0 +1,75 @@
+package ru.anastasia.NauJava.dto.contact;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO массовой операции над контактами
+ *
+ * <p>
+ * Все заданные действия выполняются в одной транзакции над одним набором контактов.
+ * Незаданные (null или пустые) действия пропускаются.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContactBulkDto {
+    /**
+     * Максимальное число контактов в одной операции
+     */
+    public static final int MAX_CONTACTS = 10_000;
+
+    /**
+     * Идентификаторы контактов
+     */
+    @NotEmpty(message = "Не выбраны контакты")
+    @Size(max = MAX_CONTACTS, message = "Слишком много контактов в одной операции")
+    @Builder.Default
+    private List<Long> contactIds = new ArrayList<>();
+
+    /**
+     * Новое значение признака избранного
+     */
+    private Boolean favorite;
+
+    /**
+     * Идентификаторы привязываемых тегов
+     */
+    @Builder.Default
+    private List<Long> addTagIds = new ArrayList<>();
+
+    /**
+     * Идентификаторы отвязываемых тегов
+     */
+    @Builder.Default
+    private List<Long> removeTagIds = new ArrayList<>();
+
+    /**
+     * Идентификатор назначаемой компании
+     */
+    private Long companyId;
+
+    /**
+     * Идентификатор должности в назначаемой компании
+     */
+    private Long jobTitleId;
+
+    /**
+     * Является ли назначаемое место работы текущим
+     */
+    private Boolean isCurrent;
+
+    /**
+     * Флаг удаления контактов (остальные действия при этом не выполняются)
+     */
+    private boolean delete;
+}
@@ -0,0 +1,45 @@
+package ru.anastasia.NauJava.dto.contact;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат массовой операции над контактами: число затронутых записей по каждому действию
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContactBulkResultDto {
+    /**
+     * Число различных запрошенных контактов
+     */
+    private int requested;
+
+    /**
+     * Число контактов, у которых изменился признак избранного
+     */
+    private int favoritesUpdated;
+
+    /**
+     * Число созданных связей с тегами
+     */
+    private int tagsAdded;
+
+    /**
+     * Число удаленных связей с тегами
+     */
+    private int tagsRemoved;
+
+    /**
+     * Число созданных связей с компанией
+     */
+    private int companiesAssigned;
+
+    /**
+     * Число удаленных контактов
+     */
+    private int deleted;
+}
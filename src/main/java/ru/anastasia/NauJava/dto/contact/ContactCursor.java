@@ -0,0 +1,90 @@
+package ru.anastasia.NauJava.dto.contact;
+
+import ru.anastasia.NauJava.entity.contact.Contact;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.regex.Pattern;
+
+/**
+ * Курсор постраничной навигации по контактам (keyset-пагинация)
+ *
+ * <p>
+ * Указывает позицию в стабильной сортировке (фамилия, имя, идентификатор) и направление.
+ * Клиент получает курсор в виде непрозрачной строки и передает его обратно без изменений.
+ * </p>
+ *
+ * @param lastName  Фамилия граничного контакта
+ * @param firstName Имя граничного контакта
+ * @param id        Идентификатор граничного контакта
+ * @param backward  Флаг, запрошена ли страница перед граничным контактом
+ */
+public record ContactCursor(String lastName, String firstName, Long id, boolean backward) {
+
+    /**
+     * Разделитель полей курсора (не встречается в именах)
+     */
+    private static final String SEPARATOR = "\u001F";
+
+    private static final String FORWARD = "a";
+
+    private static final String BACKWARD = "b";
+
+    /**
+     * Создать курсор на страницу после контакта
+     *
+     * @param contact Последний контакт текущей страницы
+     * @return Курсор
+     */
+    public static ContactCursor after(Contact contact) {
+        return new ContactCursor(contact.getLastName(), contact.getFirstName(), contact.getId(), false);
+    }
+
+    /**
+     * Создать курсор на страницу перед контактом
+     *
+     * @param contact Первый контакт текущей страницы
+     * @return Курсор
+     */
+    public static ContactCursor before(Contact contact) {
+        return new ContactCursor(contact.getLastName(), contact.getFirstName(), contact.getId(), true);
+    }
+
+    /**
+     * Закодировать курсор в непрозрачную строку
+     *
+     * @return Строка курсора
+     */
+    public String encode() {
+        String raw = String.join(SEPARATOR, backward ? BACKWARD : FORWARD, String.valueOf(id), lastName, firstName);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Раскодировать курсор
+     *
+     * @param value Строка курсора
+     * @return Курсор или null, если строка пустая (первая страница)
+     * @throws IllegalArgumentException если строка не является курсором
+     */
+    public static ContactCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+
+        String[] parts;
+        Long id;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            parts = raw.split(Pattern.quote(SEPARATOR), 4);
+            id = parts.length == 4 ? Long.valueOf(parts[1]) : null;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Некорректный курсор пагинации: " + value, e);
+        }
+
+        if (id == null || !(FORWARD.equals(parts[0]) || BACKWARD.equals(parts[0]))) {
+            throw new IllegalArgumentException("Некорректный курсор пагинации: " + value);
+        }
+        return new ContactCursor(parts[2], parts[3], id, BACKWARD.equals(parts[0]));
+    }
+}
@@ -0,0 +1,66 @@
+package ru.anastasia.NauJava.dto.contactexport;
+
+import ru.anastasia.NauJava.entity.enums.DetailLabel;
+import ru.anastasia.NauJava.entity.enums.DetailType;
+import ru.anastasia.NauJava.entity.enums.EventType;
+import ru.anastasia.NauJava.entity.enums.SocialPlatform;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Контакт со всеми связанными данными для экспорта
+ *
+ * @param id             Идентификатор
+ * @param firstName      Имя
+ * @param lastName       Фамилия
+ * @param displayName    Отображаемое имя
+ * @param favorite       Флаг избранного
+ * @param createdAt      Дата создания
+ * @param updatedAt      Дата обновления
+ * @param details        Способы связи (основные первыми)
+ * @param companies      Места работы (текущие первыми)
+ * @param events         События
+ * @param socialProfiles Профили в социальных сетях
+ * @param tags           Названия тегов
+ * @param notes          Тексты заметок
+ */
+public record ExportedContact(Long id,
+                              String firstName,
+                              String lastName,
+                              String displayName,
+                              boolean favorite,
+                              LocalDateTime createdAt,
+                              LocalDateTime updatedAt,
+                              List<Detail> details,
+                              List<Company> companies,
+                              List<Event> events,
+                              List<SocialProfile> socialProfiles,
+                              List<String> tags,
+                              List<String> notes) {
+
+    /**
+     * Способ связи
+     */
+    public record Detail(DetailType type, DetailLabel label, String value, boolean primary) {
+    }
+
+    /**
+     * Место работы
+     */
+    public record Company(String company, String jobTitle, boolean current) {
+    }
+
+    /**
+     * Событие
+     */
+    public record Event(EventType type, String customName, LocalDate date, String notes, boolean yearly) {
+    }
+
+    /**
+     * Профиль в социальной сети
+     */
+    public record SocialProfile(SocialPlatform platform, String customPlatformName, String username, String url) {
+    }
+}
@@ -0,0 +1,10 @@
+package ru.anastasia.NauJava.dto.contactimport;
+
+/**
+ * Ошибка импорта строки
+ *
+ * @param row     Номер строки в файле
+ * @param message Описание ошибки
+ */
+public record ContactImportRowErrorDto(long row, String message) {
+}
@@ -0,0 +1,98 @@
+package ru.anastasia.NauJava.dto.contactimport;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.anastasia.NauJava.entity.enums.ContactImportFormat;
+import ru.anastasia.NauJava.entity.enums.ContactImportState;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Состояние и результат импорта контактов
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContactImportStatusDto {
+    /**
+     * Идентификатор импорта
+     */
+    private UUID id;
+
+    /**
+     * Имя загруженного файла
+     */
+    private String fileName;
+
+    /**
+     * Формат файла
+     */
+    private ContactImportFormat format;
+
+    /**
+     * Состояние
+     */
+    private ContactImportState state;
+
+    /**
+     * Прочитано байт файла
+     */
+    private long bytesRead;
+
+    /**
+     * Размер файла, байт
+     */
+    private long totalBytes;
+
+    /**
+     * Прогресс чтения файла, %
+     */
+    private int percent;
+
+    /**
+     * Прочитано записей
+     */
+    private long rowsRead;
+
+    /**
+     * Импортировано контактов
+     */
+    private long imported;
+
+    /**
+     * Отклонено записей
+     */
+    private long failed;
+
+    /**
+     * Ошибки по строкам (не более заданного числа)
+     */
+    @Builder.Default
+    private List<ContactImportRowErrorDto> errors = new ArrayList<>();
+
+    /**
+     * Флаг, что ошибок больше, чем в списке
+     */
+    private boolean errorsTruncated;
+
+    /**
+     * Сообщение о фатальной ошибке импорта
+     */
+    private String failureMessage;
+
+    /**
+     * Дата и время запуска
+     */
+    private LocalDateTime startedAt;
+
+    /**
+     * Дата и время завершения
+     */
+    private LocalDateTime finishedAt;
+}
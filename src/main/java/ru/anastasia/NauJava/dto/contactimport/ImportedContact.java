@@ -0,0 +1,73 @@
+package ru.anastasia.NauJava.dto.contactimport;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Контакт, прочитанный из файла импорта
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportedContact {
+    /**
+     * Номер строки в файле (для vCard - номер строки начала карточки)
+     */
+    private long row;
+
+    /**
+     * Имя
+     */
+    private String firstName;
+
+    /**
+     * Фамилия
+     */
+    private String lastName;
+
+    /**
+     * Имя для отображения
+     */
+    private String displayName;
+
+    /**
+     * Способы связи
+     */
+    @Builder.Default
+    private List<ImportedDetail> details = new ArrayList<>();
+
+    /**
+     * Название компании
+     */
+    private String company;
+
+    /**
+     * Должность
+     */
+    private String jobTitle;
+
+    /**
+     * Названия тегов
+     */
+    @Builder.Default
+    private Set<String> tags = new LinkedHashSet<>();
+
+    /**
+     * Дата рождения
+     */
+    private LocalDate birthday;
+
+    /**
+     * Заметка
+     */
+    private String note;
+}
@@ -0,0 +1,14 @@
+package ru.anastasia.NauJava.dto.contactimport;
+
+import ru.anastasia.NauJava.entity.enums.DetailLabel;
+import ru.anastasia.NauJava.entity.enums.DetailType;
+
+/**
+ * Способ связи из файла импорта
+ *
+ * @param type  Тип способа связи
+ * @param label Лейбл
+ * @param value Значение
+ */
+public record ImportedDetail(DetailType type, DetailLabel label, String value) {
+}
@@ -0,0 +1,43 @@
+package ru.anastasia.NauJava.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка разностного отчета: измененный или удаленный контакт
+ */
+@Data
+@AllArgsConstructor
+public class ContactChangeRow {
+    /**
+     * Идентификатор контакта
+     */
+    private Long id;
+
+    /**
+     * Имя
+     */
+    private String firstName;
+
+    /**
+     * Фамилия
+     */
+    private String lastName;
+
+    /**
+     * Признак избранного (для удаленного - на момент удаления)
+     */
+    private boolean favorite;
+
+    /**
+     * Вид изменения
+     */
+    private ContactChangeType change;
+
+    /**
+     * Дата изменения или удаления
+     */
+    private LocalDateTime changedAt;
+}
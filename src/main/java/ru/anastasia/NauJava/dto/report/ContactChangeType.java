@@ -0,0 +1,10 @@
+package ru.anastasia.NauJava.dto.report;
+
+/**
+ * Вид изменения контакта в разностном отчете
+ */
+public enum ContactChangeType {
+    ADDED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,21 @@
+package ru.anastasia.NauJava.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Границы идентификаторов контактов, по которым чтение отчета делится на диапазоны
+ */
+@Data
+@AllArgsConstructor
+public class ContactIdRange {
+    /**
+     * Наименьший идентификатор (null, если контактов нет)
+     */
+    private Long minId;
+
+    /**
+     * Наибольший идентификатор (null, если контактов нет)
+     */
+    private Long maxId;
+}
@@ -0,0 +1,14 @@
+package ru.anastasia.NauJava.dto.report;
+
+/**
+ * Проекция контакта для строки отчета
+ */
+public interface ContactReportView {
+    Long getId();
+
+    String getFirstName();
+
+    String getLastName();
+
+    Boolean getIsFavorite();
+}
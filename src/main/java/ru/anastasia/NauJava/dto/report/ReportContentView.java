@@ -0,0 +1,14 @@
+package ru.anastasia.NauJava.dto.report;
+
+import ru.anastasia.NauJava.entity.report.ReportStatus;
+
+/**
+ * Проекция сведений о содержимом отчета
+ */
+public interface ReportContentView {
+    ReportStatus getStatus();
+
+    Long getContentLength();
+
+    String getContentEtag();
+}
@@ -0,0 +1,26 @@
+package ru.anastasia.NauJava.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Строка аналитического раздела отчета: значение разреза и число контактов с ним
+ */
+@Data
+@AllArgsConstructor
+public class ReportGroupRow {
+    /**
+     * Значение разреза (компания, тег, должность, тип способа связи или месяц события)
+     */
+    private String label;
+
+    /**
+     * Число различных контактов
+     */
+    private long contacts;
+
+    /**
+     * Число записей (связей, способов связи или событий)
+     */
+    private long items;
+}
@@ -0,0 +1,33 @@
+package ru.anastasia.NauJava.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.YearMonth;
+
+/**
+ * Прирост контактов за месяц
+ */
+@Data
+@AllArgsConstructor
+public class ReportMonthRow {
+    /**
+     * Месяц
+     */
+    private YearMonth month;
+
+    /**
+     * Создано контактов за месяц
+     */
+    private long created;
+
+    /**
+     * Из них избранных
+     */
+    private long favorites;
+
+    /**
+     * Всего контактов на конец месяца
+     */
+    private long cumulative;
+}
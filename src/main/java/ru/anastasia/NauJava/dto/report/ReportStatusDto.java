@@ -0,0 +1,65 @@
+package ru.anastasia.NauJava.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.anastasia.NauJava.entity.report.ReportStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Состояние формирования отчета без содержимого
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportStatusDto {
+    /**
+     * Идентификатор отчета
+     */
+    private Long id;
+
+    /**
+     * Статус
+     */
+    private ReportStatus status;
+
+    /**
+     * Прогресс формирования в процентах
+     */
+    private Integer progress;
+
+    /**
+     * Число попыток формирования
+     */
+    private Integer attempts;
+
+    /**
+     * Причина ошибки формирования
+     */
+    private String errorMessage;
+
+    /**
+     * Дата создания
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * Дата начала формирования
+     */
+    private LocalDateTime startedAt;
+
+    /**
+     * Дата завершения формирования
+     */
+    private LocalDateTime finishedAt;
+
+    /**
+     * @return true, если отчет еще в очереди или формируется
+     */
+    public boolean isActive() {
+        return status == ReportStatus.CREATED || status == ReportStatus.RUNNING;
+    }
+}
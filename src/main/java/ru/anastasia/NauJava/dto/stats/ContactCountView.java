@@ -0,0 +1,16 @@
+package ru.anastasia.NauJava.dto.stats;
+
+/**
+ * Число контактов, связанных с записью справочника
+ */
+public interface ContactCountView {
+    /**
+     * Идентификатор записи справочника
+     */
+    Long getId();
+
+    /**
+     * Число связей с контактами
+     */
+    Long getContacts();
+}
@@ -0,0 +1,14 @@
+package ru.anastasia.NauJava.dto.suggest;
+
+/**
+ * Проекция имен контакта для построения индекса быстрого поиска
+ */
+public interface ContactNameView {
+    Long getId();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getDisplayName();
+}
@@ -0,0 +1,10 @@
+package ru.anastasia.NauJava.dto.suggest;
+
+/**
+ * Проекция "идентификатор - название" для построения индекса быстрого поиска
+ */
+public interface NamedEntityView {
+    Long getId();
+
+    String getName();
+}
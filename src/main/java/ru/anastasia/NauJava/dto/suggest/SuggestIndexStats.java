@@ -0,0 +1,40 @@
+package ru.anastasia.NauJava.dto.suggest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Статистика индекса быстрого поиска
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestIndexStats {
+    /**
+     * Число проиндексированных записей
+     */
+    private int documents;
+
+    /**
+     * Число различных n-грамм
+     */
+    private int grams;
+
+    /**
+     * Суммарная длина списков вхождений
+     */
+    private long postings;
+
+    /**
+     * Оценка занимаемой индексом памяти кучи, байт
+     */
+    private long estimatedHeapBytes;
+
+    /**
+     * Длительность последнего полного построения, мс
+     */
+    private long lastRebuildMillis;
+}
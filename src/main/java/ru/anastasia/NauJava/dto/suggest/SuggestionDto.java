@@ -0,0 +1,31 @@
+package ru.anastasia.NauJava.dto.suggest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.anastasia.NauJava.entity.enums.SuggestionType;
+
+/**
+ * Подсказка быстрого поиска
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDto {
+    /**
+     * Тип найденной сущности
+     */
+    private SuggestionType type;
+
+    /**
+     * Идентификатор найденной сущности
+     */
+    private Long id;
+
+    /**
+     * Отображаемый текст
+     */
+    private String label;
+}
@@ -1,13 +1,16 @@
 package ru.anastasia.NauJava.entity.company;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
@@ -17,6 +20,10 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.anastasia.NauJava.service.stats.DashboardCounterEntityListener;
+import ru.anastasia.NauJava.service.suggest.SuggestIndexEntityListener;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -26,6 +33,9 @@ import java.util.Set;
  * Компания
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "companies")
+@EntityListeners({SuggestIndexEntityListener.class, DashboardCounterEntityListener.class})
 @Table(
         name = "companies",
         uniqueConstraints = {
@@ -44,7 +54,8 @@ public class Company {
      * Идентификатор
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "companies_seq")
+    @SequenceGenerator(name = "companies_seq", sequenceName = "companies_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     @ToString.Include
     private Long id;
@@ -1,12 +1,15 @@
 package ru.anastasia.NauJava.entity.company;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
@@ -16,6 +19,9 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.anastasia.NauJava.service.suggest.SuggestIndexEntityListener;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -24,6 +30,9 @@ import java.util.Set;
  * Должность
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "job-titles")
+@EntityListeners(SuggestIndexEntityListener.class)
 @Table(
         name = "job_titles",
         uniqueConstraints = {
@@ -42,7 +51,8 @@ public class JobTitle {
      * Идентификатор
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "job_titles_seq")
+    @SequenceGenerator(name = "job_titles_seq", sequenceName = "job_titles_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     @ToString.Include
     private Long id;
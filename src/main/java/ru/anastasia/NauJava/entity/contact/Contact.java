@@ -1,14 +1,18 @@
 package ru.anastasia.NauJava.entity.contact;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
@@ -18,11 +22,15 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.anastasia.NauJava.entity.company.ContactCompany;
 import ru.anastasia.NauJava.entity.event.Event;
 import ru.anastasia.NauJava.entity.note.Note;
 import ru.anastasia.NauJava.entity.socialprofile.SocialProfile;
 import ru.anastasia.NauJava.entity.tag.ContactTag;
+import ru.anastasia.NauJava.service.stats.DashboardCounterEntityListener;
+import ru.anastasia.NauJava.service.suggest.SuggestIndexEntityListener;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -30,8 +38,17 @@ import java.util.List;
 
 /**
  * Контакт
+ *
+ * <p>
+ * Контакт, его дочерние сущности и коллекции хранятся в кэше второго уровня: повторный просмотр
+ * карточки не обращается к БД. Коллекции упорядочены по идентификатору, чтобы порядок элементов
+ * не зависел от того, загружена коллекция из БД или из кэша.
+ * </p>
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contacts")
+@EntityListeners({SuggestIndexEntityListener.class, DashboardCounterEntityListener.class})
 @Table(name = "contacts")
 @Getter
 @Setter
@@ -45,7 +62,8 @@ public class Contact {
      * Идентификатор
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contacts_seq")
+    @SequenceGenerator(name = "contacts_seq", sequenceName = "contacts_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     @ToString.Include
     private Long id;
@@ -97,6 +115,8 @@ public class Contact {
      * Компании
      */
     @OneToMany(mappedBy = "contact", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contacts.companies")
     @Builder.Default
     @Setter(AccessLevel.NONE)
     private List<ContactCompany> companies = new ArrayList<>();
@@ -105,6 +125,8 @@ public class Contact {
      * Способы связи
      */
     @OneToMany(mappedBy = "contact", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contacts.contactDetails")
     @Builder.Default
     @Setter(AccessLevel.NONE)
     private List<ContactDetail> contactDetails = new ArrayList<>();
@@ -113,6 +135,8 @@ public class Contact {
      * Профили в соцсетях
      */
     @OneToMany(mappedBy = "contact", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contacts.socialProfiles")
     @Builder.Default
     @Setter(AccessLevel.NONE)
     private List<SocialProfile> socialProfiles = new ArrayList<>();
@@ -121,6 +145,8 @@ public class Contact {
      * События
      */
     @OneToMany(mappedBy = "contact", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contacts.events")
     @Builder.Default
     @Setter(AccessLevel.NONE)
     private List<Event> events = new ArrayList<>();
@@ -129,6 +155,8 @@ public class Contact {
      * Заметки
      */
     @OneToMany(mappedBy = "contact", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contacts.notes")
     @Builder.Default
     @Setter(AccessLevel.NONE)
     private List<Note> notes = new ArrayList<>();
@@ -137,6 +165,8 @@ public class Contact {
      * Теги
      */
     @OneToMany(mappedBy = "contact", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contacts.contactTags")
     @Builder.Default
     @Setter(AccessLevel.NONE)
     private List<ContactTag> contactTags = new ArrayList<>();
@@ -0,0 +1,25 @@
+package ru.anastasia.NauJava.entity.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Формат файла экспорта контактов
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ContactExportFormat {
+    CSV("text/csv", "csv"),
+    VCARD("text/vcard", "vcf"),
+    JSONL("application/x-ndjson", "jsonl");
+
+    /**
+     * MIME-тип файла
+     */
+    private final String mediaType;
+
+    /**
+     * Расширение файла
+     */
+    private final String extension;
+}
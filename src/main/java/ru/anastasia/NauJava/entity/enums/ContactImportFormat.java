@@ -0,0 +1,21 @@
+package ru.anastasia.NauJava.entity.enums;
+
+import java.util.Locale;
+
+/**
+ * Формат файла импорта контактов
+ */
+public enum ContactImportFormat {
+    CSV, VCARD;
+
+    /**
+     * Определить формат по имени файла (.vcf и .vcard - vCard, остальные - CSV)
+     *
+     * @param fileName Имя файла
+     * @return Формат файла
+     */
+    public static ContactImportFormat byFileName(String fileName) {
+        String lower = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".vcf") || lower.endsWith(".vcard") ? VCARD : CSV;
+    }
+}
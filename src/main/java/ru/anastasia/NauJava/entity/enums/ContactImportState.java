@@ -0,0 +1,8 @@
+package ru.anastasia.NauJava.entity.enums;
+
+/**
+ * Состояние импорта контактов
+ */
+public enum ContactImportState {
+    QUEUED, RUNNING, COMPLETED, FAILED
+}
@@ -0,0 +1,8 @@
+package ru.anastasia.NauJava.entity.enums;
+
+/**
+ * Тип подсказки быстрого поиска
+ */
+public enum SuggestionType {
+    CONTACT, COMPANY, JOB_TITLE, TAG
+}
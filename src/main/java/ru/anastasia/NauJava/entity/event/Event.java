@@ -1,5 +1,6 @@
 package ru.anastasia.NauJava.entity.event;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -10,7 +11,9 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -18,6 +21,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.anastasia.NauJava.entity.contact.Contact;
 import ru.anastasia.NauJava.entity.enums.EventType;
 
@@ -27,6 +32,8 @@ import java.time.LocalDate;
  * Событие
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "events")
 @Table(name = "events")
 @Getter
 @Setter
@@ -40,7 +47,8 @@ public class Event {
      * Идентификатор
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "events_seq")
+    @SequenceGenerator(name = "events_seq", sequenceName = "events_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     @ToString.Include
     private Long id;
@@ -71,6 +79,20 @@ public class Event {
     @Column(name = "event_date", nullable = false)
     private LocalDate eventDate;
 
+    /**
+     * Месяц и день события в виде числа MMdd (например, 1231 для 31 декабря)
+     *
+     * <p>
+     * Вычисляемый столбец БД для индексируемого поиска ежегодных дат без учета года.
+     * Только для чтения в запросах: в загруженной сущности обновляется лишь при повторном чтении.
+     * </p>
+     */
+    @Column(name = "month_day", insertable = false, updatable = false,
+            columnDefinition = "integer GENERATED ALWAYS AS " +
+                    "(CAST(EXTRACT(MONTH FROM event_date) * 100 + EXTRACT(DAY FROM event_date) AS integer)) STORED")
+    @Setter(AccessLevel.NONE)
+    private Integer monthDay;
+
     /**
      * Заметка
      */
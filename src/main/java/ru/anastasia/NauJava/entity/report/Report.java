@@ -49,10 +49,34 @@ public class Report {
     private ReportStatus status = ReportStatus.CREATED;
 
     /**
-     * Контент
+     * Режим формирования
      */
-    @Column(columnDefinition = "TEXT")
-    private String content;
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    @Builder.Default
+    private ReportMode mode = ReportMode.FULL;
+
+    /**
+     * Предыдущий отчет, от которого считаются изменения (для разностного отчета)
+     */
+    @Column(name = "base_report_id")
+    private Long baseReportId;
+
+    /**
+     * Прогресс формирования в процентах
+     */
+    @Builder.Default
+    private Integer progress = 0;
+
+    /**
+     * Причина ошибки формирования
+     *
+     * <p>
+     * Содержимое отчета хранится частями в {@link ReportChunk}.
+     * </p>
+     */
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
 
     /**
      * Дата создания
@@ -60,4 +84,76 @@ public class Report {
     @Column(name = "created_at")
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
+
+    /**
+     * Дата начала формирования
+     */
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    /**
+     * Дата завершения формирования (успешного, с ошибкой или отмены)
+     */
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    /**
+     * Размер сжатого содержимого в байтах
+     */
+    @Column(name = "content_length")
+    private Long contentLength;
+
+    /**
+     * Хеш SHA-256 сжатого содержимого (ETag)
+     */
+    @Column(name = "content_etag", length = 64)
+    private String contentEtag;
+
+    /**
+     * Версия данных на момент запроса отчета
+     */
+    @Column(name = "data_version", length = 32)
+    private String dataVersion;
+
+    /**
+     * Отметка времени, на которую сформирован отчет: изменения после нее попадут в следующий разностный отчет
+     */
+    @Column(name = "watermark")
+    private LocalDateTime watermark;
+
+    /**
+     * Число контактов на момент отметки
+     */
+    @Column(name = "contact_count")
+    private Long contactCount;
+
+    /**
+     * Число избранных контактов на момент отметки
+     */
+    @Column(name = "favorite_count")
+    private Long favoriteCount;
+
+    /**
+     * Число попыток формирования
+     */
+    @Builder.Default
+    private Integer attempts = 0;
+
+    /**
+     * Узел, формирующий отчет
+     */
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    /**
+     * Срок аренды: если узел не продлил ее до этого времени, отчет может взять другой узел
+     */
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    /**
+     * Дата последнего продления аренды
+     */
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
 }
\ No newline at end of file
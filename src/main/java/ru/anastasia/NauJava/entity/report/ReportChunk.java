@@ -0,0 +1,73 @@
+package ru.anastasia.NauJava.entity.report;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * Часть содержимого отчета
+ *
+ * <p>
+ * Содержимое отчета хранится одним потоком gzip, разрезанным на части фиксированного размера в порядке
+ * {@link #seq}: части записываются по мере формирования и отдаются клиенту как есть, без распаковки,
+ * поэтому ни при формировании, ни при просмотре содержимое целиком в памяти не держится.
+ * </p>
+ */
+@Entity
+@Table(name = "report_chunks", indexes = {
+        @Index(name = "ux_report_chunks_report_seq", columnList = "report_id, seq", unique = true)
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(onlyExplicitlyIncluded = true)
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class ReportChunk {
+    /**
+     * Идентификатор
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    @ToString.Include
+    private Long id;
+
+    /**
+     * Отчет
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "report_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Report report;
+
+    /**
+     * Порядковый номер части
+     */
+    @Column(nullable = false)
+    @ToString.Include
+    private Integer seq;
+
+    /**
+     * Сжатые байты части
+     */
+    @Column(name = "data")
+    private byte[] data;
+}
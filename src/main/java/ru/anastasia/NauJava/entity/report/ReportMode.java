@@ -0,0 +1,16 @@
+package ru.anastasia.NauJava.entity.report;
+
+/**
+ * Режим формирования отчета
+ */
+public enum ReportMode {
+    /**
+     * Полный отчет по всем контактам
+     */
+    FULL,
+
+    /**
+     * Изменения контактов с предыдущего сформированного отчета
+     */
+    DELTA
+}
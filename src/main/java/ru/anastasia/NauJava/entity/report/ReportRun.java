@@ -0,0 +1,121 @@
+package ru.anastasia.NauJava.entity.report;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запуск формирования отчета
+ *
+ * <p>
+ * История запусков хранится отдельно от отчетов и не ссылается на них внешним ключом, поэтому переживает
+ * удаление отчетов по сроку хранения и позволяет следить за временем формирования по мере роста данных.
+ * </p>
+ */
+@Entity
+@Table(name = "report_runs", indexes = {
+        @Index(name = "idx_report_runs_finished", columnList = "finished_at")
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(onlyExplicitlyIncluded = true)
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class ReportRun {
+    /**
+     * Идентификатор
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    @ToString.Include
+    private Long id;
+
+    /**
+     * Идентификатор отчета
+     */
+    @Column(name = "report_id", nullable = false)
+    @ToString.Include
+    private Long reportId;
+
+    /**
+     * Режим формирования
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10, nullable = false)
+    private ReportMode mode;
+
+    /**
+     * Итоговый статус: COMPLETED, ERROR или CANCELLED
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @ToString.Include
+    private ReportStatus status;
+
+    /**
+     * Узел, формировавший отчет
+     */
+    @Column(length = 100)
+    private String node;
+
+    /**
+     * Дата начала формирования
+     */
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    /**
+     * Дата завершения формирования
+     */
+    @Column(name = "finished_at", nullable = false)
+    private LocalDateTime finishedAt;
+
+    /**
+     * Время формирования в миллисекундах
+     */
+    @Column(name = "duration_ms", nullable = false)
+    @ToString.Include
+    private Long durationMs;
+
+    /**
+     * Число контактов в отчете
+     */
+    @Column(name = "contact_count")
+    private Long contactCount;
+
+    /**
+     * Число записанных строк
+     */
+    @Column(name = "row_count")
+    private Long rowCount;
+
+    /**
+     * Размер сжатого содержимого в байтах
+     */
+    @Column(name = "content_length")
+    private Long contentLength;
+
+    /**
+     * Причина ошибки
+     */
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+}
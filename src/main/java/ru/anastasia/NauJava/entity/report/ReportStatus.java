@@ -2,6 +2,8 @@ package ru.anastasia.NauJava.entity.report;
 
 public enum ReportStatus {
     CREATED,
+    RUNNING,
     COMPLETED,
-    ERROR
-}
\ No newline at end of file
+    ERROR,
+    CANCELLED
+}
@@ -8,6 +8,9 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.anastasia.NauJava.service.suggest.SuggestIndexEntityListener;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -16,6 +19,9 @@ import java.util.Set;
  * Тег
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tags")
+@EntityListeners(SuggestIndexEntityListener.class)
 @Table(name = "tags",
         uniqueConstraints = {
                 @UniqueConstraint(columnNames = "name", name = "uk_tags_name")
@@ -32,7 +38,8 @@ public class Tag {
      * Идентификатор
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tags_seq")
+    @SequenceGenerator(name = "tags_seq", sequenceName = "tags_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     @ToString.Include
     private Long id;
@@ -4,6 +4,7 @@ import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -19,6 +20,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import ru.anastasia.NauJava.service.stats.DashboardCounterEntityListener;
 
 import java.util.List;
 
@@ -26,6 +28,7 @@ import java.util.List;
  * Пользователь
  */
 @Entity
+@EntityListeners(DashboardCounterEntityListener.class)
 @Table(name = "users")
 @Getter
 @Setter
@@ -0,0 +1,10 @@
+package ru.anastasia.NauJava.exception.contactimport;
+
+/**
+ * Исключение для неизвестного импорта контактов
+ */
+public class ContactImportNotFoundException extends RuntimeException {
+    public ContactImportNotFoundException(String message) {
+        super(message);
+    }
+}
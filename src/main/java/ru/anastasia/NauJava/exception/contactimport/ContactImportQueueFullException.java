@@ -0,0 +1,10 @@
+package ru.anastasia.NauJava.exception.contactimport;
+
+/**
+ * Исключение для переполненной очереди импорта контактов
+ */
+public class ContactImportQueueFullException extends RuntimeException {
+    public ContactImportQueueFullException(String message) {
+        super(message);
+    }
+}
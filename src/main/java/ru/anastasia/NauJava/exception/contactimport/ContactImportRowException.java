@@ -0,0 +1,23 @@
+package ru.anastasia.NauJava.exception.contactimport;
+
+import lombok.Getter;
+
+/**
+ * Исключение для некорректной строки файла импорта
+ *
+ * <p>
+ * Строка пропускается, импорт продолжается со следующей.
+ * </p>
+ */
+@Getter
+public class ContactImportRowException extends RuntimeException {
+    /**
+     * Номер строки (для vCard - номер строки начала карточки)
+     */
+    private final long row;
+
+    public ContactImportRowException(long row, String message) {
+        super(message);
+        this.row = row;
+    }
+}
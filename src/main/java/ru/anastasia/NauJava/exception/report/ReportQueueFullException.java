@@ -0,0 +1,10 @@
+package ru.anastasia.NauJava.exception.report;
+
+/**
+ * Исключение для переполненной очереди формирования отчетов
+ */
+public class ReportQueueFullException extends RuntimeException {
+    public ReportQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -1,16 +1,22 @@
 package ru.anastasia.NauJava.repository.company;
 
-import org.springframework.data.repository.CrudRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.anastasia.NauJava.dto.suggest.NamedEntityView;
 import ru.anastasia.NauJava.entity.company.Company;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий компаний
  */
 @Repository
-public interface CompanyRepository extends CrudRepository<Company, Long> {
+public interface CompanyRepository extends JpaRepository<Company, Long> {
 
     /**
      * Получить компании по части названия
@@ -19,4 +25,13 @@ public interface CompanyRepository extends CrudRepository<Company, Long> {
      * @return Список компаний
      */
     List<Company> findByNameContainingIgnoreCase(String namePart);
-}
\ No newline at end of file
+
+    /**
+     * Получить названия всех компаний потоком
+     *
+     * @return Поток проекций
+     */
+    @Query("SELECT c.id AS id, c.name AS name FROM Company c")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<NamedEntityView> streamNamesBy();
+}
@@ -1,11 +1,14 @@
 package ru.anastasia.NauJava.repository.company;
 
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.anastasia.NauJava.dto.stats.ContactCountView;
 import ru.anastasia.NauJava.entity.company.ContactCompany;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,8 +34,90 @@ public interface ContactCompanyRepository extends CrudRepository<ContactCompany,
      */
     Long countByCompanyId(Long companyId);
 
+    /**
+     * Подсчитать связи с контактами по компаниям одним запросом
+     *
+     * @return Число связей по идентификатору компании (компании без связей не возвращаются)
+     */
+    @Query("SELECT cc.company.id AS id, COUNT(cc) AS contacts FROM ContactCompany cc GROUP BY cc.company.id")
+    List<ContactCountView> countContactsByCompany();
+
+    /**
+     * Подсчитать связи с контактами по должностям одним запросом
+     *
+     * @return Число связей по идентификатору должности (должности без связей не возвращаются)
+     */
+    @Query("SELECT cc.jobTitle.id AS id, COUNT(cc) AS contacts FROM ContactCompany cc " +
+            "WHERE cc.jobTitle IS NOT NULL GROUP BY cc.jobTitle.id")
+    List<ContactCountView> countContactsByJobTitle();
+
+    /**
+     * Найти места работы нескольких контактов вместе с компанией и должностью
+     *
+     * @param contactIds Идентификаторы контактов
+     * @return Список мест работы, упорядоченный по идентификатору
+     */
+    @Query("SELECT cc FROM ContactCompany cc " +
+            "JOIN FETCH cc.company " +
+            "JOIN FETCH cc.jobTitle " +
+            "WHERE cc.contact.id IN :contactIds " +
+            "ORDER BY cc.id")
+    List<ContactCompany> findWithCompanyAndJobTitleByContactIdIn(@Param("contactIds") Collection<Long> contactIds);
+
     /**
      * Удалить все связи контакта
      */
     void deleteByContactId(Long contactId);
+
+    /**
+     * Удалить связи с компаниями контактов одним запросом
+     *
+     * @param contactIds Идентификаторы контактов
+     * @return Количество удаленных записей
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM contact_companies WHERE contact_id = ANY(:contactIds)", nativeQuery = true)
+    int deleteAllByContactIds(@Param("contactIds") Long[] contactIds);
+
+    /**
+     * Назначить контактам компанию и должность одним запросом
+     *
+     * <p>
+     * Контакты, у которых уже есть такая связь, и несуществующие контакты пропускаются.
+     * </p>
+     *
+     * @param contactIds Идентификаторы контактов
+     * @param companyId  Идентификатор компании
+     * @param jobTitleId Идентификатор должности
+     * @param isCurrent  Является ли место работы текущим
+     * @return Количество созданных связей
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO contact_companies (contact_id, company_id, job_title_id, is_current) " +
+            "SELECT c.id, :companyId, :jobTitleId, :isCurrent FROM contacts c " +
+            "WHERE c.id = ANY(:contactIds) AND NOT EXISTS (SELECT 1 FROM contact_companies cc " +
+            "WHERE cc.contact_id = c.id AND cc.company_id = :companyId AND cc.job_title_id = :jobTitleId)",
+            nativeQuery = true)
+    int insertMissingByContactIds(@Param("contactIds") Long[] contactIds,
+                                  @Param("companyId") Long companyId,
+                                  @Param("jobTitleId") Long jobTitleId,
+                                  @Param("isCurrent") boolean isCurrent);
+
+    /**
+     * Сделать указанное место работы единственным текущим у контактов
+     *
+     * @param contactIds Идентификаторы контактов
+     * @param companyId  Идентификатор компании
+     * @param jobTitleId Идентификатор должности
+     * @return Количество измененных связей
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE contact_companies " +
+            "SET is_current = (company_id = :companyId AND job_title_id = :jobTitleId) " +
+            "WHERE contact_id = ANY(:contactIds) " +
+            "AND is_current IS DISTINCT FROM (company_id = :companyId AND job_title_id = :jobTitleId)",
+            nativeQuery = true)
+    int updateCurrentByContactIds(@Param("contactIds") Long[] contactIds,
+                                  @Param("companyId") Long companyId,
+                                  @Param("jobTitleId") Long jobTitleId);
 }
@@ -1,23 +1,30 @@
 package ru.anastasia.NauJava.repository.company;
 
-import org.springframework.data.repository.CrudRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.anastasia.NauJava.dto.suggest.NamedEntityView;
 import ru.anastasia.NauJava.entity.company.JobTitle;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий должностей
  */
 @Repository
-public interface JobTitleRepository extends CrudRepository<JobTitle, Long> {
+public interface JobTitleRepository extends JpaRepository<JobTitle, Long> {
     /**
-     * Получить должность по названию
+     * Получить должность по названию (результат хранится в кэше запросов Hibernate)
      *
      * @param title Название должности
      * @return Должность
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<JobTitle> findByTitle(String title);
 
     /**
@@ -27,4 +34,13 @@ public interface JobTitleRepository extends CrudRepository<JobTitle, Long> {
      * @return Список должностей
      */
     List<JobTitle> findByTitleContainingIgnoreCase(String titlePart);
+
+    /**
+     * Получить названия всех должностей потоком
+     *
+     * @return Поток проекций
+     */
+    @Query("SELECT j.id AS id, j.title AS name FROM JobTitle j")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<NamedEntityView> streamNamesBy();
 }
@@ -1,5 +1,6 @@
 package ru.anastasia.NauJava.repository.contact;
 
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
@@ -8,6 +9,7 @@ import ru.anastasia.NauJava.entity.contact.ContactDetail;
 import ru.anastasia.NauJava.entity.enums.DetailLabel;
 import ru.anastasia.NauJava.entity.enums.DetailType;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -41,4 +43,23 @@ public interface ContactDetailRepository extends CrudRepository<ContactDetail, L
      */
     @Query("SELECT cd FROM ContactDetail cd WHERE cd.contact.id = :contactId AND cd.isPrimary = true")
     List<ContactDetail> findPrimaryContactDetailsByContactId(@Param("contactId") Long contactId);
+
+    /**
+     * Получить основные способы связи нескольких контактов
+     *
+     * @param contactIds Идентификаторы контактов
+     * @return Список способов связи
+     */
+    @Query("SELECT cd FROM ContactDetail cd WHERE cd.contact.id IN :contactIds AND cd.isPrimary = true ORDER BY cd.id")
+    List<ContactDetail> findPrimaryByContactIdIn(@Param("contactIds") Collection<Long> contactIds);
+
+    /**
+     * Удалить способы связи контактов одним запросом
+     *
+     * @param contactIds Идентификаторы контактов
+     * @return Количество удаленных записей
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM contact_details WHERE contact_id = ANY(:contactIds)", nativeQuery = true)
+    int deleteAllByContactIds(@Param("contactIds") Long[] contactIds);
 }
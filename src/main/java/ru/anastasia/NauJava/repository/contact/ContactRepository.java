@@ -1,15 +1,24 @@
 package ru.anastasia.NauJava.repository.contact;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.anastasia.NauJava.dto.report.ContactIdRange;
+import ru.anastasia.NauJava.dto.report.ContactReportView;
+import ru.anastasia.NauJava.dto.suggest.ContactNameView;
 import ru.anastasia.NauJava.entity.contact.Contact;
 import ru.anastasia.NauJava.repository.contact.custom.ContactRepositoryCustom;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий контактов
@@ -17,6 +26,35 @@ import java.util.List;
 @Repository
 public interface ContactRepository extends JpaRepository<Contact, Long>, ContactRepositoryCustom {
 
+    /**
+     * Условие полнотекстового поиска контактов по имени (запрос обязателен)
+     */
+    String NAME_SEARCH_CONDITION = "(" +
+            "  LOWER(c.first_name) LIKE '%' || LOWER(CAST(:searchTerm AS text)) || '%' OR " +
+            "  LOWER(c.last_name) LIKE '%' || LOWER(CAST(:searchTerm AS text)) || '%' OR " +
+            "  LOWER(c.display_name) LIKE '%' || LOWER(CAST(:searchTerm AS text)) || '%' OR " +
+            "  c.search_vector @@ (websearch_to_tsquery('russian', CAST(:searchTerm AS text)) || " +
+            "                      websearch_to_tsquery('simple', CAST(:searchTerm AS text)))" +
+            ") ";
+
+    /**
+     * Условие фильтрации контактов по компании и тегу (пустой фильтр не ограничивает выборку)
+     */
+    String COMPANY_TAG_FILTER_CONDITION = "(CAST(:companyName AS text) IS NULL OR EXISTS (" +
+            "  SELECT 1 FROM contact_companies cc JOIN companies comp ON comp.id = cc.company_id " +
+            "  WHERE cc.contact_id = c.id " +
+            "  AND LOWER(comp.name) LIKE '%' || LOWER(CAST(:companyName AS text)) || '%')" +
+            ") AND (CAST(:tagName AS text) IS NULL OR EXISTS (" +
+            "  SELECT 1 FROM contact_tags ct JOIN tags t ON t.id = ct.tag_id " +
+            "  WHERE ct.contact_id = c.id " +
+            "  AND LOWER(t.name) LIKE '%' || LOWER(CAST(:tagName AS text)) || '%')" +
+            ") ";
+
+    /**
+     * Условие полнотекстового поиска контактов с фильтрами по компании и тегу
+     */
+    String FULL_TEXT_SEARCH_CONDITION = NAME_SEARCH_CONDITION + "AND " + COMPANY_TAG_FILTER_CONDITION;
+
     /**
      * Получить контакты по имени или фамилии (без учёта регистра)
      *
@@ -72,7 +110,7 @@ public interface ContactRepository extends JpaRepository<Contact, Long>, Contact
     Long countByIsFavoriteTrue();
 
     /**
-     * Получить страницу контактов по имени, фамилии, псевдониму с фильтрами по компании и тегу
+     * Получить страницу контактов по имени, фамилии, псевдониму с фильтрами по компании и тегу (без учёта регистра)
      *
      * @param searchTerm  Поисковый запрос
      * @param companyName Название компании
@@ -87,18 +125,51 @@ public interface ContactRepository extends JpaRepository<Contact, Long>, Contact
             "LEFT JOIN ct.tag t " +
             "WHERE (" +
             "  (:searchTerm IS NULL OR " +
-            "   c.firstName LIKE '%' || CAST(:searchTerm AS text) || '%' OR " +
-            "   c.lastName LIKE '%' || CAST(:searchTerm AS text) || '%' OR " +
-            "   (c.displayName IS NOT NULL AND c.displayName LIKE '%' || CAST(:searchTerm AS text) || '%'))" +
+            "   LOWER(c.firstName) LIKE '%' || LOWER(CAST(:searchTerm AS text)) || '%' OR " +
+            "   LOWER(c.lastName) LIKE '%' || LOWER(CAST(:searchTerm AS text)) || '%' OR " +
+            "   (c.displayName IS NOT NULL AND LOWER(c.displayName) LIKE '%' || LOWER(CAST(:searchTerm AS text)) || '%'))" +
             ") AND " +
-            "(:companyName IS NULL OR comp.name LIKE '%' || CAST(:companyName AS text) || '%') AND " +
-            "(:tagName IS NULL OR t.name LIKE '%' || CAST(:tagName AS text) || '%')")
+            "(:companyName IS NULL OR LOWER(comp.name) LIKE '%' || LOWER(CAST(:companyName AS text)) || '%') AND " +
+            "(:tagName IS NULL OR LOWER(t.name) LIKE '%' || LOWER(CAST(:tagName AS text)) || '%')")
     Page<Contact> searchWithFilters(
             @Param("searchTerm") String searchTerm,
             @Param("companyName") String companyName,
             @Param("tagName") String tagName,
             Pageable pageable);
 
+    /**
+     * Получить страницу контактов по поисковому запросу, упорядоченную по релевантности
+     *
+     * <p>
+     * Подстрока ищется без учёта регистра в имени, фамилии и отображаемом имени через
+     * триграммные GIN-индексы ({@code pg_trgm}), а слова запроса - по полнотекстовому вектору
+     * {@code search_vector} (русский и простой словари). Фильтры по компании и тегу проверяются
+     * через {@code EXISTS}, поэтому {@code DISTINCT} не требуется. Индексы и вектор создаются в {@code schema.sql}.
+     * </p>
+     *
+     * @param searchTerm  Поисковый запрос
+     * @param companyName Название компании
+     * @param tagName     Название тега
+     * @param pageable    Страница
+     * @return Страница контактов
+     */
+    @Query(value = "SELECT c.* FROM contacts c " +
+            "WHERE " + FULL_TEXT_SEARCH_CONDITION +
+            "ORDER BY ts_rank_cd(c.search_vector, " +
+            "           websearch_to_tsquery('russian', CAST(:searchTerm AS text)) || " +
+            "           websearch_to_tsquery('simple', CAST(:searchTerm AS text))) DESC, " +
+            "         GREATEST(similarity(LOWER(c.first_name), LOWER(CAST(:searchTerm AS text))), " +
+            "                  similarity(LOWER(c.last_name), LOWER(CAST(:searchTerm AS text))), " +
+            "                  similarity(LOWER(COALESCE(c.display_name, '')), LOWER(CAST(:searchTerm AS text)))) DESC, " +
+            "         c.id",
+            countQuery = "SELECT COUNT(*) FROM contacts c WHERE " + FULL_TEXT_SEARCH_CONDITION,
+            nativeQuery = true)
+    Page<Contact> fullTextSearch(
+            @Param("searchTerm") String searchTerm,
+            @Param("companyName") String companyName,
+            @Param("tagName") String tagName,
+            Pageable pageable);
+
     /**
      * Получить страницу избранных контактов
      *
@@ -108,48 +179,161 @@ public interface ContactRepository extends JpaRepository<Contact, Long>, Contact
     Page<Contact> findByIsFavoriteTrue(Pageable pageable);
 
     /**
-     * Получить контакты, у которых день рождения попадает в указанный диапазон дат
+     * Получить оценку числа контактов по статистике планировщика (без сканирования таблицы)
+     *
+     * @return Оценочное количество контактов
+     */
+    @Query(value = "SELECT CAST(GREATEST(reltuples, 0) AS bigint) FROM pg_class " +
+            "WHERE oid = CAST('contacts' AS regclass)",
+            nativeQuery = true)
+    Long estimateCount();
+
+    /**
+     * Получить оценку числа избранных контактов по статистике частичного индекса избранных
+     * (без сканирования таблицы)
+     *
+     * @return Оценочное количество избранных контактов
+     */
+    @Query(value = "SELECT CAST(GREATEST(reltuples, 0) AS bigint) FROM pg_class " +
+            "WHERE oid = CAST('idx_contacts_favorite_name_keyset' AS regclass)",
+            nativeQuery = true)
+    Long estimateFavoritesCount();
+
+    /**
+     * Получить контакты, у которых день рождения попадает в диапазон дат без учета года
+     *
+     * <p>
+     * Сравнение идет по вычисляемому столбцу {@code events.month_day}, покрытому индексом.
+     * Диапазон в пределах одного года; окно через новый год разбивается на два вызова.
+     * </p>
+     *
+     * @param from Начало диапазона в виде числа MMdd (включительно)
+     * @param to   Конец диапазона в виде числа MMdd (включительно)
+     * @return Список контактов, у которых день рождения попадает в диапазон
+     *
+     * @example Поиск дней рождения с 20 марта по 25 марта: findWithBirthdayByMonthDayBetween(320, 325)
+     */
+    @Query("SELECT c FROM Contact c WHERE EXISTS (SELECT 1 FROM Event e WHERE e.contact = c " +
+            "AND e.eventType = ru.anastasia.NauJava.entity.enums.EventType.BIRTHDAY " +
+            "AND e.monthDay BETWEEN :from AND :to)")
+    List<Contact> findWithBirthdayByMonthDayBetween(@Param("from") int from, @Param("to") int to);
+
+    /**
+     * Получить имена всех контактов потоком
      *
      * <p>
-     * Метод ищет дни рождения, даты которых (в формате MM-dd) попадают в указанный диапазон,
-     * включая граничные значения. Диапазон предполагается в пределах одного года, без перехода
-     * через новый год.
+     * Используется для построения индекса быстрого поиска: строки читаются курсором порциями,
+     * без загрузки сущностей в контекст персистентности. Требует открытой транзакции.
      * </p>
      *
-     * @param startDate начальная дата диапазона в формате "MM-dd" (например, "12-25")
-     * @param endDate   конечная дата диапазона в формате "MM-dd" (например, "12-31")
-     * @return список контактов, у которых день рождения попадает в указанный диапазон дат
+     * @return Поток проекций
+     */
+    @Query("SELECT c.id AS id, c.firstName AS firstName, c.lastName AS lastName, c.displayName AS displayName FROM Contact c")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<ContactNameView> streamNamesBy();
+
+    /**
+     * Получить идентификаторы существующих контактов из списка
      *
-     * @example Поиск дней рождения с 20 марта по 25 марта: findBirthdaysInRange("03-20", "03-25")
+     * @param ids Идентификаторы контактов
+     * @return Идентификаторы найденных контактов
      */
-    @Query(value = "SELECT DISTINCT c.* FROM contacts c " +
-            "JOIN events e ON c.id = e.contact_id " +
-            "WHERE e.event_type = 'BIRTHDAY' " +
-            "AND TO_CHAR(e.event_date, 'MM-dd') BETWEEN :startDate AND :endDate",
+    @Query(value = "SELECT id FROM contacts WHERE id = ANY(:ids)", nativeQuery = true)
+    List<Long> findExistingIds(@Param("ids") Long[] ids);
+
+    /**
+     * Подсчитать избранные контакты среди указанных
+     *
+     * @param ids Идентификаторы контактов
+     * @return Количество избранных
+     */
+    @Query(value = "SELECT COUNT(*) FROM contacts WHERE id = ANY(:ids) AND is_favorite", nativeQuery = true)
+    long countFavoritesByIds(@Param("ids") Long[] ids);
+
+    /**
+     * Изменить признак избранного у контактов одним запросом
+     *
+     * <p>
+     * Контакты, у которых признак уже имеет нужное значение, не изменяются и не учитываются.
+     * </p>
+     *
+     * @param ids      Идентификаторы контактов
+     * @param favorite Новое значение признака
+     * @return Количество измененных контактов
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE contacts SET is_favorite = :favorite, updated_at = now() " +
+            "WHERE id = ANY(:ids) AND is_favorite IS DISTINCT FROM :favorite",
             nativeQuery = true)
-    List<Contact> findBirthdaysInRange(@Param("startDate") String startDate, @Param("endDate") String endDate);
+    int updateFavoriteByIds(@Param("ids") Long[] ids, @Param("favorite") boolean favorite);
 
     /**
-     * Получить контакты, у которых день рождения в диапазоне, который пересекает границу календарного года
+     * Сохранить отметки об удалении контактов для разностных отчетов
      *
      * <p>
-     * Метод предназначен для поиска дней рождения в диапазонах, которые начинаются в одном году
-     * и заканчиваются в следующем (например, с декабря по январь). Он ищет дни рождения, которые:
+     * Вызывается в той же транзакции до удаления контактов.
      * </p>
-     * <ul>
-     *    <li>Находятся в конце года (начиная с startDate до конца года) <b>ИЛИ</b></li>
-     *    <li>Находятся в начале года (с начала года до endDate)</li>
-     * </ul>
-     *
-     * @param startDate Начальная дата диапазона в формате "MM-dd" (например, "12-20")
-     * @param endDate   Конечная дата диапазона в формате "MM-dd" (например, "01-05")
-     * @return Список контактов, у которых день рождения попадает в указанный диапазон дат
-     * @example Поиск дней рождения с 20 декабря по 5 января: findBirthdaysCrossingYear("12-20", "01-05")
-     */
-    @Query(value = "SELECT DISTINCT c.* FROM contacts c " +
-            "JOIN events e ON c.id = e.contact_id " +
-            "WHERE e.event_type = 'BIRTHDAY' " +
-            "AND (TO_CHAR(e.event_date, 'MM-dd') >= :startDate OR TO_CHAR(e.event_date, 'MM-dd') <= :endDate)",
+     *
+     * @param ids       Идентификаторы удаляемых контактов
+     * @param deletedAt Дата удаления
+     * @return Количество сохраненных отметок
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO contact_tombstones (contact_id, first_name, last_name, was_favorite, created_at, deleted_at) " +
+            "SELECT id, first_name, last_name, COALESCE(is_favorite, false), created_at, :deletedAt " +
+            "FROM contacts WHERE id = ANY(:ids) " +
+            "ON CONFLICT (contact_id) DO UPDATE SET deleted_at = EXCLUDED.deleted_at",
             nativeQuery = true)
-    List<Contact> findBirthdaysCrossingYear(@Param("startDate") String startDate, @Param("endDate") String endDate);
-}
\ No newline at end of file
+    int saveTombstones(@Param("ids") Long[] ids, @Param("deletedAt") LocalDateTime deletedAt);
+
+    /**
+     * Удалить контакты одним запросом
+     *
+     * <p>
+     * Связанные записи должны быть удалены заранее: каскад JPA для массового удаления не выполняется.
+     * </p>
+     *
+     * @param ids Идентификаторы контактов
+     * @return Количество удаленных контактов
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM contacts WHERE id = ANY(:ids)", nativeQuery = true)
+    int deleteAllByIds(@Param("ids") Long[] ids);
+
+    /**
+     * Получить следующую порцию контактов для отчета по ключу (keyset)
+     *
+     * <p>
+     * Порция начинается после контакта {@code afterId} в порядке идентификаторов, поэтому стоимость
+     * запроса не зависит от того, сколько контактов уже прочитано, а между порциями транзакция не держится.
+     * </p>
+     *
+     * @param afterId  Идентификатор последнего прочитанного контакта (0 - с начала)
+     * @param pageable Размер порции (номер страницы не используется)
+     * @return Порция проекций контактов
+     */
+    @Query("SELECT c.id AS id, c.firstName AS firstName, c.lastName AS lastName, c.isFavorite AS isFavorite " +
+            "FROM Contact c WHERE c.id > :afterId ORDER BY c.id")
+    List<ContactReportView> findReportRowsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Получить следующую порцию контактов для отчета внутри диапазона идентификаторов
+     *
+     * @param afterId  Идентификатор последнего прочитанного контакта (нижняя граница диапазона не включается)
+     * @param toId     Верхняя граница диапазона (включается)
+     * @param pageable Размер порции (номер страницы не используется)
+     * @return Порция проекций контактов
+     */
+    @Query("SELECT c.id AS id, c.firstName AS firstName, c.lastName AS lastName, c.isFavorite AS isFavorite " +
+            "FROM Contact c WHERE c.id > :afterId AND c.id <= :toId ORDER BY c.id")
+    List<ContactReportView> findReportRowsInRange(@Param("afterId") long afterId, @Param("toId") long toId,
+                                                  Pageable pageable);
+
+    /**
+     * Получить наименьший и наибольший идентификаторы контактов
+     *
+     * @return Границы идентификаторов (обе null, если контактов нет)
+     */
+    @Query("SELECT new ru.anastasia.NauJava.dto.report.ContactIdRange(MIN(c.id), MAX(c.id)) FROM Contact c")
+    ContactIdRange findIdRange();
+}
@@ -1,8 +1,10 @@
 package ru.anastasia.NauJava.repository.contact.custom;
 
+import ru.anastasia.NauJava.dto.contact.ContactCursor;
 import ru.anastasia.NauJava.entity.contact.Contact;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Кастомный репозиторий контактов
@@ -29,4 +31,50 @@ public interface ContactRepositoryCustom {
      * @return Список контактов
      */
     List<Contact> findByFirstNameAndLastNameOrDisplayNameCriteria(String firstName, String lastName, String displayName);
+
+    /**
+     * Получить контакты после (или перед) позицией курсора в сортировке по фамилии, имени и идентификатору
+     *
+     * <p>
+     * Использует keyset-пагинацию: вместо OFFSET условие сравнивает ключ сортировки с курсором,
+     * поэтому стоимость запроса не растет с номером страницы, а подсчет общего числа не выполняется.
+     * Для курсора назад контакты возвращаются в обратном порядке сортировки.
+     * </p>
+     *
+     * @param searchTerm    Поисковый запрос по имени, фамилии и отображаемому имени
+     * @param companyName   Название компании
+     * @param tagName       Название тега
+     * @param favoritesOnly Флаг, искать ли только среди избранных
+     * @param cursor        Курсор (null - первая страница)
+     * @param limit         Максимальное число контактов
+     * @return Список контактов
+     */
+    List<Contact> findByKeyset(String searchTerm, String companyName, String tagName, boolean favoritesOnly,
+                               ContactCursor cursor, int limit);
+
+    /**
+     * Получить контакт вместе со всеми связанными коллекциями
+     *
+     * <p>
+     * Каждая коллекция загружается отдельным fetch join запросом в один и тот же контекст персистентности:
+     * Hibernate не допускает выборку нескольких List-коллекций (bag) одним запросом, а объединение
+     * дало бы декартово произведение строк. Число запросов фиксировано (шесть) и не зависит от размера коллекций.
+     * Если контакт и все коллекции уже в кэше второго уровня, запросов к БД нет.
+     * </p>
+     *
+     * <p>
+     * Перевести коллекции в Set, чтобы выбрать их двумя запросами, нельзя: равенство дочерних сущностей
+     * определяется только идентификатором, и несохраненные записи без id в множестве совпали бы.
+     * </p>
+     *
+     * <p>
+     * Если контакт и все его коллекции уже в кэше второго уровня, запросы не выполняются:
+     * контакт, коллекции и справочники читаются из кэша.
+     * </p>
+     *
+     * @param id Идентификатор контакта
+     * @return Контакт с инициализированными местами работы (с компаниями и должностями), способами связи,
+     * профилями в соцсетях, событиями, заметками и тегами
+     */
+    Optional<Contact> findAggregateById(Long id);
 }
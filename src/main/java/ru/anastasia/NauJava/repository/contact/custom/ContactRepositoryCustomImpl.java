@@ -4,13 +4,21 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.hibernate.Cache;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Repository;
+import ru.anastasia.NauJava.dto.contact.ContactCursor;
+import ru.anastasia.NauJava.entity.company.ContactCompany;
 import ru.anastasia.NauJava.entity.contact.Contact;
+import ru.anastasia.NauJava.entity.tag.ContactTag;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Кастомный репозиторий контактов
@@ -18,6 +26,23 @@ import java.util.List;
 @Repository
 public class ContactRepositoryCustomImpl implements ContactRepositoryCustom {
 
+    /**
+     * Запросы догрузки коллекций контакта (по одной List-коллекции на запрос)
+     */
+    private static final List<String> AGGREGATE_COLLECTION_QUERIES = List.of(
+            "SELECT c FROM Contact c LEFT JOIN FETCH c.contactDetails cd WHERE c.id = :id ORDER BY cd.id",
+            "SELECT c FROM Contact c LEFT JOIN FETCH c.socialProfiles sp WHERE c.id = :id ORDER BY sp.id",
+            "SELECT c FROM Contact c LEFT JOIN FETCH c.events e WHERE c.id = :id ORDER BY e.id",
+            "SELECT c FROM Contact c LEFT JOIN FETCH c.notes n WHERE c.id = :id ORDER BY n.id",
+            "SELECT c FROM Contact c LEFT JOIN FETCH c.contactTags ct LEFT JOIN FETCH ct.tag WHERE c.id = :id ORDER BY ct.id"
+    );
+
+    /**
+     * Коллекции контакта, загружаемые вместе с ним
+     */
+    private static final List<String> AGGREGATE_COLLECTIONS = List.of(
+            "companies", "contactDetails", "socialProfiles", "events", "notes", "contactTags");
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -69,4 +94,157 @@ public class ContactRepositoryCustomImpl implements ContactRepositoryCustom {
         query.where(finalPredicate);
         return entityManager.createQuery(query).getResultList();
     }
+
+    @Override
+    public List<Contact> findByKeyset(String searchTerm, String companyName, String tagName, boolean favoritesOnly,
+                                      ContactCursor cursor, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Contact> query = cb.createQuery(Contact.class);
+        Root<Contact> contact = query.from(Contact.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+
+        if (favoritesOnly) {
+            predicates.add(cb.isTrue(contact.get("isFavorite")));
+        }
+
+        if (searchTerm != null && !searchTerm.isEmpty()) {
+            String pattern = "%" + searchTerm.toLowerCase() + "%";
+            predicates.add(cb.or(
+                    cb.like(cb.lower(contact.get("firstName")), pattern),
+                    cb.like(cb.lower(contact.get("lastName")), pattern),
+                    cb.like(cb.lower(contact.get("displayName")), pattern)));
+        }
+
+        if (companyName != null && !companyName.isEmpty()) {
+            Subquery<Long> companies = query.subquery(Long.class);
+            Root<ContactCompany> contactCompany = companies.from(ContactCompany.class);
+            companies.select(contactCompany.get("id"))
+                    .where(cb.equal(contactCompany.get("contact"), contact),
+                            cb.like(cb.lower(contactCompany.get("company").get("name")),
+                                    "%" + companyName.toLowerCase() + "%"));
+            predicates.add(cb.exists(companies));
+        }
+
+        if (tagName != null && !tagName.isEmpty()) {
+            Subquery<Long> tags = query.subquery(Long.class);
+            Root<ContactTag> contactTag = tags.from(ContactTag.class);
+            tags.select(contactTag.get("id"))
+                    .where(cb.equal(contactTag.get("contact"), contact),
+                            cb.like(cb.lower(contactTag.get("tag").get("name")),
+                                    "%" + tagName.toLowerCase() + "%"));
+            predicates.add(cb.exists(tags));
+        }
+
+        Path<String> lastName = contact.get("lastName");
+        Path<String> firstName = contact.get("firstName");
+        Path<Long> id = contact.get("id");
+        boolean backward = cursor != null && cursor.backward();
+
+        if (cursor != null) {
+            predicates.add(keysetPredicate(cb, lastName, firstName, id, cursor));
+        }
+
+        query.where(predicates.toArray(new Predicate[0]));
+        if (backward) {
+            query.orderBy(cb.desc(lastName), cb.desc(firstName), cb.desc(id));
+        } else {
+            query.orderBy(cb.asc(lastName), cb.asc(firstName), cb.asc(id));
+        }
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Условие "ключ сортировки строго после (перед) курсором"
+     *
+     * <p>
+     * Раскрывает сравнение кортежей (фамилия, имя, id) в цепочку OR. Дополнительное условие
+     * по фамилии позволяет использовать индекс (last_name, first_name, id) как границу диапазона.
+     * </p>
+     */
+    private Predicate keysetPredicate(CriteriaBuilder cb, Path<String> lastName, Path<String> firstName,
+                                      Path<Long> id, ContactCursor cursor) {
+        if (cursor.backward()) {
+            return cb.and(
+                    cb.lessThanOrEqualTo(lastName, cursor.lastName()),
+                    cb.or(
+                            cb.lessThan(lastName, cursor.lastName()),
+                            cb.and(cb.equal(lastName, cursor.lastName()),
+                                    cb.or(cb.lessThan(firstName, cursor.firstName()),
+                                            cb.and(cb.equal(firstName, cursor.firstName()),
+                                                    cb.lessThan(id, cursor.id()))))));
+        }
+
+        return cb.and(
+                cb.greaterThanOrEqualTo(lastName, cursor.lastName()),
+                cb.or(
+                        cb.greaterThan(lastName, cursor.lastName()),
+                        cb.and(cb.equal(lastName, cursor.lastName()),
+                                cb.or(cb.greaterThan(firstName, cursor.firstName()),
+                                        cb.and(cb.equal(firstName, cursor.firstName()),
+                                                cb.greaterThan(id, cursor.id()))))));
+    }
+
+    @Override
+    public Optional<Contact> findAggregateById(Long id) {
+        if (isAggregateCached(id)) {
+            Contact cached = entityManager.find(Contact.class, id);
+            if (cached != null) {
+                initializeFromCache(cached);
+                return Optional.of(cached);
+            }
+        }
+
+        List<Contact> found = entityManager.createQuery(
+                        "SELECT c FROM Contact c " +
+                                "LEFT JOIN FETCH c.companies cc " +
+                                "LEFT JOIN FETCH cc.company " +
+                                "LEFT JOIN FETCH cc.jobTitle " +
+                                "WHERE c.id = :id ORDER BY cc.id", Contact.class)
+                .setParameter("id", id)
+                .getResultList();
+
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+
+        // Результаты не нужны: запросы инициализируют коллекции уже управляемого экземпляра контакта
+        AGGREGATE_COLLECTION_QUERIES.forEach(query -> entityManager.createQuery(query, Contact.class)
+                .setParameter("id", id)
+                .getResultList());
+
+        return Optional.of(found.getFirst());
+    }
+
+    /**
+     * Находятся ли контакт и все его коллекции в кэше второго уровня
+     */
+    private boolean isAggregateCached(Long id) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class);
+        return cache.containsEntity(Contact.class, id) && AGGREGATE_COLLECTIONS.stream()
+                .allMatch(collection -> cache.containsCollection(Contact.class.getName() + "." + collection, id));
+    }
+
+    /**
+     * Инициализировать коллекции и справочники контакта так же, как запросы догрузки
+     *
+     * <p>
+     * Коллекции и их элементы читаются из кэша второго уровня. Если запись вытеснили после проверки,
+     * она загружается из БД отдельным запросом.
+     * </p>
+     */
+    private static void initializeFromCache(Contact contact) {
+        contact.getCompanies().forEach(company -> {
+            Hibernate.initialize(company.getCompany());
+            Hibernate.initialize(company.getJobTitle());
+        });
+        Hibernate.initialize(contact.getContactDetails());
+        Hibernate.initialize(contact.getSocialProfiles());
+        Hibernate.initialize(contact.getEvents());
+        Hibernate.initialize(contact.getNotes());
+        contact.getContactTags().forEach(contactTag -> Hibernate.initialize(contactTag.getTag()));
+    }
 }
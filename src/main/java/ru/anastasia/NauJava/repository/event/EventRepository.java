@@ -1,6 +1,9 @@
 package ru.anastasia.NauJava.repository.event;
 
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.anastasia.NauJava.entity.enums.EventType;
 import ru.anastasia.NauJava.entity.event.Event;
@@ -78,4 +81,43 @@ public interface EventRepository extends CrudRepository<Event, Long> {
      * @return Да / Нет
      */
     boolean existsByContactIdAndEventTypeAndIdNot(Long contactId, EventType eventType, Long excludedEventId);
+
+    /**
+     * Получить дни рождения (вместе с контактами), месяц и день которых попадают в диапазон
+     *
+     * @param from Начало диапазона в виде числа MMdd (включительно)
+     * @param to   Конец диапазона в виде числа MMdd (включительно)
+     * @return Список дней рождения с загруженными контактами
+     */
+    @Query("SELECT e FROM Event e JOIN FETCH e.contact " +
+            "WHERE e.eventType = ru.anastasia.NauJava.entity.enums.EventType.BIRTHDAY " +
+            "AND e.monthDay BETWEEN :from AND :to")
+    List<Event> findBirthdaysWithContactByMonthDayBetween(@Param("from") int from, @Param("to") int to);
+
+    /**
+     * Получить число дней рождения, месяц и день которых попадают в диапазон
+     *
+     * <p>
+     * Выполняется сканированием только индекса {@code idx_events_type_month_day}: {@code COUNT(*)} не читает
+     * столбцов строки, а {@code COUNT(e)} превратился бы в {@code count(id)}, которого нет в индексе.
+     * </p>
+     *
+     * @param from Начало диапазона в виде числа MMdd (включительно)
+     * @param to   Конец диапазона в виде числа MMdd (включительно)
+     * @return Количество дней рождения
+     */
+    @Query("SELECT COUNT(*) FROM Event e " +
+            "WHERE e.eventType = ru.anastasia.NauJava.entity.enums.EventType.BIRTHDAY " +
+            "AND e.monthDay BETWEEN :from AND :to")
+    long countBirthdaysByMonthDayBetween(@Param("from") int from, @Param("to") int to);
+
+    /**
+     * Удалить события контактов одним запросом
+     *
+     * @param contactIds Идентификаторы контактов
+     * @return Количество удаленных записей
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM events WHERE contact_id = ANY(:contactIds)", nativeQuery = true)
+    int deleteAllByContactIds(@Param("contactIds") Long[] contactIds);
 }
@@ -1,6 +1,9 @@
 package ru.anastasia.NauJava.repository.note;
 
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.anastasia.NauJava.entity.note.Note;
 
@@ -19,4 +22,14 @@ public interface NoteRepository extends CrudRepository<Note, Long> {
      * @return Список заметок
      */
     List<Note> findByContactId(Long contactId);
+
+    /**
+     * Удалить заметки контактов одним запросом
+     *
+     * @param contactIds Идентификаторы контактов
+     * @return Количество удаленных записей
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM notes WHERE contact_id = ANY(:contactIds)", nativeQuery = true)
+    int deleteAllByContactIds(@Param("contactIds") Long[] contactIds);
 }
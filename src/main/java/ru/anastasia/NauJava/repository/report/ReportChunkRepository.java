@@ -0,0 +1,62 @@
+package ru.anastasia.NauJava.repository.report;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.anastasia.NauJava.entity.report.ReportChunk;
+
+import java.util.List;
+
+/**
+ * Репозиторий частей содержимого отчетов
+ */
+@Repository
+public interface ReportChunkRepository extends JpaRepository<ReportChunk, Long> {
+
+    /**
+     * Получить размеры частей отчета по порядку, не загружая их содержимое
+     *
+     * @param reportId Идентификатор отчета
+     * @return Размеры частей в байтах
+     */
+    @Query("SELECT octet_length(c.data) FROM ReportChunk c WHERE c.report.id = :reportId ORDER BY c.seq")
+    List<Integer> findChunkLengthsByReportId(@Param("reportId") Long reportId);
+
+    /**
+     * Получить сжатые байты части отчета
+     *
+     * @param reportId Идентификатор отчета
+     * @param seq      Порядковый номер части
+     * @return Байты части или null, если части нет
+     */
+    @Query("SELECT c.data FROM ReportChunk c WHERE c.report.id = :reportId AND c.seq = :seq")
+    byte[] findDataByReportIdAndSeq(@Param("reportId") Long reportId, @Param("seq") int seq);
+
+    /**
+     * Удалить содержимое отчета
+     *
+     * @param reportId Идентификатор отчета
+     * @return Число удаленных частей
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ReportChunk c WHERE c.report.id = :reportId")
+    int deleteByReportId(@Param("reportId") Long reportId);
+
+    /**
+     * Удалить содержимое отчета, если его не формирует другой узел
+     *
+     * @param reportId   Идентификатор отчета
+     * @param leaseOwner Узел, прекративший формирование
+     * @return Число удаленных частей
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ReportChunk c WHERE c.report.id = :reportId AND NOT EXISTS (" +
+            "SELECT r.id FROM Report r WHERE r.id = :reportId " +
+            "AND r.status = ru.anastasia.NauJava.entity.report.ReportStatus.RUNNING AND r.leaseOwner <> :leaseOwner)")
+    int deleteByReportIdUnlessReclaimed(@Param("reportId") Long reportId, @Param("leaseOwner") String leaseOwner);
+}
@@ -1,13 +1,208 @@
 package ru.anastasia.NauJava.repository.report;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.anastasia.NauJava.dto.report.ReportContentView;
+import ru.anastasia.NauJava.dto.report.ReportStatusDto;
 import ru.anastasia.NauJava.entity.report.Report;
+import ru.anastasia.NauJava.entity.report.ReportMode;
+import ru.anastasia.NauJava.entity.report.ReportStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Репозиторий отчетов
+ *
+ * <p>
+ * Статус меняется условными обновлениями: переход выполняется, только если отчет находится в ожидаемом
+ * статусе, поэтому отмена и завершение формирования в разных потоках не перезаписывают друг друга.
+ * Формирующий узел дополнительно проверяет, что аренда отчета все еще принадлежит ему.
+ * </p>
  */
 @Repository
 public interface ReportRepository extends JpaRepository<Report, Long> {
 
-}
\ No newline at end of file
+    /**
+     * Получить состояние отчета одной строкой по первичному ключу
+     *
+     * @param id Идентификатор отчета
+     * @return Состояние отчета
+     */
+    @Query("SELECT new ru.anastasia.NauJava.dto.report.ReportStatusDto(r.id, r.status, r.progress, r.attempts, " +
+            "r.errorMessage, r.createdAt, r.startedAt, r.finishedAt) FROM Report r WHERE r.id = :id")
+    Optional<ReportStatusDto> findStatusById(@Param("id") Long id);
+
+    /**
+     * Найти последний отчет по той же версии данных
+     *
+     * @param dataVersion Версия данных
+     * @param statuses    Подходящие статусы
+     * @return Отчет с наибольшим идентификатором
+     */
+    Optional<Report> findFirstByDataVersionAndModeAndStatusInOrderByIdDesc(String dataVersion, ReportMode mode,
+                                                                            Collection<ReportStatus> statuses);
+
+    /**
+     * Найти последний сформированный отчет с отметкой, от которой можно считать изменения
+     *
+     * @param status Статус COMPLETED
+     * @return Отчет с наибольшей отметкой
+     */
+    Optional<Report> findFirstByStatusAndWatermarkIsNotNullOrderByWatermarkDescIdDesc(ReportStatus status);
+
+    /**
+     * Сохранить отметку и итоговые числа формирующегося отчета
+     *
+     * @param id            Идентификатор отчета
+     * @param leaseOwner    Узел, формирующий отчет
+     * @param watermark     Отметка времени, на которую сформирован отчет
+     * @param contactCount  Число контактов
+     * @param favoriteCount Число избранных контактов
+     * @return 1, если сохранено; 0, если отчет уже не формируется этим узлом
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Report r SET r.watermark = :watermark, r.contactCount = :contactCount, " +
+            "r.favoriteCount = :favoriteCount " +
+            "WHERE r.id = :id AND r.status = ru.anastasia.NauJava.entity.report.ReportStatus.RUNNING " +
+            "AND r.leaseOwner = :leaseOwner")
+    int saveSnapshot(@Param("id") Long id,
+                     @Param("leaseOwner") String leaseOwner,
+                     @Param("watermark") LocalDateTime watermark,
+                     @Param("contactCount") long contactCount,
+                     @Param("favoriteCount") long favoriteCount);
+
+    /**
+     * Найти последний сформированный отчет
+     *
+     * @return Идентификатор отчета, завершенного последним
+     */
+    @Query("SELECT r.id FROM Report r WHERE r.status = ru.anastasia.NauJava.entity.report.ReportStatus.COMPLETED " +
+            "ORDER BY r.finishedAt DESC, r.id DESC LIMIT 1")
+    Optional<Long> findLatestCompletedId();
+
+    /**
+     * Обновить прогресс формирующегося отчета
+     *
+     * @param id         Идентификатор отчета
+     * @param leaseOwner Узел, формирующий отчет
+     * @param progress   Прогресс в процентах
+     * @return 1, если прогресс обновлен; 0, если отчет уже не формируется этим узлом
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Report r SET r.progress = :progress " +
+            "WHERE r.id = :id AND r.status = ru.anastasia.NauJava.entity.report.ReportStatus.RUNNING " +
+            "AND r.leaseOwner = :leaseOwner")
+    int updateProgress(@Param("id") Long id, @Param("leaseOwner") String leaseOwner, @Param("progress") int progress);
+
+    /**
+     * Получить сведения о содержимом отчета
+     *
+     * @param id Идентификатор отчета
+     * @return Статус, размер и ETag содержимого
+     */
+    @Query("SELECT r.status AS status, r.contentLength AS contentLength, r.contentEtag AS contentEtag " +
+            "FROM Report r WHERE r.id = :id")
+    Optional<ReportContentView> findContentById(@Param("id") Long id);
+
+    /**
+     * Успешно завершить формирование отчета узлом, владеющим арендой
+     *
+     * @param id            Идентификатор отчета
+     * @param leaseOwner    Узел, формирующий отчет
+     * @param contentLength Размер сжатого содержимого в байтах
+     * @param contentEtag   Хеш сжатого содержимого
+     * @param finishedAt    Дата завершения
+     * @return 1, если отчет переведен в COMPLETED; 0, если он отменен или аренда перешла к другому узлу
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Report r SET r.status = ru.anastasia.NauJava.entity.report.ReportStatus.COMPLETED, " +
+            "r.progress = 100, r.errorMessage = NULL, r.contentLength = :contentLength, " +
+            "r.contentEtag = :contentEtag, r.finishedAt = :finishedAt, r.leaseOwner = NULL, r.leaseExpiresAt = NULL " +
+            "WHERE r.id = :id AND r.status = ru.anastasia.NauJava.entity.report.ReportStatus.RUNNING " +
+            "AND r.leaseOwner = :leaseOwner")
+    int complete(@Param("id") Long id,
+                 @Param("leaseOwner") String leaseOwner,
+                 @Param("contentLength") long contentLength,
+                 @Param("contentEtag") String contentEtag,
+                 @Param("finishedAt") LocalDateTime finishedAt);
+
+    /**
+     * Завершить формирование отчета узлом, владеющим арендой
+     *
+     * @param id           Идентификатор отчета
+     * @param leaseOwner   Узел, формирующий отчет
+     * @param to           Новый статус
+     * @param progress     Прогресс в процентах
+     * @param errorMessage Причина ошибки
+     * @param finishedAt   Дата завершения
+     * @return 1, если отчет переведен; 0, если он отменен или аренда перешла к другому узлу
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Report r SET r.status = :to, r.progress = :progress, r.errorMessage = :errorMessage, " +
+            "r.finishedAt = :finishedAt, r.leaseOwner = NULL, r.leaseExpiresAt = NULL " +
+            "WHERE r.id = :id AND r.status = ru.anastasia.NauJava.entity.report.ReportStatus.RUNNING " +
+            "AND r.leaseOwner = :leaseOwner")
+    int finishLease(@Param("id") Long id,
+                    @Param("leaseOwner") String leaseOwner,
+                    @Param("to") ReportStatus to,
+                    @Param("progress") int progress,
+                    @Param("errorMessage") String errorMessage,
+                    @Param("finishedAt") LocalDateTime finishedAt);
+
+    /**
+     * Перевести отчет в конечный статус
+     *
+     * @param id           Идентификатор отчета
+     * @param from         Статусы, из которых допустим переход
+     * @param to           Новый статус
+     * @param progress     Прогресс в процентах
+     * @param errorMessage Причина ошибки
+     * @param finishedAt   Дата завершения
+     * @return 1, если отчет переведен; 0, если он не находится ни в одном из статусов {@code from}
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Report r SET r.status = :to, r.progress = :progress, r.errorMessage = :errorMessage, " +
+            "r.finishedAt = :finishedAt WHERE r.id = :id AND r.status IN :from")
+    int finish(@Param("id") Long id,
+               @Param("from") Collection<ReportStatus> from,
+               @Param("to") ReportStatus to,
+               @Param("progress") int progress,
+               @Param("errorMessage") String errorMessage,
+               @Param("finishedAt") LocalDateTime finishedAt);
+
+    /**
+     * Удалить завершенные отчеты старше заданной даты (части содержимого удаляются каскадно в БД)
+     *
+     * @param statuses Конечные статусы
+     * @param before   Дата завершения, раньше которой отчеты удаляются
+     * @return Число удаленных отчетов
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Report r WHERE r.status IN :statuses AND r.finishedAt < :before")
+    int deleteFinishedBefore(@Param("statuses") Collection<ReportStatus> statuses,
+                             @Param("before") LocalDateTime before);
+
+    /**
+     * Найти сформированные отчеты, не помещающиеся в лимит хранилища (начиная с самых новых)
+     *
+     * @param maxBytes Лимит суммарного размера сжатого содержимого в байтах
+     * @return Идентификаторы самых старых отчетов сверх лимита
+     */
+    @Query(value = "SELECT id FROM (SELECT id, SUM(COALESCE(content_length, 0)) " +
+            "OVER (ORDER BY finished_at DESC, id DESC) AS total FROM reports WHERE status = 'COMPLETED') t " +
+            "WHERE t.total > :maxBytes", nativeQuery = true)
+    List<Long> findCompletedBeyondStorageLimit(@Param("maxBytes") long maxBytes);
+}
@@ -0,0 +1,40 @@
+package ru.anastasia.NauJava.repository.report;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.anastasia.NauJava.entity.report.ReportRun;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Репозиторий истории запусков формирования отчетов
+ */
+@Repository
+public interface ReportRunRepository extends JpaRepository<ReportRun, Long> {
+
+    /**
+     * Получить последние запуски
+     *
+     * @param pageable Число запусков (номер страницы не используется)
+     * @return Запуски, начиная с последнего завершенного
+     */
+    @Query("SELECT r FROM ReportRun r ORDER BY r.finishedAt DESC, r.id DESC")
+    List<ReportRun> findLatest(Pageable pageable);
+
+    /**
+     * Удалить запуски, завершенные раньше заданной даты
+     *
+     * @param before Дата, раньше которой запуски удаляются
+     * @return Число удаленных запусков
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ReportRun r WHERE r.finishedAt < :before")
+    int deleteFinishedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,9 +1,13 @@
 package ru.anastasia.NauJava.repository.socialprofile;
 
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.anastasia.NauJava.entity.socialprofile.SocialProfile;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -18,4 +22,22 @@ public interface SocialProfileRepository extends CrudRepository<SocialProfile, L
      * @return Список профилей в соцсетях
      */
     List<SocialProfile> findByContactId(Long contactId);
+
+    /**
+     * Получить профили в соцсетях нескольких контактов
+     *
+     * @param contactIds Идентификаторы контактов
+     * @return Список профилей в соцсетях
+     */
+    List<SocialProfile> findByContactIdIn(Collection<Long> contactIds);
+
+    /**
+     * Удалить профили в соцсетях контактов одним запросом
+     *
+     * @param contactIds Идентификаторы контактов
+     * @return Количество удаленных записей
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM social_profiles WHERE contact_id = ANY(:contactIds)", nativeQuery = true)
+    int deleteAllByContactIds(@Param("contactIds") Long[] contactIds);
 }
@@ -1,9 +1,14 @@
 package ru.anastasia.NauJava.repository.tag;
 
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.anastasia.NauJava.dto.stats.ContactCountView;
 import ru.anastasia.NauJava.entity.tag.ContactTag;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -27,4 +32,62 @@ public interface ContactTagRepository extends CrudRepository<ContactTag, Long> {
      * @return Да / Нет
      */
     boolean existsByContactIdAndTagId(Long contactId, Long id);
-}
\ No newline at end of file
+
+    /**
+     * Получить связи тегов нескольких контактов вместе с тегами
+     *
+     * @param contactIds Идентификаторы контактов
+     * @return Список связей тегов
+     */
+    @Query("SELECT ct FROM ContactTag ct JOIN FETCH ct.tag WHERE ct.contact.id IN :contactIds ORDER BY ct.id")
+    List<ContactTag> findWithTagByContactIdIn(@Param("contactIds") Collection<Long> contactIds);
+
+    /**
+     * Подсчитать связи с контактами по тегам одним запросом
+     *
+     * @return Число связей по идентификатору тега (теги без связей не возвращаются)
+     */
+    @Query("SELECT ct.tag.id AS id, COUNT(ct) AS contacts FROM ContactTag ct GROUP BY ct.tag.id")
+    List<ContactCountView> countContactsByTag();
+
+    /**
+     * Удалить связи тегов контактов одним запросом
+     *
+     * @param contactIds Идентификаторы контактов
+     * @return Количество удаленных записей
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM contact_tags WHERE contact_id = ANY(:contactIds)", nativeQuery = true)
+    int deleteAllByContactIds(@Param("contactIds") Long[] contactIds);
+
+    /**
+     * Привязать теги к контактам одним запросом
+     *
+     * <p>
+     * Уже существующие связи пропускаются, несуществующие контакты и теги игнорируются.
+     * </p>
+     *
+     * @param contactIds Идентификаторы контактов
+     * @param tagIds     Идентификаторы тегов
+     * @return Количество созданных связей
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO contact_tags (contact_id, tag_id, created_at) " +
+            "SELECT c.id, t.id, now() FROM contacts c CROSS JOIN tags t " +
+            "WHERE c.id = ANY(:contactIds) AND t.id = ANY(:tagIds) " +
+            "ON CONFLICT (contact_id, tag_id) DO NOTHING",
+            nativeQuery = true)
+    int insertAllByContactIdsAndTagIds(@Param("contactIds") Long[] contactIds, @Param("tagIds") Long[] tagIds);
+
+    /**
+     * Отвязать теги от контактов одним запросом
+     *
+     * @param contactIds Идентификаторы контактов
+     * @param tagIds     Идентификаторы тегов
+     * @return Количество удаленных связей
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM contact_tags WHERE contact_id = ANY(:contactIds) AND tag_id = ANY(:tagIds)",
+            nativeQuery = true)
+    int deleteAllByContactIdsAndTagIds(@Param("contactIds") Long[] contactIds, @Param("tagIds") Long[] tagIds);
+}
@@ -1,12 +1,18 @@
 package ru.anastasia.NauJava.repository.tag;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
+import ru.anastasia.NauJava.dto.suggest.NamedEntityView;
 import ru.anastasia.NauJava.entity.tag.Tag;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий тегов
@@ -14,11 +20,12 @@ import java.util.Optional;
 @Repository
 public interface TagRepository extends CrudRepository<Tag, Long> {
     /**
-     * Получить тег по названию
+     * Получить тег по названию (результат хранится в кэше запросов Hibernate)
      *
      * @param name Название
      * @return Тег
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Tag> findByName(String name);
 
     /**
@@ -28,4 +35,13 @@ public interface TagRepository extends CrudRepository<Tag, Long> {
      * @return Список тегов
      */
     List<Tag> getTagsByIdIsIn(Collection<Long> ids);
+
+    /**
+     * Получить названия всех тегов потоком
+     *
+     * @return Поток проекций
+     */
+    @Query("SELECT t.id AS id, t.name AS name FROM Tag t")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<NamedEntityView> streamNamesBy();
 }
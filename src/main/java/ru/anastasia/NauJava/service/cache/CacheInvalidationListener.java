@@ -0,0 +1,161 @@
+package ru.anastasia.NauJava.service.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.anastasia.NauJava.config.AppConfig;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+/**
+ * Слушатель уведомлений PostgreSQL о сбросе кэшей
+ *
+ * <p>
+ * Держит отдельное от пула соединение, подписанное на канал {@value #CHANNEL}, и передает уведомления
+ * {@link CacheInvalidator}. Если уведомлений нет дольше {@code app.cache.invalidation.poll-interval-ms},
+ * соединение проверяется запросом. После обрыва слушатель подключается заново; уведомления, отправленные
+ * без подписки, потеряны, поэтому после каждой подписки локальные кэши сбрасываются полностью.
+ * </p>
+ *
+ * <p>
+ * Узел получает и свои уведомления: записи, которые он только что положил в кэш, сбрасываются один раз
+ * и загружаются заново при следующем чтении. Чтение, начатое на узле до фиксации изменения на другом узле,
+ * может положить в кэш старые данные уже после уведомления; такая запись живет не дольше срока хранения
+ * региона.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class CacheInvalidationListener {
+
+    /**
+     * Канал уведомлений (см. функцию notify_cache_invalidation в schema.sql)
+     */
+    static final String CHANNEL = "cache_invalidation";
+
+    /**
+     * Таймаут сетевых операций соединения слушателя в секундах
+     */
+    private static final int SOCKET_TIMEOUT_SECONDS = 30;
+
+    private final DataSourceProperties dataSourceProperties;
+
+    private final CacheInvalidator cacheInvalidator;
+
+    private final AppConfig appConfig;
+
+    private volatile boolean running;
+
+    /**
+     * Текущее соединение слушателя (закрывается при остановке, чтобы прервать ожидание)
+     */
+    private volatile Connection connection;
+
+    private Thread thread;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!appConfig.isCacheInvalidationEnabled()) {
+            log.info("Сброс кэшей по уведомлениям PostgreSQL отключен");
+            return;
+        }
+        running = true;
+        thread = Thread.ofPlatform().name("cache-invalidation").daemon().start(this::listen);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        Connection current = connection;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (SQLException e) {
+                log.debug("Ошибка закрытия соединения слушателя: {}", e.getMessage());
+            }
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection listenerConnection = connect()) {
+                connection = listenerConnection;
+                try (Statement statement = listenerConnection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                log.info("Слушатель подписан на канал {}", CHANNEL);
+                cacheInvalidator.invalidateAll();
+
+                receive(listenerConnection);
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Соединение слушателя уведомлений потеряно: {}; повтор через {} мс",
+                            e.getMessage(), appConfig.getCacheInvalidationReconnectDelayMs());
+                }
+            } finally {
+                connection = null;
+            }
+
+            if (running) {
+                try {
+                    Thread.sleep(appConfig.getCacheInvalidationReconnectDelayMs());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(Connection listenerConnection) throws SQLException {
+        PGConnection pgConnection = listenerConnection.unwrap(PGConnection.class);
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(
+                    appConfig.getCacheInvalidationPollIntervalMs());
+            if (notifications == null || notifications.length == 0) {
+                // Без этого запроса разрыв сети не обнаружится: ожидание уведомлений просто истекает
+                try (Statement statement = listenerConnection.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+                continue;
+            }
+
+            for (PGNotification notification : notifications) {
+                try {
+                    cacheInvalidator.invalidate(notification.getParameter());
+                } catch (RuntimeException e) {
+                    log.error("Ошибка сброса кэша по уведомлению {}", notification.getParameter(), e);
+                }
+            }
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        String username = dataSourceProperties.determineUsername();
+        String password = dataSourceProperties.determinePassword();
+        if (username != null) {
+            properties.setProperty("user", username);
+        }
+        if (password != null) {
+            properties.setProperty("password", password);
+        }
+        properties.setProperty("ApplicationName", "NauJava cache invalidation");
+        properties.setProperty("socketTimeout", String.valueOf(SOCKET_TIMEOUT_SECONDS));
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+    }
+}
@@ -0,0 +1,181 @@
+package ru.anastasia.NauJava.service.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ru.anastasia.NauJava.config.CacheConfig;
+import ru.anastasia.NauJava.entity.company.Company;
+import ru.anastasia.NauJava.entity.company.ContactCompany;
+import ru.anastasia.NauJava.entity.company.JobTitle;
+import ru.anastasia.NauJava.entity.contact.Contact;
+import ru.anastasia.NauJava.entity.contact.ContactDetail;
+import ru.anastasia.NauJava.entity.event.Event;
+import ru.anastasia.NauJava.entity.note.Note;
+import ru.anastasia.NauJava.entity.socialprofile.SocialProfile;
+import ru.anastasia.NauJava.entity.tag.ContactTag;
+import ru.anastasia.NauJava.entity.tag.Tag;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сброс локальных кэшей по уведомлению об изменении таблицы
+ *
+ * <p>
+ * Уведомление вида {@code таблица.столбец:id,id,...} отправляют триггеры БД после фиксации изменения
+ * на любом узле, в том числе на текущем. По столбцу {@code id} сбрасываются строки кэша второго уровня
+ * Hibernate, по {@code contact_id} - коллекции контакта. Изменение справочника сбрасывает еще и его
+ * список в кэше справочников и кэш запросов Hibernate. Вместо идентификаторов может прийти {@code *}:
+ * тогда сбрасывается весь регион.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class CacheInvalidator {
+
+    /**
+     * Значение уведомления "затронуто слишком много строк" (или импорт изменил справочник)
+     */
+    private static final String ALL = "*";
+
+    /**
+     * Закэшированные сущности по таблицам
+     */
+    private static final Map<String, Class<?>> ENTITIES = Map.of(
+            "contacts", Contact.class,
+            "contact_details", ContactDetail.class,
+            "events", Event.class,
+            "notes", Note.class,
+            "social_profiles", SocialProfile.class,
+            "contact_tags", ContactTag.class,
+            "contact_companies", ContactCompany.class,
+            "companies", Company.class,
+            "job_titles", JobTitle.class,
+            "tags", Tag.class);
+
+    /**
+     * Коллекции контакта по таблицам их элементов
+     */
+    private static final Map<String, String> CONTACT_COLLECTIONS = Map.of(
+            "contact_companies", "companies",
+            "contact_details", "contactDetails",
+            "social_profiles", "socialProfiles",
+            "events", "events",
+            "notes", "notes",
+            "contact_tags", "contactTags");
+
+    /**
+     * Кэши справочников по таблицам
+     */
+    private static final Map<String, String> REFERENCE_CACHES = Map.of(
+            "companies", CacheConfig.COMPANIES,
+            "job_titles", CacheConfig.JOB_TITLES,
+            "tags", CacheConfig.TAGS);
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Сбросить кэши по уведомлению
+     *
+     * @param payload Текст уведомления; если его не удается разобрать, сбрасываются все кэши
+     */
+    void invalidate(String payload) {
+        int dot = payload.indexOf('.');
+        int colon = payload.indexOf(':');
+        if (dot < 0 || colon < dot) {
+            log.warn("Некорректное уведомление о сбросе кэша: {}, кэши сбрасываются полностью", payload);
+            invalidateAll();
+            return;
+        }
+        String table = payload.substring(0, dot);
+        String column = payload.substring(dot + 1, colon);
+
+        List<Long> ids;
+        try {
+            ids = parseIds(payload.substring(colon + 1));
+        } catch (NumberFormatException e) {
+            log.warn("Некорректное уведомление о сбросе кэша: {}, кэши сбрасываются полностью", payload);
+            invalidateAll();
+            return;
+        }
+
+        Cache cache = hibernateCache();
+        if ("id".equals(column)) {
+            Class<?> entity = ENTITIES.get(table);
+            if (entity != null) {
+                evictEntities(cache, entity, ids);
+            }
+            if ("contacts".equals(table)) {
+                CONTACT_COLLECTIONS.values().forEach(collection -> evictContactCollections(cache, collection, ids));
+            }
+            String reference = REFERENCE_CACHES.get(table);
+            if (reference != null) {
+                clearReferenceCache(reference);
+                cache.evictQueryRegions();
+            }
+        } else if ("contact_id".equals(column) && CONTACT_COLLECTIONS.containsKey(table)) {
+            evictContactCollections(cache, CONTACT_COLLECTIONS.get(table), ids);
+        } else {
+            log.debug("Уведомление о сбросе кэша без обработчика: {}", payload);
+            return;
+        }
+        log.trace("Кэш сброшен по уведомлению {}", payload);
+    }
+
+    /**
+     * Сбросить все локальные кэши
+     */
+    void invalidateAll() {
+        hibernateCache().evictAllRegions();
+        cacheManager.getCacheNames().forEach(this::clearReferenceCache);
+        log.info("Локальные кэши сброшены полностью");
+    }
+
+    /**
+     * @return Идентификаторы или null, если затронуты все строки
+     */
+    private static List<Long> parseIds(String value) {
+        if (ALL.equals(value)) {
+            return null;
+        }
+        return Arrays.stream(value.split(","))
+                .map(Long::valueOf)
+                .toList();
+    }
+
+    private static void evictEntities(Cache cache, Class<?> entity, List<Long> ids) {
+        if (ids == null) {
+            cache.evictEntityData(entity);
+            return;
+        }
+        ids.forEach(id -> cache.evictEntityData(entity, id));
+    }
+
+    private static void evictContactCollections(Cache cache, String collection, List<Long> contactIds) {
+        String role = Contact.class.getName() + "." + collection;
+        if (contactIds == null) {
+            cache.evictCollectionData(role);
+            return;
+        }
+        contactIds.forEach(contactId -> cache.evictCollectionData(role, contactId));
+    }
+
+    private void clearReferenceCache(String name) {
+        org.springframework.cache.Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private Cache hibernateCache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+}
@@ -3,6 +3,7 @@ package ru.anastasia.NauJava.service.company;
 import ru.anastasia.NauJava.entity.company.Company;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Сервис компаний
@@ -20,10 +21,17 @@ public interface CompanyService {
     /**
      * Получить все компании
      *
-     * @return Список компаний
+     * @return Неизменяемый список компаний (из кэша справочников)
      */
     List<Company> findAll();
 
+    /**
+     * Подсчитать связи с контактами по компаниям одним запросом
+     *
+     * @return Число связей по идентификатору (записи без связей отсутствуют)
+     */
+    Map<Long, Long> countContactsByCompany();
+
     /**
      * Обновить компанию
      *
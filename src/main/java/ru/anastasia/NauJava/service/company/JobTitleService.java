@@ -3,6 +3,7 @@ package ru.anastasia.NauJava.service.company;
 import ru.anastasia.NauJava.entity.company.JobTitle;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Сервис должностей
@@ -28,10 +29,17 @@ public interface JobTitleService {
     /**
      * Получить все должности
      *
-     * @return Список должностей
+     * @return Неизменяемый список должностей (из кэша справочников)
      */
     List<JobTitle> findAll();
 
+    /**
+     * Подсчитать связи с контактами по должностям одним запросом
+     *
+     * @return Число связей по идентификатору (записи без связей отсутствуют)
+     */
+    Map<Long, Long> countContactsByJobTitle();
+
     /**
      * Обновить должность
      *
@@ -2,17 +2,23 @@ package ru.anastasia.NauJava.service.company.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.anastasia.NauJava.config.CacheConfig;
+import ru.anastasia.NauJava.dto.stats.ContactCountView;
 import ru.anastasia.NauJava.entity.company.Company;
 import ru.anastasia.NauJava.exception.company.CompanyNotFoundException;
 import ru.anastasia.NauJava.exception.company.IllegalCompanyStateException;
 import ru.anastasia.NauJava.repository.company.CompanyRepository;
+import ru.anastasia.NauJava.repository.company.ContactCompanyRepository;
 import ru.anastasia.NauJava.service.company.CompanyService;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -26,13 +32,21 @@ public class CompanyServiceImpl implements CompanyService {
      */
     private final CompanyRepository companyRepository;
 
+    /**
+     * Репозиторий компаний контакта
+     */
+    private final ContactCompanyRepository contactCompanyRepository;
+
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.COMPANIES, allEntries = true)
     public Company create(Company company) {
         log.info("Создание компании [название: {}]", company.getName());
 
         try {
-            Company savedCompany = companyRepository.save(company);
+            // Идентификатор берется из последовательности, и INSERT откладывается до flush: нарушение
+            // уникальности названия нужно получить здесь, а не при фиксации транзакции
+            Company savedCompany = companyRepository.saveAndFlush(company);
             log.info("Компания успешно создана [ID: {}, название: {}]",
                     savedCompany.getId(), savedCompany.getName());
             return savedCompany;
@@ -48,17 +62,26 @@ public class CompanyServiceImpl implements CompanyService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(CacheConfig.COMPANIES)
     public List<Company> findAll() {
         log.debug("Получение списка всех компаний");
 
         List<Company> companies = StreamSupport.stream(companyRepository.findAll().spliterator(), false)
-                .collect(Collectors.toList());
+                .toList();
         log.debug("Найдено компаний: {}", companies.size());
         return companies;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Long> countContactsByCompany() {
+        return contactCompanyRepository.countContactsByCompany().stream()
+                .collect(Collectors.toMap(ContactCountView::getId, ContactCountView::getContacts));
+    }
+
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.COMPANIES, allEntries = true)
     public Company update(Company company) {
         log.info("Обновление компании [ID: {}, название: {}]", company.getId(), company.getName());
 
@@ -90,6 +113,7 @@ public class CompanyServiceImpl implements CompanyService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.COMPANIES, allEntries = true)
     public void delete(Long id) {
         log.info("Удаление компании [ID: {}]", id);
 
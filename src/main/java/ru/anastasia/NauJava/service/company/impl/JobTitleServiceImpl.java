@@ -2,16 +2,22 @@ package ru.anastasia.NauJava.service.company.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.anastasia.NauJava.config.CacheConfig;
+import ru.anastasia.NauJava.dto.stats.ContactCountView;
 import ru.anastasia.NauJava.entity.company.JobTitle;
 import ru.anastasia.NauJava.exception.company.IllegalJobTitleStateException;
 import ru.anastasia.NauJava.exception.company.JobTitleNotFoundException;
+import ru.anastasia.NauJava.repository.company.ContactCompanyRepository;
 import ru.anastasia.NauJava.repository.company.JobTitleRepository;
 import ru.anastasia.NauJava.service.company.JobTitleService;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -24,8 +30,14 @@ public class JobTitleServiceImpl implements JobTitleService {
      */
     private final JobTitleRepository jobTitleRepository;
 
+    /**
+     * Репозиторий компаний контакта
+     */
+    private final ContactCompanyRepository contactCompanyRepository;
+
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.JOB_TITLES, allEntries = true)
     public JobTitle create(String title) {
         log.info("Создание должности [название: {}]", title);
 
@@ -33,7 +45,8 @@ public class JobTitleServiceImpl implements JobTitleService {
             JobTitle jobTitle = JobTitle.builder()
                     .title(title)
                     .build();
-            JobTitle savedJobTitle = jobTitleRepository.save(jobTitle);
+            // INSERT выполняется сразу, чтобы конфликт названия попал в обработчик ниже
+            JobTitle savedJobTitle = jobTitleRepository.saveAndFlush(jobTitle);
             log.info("Должность успешно создана [ID: {}, название: {}]",
                     savedJobTitle.getId(), savedJobTitle.getTitle());
             return savedJobTitle;
@@ -63,17 +76,26 @@ public class JobTitleServiceImpl implements JobTitleService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(CacheConfig.JOB_TITLES)
     public List<JobTitle> findAll() {
         log.debug("Получение списка всех должностей");
 
         List<JobTitle> jobTitles = StreamSupport.stream(jobTitleRepository.findAll().spliterator(), false)
-                .collect(Collectors.toList());
+                .toList();
         log.debug("Найдено должностей: {}", jobTitles.size());
         return jobTitles;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Long> countContactsByJobTitle() {
+        return contactCompanyRepository.countContactsByJobTitle().stream()
+                .collect(Collectors.toMap(ContactCountView::getId, ContactCountView::getContacts));
+    }
+
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.JOB_TITLES, allEntries = true)
     public JobTitle update(JobTitle jobTitle) {
         log.info("Обновление должности [ID: {}, название: {}]", jobTitle.getId(), jobTitle.getTitle());
 
@@ -95,6 +117,7 @@ public class JobTitleServiceImpl implements JobTitleService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.JOB_TITLES, allEntries = true)
     public void delete(Long id) {
         log.info("Удаление должности [ID: {}]", id);
 
@@ -0,0 +1,23 @@
+package ru.anastasia.NauJava.service.contact;
+
+import ru.anastasia.NauJava.dto.contact.ContactBulkDto;
+import ru.anastasia.NauJava.dto.contact.ContactBulkResultDto;
+
+/**
+ * Сервис массовых операций над контактами
+ *
+ * <p>
+ * Каждое действие выполняется одним SQL-запросом над всем набором идентификаторов,
+ * без загрузки сущностей. Слушатели и каскады JPA при этом не срабатывают.
+ * </p>
+ */
+public interface ContactBulkService {
+
+    /**
+     * Выполнить массовую операцию
+     *
+     * @param request Набор контактов и действий
+     * @return Число затронутых записей по каждому действию
+     */
+    ContactBulkResultDto apply(ContactBulkDto request);
+}
@@ -2,6 +2,7 @@ package ru.anastasia.NauJava.service.contact;
 
 import ru.anastasia.NauJava.entity.contact.ContactDetail;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -25,6 +26,14 @@ public interface ContactDetailService {
      */
     List<ContactDetail> findPrimaryByContactId(Long contactId);
 
+    /**
+     * Получить основные способы связи нескольких контактов одним запросом
+     *
+     * @param contactIds Идентификаторы контактов
+     * @return Список способов связи
+     */
+    List<ContactDetail> findPrimaryByContactIds(Collection<Long> contactIds);
+
     /**
      * Создать способ связи
      *
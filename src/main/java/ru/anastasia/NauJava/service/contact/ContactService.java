@@ -2,7 +2,11 @@ package ru.anastasia.NauJava.service.contact;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import ru.anastasia.NauJava.dto.report.ContactIdRange;
+import ru.anastasia.NauJava.dto.report.ContactReportView;
 import ru.anastasia.NauJava.entity.contact.Contact;
+import ru.anastasia.NauJava.service.facade.dto.ContactCard;
+import ru.anastasia.NauJava.service.facade.dto.ContactCardSlice;
 
 import java.util.List;
 
@@ -28,6 +32,14 @@ public interface ContactService {
      */
     Contact findById(Long id);
 
+    /**
+     * Найти контакт по идентификатору вместе со всеми связанными коллекциями
+     *
+     * @param id Идентификатор
+     * @return Контакт с инициализированными коллекциями
+     */
+    Contact findWithAllRelations(Long id);
+
     /**
      * Удаить контакт по идентификатору
      *
@@ -66,6 +78,32 @@ public interface ContactService {
      */
     List<Contact> findAll();
 
+    /**
+     * Получить следующую порцию контактов для отчета в порядке идентификаторов
+     *
+     * @param afterId Идентификатор последнего прочитанного контакта (0 - с начала)
+     * @param limit   Размер порции
+     * @return Порция проекций контактов (пустая, если контакты закончились)
+     */
+    List<ContactReportView> findReportRowsAfter(long afterId, int limit);
+
+    /**
+     * Получить следующую порцию контактов для отчета внутри диапазона идентификаторов
+     *
+     * @param afterId Идентификатор последнего прочитанного контакта (нижняя граница диапазона не включается)
+     * @param toId    Верхняя граница диапазона (включается)
+     * @param limit   Размер порции
+     * @return Порция проекций контактов (пустая, если контакты диапазона закончились)
+     */
+    List<ContactReportView> findReportRowsInRange(long afterId, long toId, int limit);
+
+    /**
+     * Получить наименьший и наибольший идентификаторы контактов
+     *
+     * @return Границы идентификаторов (обе null, если контактов нет)
+     */
+    ContactIdRange findIdRange();
+
     /**
      * Найти контакты по имени
      *
@@ -120,23 +158,58 @@ public interface ContactService {
     Long countFavorites();
 
     /**
-     * Получить страницу контактов по имени, фамилии, псевдониму с опциональными фильтрами по компании и тегу
+     * Получить страницу карточек контактов по имени, фамилии, псевдониму с опциональными фильтрами по компании и тегу
+     *
+     * <p>
+     * Стоимость страницы не зависит от её размера: страница контактов и её связанные сущности
+     * (место работы, основные способы связи, теги) загружаются фиксированным числом запросов.
+     * </p>
      *
      * @param searchTerm  Поисковый запрос
      * @param companyName Название компании
      * @param tagName     Название тега
      * @param pageable    Страница
-     * @return Страница контактов
+     * @return Страница карточек контактов
      */
-    Page<Contact> searchContacts(String searchTerm, String companyName, String tagName, Pageable pageable);
+    Page<ContactCard> searchContacts(String searchTerm, String companyName, String tagName, Pageable pageable);
 
     /**
-     * Получить страницу избранных контактов
+     * Получить страницу карточек избранных контактов
      *
      * @param pageable Страница
-     * @return Страница избранных контактов
+     * @return Страница карточек избранных контактов
+     */
+    Page<ContactCard> findFavorites(Pageable pageable);
+
+    /**
+     * Найти карточки контактов по критериям с навигацией по курсору
+     *
+     * <p>
+     * Контакты сортируются по фамилии, имени и идентификатору. В отличие от постраничного поиска
+     * не выполняет OFFSET и подсчет общего числа, поэтому время ответа не зависит от глубины
+     * навигации. Поиск по тексту - подстрока без учёта регистра, без ранжирования по релевантности.
+     * </p>
+     *
+     * @param searchTerm  Поисковый запрос
+     * @param companyName Название компании
+     * @param tagName     Название тега
+     * @param cursor      Курсор (null или пустая строка - первый срез)
+     * @param size        Размер среза
+     * @return Срез карточек контактов
+     * @throws IllegalArgumentException если курсор некорректен
+     */
+    ContactCardSlice searchContactsByCursor(String searchTerm, String companyName, String tagName,
+                                            String cursor, int size);
+
+    /**
+     * Получить карточки избранных контактов с навигацией по курсору
+     *
+     * @param cursor Курсор (null или пустая строка - первый срез)
+     * @param size   Размер среза
+     * @return Срез карточек избранных контактов
+     * @throws IllegalArgumentException если курсор некорректен
      */
-    Page<Contact> findFavorites(Pageable pageable);
+    ContactCardSlice findFavoritesByCursor(String cursor, int size);
 
     /**
      * Получить список контактов с грядущими днями рождения
@@ -0,0 +1,200 @@
+package ru.anastasia.NauJava.service.contact.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.anastasia.NauJava.dto.contact.ContactBulkDto;
+import ru.anastasia.NauJava.dto.contact.ContactBulkResultDto;
+import ru.anastasia.NauJava.entity.enums.SuggestionType;
+import ru.anastasia.NauJava.exception.company.IllegalCompanyStateException;
+import ru.anastasia.NauJava.repository.company.ContactCompanyRepository;
+import ru.anastasia.NauJava.repository.contact.ContactDetailRepository;
+import ru.anastasia.NauJava.repository.contact.ContactRepository;
+import ru.anastasia.NauJava.repository.event.EventRepository;
+import ru.anastasia.NauJava.repository.note.NoteRepository;
+import ru.anastasia.NauJava.repository.socialprofile.SocialProfileRepository;
+import ru.anastasia.NauJava.repository.tag.ContactTagRepository;
+import ru.anastasia.NauJava.service.company.CompanyService;
+import ru.anastasia.NauJava.service.company.JobTitleService;
+import ru.anastasia.NauJava.service.contact.ContactBulkService;
+import ru.anastasia.NauJava.service.stats.DashboardCounters;
+import ru.anastasia.NauJava.service.stats.DashboardCounters.Counter;
+import ru.anastasia.NauJava.service.suggest.SuggestService;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ContactBulkServiceImpl implements ContactBulkService {
+
+    /**
+     * Репозиторий контактов
+     */
+    private final ContactRepository contactRepository;
+
+    /**
+     * Репозиторий способов связи
+     */
+    private final ContactDetailRepository contactDetailRepository;
+
+    /**
+     * Репозиторий профилей в соцсетях
+     */
+    private final SocialProfileRepository socialProfileRepository;
+
+    /**
+     * Репозиторий событий
+     */
+    private final EventRepository eventRepository;
+
+    /**
+     * Репозиторий заметок
+     */
+    private final NoteRepository noteRepository;
+
+    /**
+     * Репозиторий связей контактов и тегов
+     */
+    private final ContactTagRepository contactTagRepository;
+
+    /**
+     * Репозиторий связей контактов и компаний
+     */
+    private final ContactCompanyRepository contactCompanyRepository;
+
+    /**
+     * Сервис компаний
+     */
+    private final CompanyService companyService;
+
+    /**
+     * Сервис должностей
+     */
+    private final JobTitleService jobTitleService;
+
+    /**
+     * Сервис подсказок быстрого поиска
+     */
+    private final SuggestService suggestService;
+
+    /**
+     * Счетчики панелей управления
+     */
+    private final DashboardCounters dashboardCounters;
+
+    @Override
+    public ContactBulkResultDto apply(ContactBulkDto request) {
+        Long[] ids = toArray(request.getContactIds());
+        log.info("Массовая операция над {} контактами", ids.length);
+
+        ContactBulkResultDto result = ContactBulkResultDto.builder()
+                .requested(ids.length)
+                .build();
+        if (ids.length == 0) {
+            return result;
+        }
+
+        if (request.isDelete()) {
+            result.setDeleted(delete(ids));
+            log.info("Массово удалено {} контактов из {}", result.getDeleted(), ids.length);
+            return result;
+        }
+
+        if (request.getFavorite() != null) {
+            int updated = contactRepository.updateFavoriteByIds(ids, request.getFavorite());
+            dashboardCounters.add(Counter.FAVORITES, request.getFavorite() ? updated : -updated);
+            result.setFavoritesUpdated(updated);
+        }
+
+        Long[] addTagIds = toArray(request.getAddTagIds());
+        if (addTagIds.length > 0) {
+            result.setTagsAdded(contactTagRepository.insertAllByContactIdsAndTagIds(ids, addTagIds));
+        }
+
+        Long[] removeTagIds = toArray(request.getRemoveTagIds());
+        if (removeTagIds.length > 0) {
+            result.setTagsRemoved(contactTagRepository.deleteAllByContactIdsAndTagIds(ids, removeTagIds));
+        }
+
+        if (request.getCompanyId() != null) {
+            result.setCompaniesAssigned(assignCompany(ids, request));
+        }
+
+        log.info("Массовая операция завершена: {}", result);
+        return result;
+    }
+
+    private int delete(Long[] ids) {
+        List<Long> existingIds = contactRepository.findExistingIds(ids);
+        if (existingIds.isEmpty()) {
+            return 0;
+        }
+
+        Long[] existing = existingIds.toArray(Long[]::new);
+        contactDetailRepository.deleteAllByContactIds(existing);
+        socialProfileRepository.deleteAllByContactIds(existing);
+        eventRepository.deleteAllByContactIds(existing);
+        noteRepository.deleteAllByContactIds(existing);
+        contactTagRepository.deleteAllByContactIds(existing);
+        contactCompanyRepository.deleteAllByContactIds(existing);
+        long favorites = contactRepository.countFavoritesByIds(existing);
+        contactRepository.saveTombstones(existing, LocalDateTime.now());
+        int deleted = contactRepository.deleteAllByIds(existing);
+
+        // Массовое удаление не вызывает слушатели сущностей, поэтому индекс подсказок и счетчики обновляются здесь
+        dashboardCounters.add(Counter.CONTACTS, -deleted);
+        dashboardCounters.add(Counter.FAVORITES, -favorites);
+        afterCommit(() -> existingIds.forEach(id -> suggestService.remove(SuggestionType.CONTACT, id)));
+        return deleted;
+    }
+
+    private int assignCompany(Long[] ids, ContactBulkDto request) {
+        if (request.getJobTitleId() == null) {
+            throw new IllegalCompanyStateException("Для назначения компании необходимо указать должность");
+        }
+
+        Long companyId = companyService.findById(request.getCompanyId()).getId();
+        Long jobTitleId = jobTitleService.findById(request.getJobTitleId()).getId();
+        boolean isCurrent = Boolean.TRUE.equals(request.getIsCurrent());
+
+        int assigned = contactCompanyRepository.insertMissingByContactIds(ids, companyId, jobTitleId, isCurrent);
+        if (isCurrent) {
+            contactCompanyRepository.updateCurrentByContactIds(ids, companyId, jobTitleId);
+        }
+
+        log.debug("Компания ID: {} с должностью ID: {} назначена {} контактам", companyId, jobTitleId, assigned);
+        return assigned;
+    }
+
+    private static Long[] toArray(Collection<Long> ids) {
+        if (ids == null) {
+            return new Long[0];
+        }
+        return ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toArray(Long[]::new);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -9,6 +9,7 @@ import ru.anastasia.NauJava.exception.contact.ContactDetailNotFoundException;
 import ru.anastasia.NauJava.repository.contact.ContactDetailRepository;
 import ru.anastasia.NauJava.service.contact.ContactDetailService;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
@@ -41,6 +42,16 @@ public class ContactDetailServiceImpl implements ContactDetailService {
         return primaryDetails;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ContactDetail> findPrimaryByContactIds(Collection<Long> contactIds) {
+        log.debug("Поиск основных способов связи для {} контактов", contactIds.size());
+        if (contactIds.isEmpty()) {
+            return List.of();
+        }
+        return contactDetailRepository.findPrimaryByContactIdIn(contactIds);
+    }
+
     @Override
     public ContactDetail create(ContactDetail contactDetail) {
         log.info("Создание нового способа связи для контакта с ID: {}", contactDetail.getContact().getId());
@@ -20,6 +20,7 @@ import ru.anastasia.NauJava.entity.company.ContactCompany;
 import ru.anastasia.NauJava.entity.company.JobTitle;
 import ru.anastasia.NauJava.entity.contact.Contact;
 import ru.anastasia.NauJava.entity.contact.ContactDetail;
+import ru.anastasia.NauJava.entity.enums.EventType;
 import ru.anastasia.NauJava.entity.event.Event;
 import ru.anastasia.NauJava.entity.note.Note;
 import ru.anastasia.NauJava.entity.socialprofile.SocialProfile;
@@ -38,14 +39,20 @@ import ru.anastasia.NauJava.service.facade.ContactTagFacadeService;
 import ru.anastasia.NauJava.service.facade.dto.ContactFullDetails;
 import ru.anastasia.NauJava.service.note.NoteService;
 import ru.anastasia.NauJava.service.socialprofile.SocialProfileService;
+import ru.anastasia.NauJava.service.stats.DashboardCounters;
 import ru.anastasia.NauJava.service.tag.TagService;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -108,6 +115,11 @@ public class ContactManagementServiceImpl implements ContactManagementService {
      */
     private final JobTitleService jobTitleService;
 
+    /**
+     * Счетчики панелей управления
+     */
+    private final DashboardCounters dashboardCounters;
+
     @Transactional
     @Override
     public Contact create(ContactCreateDto contactCreateDto) {
@@ -155,50 +167,25 @@ public class ContactManagementServiceImpl implements ContactManagementService {
     public ContactFullDetails getWithAllDetails(Long contactId) {
         log.debug("Запрос полной информации о контакте с ID: {}", contactId);
 
-        Contact contact = contactService.findById(contactId);
-        List<ContactDetail> contactDetails = contactDetailService.findByContactId(contactId);
-        List<SocialProfile> socialProfiles = socialProfileService.findByContactId(contactId);
-        List<Event> events = eventService.findByContactId(contactId);
-        List<Note> notes = noteService.findByContactId(contactId);
-        List<Tag> tags = tagService.findByContactId(contactId);
-        List<ContactTag> contactTags = tagService.findContactTagsByContactId(contactId);
-        Event birthday = eventService.findBirthdayByContactId(contactId);
-        List<ContactDetail> primaryDetails = contactDetailService.findPrimaryByContactId(contactId);
+        ContactFullDetails details = toFullDetails(contactService.findWithAllRelations(contactId));
 
         log.debug("Полная информация о контакте с ID: {} собрана ({} событий, {} заметок, {} тегов)",
-                contactId, events.size(), notes.size(), tags.size());
-
-        return ContactFullDetails.builder()
-                .contact(contact)
-                .contactDetails(contactDetails)
-                .primaryContactDetails(primaryDetails)
-                .socialProfiles(socialProfiles)
-                .events(events)
-                .birthday(birthday)
-                .notes(notes)
-                .tags(tags)
-                .contactTags(contactTags)
-                .build();
+                contactId, details.getEvents().size(), details.getNotes().size(), details.getTags().size());
+        return details;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Использует тот же загрузчик, что и {@link #getWithAllDetails(Long)}.
+     * </p>
+     */
     @Transactional(readOnly = true)
     @Override
     public ContactFullDetails getSummary(Long contactId) {
         log.debug("Запрос краткой информации о контакте с ID: {}", contactId);
-
-        Contact contact = contactService.findById(contactId);
-        List<ContactDetail> primaryDetails = contactDetailService.findPrimaryByContactId(contactId);
-        List<SocialProfile> mainSocialProfiles = socialProfileService.findByContactId(contactId);
-        Event birthday = eventService.findBirthdayByContactId(contactId);
-        List<Tag> tags = tagService.findByContactId(contactId);
-
-        return ContactFullDetails.builder()
-                .contact(contact)
-                .primaryContactDetails(primaryDetails)
-                .socialProfiles(mainSocialProfiles)
-                .birthday(birthday)
-                .tags(tags)
-                .build();
+        return toFullDetails(contactService.findWithAllRelations(contactId));
     }
 
     @Transactional
@@ -233,19 +220,38 @@ public class ContactManagementServiceImpl implements ContactManagementService {
     public List<ContactFullDetails> getListWithUpcomingBirthdays(int daysAhead) {
         log.debug("Поиск контактов с предстоящими днями рождения в течение {} дней", daysAhead);
 
-        List<Contact> contactsWithBirthdays = contactService.findWithUpcomingBirthdays(daysAhead);
-        List<ContactFullDetails> result = contactsWithBirthdays.stream()
-                .map(contact -> {
-                    ContactFullDetails details = getSummary(contact.getId());
-                    Event birthday = eventService.findBirthdayByContactId(contact.getId());
-                    if (birthday != null) {
-                        details.setBirthday(birthday);
-                        details.setDaysUntil(calculateDaysUntil(birthday.getEventDate()));
-                    }
-                    return details;
+        Map<Long, Event> birthdays = eventService.findUpcomingBirthdaysWithContacts(daysAhead).stream()
+                .collect(Collectors.toMap(event -> event.getContact().getId(), Function.identity(),
+                        (first, second) -> first, LinkedHashMap::new));
+
+        if (birthdays.isEmpty()) {
+            log.debug("Контакты с предстоящими днями рождения не найдены");
+            return List.of();
+        }
+
+        Set<Long> contactIds = birthdays.keySet();
+
+        Map<Long, List<ContactDetail>> primaryDetails = contactDetailService.findPrimaryByContactIds(contactIds).stream()
+                .collect(Collectors.groupingBy(detail -> detail.getContact().getId()));
+        Map<Long, List<SocialProfile>> socialProfiles = socialProfileService.findByContactIds(contactIds).stream()
+                .collect(Collectors.groupingBy(profile -> profile.getContact().getId()));
+        Map<Long, List<Tag>> tags = tagService.findContactTagsByContactIds(contactIds).stream()
+                .collect(Collectors.groupingBy(contactTag -> contactTag.getContact().getId(),
+                        Collectors.mapping(ContactTag::getTag, Collectors.toList())));
+
+        List<ContactFullDetails> result = birthdays.values().stream()
+                .map(birthday -> {
+                    Long contactId = birthday.getContact().getId();
+                    return ContactFullDetails.builder()
+                            .contact(birthday.getContact())
+                            .birthday(birthday)
+                            .daysUntil(calculateDaysUntil(birthday.getEventDate()))
+                            .primaryContactDetails(primaryDetails.getOrDefault(contactId, List.of()))
+                            .socialProfiles(socialProfiles.getOrDefault(contactId, List.of()))
+                            .tags(tags.getOrDefault(contactId, List.of()))
+                            .build();
                 })
-                .filter(details -> details.getBirthday() != null)
-                .sorted(Comparator.comparing(details -> details.getBirthday().getEventDate()))
+                .sorted(Comparator.comparing(ContactFullDetails::getDaysUntil))
                 .toList();
 
         log.debug("Найдено {} контактов с предстоящими днями рождения", result.size());
@@ -382,6 +388,7 @@ public class ContactManagementServiceImpl implements ContactManagementService {
         contact.setLastName(dto.getLastName());
         contact.setDisplayName(dto.getDisplayName());
         contact.setAvatarUrl(dto.getAvatarUrl());
+        dashboardCounters.favoriteChanged(contact.getIsFavorite(), dto.getIsFavorite());
         contact.setIsFavorite(dto.getIsFavorite());
     }
 
@@ -461,12 +468,20 @@ public class ContactManagementServiceImpl implements ContactManagementService {
             throw new TagNotFoundException("Не найдены теги с ID: " + missingTagIds);
         }
 
-        contact.getContactTags().clear();
+        // Оставшиеся теги не пересоздаются: Hibernate вставляет новые строки раньше удаления сирот,
+        // и повторная вставка той же пары нарушила бы уникальный индекс ux_contact_tags_contact_tag
+        Set<Long> keptTagIds = new HashSet<>();
+        contact.getContactTags().removeIf(contactTag -> {
+            Long tagId = contactTag.getTag().getId();
+            return !tagIds.contains(tagId) || !keptTagIds.add(tagId);
+        });
 
-        newTags.forEach(tag -> contact.addContactTag(ContactTag.builder()
-                .contact(contact)
-                .tag(tag)
-                .build()));
+        newTags.stream()
+                .filter(tag -> !keptTagIds.contains(tag.getId()))
+                .forEach(tag -> contact.addContactTag(ContactTag.builder()
+                        .contact(contact)
+                        .tag(tag)
+                        .build()));
     }
 
     private void updateContactNotes(Contact contact, List<NoteUpdateDto> noteDtos) {
@@ -586,7 +601,7 @@ public class ContactManagementServiceImpl implements ContactManagementService {
         if (originalDetails.getEvents().isEmpty()) return;
 
         List<EventCreateDto> eventDtos = originalDetails.getEvents().stream()
-                .filter(event -> event.getEventType() != ru.anastasia.NauJava.entity.enums.EventType.BIRTHDAY)
+                .filter(event -> event.getEventType() != EventType.BIRTHDAY)
                 .map(event -> EventCreateDto.builder()
                         .eventType(event.getEventType())
                         .customEventName(event.getCustomEventName())
@@ -618,4 +633,37 @@ public class ContactManagementServiceImpl implements ContactManagementService {
             noteService.create(duplicate.getId(), newNote);
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * Собрать полную информацию о контакте из загруженного графа
+     *
+     * <p>
+     * День рождения, основные способы связи и теги вычисляются из уже загруженных коллекций,
+     * без дополнительных запросов.
+     * </p>
+     */
+    private ContactFullDetails toFullDetails(Contact contact) {
+        List<ContactDetail> contactDetails = new ArrayList<>(contact.getContactDetails());
+        List<Event> events = new ArrayList<>(contact.getEvents());
+        List<ContactTag> contactTags = new ArrayList<>(contact.getContactTags());
+
+        return ContactFullDetails.builder()
+                .contact(contact)
+                .contactDetails(contactDetails)
+                .primaryContactDetails(contactDetails.stream()
+                        .filter(detail -> Boolean.TRUE.equals(detail.getIsPrimary()))
+                        .toList())
+                .socialProfiles(new ArrayList<>(contact.getSocialProfiles()))
+                .events(events)
+                .birthday(events.stream()
+                        .filter(event -> event.getEventType() == EventType.BIRTHDAY)
+                        .findFirst()
+                        .orElse(null))
+                .notes(new ArrayList<>(contact.getNotes()))
+                .tags(contactTags.stream()
+                        .map(ContactTag::getTag)
+                        .toList())
+                .contactTags(contactTags)
+                .build();
+    }
+}
@@ -4,20 +4,39 @@ import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import ru.anastasia.NauJava.config.AppConfig;
+import ru.anastasia.NauJava.dto.contact.ContactCursor;
+import ru.anastasia.NauJava.dto.report.ContactIdRange;
+import ru.anastasia.NauJava.dto.report.ContactReportView;
+import ru.anastasia.NauJava.entity.company.ContactCompany;
 import ru.anastasia.NauJava.entity.contact.Contact;
+import ru.anastasia.NauJava.entity.contact.ContactDetail;
+import ru.anastasia.NauJava.entity.tag.ContactTag;
+import ru.anastasia.NauJava.entity.tag.Tag;
 import ru.anastasia.NauJava.exception.contact.ContactNotFoundException;
+import ru.anastasia.NauJava.repository.company.ContactCompanyRepository;
+import ru.anastasia.NauJava.repository.contact.ContactDetailRepository;
 import ru.anastasia.NauJava.repository.contact.ContactRepository;
+import ru.anastasia.NauJava.repository.tag.ContactTagRepository;
 import ru.anastasia.NauJava.service.contact.ContactService;
+import ru.anastasia.NauJava.service.event.MonthDayRange;
+import ru.anastasia.NauJava.service.facade.dto.ContactCard;
+import ru.anastasia.NauJava.service.facade.dto.ContactCardSlice;
+import ru.anastasia.NauJava.service.stats.DashboardCounters;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -29,11 +48,31 @@ public class ContactServiceImpl implements ContactService {
      */
     private final ContactRepository contactRepository;
 
+    /**
+     * Репозиторий компаний контакта
+     */
+    private final ContactCompanyRepository contactCompanyRepository;
+
+    /**
+     * Репозиторий способов связи
+     */
+    private final ContactDetailRepository contactDetailRepository;
+
+    /**
+     * Репозиторий связи контактов и тегов
+     */
+    private final ContactTagRepository contactTagRepository;
+
     /**
      * Конфигурация приложения
      */
     private final AppConfig appConfig;
 
+    /**
+     * Счетчики панелей управления
+     */
+    private final DashboardCounters dashboardCounters;
+
     @PostConstruct
     public void init() {
         log.info("Инициализация ContactServiceImpl для приложения: {} версия: {}",
@@ -63,12 +102,25 @@ public class ContactServiceImpl implements ContactService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Contact findWithAllRelations(Long id) {
+        log.debug("Загрузка контакта со всеми связанными сущностями по ID: {}", id);
+        return contactRepository.findAggregateById(id)
+                .orElseThrow(() -> {
+                    log.warn("Контакт с ID: {} не найден", id);
+                    return new ContactNotFoundException("Не найден контакт с id: " + id);
+                });
+    }
+
+    @Override
+    @Transactional
     public void deleteById(Long id) {
         log.info("Удаление контакта с ID: {}", id);
         if (!contactRepository.existsById(id)) {
             log.warn("Попытка удаления несуществующего контакта с ID: {}", id);
             throw new ContactNotFoundException("Не найден контакт с id: " + id);
         }
+        contactRepository.saveTombstones(new Long[]{id}, LocalDateTime.now());
         contactRepository.deleteById(id);
         log.info("Контакт с ID: {} успешно удален", id);
     }
@@ -97,8 +149,10 @@ public class ContactServiceImpl implements ContactService {
             contact.setLastName(lastName);
             contact.setDisplayName(displayName);
             contact.setAvatarUrl(avatarUrl);
+            Boolean wasFavorite = contact.getIsFavorite();
             contact.setIsFavorite(isFavorite);
             Contact updatedContact = contactRepository.save(contact);
+            dashboardCounters.favoriteChanged(wasFavorite, isFavorite);
             log.info("Контакт с ID: {} полностью обновлен", id);
             return updatedContact;
         }).orElseThrow(() -> {
@@ -116,6 +170,24 @@ public class ContactServiceImpl implements ContactService {
         return contacts;
     }
 
+    @Override
+    public List<ContactReportView> findReportRowsAfter(long afterId, int limit) {
+        log.trace("Получение порции контактов для отчета после ID: {}, размер: {}", afterId, limit);
+        return contactRepository.findReportRowsAfter(afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public List<ContactReportView> findReportRowsInRange(long afterId, long toId, int limit) {
+        log.trace("Получение порции контактов для отчета в диапазоне ({}, {}], размер: {}", afterId, toId, limit);
+        return contactRepository.findReportRowsInRange(afterId, toId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public ContactIdRange findIdRange() {
+        log.debug("Получение границ идентификаторов контактов");
+        return contactRepository.findIdRange();
+    }
+
     @Override
     public List<Contact> findByName(String name) {
         log.debug("Поиск контактов по имени: '{}'", name);
@@ -167,8 +239,10 @@ public class ContactServiceImpl implements ContactService {
         log.info("Добавление контакта с ID: {} в избранное", contactId);
         contactRepository.findById(contactId)
                 .ifPresentOrElse(contact -> {
+                    Boolean wasFavorite = contact.getIsFavorite();
                     contact.setIsFavorite(true);
                     contactRepository.save(contact);
+                    dashboardCounters.favoriteChanged(wasFavorite, true);
                     log.info("Контакт с ID: {} добавлен в избранное", contactId);
                 }, () -> log.warn("Попытка добавить в избранное несуществующий контакт с ID: {}", contactId));
     }
@@ -178,65 +252,99 @@ public class ContactServiceImpl implements ContactService {
         log.info("Удаление контакта с ID: {} из избранного", contactId);
         contactRepository.findById(contactId)
                 .ifPresentOrElse(contact -> {
+                    Boolean wasFavorite = contact.getIsFavorite();
                     contact.setIsFavorite(false);
                     contactRepository.save(contact);
+                    dashboardCounters.favoriteChanged(wasFavorite, false);
                     log.info("Контакт с ID: {} удален из избранного", contactId);
                 }, () -> log.warn("Попытка удалить из избранного несуществующий контакт с ID: {}", contactId));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<Contact> searchContacts(String searchTerm, String companyName, String tagName, Pageable pageable) {
+    public Page<ContactCard> searchContacts(String searchTerm, String companyName, String tagName, Pageable pageable) {
         log.debug("Расширенный поиск контактов. Поиск: '{}', компания: '{}', тег: '{}', страница: {}",
                 searchTerm, companyName, tagName, pageable.getPageNumber());
 
         if (!StringUtils.hasText(searchTerm) && !StringUtils.hasText(companyName) && !StringUtils.hasText(tagName)) {
             log.debug("Параметры поиска не указаны, возвращена полная страница контактов");
-            return contactRepository.findAll(pageable);
+            return toCards(contactRepository.findAll(pageable));
         }
 
         String processedSearchTerm = StringUtils.hasText(searchTerm) ? searchTerm.trim() : null;
         String processedCompanyName = StringUtils.hasText(companyName) ? companyName.trim() : null;
         String processedTagName = StringUtils.hasText(tagName) ? tagName.trim() : null;
 
-        Page<Contact> result = contactRepository.searchWithFilters(
-                processedSearchTerm,
-                processedCompanyName,
-                processedTagName,
-                pageable
-        );
+        Page<Contact> result;
+        if (processedSearchTerm != null) {
+            // Поиск по тексту идет через триграммные и полнотекстовые индексы с сортировкой по релевантности
+            result = contactRepository.fullTextSearch(
+                    processedSearchTerm,
+                    processedCompanyName,
+                    processedTagName,
+                    pageable
+            );
+        } else {
+            result = contactRepository.searchWithFilters(
+                    null,
+                    processedCompanyName,
+                    processedTagName,
+                    pageable
+            );
+        }
 
         log.debug("Расширенный поиск вернул {} контактов на странице {}", result.getContent().size(), pageable.getPageNumber());
-        return result;
+        return toCards(result);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<Contact> findFavorites(Pageable pageable) {
+    public Page<ContactCard> findFavorites(Pageable pageable) {
         log.debug("Получение страницы избранных контактов: {}", pageable.getPageNumber());
         Page<Contact> page = contactRepository.findByIsFavoriteTrue(pageable);
         log.debug("Загружена страница {} с {} избранными контактами (всего: {})",
                 pageable.getPageNumber(), page.getContent().size(), page.getTotalElements());
-        return page;
+        return toCards(page);
     }
 
     @Override
-    public List<Contact> findWithUpcomingBirthdays(int daysAhead) {
-        log.debug("Поиск контактов с предстоящими днями рождения в течение {} дней", daysAhead);
-        LocalDate today = LocalDate.now();
-        LocalDate endDate = today.plusDays(daysAhead);
+    @Transactional(readOnly = true)
+    public ContactCardSlice searchContactsByCursor(String searchTerm, String companyName, String tagName,
+                                                   String cursor, int size) {
+        log.debug("Поиск контактов по курсору. Поиск: '{}', компания: '{}', тег: '{}', размер: {}",
+                searchTerm, companyName, tagName, size);
 
-        String todayStr = today.format(DateTimeFormatter.ofPattern("MM-dd"));
-        String endDateStr = endDate.format(DateTimeFormatter.ofPattern("MM-dd"));
+        String processedSearchTerm = StringUtils.hasText(searchTerm) ? searchTerm.trim() : null;
+        String processedCompanyName = StringUtils.hasText(companyName) ? companyName.trim() : null;
+        String processedTagName = StringUtils.hasText(tagName) ? tagName.trim() : null;
 
-        List<Contact> result;
+        ContactCardSlice slice = findSlice(processedSearchTerm, processedCompanyName, processedTagName,
+                false, cursor, size);
 
-        if (todayStr.compareTo(endDateStr) <= 0) {
-            // Диапазон в пределах одного года (не пересекает новый год)
-            result = contactRepository.findBirthdaysInRange(todayStr, endDateStr);
-        } else {
-            // Диапазон пересекает новый год
-            result = contactRepository.findBirthdaysCrossingYear(todayStr, endDateStr);
+        if (processedSearchTerm == null && processedCompanyName == null && processedTagName == null) {
+            // Без фильтров общее число берется из статистики таблицы вместо COUNT(*)
+            slice.setTotalEstimate(contactRepository.estimateCount());
+        }
+        return slice;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ContactCardSlice findFavoritesByCursor(String cursor, int size) {
+        log.debug("Получение среза избранных контактов по курсору, размер: {}", size);
+        ContactCardSlice slice = findSlice(null, null, null, true, cursor, size);
+        // Число избранных берется из статистики частичного индекса вместо COUNT(*) на каждом срезе
+        slice.setTotalEstimate(contactRepository.estimateFavoritesCount());
+        return slice;
+    }
+
+    @Override
+    public List<Contact> findWithUpcomingBirthdays(int daysAhead) {
+        log.debug("Поиск контактов с предстоящими днями рождения в течение {} дней", daysAhead);
+
+        List<Contact> result = new ArrayList<>();
+        for (MonthDayRange range : MonthDayRange.upcoming(LocalDate.now(), daysAhead)) {
+            result.addAll(contactRepository.findWithBirthdayByMonthDayBetween(range.from(), range.to()));
         }
 
         log.debug("Найдено {} контактов с предстоящими днями рождения в течение {} дней", result.size(), daysAhead);
@@ -247,4 +355,115 @@ public class ContactServiceImpl implements ContactService {
     public boolean existsById(Long contactId) {
         return contactRepository.existsById(contactId);
     }
-}
+
+    /**
+     * Получить срез карточек после (или перед) позицией курсора
+     *
+     * <p>
+     * Запрашивает на один контакт больше размера среза, чтобы без подсчета узнать,
+     * есть ли следующий (для курсора назад - предыдущий) срез.
+     * </p>
+     */
+    private ContactCardSlice findSlice(String searchTerm, String companyName, String tagName, boolean favoritesOnly,
+                                       String cursorValue, int size) {
+        ContactCursor cursor = ContactCursor.decode(cursorValue);
+        boolean backward = cursor != null && cursor.backward();
+
+        List<Contact> contacts = new ArrayList<>(contactRepository.findByKeyset(
+                searchTerm, companyName, tagName, favoritesOnly, cursor, size + 1));
+        boolean hasMore = contacts.size() > size;
+        if (hasMore) {
+            contacts.removeLast();
+        }
+        if (backward) {
+            Collections.reverse(contacts);
+        }
+
+        boolean hasNext = backward || hasMore;
+        boolean hasPrevious = backward ? hasMore : cursor != null;
+
+        String nextCursor = null;
+        String prevCursor = null;
+        if (!contacts.isEmpty()) {
+            nextCursor = hasNext ? ContactCursor.after(contacts.getLast()).encode() : null;
+            prevCursor = hasPrevious ? ContactCursor.before(contacts.getFirst()).encode() : null;
+        }
+
+        log.debug("Загружен срез из {} контактов (назад: {}, есть следующий: {}, есть предыдущий: {})",
+                contacts.size(), backward, hasNext, hasPrevious);
+
+        return ContactCardSlice.builder()
+                .content(toCards(contacts))
+                .size(size)
+                .nextCursor(nextCursor)
+                .prevCursor(prevCursor)
+                .build();
+    }
+
+    /**
+     * Преобразовать страницу контактов в страницу карточек
+     *
+     * @param page Страница контактов
+     * @return Страница карточек контактов
+     */
+    private Page<ContactCard> toCards(Page<Contact> page) {
+        return new PageImpl<>(toCards(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+
+    /**
+     * Преобразовать контакты в карточки
+     *
+     * <p>
+     * Связанные сущности всех контактов загружаются тремя пакетными запросами
+     * по списку идентификаторов, независимо от числа контактов.
+     * </p>
+     *
+     * @param contacts Контакты
+     * @return Карточки контактов в том же порядке
+     */
+    private List<ContactCard> toCards(List<Contact> contacts) {
+        List<Long> contactIds = contacts.stream()
+                .map(Contact::getId)
+                .toList();
+
+        if (contactIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, ContactCompany> companies = contactCompanyRepository.findWithCompanyAndJobTitleByContactIdIn(contactIds)
+                .stream()
+                .collect(Collectors.toMap(cc -> cc.getContact().getId(), cc -> cc, (first, second) -> first));
+
+        Map<Long, List<ContactDetail>> primaryDetails = contactDetailRepository.findPrimaryByContactIdIn(contactIds)
+                .stream()
+                .collect(Collectors.groupingBy(cd -> cd.getContact().getId()));
+
+        Map<Long, List<Tag>> tags = contactTagRepository.findWithTagByContactIdIn(contactIds)
+                .stream()
+                .collect(Collectors.groupingBy(ct -> ct.getContact().getId(),
+                        Collectors.mapping(ContactTag::getTag, Collectors.toList())));
+
+        log.trace("Загружены связанные данные карточек для {} контактов", contactIds.size());
+
+        return contacts.stream()
+                .map(contact -> toCard(contact,
+                        companies.get(contact.getId()),
+                        primaryDetails.getOrDefault(contact.getId(), Collections.emptyList()),
+                        tags.getOrDefault(contact.getId(), Collections.emptyList())))
+                .toList();
+    }
+
+    private ContactCard toCard(Contact contact, ContactCompany company, List<ContactDetail> primaryDetails, List<Tag> tags) {
+        return ContactCard.builder()
+                .id(contact.getId())
+                .firstName(contact.getFirstName())
+                .lastName(contact.getLastName())
+                .displayName(contact.getDisplayName())
+                .avatarUrl(contact.getAvatarUrl())
+                .isFavorite(contact.getIsFavorite())
+                .company(company)
+                .primaryDetails(primaryDetails)
+                .tags(tags)
+                .build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,129 @@
+package ru.anastasia.NauJava.service.contactexport;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.anastasia.NauJava.config.AppConfig;
+import ru.anastasia.NauJava.dto.contactexport.ExportedContact;
+import ru.anastasia.NauJava.repository.contact.ContactRepository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Types;
+
+/**
+ * Потоковая выборка контактов со связанными данными для экспорта
+ *
+ * <p>
+ * Каждая строка результата - контакт целиком, собранный в JSON коррелированными подзапросами
+ * по дочерним таблицам, поэтому выборка идет одним запросом без N+1 и без декартова произведения.
+ * Строки читаются курсором по {@code fetchSize} штук и сразу передаются обработчику; драйвер PostgreSQL
+ * использует курсор только внутри транзакции, поэтому вызывать нужно из транзакции.
+ * </p>
+ */
+@Component
+class ContactExportQuery {
+
+    private static final String SELECT_SQL = "SELECT json_build_object(" +
+            "'id', c.id, " +
+            "'firstName', c.first_name, " +
+            "'lastName', c.last_name, " +
+            "'displayName', c.display_name, " +
+            "'favorite', COALESCE(c.is_favorite, false), " +
+            "'createdAt', c.created_at, " +
+            "'updatedAt', c.updated_at, " +
+            "'details', COALESCE((" +
+            "  SELECT json_agg(json_build_object('type', d.detail_type, 'label', d.label, 'value', d.value, " +
+            "                                    'primary', COALESCE(d.is_primary, false)) " +
+            "                  ORDER BY d.is_primary DESC NULLS LAST, d.id) " +
+            "  FROM contact_details d WHERE d.contact_id = c.id), CAST('[]' AS json)), " +
+            "'companies', COALESCE((" +
+            "  SELECT json_agg(json_build_object('company', comp.name, 'jobTitle', jt.title, " +
+            "                                    'current', COALESCE(cc.is_current, false)) " +
+            "                  ORDER BY cc.is_current DESC NULLS LAST, cc.id) " +
+            "  FROM contact_companies cc " +
+            "  JOIN companies comp ON comp.id = cc.company_id " +
+            "  LEFT JOIN job_titles jt ON jt.id = cc.job_title_id " +
+            "  WHERE cc.contact_id = c.id), CAST('[]' AS json)), " +
+            "'events', COALESCE((" +
+            "  SELECT json_agg(json_build_object('type', e.event_type, 'customName', e.custom_event_name, " +
+            "                                    'date', e.event_date, 'notes', e.notes, " +
+            "                                    'yearly', COALESCE(e.yearly_recurrence, false)) " +
+            "                  ORDER BY e.event_date, e.id) " +
+            "  FROM events e WHERE e.contact_id = c.id), CAST('[]' AS json)), " +
+            "'socialProfiles', COALESCE((" +
+            "  SELECT json_agg(json_build_object('platform', sp.platform, " +
+            "                                    'customPlatformName', sp.custom_platform_name, " +
+            "                                    'username', sp.username, 'url', sp.profile_url) ORDER BY sp.id) " +
+            "  FROM social_profiles sp WHERE sp.contact_id = c.id), CAST('[]' AS json)), " +
+            "'tags', COALESCE((" +
+            "  SELECT json_agg(t.name ORDER BY t.name) " +
+            "  FROM contact_tags ct JOIN tags t ON t.id = ct.tag_id WHERE ct.contact_id = c.id), CAST('[]' AS json)), " +
+            "'notes', COALESCE((" +
+            "  SELECT json_agg(n.content ORDER BY n.created_at, n.id) " +
+            "  FROM notes n WHERE n.contact_id = c.id), CAST('[]' AS json))" +
+            ") FROM contacts c ";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    ContactExportQuery(DataSource dataSource, ObjectMapper objectMapper, AppConfig appConfig) {
+        // Отдельный шаблон: размер выборки курсора нужен только экспорту
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(Math.max(1, appConfig.getContactExportFetchSize()));
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Обработчик очередного контакта
+     */
+    @FunctionalInterface
+    interface ContactHandler {
+        void handle(ExportedContact contact) throws IOException;
+    }
+
+    /**
+     * Выбрать контакты по фильтрам поиска в порядке идентификаторов
+     *
+     * @param searchTerm  Поисковый запрос (null - без ограничения)
+     * @param companyName Название компании (null - без ограничения)
+     * @param tagName     Название тега (null - без ограничения)
+     * @param handler     Обработчик контакта
+     * @return Число выгруженных контактов
+     * @throws IOException при ошибке обработчика
+     */
+    long forEach(String searchTerm, String companyName, String tagName, ContactHandler handler) throws IOException {
+        String sql = SELECT_SQL +
+                "WHERE " + (searchTerm != null ? ContactRepository.FULL_TEXT_SEARCH_CONDITION
+                : ContactRepository.COMPANY_TAG_FILTER_CONDITION) +
+                "ORDER BY c.id";
+
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("searchTerm", searchTerm, Types.VARCHAR)
+                .addValue("companyName", companyName, Types.VARCHAR)
+                .addValue("tagName", tagName, Types.VARCHAR);
+
+        long[] count = {0};
+        try {
+            jdbcTemplate.query(sql, parameters, rs -> {
+                try {
+                    handler.handle(objectMapper.readValue(rs.getString(1), ExportedContact.class));
+                } catch (JsonProcessingException e) {
+                    throw new IllegalStateException("Не удалось разобрать данные контакта", e);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return count[0];
+    }
+}
@@ -0,0 +1,31 @@
+package ru.anastasia.NauJava.service.contactexport;
+
+import ru.anastasia.NauJava.entity.enums.ContactExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Сервис потокового экспорта контактов в CSV, vCard и JSON Lines
+ *
+ * <p>
+ * Контакты читаются курсором и записываются в поток по одному, поэтому потребление памяти
+ * не зависит от числа выгружаемых контактов.
+ * </p>
+ */
+public interface ContactExportService {
+
+    /**
+     * Выгрузить контакты, подходящие под фильтры поиска
+     *
+     * @param searchTerm  Поисковый запрос
+     * @param companyName Название компании
+     * @param tagName     Название тега
+     * @param format      Формат файла
+     * @param gzip        Сжимать ли результат gzip
+     * @param output      Поток для записи (закрывается по окончании)
+     * @throws IOException при ошибке записи, в том числе при разрыве соединения клиентом
+     */
+    void export(String searchTerm, String companyName, String tagName, ContactExportFormat format, boolean gzip,
+                OutputStream output) throws IOException;
+}
@@ -0,0 +1,59 @@
+package ru.anastasia.NauJava.service.contactexport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+import ru.anastasia.NauJava.entity.enums.ContactExportFormat;
+import ru.anastasia.NauJava.service.contactexport.writer.ContactRecordWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContactExportServiceImpl implements ContactExportService {
+
+    /**
+     * Размер буфера записи в поток ответа
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Потоковая выборка контактов
+     */
+    private final ContactExportQuery contactExportQuery;
+
+    /**
+     * Сериализатор JSON
+     */
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void export(String searchTerm, String companyName, String tagName, ContactExportFormat format,
+                       boolean gzip, OutputStream output) throws IOException {
+        String processedSearchTerm = StringUtils.hasText(searchTerm) ? searchTerm.trim() : null;
+        String processedCompanyName = StringUtils.hasText(companyName) ? companyName.trim() : null;
+        String processedTagName = StringUtils.hasText(tagName) ? tagName.trim() : null;
+        log.info("Экспорт контактов [формат: {}, gzip: {}, поиск: '{}', компания: '{}', тег: '{}']",
+                format, gzip, processedSearchTerm, processedCompanyName, processedTagName);
+
+        long started = System.currentTimeMillis();
+        OutputStream target = gzip ? new GZIPOutputStream(output, BUFFER_SIZE) : output;
+        try (ContactRecordWriter writer = ContactRecordWriter.of(format, new BufferedWriter(
+                new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE), objectMapper)) {
+            long exported = contactExportQuery.forEach(processedSearchTerm, processedCompanyName, processedTagName,
+                    writer::write);
+            log.info("Экспорт контактов завершен за {} мс: {} контактов", System.currentTimeMillis() - started,
+                    exported);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ru.anastasia.NauJava.service.contactexport.writer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.anastasia.NauJava.dto.contactexport.ExportedContact;
+import ru.anastasia.NauJava.entity.enums.ContactExportFormat;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Потоковая запись контактов в файл экспорта
+ *
+ * <p>
+ * Контакты записываются по одному и не накапливаются в памяти.
+ * </p>
+ */
+public interface ContactRecordWriter extends Closeable {
+
+    /**
+     * Записать контакт
+     *
+     * @param contact Контакт
+     * @throws IOException при ошибке записи
+     */
+    void write(ExportedContact contact) throws IOException;
+
+    /**
+     * Создать писатель для формата
+     *
+     * @param format       Формат файла
+     * @param writer       Приемник символов (закрывается вместе с писателем)
+     * @param objectMapper Сериализатор JSON
+     * @return Писатель контактов
+     */
+    static ContactRecordWriter of(ContactExportFormat format, Writer writer, ObjectMapper objectMapper) {
+        return switch (format) {
+            case CSV -> new CsvContactRecordWriter(writer);
+            case VCARD -> new VCardContactRecordWriter(writer);
+            case JSONL -> new JsonLinesContactRecordWriter(writer, objectMapper);
+        };
+    }
+}
@@ -0,0 +1,130 @@
+package ru.anastasia.NauJava.service.contactexport.writer;
+
+import ru.anastasia.NauJava.dto.contactexport.ExportedContact;
+import ru.anastasia.NauJava.entity.enums.DetailLabel;
+import ru.anastasia.NauJava.entity.enums.DetailType;
+import ru.anastasia.NauJava.entity.enums.EventType;
+import ru.anastasia.NauJava.entity.enums.SocialPlatform;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Запись контактов в CSV (RFC 4180, разделитель - запятая, перевод строки - CRLF)
+ *
+ * <p>
+ * Заголовок совпадает с названиями колонок импорта, поэтому выгруженный файл можно загрузить обратно.
+ * Несколько значений в одной колонке разделяются точкой с запятой; в колонки компании и должности
+ * попадает текущее (или первое) место работы, в колонку дня рождения - первое событие типа BIRTHDAY.
+ * </p>
+ */
+public class CsvContactRecordWriter implements ContactRecordWriter {
+
+    private static final String LIST_SEPARATOR = "; ";
+
+    private static final List<String> HEADER = List.of("id", "first_name", "last_name", "display_name", "favorite",
+            "email", "mobile", "phone", "work_phone", "home_phone", "address", "website", "company", "job_title",
+            "tags", "birthday", "social_profiles", "note");
+
+    private final Writer writer;
+
+    private boolean headerWritten;
+
+    public CsvContactRecordWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void write(ExportedContact contact) throws IOException {
+        writeHeader();
+
+        ExportedContact.Company company = contact.companies().isEmpty() ? null : contact.companies().getFirst();
+        String birthday = contact.events().stream()
+                .filter(event -> event.type() == EventType.BIRTHDAY)
+                .findFirst()
+                .map(event -> event.date().toString())
+                .orElse(null);
+
+        writeRecord(List.of(
+                String.valueOf(contact.id()),
+                nullToEmpty(contact.firstName()),
+                nullToEmpty(contact.lastName()),
+                nullToEmpty(contact.displayName()),
+                String.valueOf(contact.favorite()),
+                details(contact, DetailType.EMAIL, label -> true),
+                details(contact, DetailType.PHONE, label -> label == DetailLabel.MOBILE),
+                details(contact, DetailType.PHONE,
+                        label -> label != DetailLabel.MOBILE && label != DetailLabel.WORK && label != DetailLabel.HOME),
+                details(contact, DetailType.PHONE, label -> label == DetailLabel.WORK),
+                details(contact, DetailType.PHONE, label -> label == DetailLabel.HOME),
+                details(contact, DetailType.ADDRESS, label -> true),
+                details(contact, DetailType.WEBSITE, label -> true),
+                company != null ? nullToEmpty(company.company()) : "",
+                company != null ? nullToEmpty(company.jobTitle()) : "",
+                String.join(LIST_SEPARATOR, contact.tags()),
+                nullToEmpty(birthday),
+                contact.socialProfiles().stream()
+                        .map(CsvContactRecordWriter::socialProfile)
+                        .collect(Collectors.joining(LIST_SEPARATOR)),
+                String.join("\n\n", contact.notes())));
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (writer) {
+            writeHeader();
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        if (!headerWritten) {
+            headerWritten = true;
+            writeRecord(HEADER);
+        }
+    }
+
+    private void writeRecord(List<String> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeField(fields.get(i));
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Поле заключается в кавычки, только если содержит запятую, кавычку или перевод строки
+     */
+    private void writeField(String value) throws IOException {
+        boolean quote = value.chars().anyMatch(c -> c == ',' || c == '"' || c == '\r' || c == '\n');
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static String details(ExportedContact contact, DetailType type, Predicate<DetailLabel> label) {
+        return contact.details().stream()
+                .filter(detail -> detail.type() == type && label.test(detail.label()))
+                .map(ExportedContact.Detail::value)
+                .collect(Collectors.joining(LIST_SEPARATOR));
+    }
+
+    private static String socialProfile(ExportedContact.SocialProfile profile) {
+        String platform = profile.platform() == SocialPlatform.CUSTOM && profile.customPlatformName() != null
+                ? profile.customPlatformName() : profile.platform().name();
+        String account = profile.url() != null ? profile.url() : nullToEmpty(profile.username());
+        return platform + ": " + account;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,39 @@
+package ru.anastasia.NauJava.service.contactexport.writer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import ru.anastasia.NauJava.dto.contactexport.ExportedContact;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Запись контактов в JSON Lines: один контакт со всеми связанными данными на строку
+ */
+public class JsonLinesContactRecordWriter implements ContactRecordWriter {
+
+    private final Writer writer;
+
+    private final ObjectWriter objectWriter;
+
+    public JsonLinesContactRecordWriter(Writer writer, ObjectMapper objectMapper) {
+        this.writer = writer;
+        this.objectWriter = objectMapper.writerFor(ExportedContact.class)
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Override
+    public void write(ExportedContact contact) throws IOException {
+        objectWriter.writeValue(writer, contact);
+        writer.write('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,179 @@
+package ru.anastasia.NauJava.service.contactexport.writer;
+
+import ru.anastasia.NauJava.dto.contactexport.ExportedContact;
+import ru.anastasia.NauJava.entity.enums.EventType;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Запись контактов в vCard 3.0 (RFC 2426)
+ *
+ * <p>
+ * Строки длиннее 75 байт в UTF-8 сворачиваются, спецсимволы значений экранируются. Места работы, кроме
+ * первого, дни рождения, кроме первого, и прочие события в vCard 3.0 не представимы и не выгружаются.
+ * Профили социальных сетей записываются свойством X-SOCIALPROFILE.
+ * </p>
+ */
+public class VCardContactRecordWriter implements ContactRecordWriter {
+
+    /**
+     * Максимальная длина строки в байтах без учета перевода строки
+     */
+    private static final int MAX_LINE_BYTES = 75;
+
+    private final Writer writer;
+
+    public VCardContactRecordWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void write(ExportedContact contact) throws IOException {
+        writeLine("BEGIN:VCARD");
+        writeLine("VERSION:3.0");
+        writeLine("N:" + escape(contact.lastName()) + ";" + escape(contact.firstName()) + ";;;");
+        writeLine("FN:" + escape(displayName(contact)));
+
+        if (!contact.companies().isEmpty()) {
+            ExportedContact.Company company = contact.companies().getFirst();
+            writeLine("ORG:" + escape(company.company()));
+            if (company.jobTitle() != null) {
+                writeLine("TITLE:" + escape(company.jobTitle()));
+            }
+        }
+
+        for (ExportedContact.Detail detail : contact.details()) {
+            String type = type(detail);
+            switch (detail.type()) {
+                case EMAIL -> writeLine("EMAIL;TYPE=INTERNET" + (type != null ? "," + type : "") + ":"
+                        + escape(detail.value()));
+                case PHONE -> writeLine("TEL" + (type != null ? ";TYPE=" + type : "") + ":" + escape(detail.value()));
+                case ADDRESS -> writeLine("ADR" + (type != null ? ";TYPE=" + type : "") + ":;;"
+                        + escape(detail.value()) + ";;;;");
+                case WEBSITE -> writeLine("URL:" + escape(detail.value()));
+                default -> {
+                }
+            }
+        }
+
+        for (ExportedContact.Event event : contact.events()) {
+            if (event.type() == EventType.BIRTHDAY) {
+                writeLine("BDAY:" + event.date());
+                break;
+            }
+        }
+
+        if (!contact.tags().isEmpty()) {
+            writeLine("CATEGORIES:" + contact.tags().stream()
+                    .map(VCardContactRecordWriter::escape)
+                    .collect(Collectors.joining(",")));
+        }
+
+        for (ExportedContact.SocialProfile profile : contact.socialProfiles()) {
+            String account = profile.url() != null ? profile.url() : profile.username();
+            if (account != null) {
+                String platform = profile.customPlatformName() != null
+                        ? profile.customPlatformName() : profile.platform().name();
+                writeLine("X-SOCIALPROFILE;TYPE=" + parameter(platform.toLowerCase(Locale.ROOT)) + ":"
+                        + escape(account));
+            }
+        }
+
+        if (!contact.notes().isEmpty()) {
+            writeLine("NOTE:" + escape(String.join("\n\n", contact.notes())));
+        }
+        writeLine("END:VCARD");
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private static String displayName(ExportedContact contact) {
+        if (contact.displayName() != null && !contact.displayName().isBlank()) {
+            return contact.displayName();
+        }
+        return ((contact.firstName() == null ? "" : contact.firstName()) + " "
+                + (contact.lastName() == null ? "" : contact.lastName())).strip();
+    }
+
+    /**
+     * Тип способа связи для параметра TYPE (null - без типа)
+     */
+    private static String type(ExportedContact.Detail detail) {
+        return switch (detail.label()) {
+            case WORK -> "WORK";
+            case HOME -> "HOME";
+            case MOBILE -> "CELL";
+            case MAIN -> "PREF";
+            case OTHER -> null;
+        };
+    }
+
+    /**
+     * Экранирование значения (RFC 2426, 4): обратная косая черта, запятая, точка с запятой и перевод строки
+     */
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\', ',', ';' -> result.append('\\').append(c);
+                case '\n' -> result.append("\\n");
+                case '\r' -> {
+                }
+                default -> result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Значение параметра не может содержать двоеточие, точку с запятой, запятую и кавычки
+     */
+    private static String parameter(String value) {
+        return value.replaceAll("[:;,\"\\s]", "-");
+    }
+
+    /**
+     * Записать строку, свернув ее по 75 байт (RFC 2425, 5.8.1) без разрыва символов
+     */
+    private void writeLine(String line) throws IOException {
+        int start = 0;
+        int bytes = 0;
+        int limit = MAX_LINE_BYTES;
+        for (int i = 0; i < line.length(); ) {
+            int codePoint = line.codePointAt(i);
+            int size = utf8Length(codePoint);
+            if (bytes + size > limit) {
+                writer.write(line, start, i - start);
+                writer.write("\r\n ");
+                start = i;
+                bytes = 0;
+                // Строка продолжения начинается с пробела, который тоже входит в предел
+                limit = MAX_LINE_BYTES - 1;
+            }
+            bytes += size;
+            i += Character.charCount(codePoint);
+        }
+        writer.write(line, start, line.length() - start);
+        writer.write("\r\n");
+    }
+
+    private static int utf8Length(int codePoint) {
+        if (codePoint < 0x80) {
+            return 1;
+        }
+        if (codePoint < 0x800) {
+            return 2;
+        }
+        return codePoint < 0x10000 ? 3 : 4;
+    }
+}
@@ -0,0 +1,126 @@
+package ru.anastasia.NauJava.service.contactimport;
+
+import ru.anastasia.NauJava.dto.contactimport.ContactImportRowErrorDto;
+import ru.anastasia.NauJava.dto.contactimport.ContactImportStatusDto;
+import ru.anastasia.NauJava.entity.enums.ContactImportFormat;
+import ru.anastasia.NauJava.entity.enums.ContactImportState;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Изменяемое состояние одного импорта
+ *
+ * <p>
+ * Изменяется потоком импорта, читается потоками запросов состояния.
+ * </p>
+ */
+class ContactImportJob {
+
+    private final UUID id = UUID.randomUUID();
+
+    private final String fileName;
+
+    private final ContactImportFormat format;
+
+    private final long totalBytes;
+
+    private final int maxErrors;
+
+    private final List<ContactImportRowErrorDto> errors = new ArrayList<>();
+
+    private ContactImportState state = ContactImportState.QUEUED;
+
+    private long bytesRead;
+
+    private long rowsRead;
+
+    private long imported;
+
+    private long failed;
+
+    private boolean errorsTruncated;
+
+    private String failureMessage;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    ContactImportJob(String fileName, ContactImportFormat format, long totalBytes, int maxErrors) {
+        this.fileName = fileName;
+        this.format = format;
+        this.totalBytes = totalBytes;
+        this.maxErrors = maxErrors;
+    }
+
+    UUID getId() {
+        return id;
+    }
+
+    ContactImportFormat getFormat() {
+        return format;
+    }
+
+    synchronized boolean isFinished() {
+        return state == ContactImportState.COMPLETED || state == ContactImportState.FAILED;
+    }
+
+    synchronized void start() {
+        state = ContactImportState.RUNNING;
+        startedAt = LocalDateTime.now();
+    }
+
+    synchronized void rowRead(long bytes) {
+        rowsRead++;
+        bytesRead = bytes;
+    }
+
+    synchronized void imported(int count) {
+        imported += count;
+    }
+
+    synchronized void rejected(long row, String message) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new ContactImportRowErrorDto(row, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    synchronized void complete() {
+        state = ContactImportState.COMPLETED;
+        bytesRead = totalBytes;
+        finishedAt = LocalDateTime.now();
+    }
+
+    synchronized void fail(String message) {
+        state = ContactImportState.FAILED;
+        failureMessage = message;
+        finishedAt = LocalDateTime.now();
+    }
+
+    synchronized ContactImportStatusDto toDto() {
+        int percent = totalBytes > 0 ? (int) Math.min(100, bytesRead * 100 / totalBytes) : 0;
+        return ContactImportStatusDto.builder()
+                .id(id)
+                .fileName(fileName)
+                .format(format)
+                .state(state)
+                .bytesRead(bytesRead)
+                .totalBytes(totalBytes)
+                .percent(state == ContactImportState.COMPLETED ? 100 : percent)
+                .rowsRead(rowsRead)
+                .imported(imported)
+                .failed(failed)
+                .errors(List.copyOf(errors))
+                .errorsTruncated(errorsTruncated)
+                .failureMessage(failureMessage)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .build();
+    }
+}
@@ -0,0 +1,38 @@
+package ru.anastasia.NauJava.service.contactimport;
+
+import ru.anastasia.NauJava.dto.contactimport.ContactImportStatusDto;
+import ru.anastasia.NauJava.entity.enums.ContactImportFormat;
+import ru.anastasia.NauJava.exception.contactimport.ContactImportQueueFullException;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * Сервис импорта контактов из файлов CSV и vCard
+ *
+ * <p>
+ * Файл читается потоково и записывается пакетами в отдельных транзакциях: уже записанные пакеты
+ * сохраняются при ошибке в последующих. Некорректные строки пропускаются и попадают в отчет об ошибках.
+ * </p>
+ */
+public interface ContactImportService {
+
+    /**
+     * Запустить импорт в фоне
+     *
+     * @param file     Временный файл с данными (удаляется по окончании импорта)
+     * @param fileName Исходное имя файла
+     * @param format   Формат файла
+     * @return Состояние импорта
+     * @throws ContactImportQueueFullException если незавершенных импортов слишком много
+     */
+    ContactImportStatusDto start(Path file, String fileName, ContactImportFormat format);
+
+    /**
+     * Получить состояние импорта
+     *
+     * @param id Идентификатор импорта
+     * @return Состояние импорта
+     */
+    ContactImportStatusDto getStatus(UUID id);
+}
@@ -0,0 +1,400 @@
+package ru.anastasia.NauJava.service.contactimport;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.anastasia.NauJava.config.AppConfig;
+import ru.anastasia.NauJava.config.CacheConfig;
+import ru.anastasia.NauJava.dto.contactimport.ContactImportStatusDto;
+import ru.anastasia.NauJava.dto.contactimport.ImportedContact;
+import ru.anastasia.NauJava.dto.contactimport.ImportedDetail;
+import ru.anastasia.NauJava.dto.suggest.SuggestionDto;
+import ru.anastasia.NauJava.entity.enums.ContactImportFormat;
+import ru.anastasia.NauJava.entity.enums.SuggestionType;
+import ru.anastasia.NauJava.exception.contactimport.ContactImportNotFoundException;
+import ru.anastasia.NauJava.exception.contactimport.ContactImportQueueFullException;
+import ru.anastasia.NauJava.exception.contactimport.ContactImportRowException;
+import ru.anastasia.NauJava.service.contactimport.reader.ContactRecordReader;
+import ru.anastasia.NauJava.service.stats.DashboardCounters;
+import ru.anastasia.NauJava.service.stats.DashboardCounters.Counter;
+import ru.anastasia.NauJava.service.suggest.SuggestService;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContactImportServiceImpl implements ContactImportService {
+
+    /**
+     * Максимальная длина строковых полей (varchar(255))
+     */
+    private static final int MAX_LENGTH = 255;
+
+    /**
+     * Число хранимых в памяти импортов: при заполнении вытесняется самый старый завершенный,
+     * а если незавершенных уже столько же - новый импорт отклоняется
+     */
+    static final int MAX_JOBS = 50;
+
+    /**
+     * Пакетная запись контактов
+     */
+    private final ContactImportWriter contactImportWriter;
+
+    /**
+     * Шаблон транзакции для записи пакета
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Сервис подсказок быстрого поиска
+     */
+    private final SuggestService suggestService;
+
+    /**
+     * Счетчики панелей управления
+     */
+    private final DashboardCounters dashboardCounters;
+
+    /**
+     * Кэши справочников
+     */
+    private final CacheManager cacheManager;
+
+    /**
+     * Фабрика менеджеров сущностей (кэш запросов Hibernate)
+     */
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Конфигурация приложения
+     */
+    private final AppConfig appConfig;
+
+    /**
+     * Импорты выполняются по одному, чтобы не конкурировать за блокировки справочников
+     */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("contact-import-", 0).factory());
+
+    private final Map<UUID, ContactImportJob> jobs = new LinkedHashMap<>();
+
+    @Override
+    public ContactImportStatusDto start(Path file, String fileName, ContactImportFormat format) {
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            throw new IllegalStateException("Не удалось прочитать загруженный файл", e);
+        }
+
+        ContactImportJob job = new ContactImportJob(fileName, format, size, appConfig.getContactImportMaxErrors());
+        try {
+            register(job);
+        } catch (ContactImportQueueFullException e) {
+            deleteFile(file);
+            throw e;
+        }
+        log.info("Импорт контактов {} поставлен в очередь [файл: {}, формат: {}, размер: {} байт]",
+                job.getId(), fileName, format, size);
+
+        executor.execute(() -> run(job, file));
+        return job.toDto();
+    }
+
+    @Override
+    public ContactImportStatusDto getStatus(UUID id) {
+        ContactImportJob job;
+        synchronized (jobs) {
+            job = jobs.get(id);
+        }
+        if (job == null) {
+            throw new ContactImportNotFoundException("Не найден импорт с id: " + id);
+        }
+        return job.toDto();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(ContactImportJob job, Path file) {
+        job.start();
+        long started = System.currentTimeMillis();
+        int batchSize = Math.max(1, appConfig.getContactImportBatchSize());
+        ImportDictionaries dictionaries = new ImportDictionaries();
+        Set<SuggestionType> changedDictionaries = EnumSet.noneOf(SuggestionType.class);
+
+        try (CountingInputStream input = new CountingInputStream(Files.newInputStream(file));
+             ContactRecordReader reader = ContactRecordReader.of(job.getFormat(),
+                     new InputStreamReader(input, StandardCharsets.UTF_8))) {
+
+            List<ImportedContact> batch = new ArrayList<>(batchSize);
+            while (!Thread.currentThread().isInterrupted()) {
+                ImportedContact contact;
+                try {
+                    contact = reader.next();
+                } catch (ContactImportRowException e) {
+                    job.rowRead(input.getCount());
+                    job.rejected(e.getRow(), e.getMessage());
+                    continue;
+                }
+                if (contact == null) {
+                    break;
+                }
+
+                job.rowRead(input.getCount());
+                try {
+                    batch.add(normalize(contact));
+                } catch (ContactImportRowException e) {
+                    job.rejected(e.getRow(), e.getMessage());
+                }
+
+                if (batch.size() >= batchSize) {
+                    flush(job, batch, dictionaries, changedDictionaries);
+                    batch.clear();
+                }
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                // Остановка приложения: файл прочитан не полностью, уже записанные пакеты сохранены
+                job.fail("Импорт прерван остановкой приложения");
+                log.warn("Импорт контактов {} прерван: {}", job.getId(), job.toDto().getImported());
+                return;
+            }
+            flush(job, batch, dictionaries, changedDictionaries);
+
+            job.complete();
+            log.info("Импорт контактов {} завершен за {} мс: {}", job.getId(),
+                    System.currentTimeMillis() - started, job.toDto().getImported());
+        } catch (Exception e) {
+            log.error("Импорт контактов {} прерван: {}", job.getId(), e.getMessage(), e);
+            job.fail(e.getMessage());
+        } finally {
+            notifyDictionariesChanged(job, changedDictionaries);
+            deleteFile(file);
+        }
+    }
+
+    /**
+     * Сбросить кэши справочников на других узлах: транзакции импорта уведомлений не отправляют
+     */
+    private void notifyDictionariesChanged(ContactImportJob job, Set<SuggestionType> changedDictionaries) {
+        if (changedDictionaries.isEmpty()) {
+            return;
+        }
+        try {
+            contactImportWriter.notifyDictionariesChanged(changedDictionaries);
+        } catch (DataAccessException e) {
+            log.warn("Импорт контактов {}: не удалось отправить уведомление о сбросе кэшей справочников {}",
+                    job.getId(), changedDictionaries, e);
+        }
+    }
+
+    private static void deleteFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Не удалось удалить временный файл импорта {}", file, e);
+        }
+    }
+
+    /**
+     * Записать пакет; при ошибке пакета записать его контакты по одному, чтобы найти некорректные строки
+     */
+    private void flush(ContactImportJob job, List<ImportedContact> batch, ImportDictionaries dictionaries,
+                       Set<SuggestionType> changedDictionaries) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            write(job, batch, dictionaries, changedDictionaries);
+        } catch (DataAccessException | TransactionException e) {
+            if (batch.size() == 1) {
+                job.rejected(batch.getFirst().getRow(), "Ошибка записи: " + rootMessage(e));
+                return;
+            }
+
+            log.warn("Пакет импорта {} из {} контактов не записан, запись по одному: {}",
+                    job.getId(), batch.size(), rootMessage(e));
+            for (ImportedContact contact : batch) {
+                flush(job, List.of(contact), dictionaries, changedDictionaries);
+            }
+        }
+    }
+
+    private void write(ContactImportJob job, List<ImportedContact> batch, ImportDictionaries dictionaries,
+                       Set<SuggestionType> changedDictionaries) {
+        ContactImportWriter.Result result = transactionTemplate.execute(
+                status -> contactImportWriter.write(batch, dictionaries));
+
+        // Справочники запоминаются только после фиксации: откаченные идентификаторы использовать нельзя
+        dictionaries.merge(result.resolved());
+        job.imported(batch.size());
+        dashboardCounters.add(Counter.CONTACTS, batch.size());
+        dashboardCounters.add(Counter.COMPANIES, result.createdNames().stream()
+                .filter(created -> created.getType() == SuggestionType.COMPANY)
+                .count());
+
+        for (SuggestionDto created : result.createdNames()) {
+            suggestService.indexName(created.getType(), created.getId(), created.getLabel());
+            evictReferenceCache(created.getType());
+            changedDictionaries.add(created.getType());
+        }
+        if (!result.createdNames().isEmpty()) {
+            // Справочники записаны через JDBC в обход Hibernate: кэш запросов мог запомнить, что названия нет
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        }
+        Iterator<Long> ids = result.contactIds().iterator();
+        for (ImportedContact contact : batch) {
+            suggestService.indexContact(ids.next(), contact.getFirstName(), contact.getLastName(),
+                    contact.getDisplayName());
+        }
+    }
+
+    /**
+     * Сбросить кэш справочника, в который импорт добавил запись
+     */
+    private void evictReferenceCache(SuggestionType type) {
+        String name = switch (type) {
+            case COMPANY -> CacheConfig.COMPANIES;
+            case JOB_TITLE -> CacheConfig.JOB_TITLES;
+            case TAG -> CacheConfig.TAGS;
+            case CONTACT -> null;
+        };
+        Cache cache = name != null ? cacheManager.getCache(name) : null;
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Проверить контакт и дополнить имена так же, как при создании через форму
+     */
+    private static ImportedContact normalize(ImportedContact contact) {
+        if (contact.getFirstName() == null && contact.getLastName() == null) {
+            if (contact.getDisplayName() == null) {
+                throw new ContactImportRowException(contact.getRow(), "Не указано имя контакта");
+            }
+            String[] parts = contact.getDisplayName().split("\\s+", 2);
+            contact.setFirstName(parts[0]);
+            contact.setLastName(parts.length > 1 ? parts[1] : "");
+        }
+        if (contact.getFirstName() == null) {
+            contact.setFirstName("");
+        }
+        if (contact.getLastName() == null) {
+            contact.setLastName("");
+        }
+        if (contact.getDisplayName() == null) {
+            contact.setDisplayName((contact.getFirstName() + " " + contact.getLastName()).strip());
+        }
+
+        checkLength(contact, "Имя", contact.getFirstName());
+        checkLength(contact, "Фамилия", contact.getLastName());
+        checkLength(contact, "Имя для отображения", contact.getDisplayName());
+        checkLength(contact, "Компания", contact.getCompany());
+        checkLength(contact, "Должность", contact.getJobTitle());
+        for (String tag : contact.getTags()) {
+            checkLength(contact, "Тег", tag);
+        }
+        for (ImportedDetail detail : contact.getDetails()) {
+            checkLength(contact, "Способ связи", detail.value());
+        }
+        return contact;
+    }
+
+    private static void checkLength(ImportedContact contact, String field, String value) {
+        if (value != null && value.length() > MAX_LENGTH) {
+            throw new ContactImportRowException(contact.getRow(),
+                    field + " длиннее " + MAX_LENGTH + " символов");
+        }
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+
+    /**
+     * Запомнить импорт; при заполнении вытеснить самый старый завершенный
+     *
+     * @throws ContactImportQueueFullException если все хранимые импорты еще не завершены
+     */
+    private void register(ContactImportJob job) {
+        synchronized (jobs) {
+            if (jobs.size() >= MAX_JOBS) {
+                ContactImportJob oldest = jobs.values().stream()
+                        .filter(ContactImportJob::isFinished)
+                        .findFirst()
+                        .orElseThrow(() -> new ContactImportQueueFullException(
+                                "В очереди уже " + jobs.size() + " незавершенных импортов"));
+                jobs.remove(oldest.getId());
+            }
+            jobs.put(job.getId(), job);
+        }
+    }
+
+    /**
+     * Поток, считающий прочитанные байты для оценки прогресса
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private volatile long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package ru.anastasia.NauJava.service.contactimport;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import ru.anastasia.NauJava.dto.contactimport.ImportedContact;
+import ru.anastasia.NauJava.dto.contactimport.ImportedDetail;
+import ru.anastasia.NauJava.dto.suggest.SuggestionDto;
+import ru.anastasia.NauJava.entity.enums.DetailType;
+import ru.anastasia.NauJava.entity.enums.EventType;
+import ru.anastasia.NauJava.entity.enums.SuggestionType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Пакетная запись импортируемых контактов через JDBC
+ *
+ * <p>
+ * Идентификаторы контактов заранее выбираются из последовательности одним запросом блоками по
+ * {@value #ID_BLOCK_SIZE}, как их выбирает Hibernate (значение последовательности - верхняя граница блока), поэтому контакты и все дочерние записи вставляются пакетами JDBC без RETURNING по каждой строке.
+ * Компании, должности и теги создаются одним запросом INSERT ... ON CONFLICT DO NOTHING на справочник.
+ * Слушатели JPA при этом не вызываются. Должен выполняться внутри транзакции.
+ * </p>
+ *
+ * <p>
+ * Транзакция записи отключает триггеры сброса кэшей на других узлах: новых контактов и их дочерних строк
+ * еще нет ни в одном кэше, а уведомление на каждый пакет сбрасывало бы регионы целиком.
+ * Созданные справочники сбрасываются одним уведомлением по окончании импорта
+ * ({@link #notifyDictionariesChanged(Set)}).
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+class ContactImportWriter {
+
+    /**
+     * Шаг последовательности идентификаторов контактов (allocationSize в сущности Contact)
+     */
+    static final int ID_BLOCK_SIZE = 50;
+
+    private static final String DISABLE_CACHE_INVALIDATION_SQL = "SET LOCAL app.cache_invalidation = 'off'";
+
+    /**
+     * Уведомление о сбросе кэшей в формате триггеров notify_cache_invalidation (schema.sql)
+     */
+    private static final String NOTIFY_CACHE_INVALIDATION_SQL = "SELECT pg_notify('cache_invalidation', ?)";
+
+    private static final String ALLOCATE_CONTACT_ID_BLOCKS_SQL =
+            "SELECT nextval('contacts_seq') FROM generate_series(1, ?)";
+
+    private static final String INSERT_CONTACT_SQL =
+            "INSERT INTO contacts (id, first_name, last_name, display_name, is_favorite, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, false, ?, ?)";
+
+    private static final String INSERT_DETAIL_SQL =
+            "INSERT INTO contact_details (contact_id, detail_type, label, value, is_primary) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_CONTACT_COMPANY_SQL =
+            "INSERT INTO contact_companies (contact_id, company_id, job_title_id, is_current) VALUES (?, ?, ?, true)";
+
+    private static final String INSERT_CONTACT_TAG_SQL =
+            "INSERT INTO contact_tags (contact_id, tag_id, created_at) VALUES (?, ?, ?) " +
+                    "ON CONFLICT (contact_id, tag_id) DO NOTHING";
+
+    private static final String INSERT_BIRTHDAY_SQL =
+            "INSERT INTO events (contact_id, event_type, event_date, yearly_recurrence) VALUES (?, ?, ?, true)";
+
+    private static final String INSERT_NOTE_SQL =
+            "INSERT INTO notes (contact_id, content, created_at) VALUES (?, ?, ?)";
+
+    /**
+     * Справочник, разрешаемый по названию
+     *
+     * @param type         Тип сущности в индексе подсказок
+     * @param table        Таблица
+     * @param nameColumn   Уникальная колонка названия
+     * @param hasCreatedAt Есть ли в таблице колонка даты создания
+     */
+    private record Dictionary(SuggestionType type, String table, String nameColumn, boolean hasCreatedAt) {
+
+        /**
+         * Вставить недостающие названия и вернуть идентификаторы всех (третья колонка - признак создания)
+         */
+        String upsertSql() {
+            String columns = hasCreatedAt ? nameColumn + ", created_at" : nameColumn;
+            String values = hasCreatedAt ? "name, now()" : "name";
+            return "WITH input AS (SELECT DISTINCT unnest(CAST(? AS text[])) AS name), " +
+                    "inserted AS (INSERT INTO " + table + " (" + columns + ") SELECT " + values + " FROM input " +
+                    "ON CONFLICT (" + nameColumn + ") DO NOTHING RETURNING id, " + nameColumn + ") " +
+                    "SELECT id, " + nameColumn + ", true FROM inserted " +
+                    "UNION ALL SELECT t.id, t." + nameColumn + ", false FROM " + table + " t " +
+                    "JOIN input i ON i.name = t." + nameColumn;
+        }
+
+        String selectSql() {
+            return "SELECT id, " + nameColumn + " FROM " + table + " WHERE " + nameColumn + " = ANY(CAST(? AS text[]))";
+        }
+    }
+
+    private static final Dictionary COMPANIES = new Dictionary(SuggestionType.COMPANY, "companies", "name", true);
+
+    private static final Dictionary JOB_TITLES = new Dictionary(SuggestionType.JOB_TITLE, "job_titles", "title", false);
+
+    private static final Dictionary TAGS = new Dictionary(SuggestionType.TAG, "tags", "name", false);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Результат записи пакета
+     *
+     * @param contactIds   Идентификаторы созданных контактов в порядке пакета
+     * @param resolved     Идентификаторы справочников, впервые найденные в этом пакете
+     * @param createdNames Созданные записи справочников
+     */
+    record Result(List<Long> contactIds, ImportDictionaries resolved, List<SuggestionDto> createdNames) {
+    }
+
+    /**
+     * Записать пакет контактов
+     *
+     * @param contacts Проверенные контакты
+     * @param known    Уже найденные за время импорта идентификаторы справочников (не изменяются)
+     * @return Результат записи
+     */
+    Result write(List<ImportedContact> contacts, ImportDictionaries known) {
+        jdbcTemplate.execute(DISABLE_CACHE_INVALIDATION_SQL);
+
+        ImportDictionaries resolved = new ImportDictionaries();
+        List<SuggestionDto> createdNames = new ArrayList<>();
+
+        resolve(COMPANIES, contacts, c -> hasCompany(c) ? Set.of(c.getCompany()) : Set.of(),
+                known.getCompanies(), resolved.getCompanies(), createdNames);
+        resolve(JOB_TITLES, contacts, c -> hasCompany(c) ? Set.of(c.getJobTitle()) : Set.of(),
+                known.getJobTitles(), resolved.getJobTitles(), createdNames);
+        resolve(TAGS, contacts, ImportedContact::getTags, known.getTags(), resolved.getTags(), createdNames);
+
+        List<Long> ids = allocateContactIds(contacts.size());
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Object[]> contactRows = new ArrayList<>(contacts.size());
+        List<Object[]> detailRows = new ArrayList<>();
+        List<Object[]> companyRows = new ArrayList<>();
+        List<Object[]> tagRows = new ArrayList<>();
+        List<Object[]> birthdayRows = new ArrayList<>();
+        List<Object[]> noteRows = new ArrayList<>();
+
+        for (int i = 0; i < contacts.size(); i++) {
+            ImportedContact contact = contacts.get(i);
+            Long id = ids.get(i);
+
+            contactRows.add(new Object[]{id, contact.getFirstName(), contact.getLastName(),
+                    contact.getDisplayName(), now, now});
+
+            Set<DetailType> primaryAssigned = EnumSet.noneOf(DetailType.class);
+            for (ImportedDetail detail : contact.getDetails()) {
+                boolean primary = primaryAssigned.add(detail.type());
+                detailRows.add(new Object[]{id, detail.type().name(), detail.label().name(), detail.value(), primary});
+            }
+
+            if (hasCompany(contact)) {
+                companyRows.add(new Object[]{id, idOf(contact.getCompany(), known.getCompanies(), resolved.getCompanies()),
+                        idOf(contact.getJobTitle(), known.getJobTitles(), resolved.getJobTitles())});
+            }
+
+            for (String tag : contact.getTags()) {
+                tagRows.add(new Object[]{id, idOf(tag, known.getTags(), resolved.getTags()), now});
+            }
+
+            if (contact.getBirthday() != null) {
+                birthdayRows.add(new Object[]{id, EventType.BIRTHDAY.name(), contact.getBirthday()});
+            }
+
+            if (contact.getNote() != null) {
+                noteRows.add(new Object[]{id, contact.getNote(), now});
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_CONTACT_SQL, contactRows);
+        batchUpdate(INSERT_DETAIL_SQL, detailRows);
+        batchUpdate(INSERT_CONTACT_COMPANY_SQL, companyRows);
+        batchUpdate(INSERT_CONTACT_TAG_SQL, tagRows);
+        batchUpdate(INSERT_BIRTHDAY_SQL, birthdayRows);
+        batchUpdate(INSERT_NOTE_SQL, noteRows);
+
+        return new Result(ids, resolved, createdNames);
+    }
+
+    /**
+     * Сбросить на всех узлах кэши справочников, в которые импорт добавил записи
+     *
+     * <p>
+     * Вызывается вне транзакции записи: уведомление уходит сразу, по одному на справочник.
+     * </p>
+     *
+     * @param types Справочники с созданными записями
+     */
+    void notifyDictionariesChanged(Set<SuggestionType> types) {
+        for (Dictionary dictionary : List.of(COMPANIES, JOB_TITLES, TAGS)) {
+            if (types.contains(dictionary.type())) {
+                jdbcTemplate.query(NOTIFY_CACHE_INVALIDATION_SQL, (RowCallbackHandler) rs -> {
+                }, dictionary.table() + ".id:*");
+            }
+        }
+    }
+
+    /**
+     * Выбрать идентификаторы контактов целыми блоками последовательности
+     */
+    private List<Long> allocateContactIds(int count) {
+        int blocks = (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+        List<Long> ids = new ArrayList<>(count);
+        for (Long last : jdbcTemplate.queryForList(ALLOCATE_CONTACT_ID_BLOCKS_SQL, Long.class, blocks)) {
+            for (long id = last - ID_BLOCK_SIZE + 1; id <= last && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Найти или создать записи справочника для названий пакета, еще не найденных за время импорта
+     */
+    private void resolve(Dictionary dictionary, List<ImportedContact> contacts,
+                         Function<ImportedContact, Set<String>> names, Map<String, Long> known,
+                         Map<String, Long> resolved, List<SuggestionDto> createdNames) {
+        Set<String> missing = new LinkedHashSet<>();
+        for (ImportedContact contact : contacts) {
+            for (String name : names.apply(contact)) {
+                if (!known.containsKey(name)) {
+                    missing.add(name);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        String[] array = missing.toArray(String[]::new);
+        jdbcTemplate.query(dictionary.upsertSql(), rs -> {
+            Long id = rs.getLong(1);
+            String name = rs.getString(2);
+            resolved.put(name, id);
+            if (rs.getBoolean(3)) {
+                createdNames.add(new SuggestionDto(dictionary.type(), id, name));
+            }
+        }, (Object) array);
+
+        // Запись, созданная параллельной транзакцией после начала запроса, не видна в его снимке
+        if (resolved.keySet().containsAll(missing)) {
+            return;
+        }
+        missing.removeAll(resolved.keySet());
+        jdbcTemplate.query(dictionary.selectSql(), rs -> {
+            resolved.put(rs.getString(2), rs.getLong(1));
+        }, (Object) missing.toArray(String[]::new));
+    }
+
+    /**
+     * Место работы записывается, только если указаны и компания, и должность
+     */
+    private static boolean hasCompany(ImportedContact contact) {
+        return contact.getCompany() != null && contact.getJobTitle() != null;
+    }
+
+    private static Long idOf(String name, Map<String, Long> known, Map<String, Long> resolved) {
+        Long id = known.get(name);
+        return id != null ? id : resolved.get(name);
+    }
+
+    private void batchUpdate(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ru.anastasia.NauJava.service.contactimport;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Идентификаторы справочников (компаний, должностей, тегов) по названию, найденные за время импорта
+ *
+ * <p>
+ * Каждое название разрешается в базе один раз за импорт. Не потокобезопасен: используется одним потоком импорта.
+ * </p>
+ */
+@Getter
+class ImportDictionaries {
+    /**
+     * Компании по названию
+     */
+    private final Map<String, Long> companies = new HashMap<>();
+
+    /**
+     * Должности по названию
+     */
+    private final Map<String, Long> jobTitles = new HashMap<>();
+
+    /**
+     * Теги по названию
+     */
+    private final Map<String, Long> tags = new HashMap<>();
+
+    /**
+     * Добавить найденные идентификаторы
+     *
+     * @param other Идентификаторы, найденные при записи пакета
+     */
+    void merge(ImportDictionaries other) {
+        companies.putAll(other.companies);
+        jobTitles.putAll(other.jobTitles);
+        tags.putAll(other.tags);
+    }
+}
@@ -0,0 +1,44 @@
+package ru.anastasia.NauJava.service.contactimport.reader;
+
+import ru.anastasia.NauJava.dto.contactimport.ImportedContact;
+import ru.anastasia.NauJava.entity.enums.ContactImportFormat;
+import ru.anastasia.NauJava.exception.contactimport.ContactImportRowException;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Потоковое чтение контактов из файла импорта
+ *
+ * <p>
+ * Записи читаются по одной, в памяти держится только текущая запись.
+ * </p>
+ */
+public interface ContactRecordReader extends Closeable {
+
+    /**
+     * Прочитать следующий контакт
+     *
+     * @return Контакт или null, если записи закончились
+     * @throws ContactImportRowException если запись некорректна; чтение можно продолжать со следующей
+     * @throws IOException               при ошибке чтения
+     */
+    ImportedContact next() throws IOException;
+
+    /**
+     * Создать читатель для формата
+     *
+     * @param format Формат файла
+     * @param reader Источник символов
+     * @return Читатель контактов
+     */
+    static ContactRecordReader of(ContactImportFormat format, Reader reader) {
+        BufferedReader buffered = reader instanceof BufferedReader br ? br : new BufferedReader(reader);
+        return switch (format) {
+            case CSV -> new CsvContactRecordReader(buffered);
+            case VCARD -> new VCardContactRecordReader(buffered);
+        };
+    }
+}
@@ -0,0 +1,277 @@
+package ru.anastasia.NauJava.service.contactimport.reader;
+
+import ru.anastasia.NauJava.dto.contactimport.ImportedContact;
+import ru.anastasia.NauJava.dto.contactimport.ImportedDetail;
+import ru.anastasia.NauJava.entity.enums.DetailLabel;
+import ru.anastasia.NauJava.entity.enums.DetailType;
+import ru.anastasia.NauJava.exception.contactimport.ContactImportRowException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Потоковое чтение контактов из CSV (RFC 4180)
+ *
+ * <p>
+ * Первая строка - заголовок; колонки сопоставляются по названию (на английском или русском,
+ * без учета регистра, пробелов и подчеркиваний). Разделитель (запятая, точка с запятой или табуляция)
+ * определяется по заголовку. Поля в кавычках могут содержать разделители и переводы строк.
+ * В колонках email, телефонов и тегов допускается несколько значений через запятую или точку с запятой.
+ * </p>
+ */
+public class CsvContactRecordReader implements ContactRecordReader {
+
+    /**
+     * Максимальная длина строки заголовка для определения разделителя
+     */
+    private static final int HEADER_LOOKAHEAD = 64 * 1024;
+
+    /**
+     * Метка порядка байтов, которую добавляют некоторые редакторы в начало UTF-8 файла
+     */
+    private static final char BOM = '\uFEFF';
+
+    private static final Pattern LIST_SEPARATOR = Pattern.compile("[;,]");
+
+    private static final Pattern EMAIL_SEPARATOR = Pattern.compile("[;,\\s]+");
+
+    private static final Pattern NOT_LETTER_OR_DIGIT = Pattern.compile("[^\\p{L}\\p{Nd}]");
+
+    /**
+     * Колонки файла и их названия в заголовке
+     */
+    private enum Column {
+        FIRST_NAME("firstname", "givenname", "имя"),
+        LAST_NAME("lastname", "familyname", "surname", "фамилия"),
+        DISPLAY_NAME("displayname", "fullname", "name", "отображаемоеимя", "полноеимя"),
+        EMAIL("email", "emailaddress", "mail", "почта", "электроннаяпочта"),
+        PHONE("phone", "phonenumber", "telephone", "телефон"),
+        MOBILE_PHONE("mobile", "mobilephone", "cell", "мобильный", "мобильныйтелефон"),
+        WORK_PHONE("workphone", "рабочийтелефон"),
+        HOME_PHONE("homephone", "домашнийтелефон"),
+        ADDRESS("address", "адрес"),
+        WEBSITE("website", "url", "web", "сайт"),
+        COMPANY("company", "organization", "organisation", "компания", "организация"),
+        JOB_TITLE("jobtitle", "title", "position", "должность"),
+        TAGS("tags", "categories", "groups", "теги", "группы"),
+        BIRTHDAY("birthday", "birthdate", "dateofbirth", "деньрождения", "датарождения"),
+        NOTE("note", "notes", "заметка", "заметки", "комментарий");
+
+        private final List<String> aliases;
+
+        Column(String... aliases) {
+            this.aliases = List.of(aliases);
+        }
+
+        static Column byHeader(String header) {
+            String normalized = NOT_LETTER_OR_DIGIT.matcher(header.toLowerCase(Locale.ROOT).replace('ё', 'е'))
+                    .replaceAll("");
+            for (Column column : values()) {
+                if (column.aliases.contains(normalized)) {
+                    return column;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final BufferedReader reader;
+
+    private char delimiter;
+
+    private Map<Column, Integer> columns;
+
+    /**
+     * Номер текущей физической строки файла (с единицы)
+     */
+    private long line = 1;
+
+    public CsvContactRecordReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public ImportedContact next() throws IOException {
+        if (columns == null) {
+            readHeader();
+        }
+
+        while (true) {
+            long row = line;
+            List<String> fields = readRecord();
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() == 1 && fields.getFirst().isBlank()) {
+                continue;
+            }
+            return toContact(row, fields);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() throws IOException {
+        reader.mark(HEADER_LOOKAHEAD);
+        int first = reader.read();
+        if (first != BOM) {
+            reader.reset();
+            reader.mark(HEADER_LOOKAHEAD);
+        }
+
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            throw new IllegalArgumentException("Файл CSV пуст");
+        }
+        reader.reset();
+        if (first == BOM) {
+            reader.read();
+        }
+
+        delimiter = detectDelimiter(headerLine);
+        List<String> headers = readRecord();
+
+        columns = new EnumMap<>(Column.class);
+        for (int i = 0; i < headers.size(); i++) {
+            Column column = Column.byHeader(headers.get(i));
+            if (column != null) {
+                columns.putIfAbsent(column, i);
+            }
+        }
+
+        if (!columns.containsKey(Column.FIRST_NAME) && !columns.containsKey(Column.LAST_NAME)
+                && !columns.containsKey(Column.DISPLAY_NAME)) {
+            throw new IllegalArgumentException("В заголовке CSV не найдены колонки имени контакта: " + headerLine);
+        }
+    }
+
+    private static char detectDelimiter(String header) {
+        char best = ',';
+        long bestCount = 0;
+        for (char candidate : new char[]{',', ';', '\t'}) {
+            long count = header.chars().filter(c -> c == candidate).count();
+            if (count > bestCount) {
+                best = candidate;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Прочитать одну запись с учетом кавычек
+     *
+     * @return Поля записи или null в конце файла
+     */
+    private List<String> readRecord() throws IOException {
+        int c = reader.read();
+        if (c < 0) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (c >= 0) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next >= 0) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                line++;
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private ImportedContact toContact(long row, List<String> fields) {
+        ImportedContact contact = ImportedContact.builder()
+                .row(row)
+                .firstName(value(fields, Column.FIRST_NAME))
+                .lastName(value(fields, Column.LAST_NAME))
+                .displayName(value(fields, Column.DISPLAY_NAME))
+                .company(value(fields, Column.COMPANY))
+                .jobTitle(value(fields, Column.JOB_TITLE))
+                .note(value(fields, Column.NOTE))
+                .build();
+
+        addDetails(contact, DetailType.EMAIL, DetailLabel.OTHER, value(fields, Column.EMAIL), EMAIL_SEPARATOR);
+        addDetails(contact, DetailType.PHONE, DetailLabel.MOBILE, value(fields, Column.MOBILE_PHONE), LIST_SEPARATOR);
+        addDetails(contact, DetailType.PHONE, DetailLabel.OTHER, value(fields, Column.PHONE), LIST_SEPARATOR);
+        addDetails(contact, DetailType.PHONE, DetailLabel.WORK, value(fields, Column.WORK_PHONE), LIST_SEPARATOR);
+        addDetails(contact, DetailType.PHONE, DetailLabel.HOME, value(fields, Column.HOME_PHONE), LIST_SEPARATOR);
+        String address = value(fields, Column.ADDRESS);
+        if (address != null) {
+            contact.getDetails().add(new ImportedDetail(DetailType.ADDRESS, DetailLabel.OTHER, address));
+        }
+        String website = value(fields, Column.WEBSITE);
+        if (website != null) {
+            contact.getDetails().add(new ImportedDetail(DetailType.WEBSITE, DetailLabel.OTHER, website));
+        }
+
+        contact.getTags().addAll(ImportValues.split(value(fields, Column.TAGS), LIST_SEPARATOR));
+
+        try {
+            contact.setBirthday(ImportValues.parseDate(value(fields, Column.BIRTHDAY)));
+        } catch (IllegalArgumentException e) {
+            throw new ContactImportRowException(row, e.getMessage());
+        }
+        return contact;
+    }
+
+    private String value(List<String> fields, Column column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        return ImportValues.trimToNull(fields.get(index));
+    }
+
+    private static void addDetails(ImportedContact contact, DetailType type, DetailLabel label,
+                                   String value, Pattern separator) {
+        for (String item : ImportValues.split(value, separator)) {
+            contact.getDetails().add(new ImportedDetail(type, label, item));
+        }
+    }
+}
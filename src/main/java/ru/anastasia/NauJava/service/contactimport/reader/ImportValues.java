@@ -0,0 +1,100 @@
+package ru.anastasia.NauJava.service.contactimport.reader;
+
+import ru.anastasia.NauJava.entity.enums.DetailLabel;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Разбор значений полей файлов импорта
+ */
+final class ImportValues {
+
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.BASIC_ISO_DATE,
+            DateTimeFormatter.ofPattern("dd.MM.yyyy"));
+
+    private ImportValues() {
+    }
+
+    /**
+     * Обрезать пробелы; пустую строку заменить на null
+     */
+    static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.strip();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * Разбить значение со списком на непустые элементы
+     */
+    static List<String> split(String value, Pattern separator) {
+        List<String> result = new ArrayList<>();
+        if (value == null) {
+            return result;
+        }
+        for (String part : separator.split(value)) {
+            String item = trimToNull(part);
+            if (item != null) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Разобрать дату в форматах yyyy-MM-dd, yyyyMMdd или dd.MM.yyyy
+     *
+     * @return Дата или null для пустого значения
+     * @throws IllegalArgumentException если дата не распознана
+     */
+    static LocalDate parseDate(String value) {
+        String trimmed = trimToNull(value);
+        if (trimmed == null) {
+            return null;
+        }
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(trimmed, format);
+            } catch (DateTimeParseException ignored) {
+                // пробуем следующий формат
+            }
+        }
+        throw new IllegalArgumentException("Некорректная дата: " + trimmed);
+    }
+
+    /**
+     * Определить лейбл способа связи по типам (work, home, cell, pref, ...)
+     */
+    static DetailLabel label(Collection<String> types) {
+        for (String type : types) {
+            switch (type.toLowerCase(Locale.ROOT)) {
+                case "cell", "mobile" -> {
+                    return DetailLabel.MOBILE;
+                }
+                case "work" -> {
+                    return DetailLabel.WORK;
+                }
+                case "home" -> {
+                    return DetailLabel.HOME;
+                }
+                case "main", "pref" -> {
+                    return DetailLabel.MAIN;
+                }
+                default -> {
+                }
+            }
+        }
+        return DetailLabel.OTHER;
+    }
+}
@@ -0,0 +1,295 @@
+package ru.anastasia.NauJava.service.contactimport.reader;
+
+import ru.anastasia.NauJava.dto.contactimport.ImportedContact;
+import ru.anastasia.NauJava.dto.contactimport.ImportedDetail;
+import ru.anastasia.NauJava.entity.enums.DetailLabel;
+import ru.anastasia.NauJava.entity.enums.DetailType;
+import ru.anastasia.NauJava.exception.contactimport.ContactImportRowException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Потоковое чтение контактов из vCard 3.0 / 4.0
+ *
+ * <p>
+ * Файл может содержать любое число карточек BEGIN:VCARD ... END:VCARD; свернутые строки (RFC 6350, 3.2)
+ * разворачиваются. Используются свойства N, FN, EMAIL, TEL, ADR, URL, ORG, TITLE, BDAY, CATEGORIES и NOTE,
+ * остальные пропускаются. Дата рождения без года (--MMDD) не импортируется.
+ * </p>
+ */
+public class VCardContactRecordReader implements ContactRecordReader {
+
+    /**
+     * Метка порядка байтов в начале UTF-8 файла
+     */
+    private static final char BOM = '\uFEFF';
+
+    private final BufferedReader reader;
+
+    /**
+     * Прочитанная вперед физическая строка (для разворачивания свернутых строк)
+     */
+    private String lookahead;
+
+    /**
+     * Номер строки {@link #lookahead}
+     */
+    private long lookaheadLine;
+
+    /**
+     * Номер последней прочитанной физической строки
+     */
+    private long physicalLine;
+
+    /**
+     * Номер строки начала последней развернутой строки
+     */
+    private long logicalLine;
+
+    public VCardContactRecordReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public ImportedContact next() throws IOException {
+        String line;
+        do {
+            line = readLogicalLine();
+            if (line == null) {
+                return null;
+            }
+        } while (!line.equalsIgnoreCase("BEGIN:VCARD"));
+
+        long row = logicalLine;
+        ImportedContact contact = ImportedContact.builder().row(row).build();
+        String error = null;
+
+        while ((line = readLogicalLine()) != null && !line.equalsIgnoreCase("END:VCARD")) {
+            try {
+                applyProperty(contact, line);
+            } catch (IllegalArgumentException e) {
+                if (error == null) {
+                    error = e.getMessage();
+                }
+            }
+        }
+
+        if (line == null) {
+            throw new ContactImportRowException(row, "Карточка vCard не завершена строкой END:VCARD");
+        }
+        if (error != null) {
+            throw new ContactImportRowException(row, error);
+        }
+        return contact;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String readLogicalLine() throws IOException {
+        String line = lookahead != null ? lookahead : readPhysicalLine();
+        logicalLine = lookahead != null ? lookaheadLine : physicalLine;
+        lookahead = null;
+        if (line == null) {
+            return null;
+        }
+
+        StringBuilder unfolded = new StringBuilder(line);
+        String next;
+        while ((next = readPhysicalLine()) != null) {
+            if (!next.isEmpty() && (next.charAt(0) == ' ' || next.charAt(0) == '\t')) {
+                unfolded.append(next, 1, next.length());
+            } else {
+                lookahead = next;
+                lookaheadLine = physicalLine;
+                break;
+            }
+        }
+        return unfolded.toString().strip();
+    }
+
+    private String readPhysicalLine() throws IOException {
+        String line = reader.readLine();
+        if (line != null) {
+            physicalLine++;
+            if (physicalLine == 1 && !line.isEmpty() && line.charAt(0) == BOM) {
+                line = line.substring(1);
+            }
+        }
+        return line;
+    }
+
+    private static void applyProperty(ImportedContact contact, String line) {
+        int colon = indexOfUnquoted(line, ':');
+        if (colon < 0) {
+            return;
+        }
+
+        List<String> head = splitUnquoted(line.substring(0, colon), ';');
+        String name = head.getFirst();
+        int group = name.indexOf('.');
+        if (group >= 0) {
+            name = name.substring(group + 1);
+        }
+        Set<String> types = types(head.subList(1, head.size()));
+        String value = line.substring(colon + 1);
+
+        switch (name.toUpperCase(Locale.ROOT)) {
+            case "N" -> {
+                List<String> parts = splitEscaped(value, ';');
+                contact.setLastName(ImportValues.trimToNull(parts.get(0)));
+                if (parts.size() > 1) {
+                    contact.setFirstName(ImportValues.trimToNull(parts.get(1)));
+                }
+            }
+            case "FN" -> contact.setDisplayName(ImportValues.trimToNull(unescape(value)));
+            case "EMAIL" -> addDetail(contact, DetailType.EMAIL, types, unescape(value));
+            case "TEL" -> addDetail(contact, DetailType.PHONE, types, stripScheme(unescape(value), "tel:"));
+            case "URL" -> addDetail(contact, DetailType.WEBSITE, types, unescape(value));
+            case "ADR" -> {
+                StringJoiner address = new StringJoiner(", ");
+                for (String part : splitEscaped(value, ';')) {
+                    String item = ImportValues.trimToNull(part);
+                    if (item != null) {
+                        address.add(item);
+                    }
+                }
+                addDetail(contact, DetailType.ADDRESS, types, address.toString());
+            }
+            case "ORG" -> contact.setCompany(ImportValues.trimToNull(splitEscaped(value, ';').getFirst()));
+            case "TITLE" -> contact.setJobTitle(ImportValues.trimToNull(unescape(value)));
+            case "BDAY" -> contact.setBirthday(parseBirthday(value));
+            case "CATEGORIES" -> {
+                for (String tag : splitEscaped(value, ',')) {
+                    String item = ImportValues.trimToNull(tag);
+                    if (item != null) {
+                        contact.getTags().add(item);
+                    }
+                }
+            }
+            case "NOTE" -> {
+                String note = ImportValues.trimToNull(unescape(value));
+                if (note != null) {
+                    contact.setNote(contact.getNote() == null ? note : contact.getNote() + "\n" + note);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private static void addDetail(ImportedContact contact, DetailType type, Set<String> types, String value) {
+        String trimmed = ImportValues.trimToNull(value);
+        if (trimmed != null) {
+            DetailLabel label = ImportValues.label(types);
+            contact.getDetails().add(new ImportedDetail(type, label, trimmed));
+        }
+    }
+
+    /**
+     * Дата рождения: 19850412, 1985-04-12 или 1985-04-12T00:00:00; без года (--0412) пропускается
+     */
+    private static LocalDate parseBirthday(String value) {
+        String trimmed = ImportValues.trimToNull(value);
+        if (trimmed == null || trimmed.startsWith("--")) {
+            return null;
+        }
+        int time = trimmed.indexOf('T');
+        return ImportValues.parseDate(time > 0 ? trimmed.substring(0, time) : trimmed);
+    }
+
+    /**
+     * Типы из параметров: TYPE=work,voice (3.0/4.0), TYPE="work,voice" (4.0) или WORK (2.1)
+     */
+    private static Set<String> types(List<String> parameters) {
+        Set<String> types = new LinkedHashSet<>();
+        for (String parameter : parameters) {
+            int equals = parameter.indexOf('=');
+            String key = equals < 0 ? "TYPE" : parameter.substring(0, equals);
+            if (!key.equalsIgnoreCase("TYPE")) {
+                continue;
+            }
+            String values = equals < 0 ? parameter : parameter.substring(equals + 1).replace("\"", "");
+            for (String type : values.split(",")) {
+                if (!type.isBlank()) {
+                    types.add(type.strip().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return types;
+    }
+
+    private static String stripScheme(String value, String scheme) {
+        return value.regionMatches(true, 0, scheme, 0, scheme.length()) ? value.substring(scheme.length()) : value;
+    }
+
+    private static int indexOfUnquoted(String text, char target) {
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == target && !quoted) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<String> splitUnquoted(String text, char separator) {
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        int next;
+        while ((next = indexOfUnquoted(text.substring(start), separator)) >= 0) {
+            parts.add(text.substring(start, start + next));
+            start += next + 1;
+        }
+        parts.add(text.substring(start));
+        return parts;
+    }
+
+    /**
+     * Разбить значение по неэкранированному разделителю и снять экранирование с частей
+     */
+    private static List<String> splitEscaped(String value, char separator) {
+        List<String> parts = new ArrayList<>();
+        StringBuilder part = new StringBuilder();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                part.append(c).append(value.charAt(++i));
+            } else if (c == separator) {
+                parts.add(unescape(part.toString()));
+                part.setLength(0);
+            } else {
+                part.append(c);
+            }
+        }
+        parts.add(unescape(part.toString()));
+        return parts;
+    }
+
+    private static String unescape(String value) {
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                result.append(next == 'n' || next == 'N' ? '\n' : next);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -26,6 +26,15 @@ public interface EventService {
      */
     List<Event> findUpcomingBirthdays(int daysAhead);
 
+    /**
+     * Получить дни рождения, которые наступят в ближайшие N дней (по месяцу и дню, без учета года рождения),
+     * вместе с контактами
+     *
+     * @param daysAhead Число дней
+     * @return Список дней рождения с загруженными контактами
+     */
+    List<Event> findUpcomingBirthdaysWithContacts(int daysAhead);
+
     /**
      * Получить день рождения контакта
      *
@@ -14,6 +14,7 @@ import ru.anastasia.NauJava.mapper.event.EventMapper;
 import ru.anastasia.NauJava.repository.event.EventRepository;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
@@ -24,6 +25,7 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 @RequiredArgsConstructor
 @Transactional
 public class EventServiceImpl implements EventService {
+
     /**
      * Репозиторий событий
      */
@@ -164,14 +166,21 @@ public class EventServiceImpl implements EventService {
     @Override
     public List<Event> findUpcomingBirthdays(int daysAhead) {
         log.debug("Поиск предстоящих дней рождения на {} дней вперед", daysAhead);
+        return findUpcomingBirthdaysWithContacts(daysAhead);
+    }
 
-        LocalDate start = LocalDate.now();
-        LocalDate end = start.plusDays(daysAhead);
-        List<Event> birthdays = eventRepository.findByEventTypeAndEventDateBetween(EventType.BIRTHDAY, start, end);
+    @Transactional(readOnly = true)
+    @Override
+    public List<Event> findUpcomingBirthdaysWithContacts(int daysAhead) {
+        log.debug("Поиск дней рождения с контактами на {} дней вперед", daysAhead);
 
-        log.debug("Найдено {} дней рождения на период с {} по {}",
-                birthdays.size(), start, end);
+        List<MonthDayRange> ranges = MonthDayRange.upcoming(LocalDate.now(), daysAhead);
+        List<Event> birthdays = new ArrayList<>();
+        for (MonthDayRange range : ranges) {
+            birthdays.addAll(eventRepository.findBirthdaysWithContactByMonthDayBetween(range.from(), range.to()));
+        }
 
+        log.debug("Найдено {} дней рождения в диапазонах {}", birthdays.size(), ranges);
         return birthdays;
     }
 
@@ -180,12 +189,13 @@ public class EventServiceImpl implements EventService {
     public Long countUpcomingBirthdays(int daysAhead) {
         log.debug("Подсчет количества предстоящих дней рождения на {} дней вперед", daysAhead);
 
-        LocalDate start = LocalDate.now();
-        LocalDate end = start.plusDays(daysAhead);
-        Long count = eventRepository.countByEventTypeAndEventDateBetween(EventType.BIRTHDAY, start, end);
-
-        log.debug("Найдено {} дней рождения на период с {} по {}", count, start, end);
+        List<MonthDayRange> ranges = MonthDayRange.upcoming(LocalDate.now(), daysAhead);
+        long count = 0;
+        for (MonthDayRange range : ranges) {
+            count += eventRepository.countBirthdaysByMonthDayBetween(range.from(), range.to());
+        }
 
+        log.debug("Найдено {} дней рождения в диапазонах {}", count, ranges);
         return count;
     }
 
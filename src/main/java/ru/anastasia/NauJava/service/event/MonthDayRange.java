@@ -0,0 +1,78 @@
+package ru.anastasia.NauJava.service.event;
+
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.List;
+
+/**
+ * Диапазон дат без учета года в виде чисел MMdd (включительно)
+ *
+ * <p>
+ * Соответствует вычисляемому столбцу {@code events.month_day}, поэтому условие
+ * {@code month_day BETWEEN from AND to} обслуживается индексом.
+ * </p>
+ *
+ * @param from Начало диапазона, MMdd
+ * @param to   Конец диапазона, MMdd
+ */
+public record MonthDayRange(int from, int to) {
+
+    /**
+     * Весь год
+     */
+    private static final MonthDayRange WHOLE_YEAR = new MonthDayRange(101, 1231);
+
+    private static final int FEBRUARY_28 = 228;
+
+    private static final int FEBRUARY_29 = 229;
+
+    /**
+     * Получить диапазоны ежегодных дат на ближайшие дни
+     *
+     * <p>
+     * Окно, переходящее через новый год, делится на два диапазона: до 31 декабря и с 1 января.
+     * В невисокосном году 29 февраля отмечается 28 февраля, поэтому диапазон,
+     * заканчивающийся 28 февраля такого года, включает и 29 февраля.
+     * </p>
+     *
+     * @param today     Текущая дата
+     * @param daysAhead Количество дней вперед
+     * @return Один или два непересекающихся диапазона
+     */
+    public static List<MonthDayRange> upcoming(LocalDate today, int daysAhead) {
+        LocalDate end = today.plusDays(daysAhead);
+        if (!end.isBefore(today.plusYears(1).minusDays(1))) {
+            return List.of(WHOLE_YEAR);
+        }
+
+        if (end.getYear() == today.getYear()) {
+            return List.of(new MonthDayRange(of(today), endOf(end)));
+        }
+        return List.of(new MonthDayRange(of(today), WHOLE_YEAR.to()), new MonthDayRange(WHOLE_YEAR.from(), endOf(end)));
+    }
+
+    /**
+     * Представить дату в виде числа MMdd
+     *
+     * @param date Дата
+     * @return Месяц и день
+     */
+    public static int of(LocalDate date) {
+        return of(MonthDay.from(date));
+    }
+
+    /**
+     * Представить месяц и день в виде числа MMdd
+     *
+     * @param monthDay Месяц и день
+     * @return Месяц и день
+     */
+    public static int of(MonthDay monthDay) {
+        return monthDay.getMonthValue() * 100 + monthDay.getDayOfMonth();
+    }
+
+    private static int endOf(LocalDate end) {
+        int value = of(end);
+        return value == FEBRUARY_28 && !end.isLeapYear() ? FEBRUARY_29 : value;
+    }
+}
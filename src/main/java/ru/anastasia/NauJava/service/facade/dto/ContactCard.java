@@ -0,0 +1,77 @@
+package ru.anastasia.NauJava.service.facade.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.anastasia.NauJava.entity.company.ContactCompany;
+import ru.anastasia.NauJava.entity.contact.ContactDetail;
+import ru.anastasia.NauJava.entity.tag.Tag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Карточка контакта для страниц списка и избранного
+ *
+ * <p>
+ * Содержит только те данные, которые отображаются в карточке. Связанные сущности
+ * загружаются пакетно для всей страницы, поэтому шаблон не обращается к ленивым коллекциям.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContactCard {
+    /**
+     * Идентификатор контакта
+     */
+    private Long id;
+
+    /**
+     * Имя
+     */
+    private String firstName;
+
+    /**
+     * Фамилия
+     */
+    private String lastName;
+
+    /**
+     * Имя для отображения
+     */
+    private String displayName;
+
+    /**
+     * URL аватара
+     */
+    private String avatarUrl;
+
+    /**
+     * Флаг избранного контакта
+     */
+    private Boolean isFavorite;
+
+    /**
+     * Первое место работы (с загруженными компанией и должностью)
+     */
+    private ContactCompany company;
+
+    /**
+     * Основные способы связи
+     */
+    @Builder.Default
+    private List<ContactDetail> primaryDetails = new ArrayList<>();
+
+    /**
+     * Теги
+     */
+    @Builder.Default
+    private List<Tag> tags = new ArrayList<>();
+
+    public boolean hasCompany() {
+        return company != null;
+    }
+}
@@ -0,0 +1,57 @@
+package ru.anastasia.NauJava.service.facade.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Срез карточек контактов при навигации по курсору
+ *
+ * <p>
+ * В отличие от страницы не содержит точного общего числа элементов: оно не вычисляется
+ * на каждый запрос и передается только как оценка, если она доступна.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContactCardSlice {
+    /**
+     * Карточки контактов
+     */
+    @Builder.Default
+    private List<ContactCard> content = new ArrayList<>();
+
+    /**
+     * Размер среза
+     */
+    private int size;
+
+    /**
+     * Курсор следующего среза
+     */
+    private String nextCursor;
+
+    /**
+     * Курсор предыдущего среза
+     */
+    private String prevCursor;
+
+    /**
+     * Оценка общего числа контактов (может отсутствовать)
+     */
+    private Long totalEstimate;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean hasPrevious() {
+        return prevCursor != null;
+    }
+}
@@ -0,0 +1,187 @@
+package ru.anastasia.NauJava.service.report;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.anastasia.NauJava.dto.report.ReportGroupRow;
+import ru.anastasia.NauJava.dto.report.ReportMonthRow;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Аналитические разделы отчета, считаемые агрегатами в БД
+ *
+ * <p>
+ * Каждый метод - один проход: сущности не загружаются, в приложение возвращаются только итоговые строки.
+ * Разрезы по компаниям, должностям, тегам, способам связи и месяцам событий считаются одним запросом
+ * с {@code GROUPING SETS}, который сразу дает и строки разреза, и итог по разделу.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+class ReportAnalyticsQuery {
+
+    /**
+     * Число строк в разделах по компаниям, должностям и тегам
+     */
+    static final int TOP_SIZE = 20;
+
+    /**
+     * Число последних месяцев в разделе прироста контактов
+     */
+    static final int GROWTH_MONTHS = 12;
+
+    private static final Locale RU = Locale.forLanguageTag("ru");
+
+    private static final String CONTACT_STATS_SQL =
+            "SELECT CAST(date_trunc('month', c.created_at) AS date) AS month, " +
+                    "GROUPING(date_trunc('month', c.created_at)) AS is_total, " +
+                    "COUNT(*) AS created, " +
+                    "COUNT(*) FILTER (WHERE c.is_favorite) AS favorites " +
+                    "FROM contacts c " +
+                    "GROUP BY GROUPING SETS ((date_trunc('month', c.created_at)), ()) " +
+                    "ORDER BY is_total DESC, month";
+
+    private static final String GROUP_STATS_SQL =
+            "WITH facts AS (" +
+                    "  SELECT 'COMPANY' AS section, comp.name AS label, cc.contact_id " +
+                    "  FROM contact_companies cc JOIN companies comp ON comp.id = cc.company_id " +
+                    "  UNION ALL " +
+                    "  SELECT 'JOB_TITLE', jt.title, cc.contact_id " +
+                    "  FROM contact_companies cc JOIN job_titles jt ON jt.id = cc.job_title_id " +
+                    "  UNION ALL " +
+                    "  SELECT 'TAG', t.name, ct.contact_id " +
+                    "  FROM contact_tags ct JOIN tags t ON t.id = ct.tag_id " +
+                    "  UNION ALL " +
+                    "  SELECT 'DETAIL_TYPE', d.detail_type, d.contact_id FROM contact_details d " +
+                    "  UNION ALL " +
+                    "  SELECT 'EVENT_MONTH', to_char(e.event_date, 'MM'), e.contact_id FROM events e " +
+                    "  WHERE e.yearly_recurrence " +
+                    "     OR e.event_date BETWEEN CURRENT_DATE AND CURRENT_DATE + INTERVAL '1 year'" +
+                    "), grouped AS (" +
+                    "  SELECT section, label, GROUPING(label) AS is_total, " +
+                    "         COUNT(DISTINCT contact_id) AS contacts, COUNT(*) AS items " +
+                    "  FROM facts GROUP BY GROUPING SETS ((section, label), (section))" +
+                    ") " +
+                    "SELECT section, label, is_total, contacts, items FROM (" +
+                    "  SELECT g.*, ROW_NUMBER() OVER (PARTITION BY section, is_total " +
+                    "                                 ORDER BY contacts DESC, label) AS position " +
+                    "  FROM grouped g" +
+                    ") ranked " +
+                    "WHERE is_total = 1 OR position <= ? OR section IN ('DETAIL_TYPE', 'EVENT_MONTH') " +
+                    "ORDER BY section, is_total DESC, position";
+
+    /**
+     * Разделы отчета по разрезам
+     */
+    enum Section {
+        COMPANY, JOB_TITLE, TAG, DETAIL_TYPE, EVENT_MONTH
+    }
+
+    /**
+     * Итоги по контактам
+     *
+     * @param total     Всего контактов
+     * @param favorites Избранных контактов
+     * @param growth    Прирост за последние {@link #GROWTH_MONTHS} месяцев
+     */
+    record ContactStats(long total, long favorites, List<ReportMonthRow> growth) {
+    }
+
+    /**
+     * Раздел по разрезу
+     *
+     * @param rows  Строки раздела
+     * @param total Итог по разделу: контакты хотя бы с одним значением и число записей
+     */
+    record GroupSection(List<ReportGroupRow> rows, ReportGroupRow total) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Посчитать итоги и помесячный прирост контактов одним проходом по таблице контактов
+     */
+    ContactStats contactStats() {
+        long[] totals = new long[2];
+        List<ReportMonthRow> months = new ArrayList<>();
+
+        jdbcTemplate.query(CONTACT_STATS_SQL, rs -> {
+            if (rs.getInt("is_total") == 1) {
+                totals[0] = rs.getLong("created");
+                totals[1] = rs.getLong("favorites");
+                return;
+            }
+            Date month = rs.getDate("month");
+            if (month != null) {
+                months.add(new ReportMonthRow(YearMonth.from(month.toLocalDate()),
+                        rs.getLong("created"), rs.getLong("favorites"), 0));
+            }
+        });
+
+        long cumulative = totals[0] - months.stream().mapToLong(ReportMonthRow::getCreated).sum();
+        for (ReportMonthRow row : months) {
+            cumulative += row.getCreated();
+            row.setCumulative(cumulative);
+        }
+
+        YearMonth from = YearMonth.now().minusMonths(GROWTH_MONTHS - 1);
+        List<ReportMonthRow> growth = months.stream()
+                .filter(row -> !row.getMonth().isBefore(from))
+                .toList();
+        return new ContactStats(totals[0], totals[1], growth);
+    }
+
+    /**
+     * Посчитать разделы по разрезам одним запросом
+     */
+    Map<Section, GroupSection> groupStats() {
+        Map<Section, List<ReportGroupRow>> rows = new EnumMap<>(Section.class);
+        Map<Section, ReportGroupRow> totals = new EnumMap<>(Section.class);
+
+        jdbcTemplate.query(GROUP_STATS_SQL, rs -> {
+            Section section = Section.valueOf(rs.getString("section"));
+            ReportGroupRow row = new ReportGroupRow(rs.getString("label"),
+                    rs.getLong("contacts"), rs.getLong("items"));
+            if (rs.getInt("is_total") == 1) {
+                totals.put(section, row);
+            } else {
+                rows.computeIfAbsent(section, key -> new ArrayList<>()).add(row);
+            }
+        }, TOP_SIZE);
+
+        Map<Section, GroupSection> result = new EnumMap<>(Section.class);
+        for (Section section : Section.values()) {
+            List<ReportGroupRow> sectionRows = rows.getOrDefault(section, new ArrayList<>());
+            if (section == Section.EVENT_MONTH) {
+                sectionRows = upcomingMonths(sectionRows);
+            }
+            result.put(section, new GroupSection(sectionRows,
+                    totals.getOrDefault(section, new ReportGroupRow(null, 0, 0))));
+        }
+        return result;
+    }
+
+    /**
+     * Упорядочить месяцы событий начиная с текущего и подписать их названиями
+     */
+    private static List<ReportGroupRow> upcomingMonths(List<ReportGroupRow> rows) {
+        int current = LocalDate.now().getMonthValue();
+        return rows.stream()
+                .sorted(Comparator.comparingInt(row -> (Integer.parseInt(row.getLabel()) - current + 12) % 12))
+                .map(row -> new ReportGroupRow(
+                        Month.of(Integer.parseInt(row.getLabel())).getDisplayName(TextStyle.FULL_STANDALONE, RU),
+                        row.getContacts(), row.getItems()))
+                .toList();
+    }
+}
@@ -0,0 +1,124 @@
+package ru.anastasia.NauJava.service.report;
+
+import ru.anastasia.NauJava.entity.report.Report;
+import ru.anastasia.NauJava.entity.report.ReportChunk;
+import ru.anastasia.NauJava.repository.report.ReportChunkRepository;
+
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Приемник сжатого содержимого отчета, сохраняющий его частями фиксированного размера
+ *
+ * <p>
+ * Сюда пишется поток gzip по мере формирования; буфер сохраняется отдельной частью, как только заполняется,
+ * поэтому в памяти держится не больше одной части. Все части, кроме последней, имеют размер ровно
+ * {@code chunkSize} байт. Попутно считается хеш SHA-256 для ETag. Не потокобезопасен.
+ * </p>
+ */
+class ReportChunkOutputStream extends OutputStream {
+
+    private final ReportChunkRepository reportChunkRepository;
+
+    private final Report report;
+
+    private final byte[] buffer;
+
+    private final MessageDigest digest;
+
+    private int position;
+
+    private int seq;
+
+    private long length;
+
+    private String etag;
+
+    ReportChunkOutputStream(ReportChunkRepository reportChunkRepository, Report report, int chunkSize) {
+        this.reportChunkRepository = reportChunkRepository;
+        this.report = report;
+        this.buffer = new byte[chunkSize];
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    @Override
+    public void write(int b) {
+        buffer[position++] = (byte) b;
+        length++;
+        if (position == buffer.length) {
+            saveChunk();
+        }
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int count) {
+        while (count > 0) {
+            int n = Math.min(count, buffer.length - position);
+            System.arraycopy(bytes, offset, buffer, position, n);
+            position += n;
+            offset += n;
+            count -= n;
+            length += n;
+            if (position == buffer.length) {
+                saveChunk();
+            }
+        }
+    }
+
+    /**
+     * Буфер сохраняется только при заполнении, чтобы не плодить мелкие части при сбросе шаблонизатором
+     */
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+        if (etag != null) {
+            return;
+        }
+        if (position > 0) {
+            saveChunk();
+        }
+        etag = HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * @return Число сохраненных частей
+     */
+    int getChunkCount() {
+        return seq;
+    }
+
+    /**
+     * @return Размер сжатого содержимого в байтах
+     */
+    long getLength() {
+        return length;
+    }
+
+    /**
+     * @return Хеш SHA-256 содержимого; доступен после {@link #close()}
+     */
+    String getEtag() {
+        return etag;
+    }
+
+    private void saveChunk() {
+        byte[] data = Arrays.copyOf(buffer, position);
+        digest.update(data);
+        reportChunkRepository.save(ReportChunk.builder()
+                .report(report)
+                .seq(seq++)
+                .data(data)
+                .build());
+        position = 0;
+    }
+}
@@ -0,0 +1,227 @@
+package ru.anastasia.NauJava.service.report;
+
+import lombok.Getter;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import ru.anastasia.NauJava.repository.report.ReportChunkRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Сжатое gzip содержимое сформированного отчета
+ *
+ * <p>
+ * Части читаются из БД по одной по мере чтения потока, каждая отдельным запросом, поэтому отдача
+ * медленному клиенту не держит транзакцию и соединение с БД. Пропуск байтов ({@link InputStream#skip})
+ * пропускает целые части без их загрузки, что делает дешевыми запросы диапазонов (Range).
+ * </p>
+ */
+public class ReportContentResource extends AbstractResource {
+
+    /**
+     * Размер поля ISIZE в конце gzip: длина несжатых данных по модулю 2^32
+     */
+    private static final int GZIP_SIZE_FIELD_BYTES = 4;
+
+    private final ReportChunkRepository reportChunkRepository;
+
+    private final Long reportId;
+
+    private final long contentLength;
+
+    /**
+     * Хеш SHA-256 сжатого содержимого
+     */
+    @Getter
+    private final String etag;
+
+    public ReportContentResource(ReportChunkRepository reportChunkRepository, Long reportId,
+                                 long contentLength, String etag) {
+        this.reportChunkRepository = reportChunkRepository;
+        this.reportId = reportId;
+        this.contentLength = contentLength;
+        this.etag = etag;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ChunkInputStream(reportChunkRepository.findChunkLengthsByReportId(reportId));
+    }
+
+    @Override
+    public long contentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Содержимое отчета " + reportId;
+    }
+
+    /**
+     * Распакованное содержимое для клиентов, не принимающих gzip
+     *
+     * <p>
+     * Длина берется из поля ISIZE в конце gzip, так что она известна без распаковки и для распакованного
+     * содержимого тоже работают Content-Length и запросы диапазонов (Range). Отчет пишется одним членом
+     * gzip, а ISIZE хранит длину по модулю 2^32, поэтому длина верна для отчетов до 4 ГиБ.
+     * </p>
+     *
+     * @return Ресурс распакованного содержимого
+     */
+    public Resource inflated() {
+        return new InflatedResource();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || other instanceof ReportContentResource resource
+                && reportId.equals(resource.reportId) && etag.equals(resource.etag);
+    }
+
+    @Override
+    public int hashCode() {
+        return reportId.hashCode();
+    }
+
+    /**
+     * Прочитать длину несжатых данных из последних байтов содержимого, загрузив только последние части
+     */
+    private long readInflatedLength() throws IOException {
+        List<Integer> lengths = reportChunkRepository.findChunkLengthsByReportId(reportId);
+        byte[] size = new byte[GZIP_SIZE_FIELD_BYTES];
+        int missing = size.length;
+        for (int seq = lengths.size() - 1; seq >= 0 && missing > 0; seq--) {
+            byte[] chunk = reportChunkRepository.findDataByReportIdAndSeq(reportId, seq);
+            if (chunk == null) {
+                throw new IOException("Часть " + seq + " отчета " + reportId + " удалена во время чтения");
+            }
+            int n = Math.min(missing, chunk.length);
+            System.arraycopy(chunk, chunk.length - n, size, missing - n, n);
+            missing -= n;
+        }
+        if (missing > 0) {
+            throw new IOException("Содержимое отчета " + reportId + " короче завершающего поля gzip");
+        }
+        return (size[0] & 0xFFL) | (size[1] & 0xFFL) << 8 | (size[2] & 0xFFL) << 16 | (size[3] & 0xFFL) << 24;
+    }
+
+    private class InflatedResource extends AbstractResource {
+
+        /**
+         * Длина несжатых данных, -1 пока не прочитана
+         */
+        private long inflatedLength = -1;
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new GZIPInputStream(ReportContentResource.this.getInputStream());
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            if (inflatedLength < 0) {
+                inflatedLength = readInflatedLength();
+            }
+            return inflatedLength;
+        }
+
+        @Override
+        public String getDescription() {
+            return "Распакованное содержимое отчета " + reportId;
+        }
+    }
+
+    private class ChunkInputStream extends InputStream {
+
+        /**
+         * Размеры частей по порядку
+         */
+        private final List<Integer> lengths;
+
+        /**
+         * Номер следующей части
+         */
+        private int next;
+
+        private byte[] chunk = new byte[0];
+
+        private int position;
+
+        private ChunkInputStream(List<Integer> lengths) {
+            this.lengths = lengths;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!ensureChunk()) {
+                return -1;
+            }
+            return chunk[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int count) throws IOException {
+            if (count == 0) {
+                return 0;
+            }
+            if (!ensureChunk()) {
+                return -1;
+            }
+            int n = Math.min(count, chunk.length - position);
+            System.arraycopy(chunk, position, bytes, offset, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            if (count <= 0) {
+                return 0;
+            }
+            long skipped = Math.min(count, chunk.length - position);
+            position += (int) skipped;
+            while (skipped < count && next < lengths.size()) {
+                int length = lengths.get(next);
+                if (skipped + length <= count) {
+                    skipped += length;
+                    next++;
+                } else {
+                    ensureChunk();
+                    int rest = (int) (count - skipped);
+                    position += rest;
+                    skipped += rest;
+                }
+            }
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return chunk.length - position;
+        }
+
+        /**
+         * Загрузить следующую часть, если текущая прочитана
+         *
+         * @return false в конце содержимого
+         */
+        private boolean ensureChunk() throws IOException {
+            while (position == chunk.length) {
+                if (next >= lengths.size()) {
+                    return false;
+                }
+                int seq = next++;
+                chunk = reportChunkRepository.findDataByReportIdAndSeq(reportId, seq);
+                position = 0;
+                if (chunk == null) {
+                    throw new IOException("Часть " + seq + " отчета " + reportId + " удалена во время чтения");
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package ru.anastasia.NauJava.service.report;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Версия данных, по которым формируется отчет
+ *
+ * <p>
+ * Версия - хеш числа изменений каждой из таблиц, из которых строится отчет (журнал report_data_change_log
+ * и триггеры count_report_data_change в schema.sql). Любое изменение этих таблиц, включая изменение
+ * дочерних строк без изменения контакта, массовые операции в обход JPA и переименование справочников,
+ * меняет версию, поэтому отчет с той же версией можно отдать повторно вместо формирования нового.
+ * Строка в журнал дописывается и операцией, не затронувшей строк: тогда отчет просто формируется заново.
+ * </p>
+ *
+ * <p>
+ * Журнал только дописывается, поэтому изменяющие транзакции не блокируют друг друга. Чтобы он не рос,
+ * {@link #compact()} сворачивает его в одну строку на таблицу с той же суммой, и версия при этом не меняется.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+class ReportDataVersionQuery {
+
+    private static final String DATA_VERSION_SQL =
+            "SELECT md5(COALESCE(string_agg(table_name || ':' || changes, '|' ORDER BY table_name), '')) " +
+                    "FROM (SELECT table_name, SUM(changes) AS changes FROM report_data_change_log " +
+                    "GROUP BY table_name) totals";
+
+    /**
+     * Одним оператором: читатели видят журнал целиком до или после сворачивания, а строки еще
+     * не зафиксированных транзакций не видны удалению и останутся до следующего сворачивания
+     */
+    private static final String COMPACT_SQL =
+            "WITH moved AS (DELETE FROM report_data_change_log RETURNING table_name, changes), " +
+                    "totals AS (INSERT INTO report_data_change_log (table_name, changes) " +
+                    "SELECT table_name, SUM(changes) FROM moved GROUP BY table_name RETURNING 1) " +
+                    "SELECT (SELECT COUNT(*) FROM moved) - (SELECT COUNT(*) FROM totals)";
+
+    private static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(hashtext('reports.request'))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Посчитать текущую версию данных
+     *
+     * @return Хеш MD5 в шестнадцатеричном виде
+     */
+    String current() {
+        return jdbcTemplate.queryForObject(DATA_VERSION_SQL, String.class);
+    }
+
+    /**
+     * Свернуть журнал изменений в одну строку на таблицу, сохранив суммы
+     *
+     * @return На сколько строк уменьшился журнал
+     */
+    int compact() {
+        Integer removed = jdbcTemplate.queryForObject(COMPACT_SQL, Integer.class);
+        return removed == null ? 0 : removed;
+    }
+
+    /**
+     * Дождаться исключительной блокировки запроса отчета до конца текущей транзакции
+     *
+     * <p>
+     * Блокировка общая для всех узлов, поэтому одновременные запросы выполняют поиск подходящего отчета
+     * и создание нового по очереди и не создают два отчета по одним данным.
+     * </p>
+     */
+    void lockRequests() {
+        jdbcTemplate.query(LOCK_SQL, rs -> {
+        });
+    }
+}
@@ -0,0 +1,172 @@
+package ru.anastasia.NauJava.service.report;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import ru.anastasia.NauJava.dto.report.ContactChangeRow;
+import ru.anastasia.NauJava.dto.report.ContactChangeType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Изменения контактов с отметки предыдущего отчета
+ *
+ * <p>
+ * Добавленные и измененные контакты находятся по {@code contacts.updated_at}, удаленные - по отметкам
+ * в {@code contact_tombstones}. Оба источника читаются по индексам (дата изменения, идентификатор) порциями
+ * по ключу, поэтому стоимость зависит от числа изменений, а не от общего числа контактов.
+ * </p>
+ *
+ * <p>
+ * Отметка отчета - время БД в начале формирования ({@link #currentTime()}). Дата изменения ставится часами
+ * узла или временем начала транзакции, поэтому изменение, зафиксированное после снимка отчета, может иметь
+ * дату раньше отметки. Изменения читаются с границы, смещенной назад на перекрытие; строки перекрытия,
+ * уже учтенные базовым отчетом, повторяются, и при наложении на базовый отчет они ничего не меняют.
+ * По той же причине число контактов и избранных не выводится из числа изменений: оно берется из журнала
+ * {@code contact_count_log}, который триггеры пополняют в транзакции изменения, поэтому суммы по журналу
+ * точны в снимке запроса. Журнал сворачивается задачей очистки ({@link #compactCounts()}), и его чтение
+ * зависит от числа изменений после сворачивания, а не от числа контактов.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+class ReportDeltaQuery {
+
+    private static final String COUNT_CHANGES_SQL =
+            "SELECT " +
+                    "(SELECT COUNT(*) FROM contacts WHERE updated_at > ? AND created_at > ?) AS added, " +
+                    "(SELECT COUNT(*) FROM contacts WHERE updated_at > ? " +
+                    "   AND (created_at IS NULL OR created_at <= ?)) AS updated, " +
+                    "(SELECT COUNT(*) FROM contact_tombstones WHERE deleted_at > ?) AS deleted, " +
+                    "totals.contacts, totals.favorites " +
+                    "FROM (SELECT COALESCE(SUM(contacts), 0) AS contacts, COALESCE(SUM(favorites), 0) AS favorites " +
+                    "FROM contact_count_log) totals";
+
+    /**
+     * Одним оператором, как и сворачивание журнала версии данных: читатели видят суммы до или после,
+     * а строки незафиксированных транзакций остаются до следующего сворачивания
+     */
+    private static final String COMPACT_COUNTS_SQL =
+            "WITH moved AS (DELETE FROM contact_count_log RETURNING contacts, favorites), " +
+                    "totals AS (INSERT INTO contact_count_log (contacts, favorites) " +
+                    "SELECT SUM(contacts), SUM(favorites) FROM moved HAVING COUNT(*) > 0 RETURNING 1) " +
+                    "SELECT (SELECT COUNT(*) FROM moved) - (SELECT COUNT(*) FROM totals)";
+
+    private static final String CHANGED_AFTER_SQL =
+            "SELECT id, first_name, last_name, COALESCE(is_favorite, false) AS favorite, " +
+                    "created_at > ? AS added, updated_at AS changed_at " +
+                    "FROM contacts WHERE updated_at > ? AND (updated_at, id) > (?, ?) " +
+                    "ORDER BY updated_at, id LIMIT ?";
+
+    private static final String DELETED_AFTER_SQL =
+            "SELECT contact_id, first_name, last_name, was_favorite, deleted_at " +
+                    "FROM contact_tombstones WHERE deleted_at > ? AND (deleted_at, contact_id) > (?, ?) " +
+                    "ORDER BY deleted_at, contact_id LIMIT ?";
+
+    private static final String PURGE_TOMBSTONES_SQL =
+            "DELETE FROM contact_tombstones WHERE deleted_at < " +
+                    "COALESCE((SELECT MIN(watermark) FROM reports WHERE status = 'COMPLETED') " +
+                    "- make_interval(secs => ?), ?)";
+
+    private static final String CURRENT_TIME_SQL = "SELECT statement_timestamp()::timestamp";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Число изменений
+     *
+     * @param added     Добавлено контактов
+     * @param updated   Изменено контактов
+     * @param deleted   Удалено контактов
+     * @param contacts  Контактов сейчас
+     * @param favorites Избранных контактов сейчас
+     */
+    record Changes(long added, long updated, long deleted, long contacts, long favorites) {
+
+        long total() {
+            return added + updated + deleted;
+        }
+    }
+
+    /**
+     * Текущее время БД - отметка формируемого отчета
+     *
+     * <p>
+     * Берется по часам БД, а не узла: отметки отчетов, сформированных разными узлами, сравнимы между собой.
+     * </p>
+     */
+    LocalDateTime currentTime() {
+        return jdbcTemplate.queryForObject(CURRENT_TIME_SQL, LocalDateTime.class);
+    }
+
+    /**
+     * Подсчитать изменения с границы
+     *
+     * @param since Отметка предыдущего отчета за вычетом перекрытия
+     * @return Число изменений
+     */
+    Changes countChanges(LocalDateTime since) {
+        return jdbcTemplate.queryForObject(COUNT_CHANGES_SQL, (rs, rowNum) -> new Changes(
+                        rs.getLong("added"), rs.getLong("updated"), rs.getLong("deleted"), rs.getLong("contacts"),
+                        rs.getLong("favorites")),
+                since, since, since, since, since);
+    }
+
+    /**
+     * Получить следующую порцию добавленных и измененных контактов
+     *
+     * @param since          Отметка предыдущего отчета за вычетом перекрытия
+     * @param afterChangedAt Дата изменения последней прочитанной строки (since - с начала)
+     * @param afterId        Идентификатор последней прочитанной строки
+     * @param limit          Размер порции
+     * @return Порция строк в порядке изменения
+     */
+    List<ContactChangeRow> findChangedAfter(LocalDateTime since, LocalDateTime afterChangedAt, long afterId,
+                                            int limit) {
+        RowMapper<ContactChangeRow> mapper = (rs, rowNum) -> new ContactChangeRow(rs.getLong("id"),
+                rs.getString("first_name"), rs.getString("last_name"), rs.getBoolean("favorite"),
+                rs.getBoolean("added") ? ContactChangeType.ADDED : ContactChangeType.UPDATED,
+                rs.getObject("changed_at", LocalDateTime.class));
+        return jdbcTemplate.query(CHANGED_AFTER_SQL, mapper, since, since, afterChangedAt, afterId, limit);
+    }
+
+    /**
+     * Получить следующую порцию удаленных контактов
+     *
+     * @param since          Отметка предыдущего отчета за вычетом перекрытия
+     * @param afterChangedAt Дата удаления последней прочитанной строки (since - с начала)
+     * @param afterId        Идентификатор последней прочитанной строки
+     * @param limit          Размер порции
+     * @return Порция строк в порядке удаления
+     */
+    List<ContactChangeRow> findDeletedAfter(LocalDateTime since, LocalDateTime afterChangedAt, long afterId,
+                                            int limit) {
+        RowMapper<ContactChangeRow> mapper = (rs, rowNum) -> new ContactChangeRow(rs.getLong("contact_id"),
+                rs.getString("first_name"), rs.getString("last_name"), rs.getBoolean("was_favorite"),
+                ContactChangeType.DELETED, rs.getObject("deleted_at", LocalDateTime.class));
+        return jdbcTemplate.query(DELETED_AFTER_SQL, mapper, since, afterChangedAt, afterId, limit);
+    }
+
+    /**
+     * Свернуть журнал числа контактов в одну строку, сохранив суммы
+     *
+     * @return На сколько строк уменьшился журнал
+     */
+    int compactCounts() {
+        Integer removed = jdbcTemplate.queryForObject(COMPACT_COUNTS_SQL, Integer.class);
+        return removed == null ? 0 : removed;
+    }
+
+    /**
+     * Удалить отметки об удалении, которые не прочитает разностный отчет ни от одного сформированного отчета
+     *
+     * @param overlapSeconds Перекрытие разностного отчета с базовым в секундах
+     * @param before         Дата, раньше которой отметки удаляются, если сформированных отчетов нет
+     * @return Число удаленных отметок
+     */
+    int purgeTombstones(int overlapSeconds, LocalDateTime before) {
+        return jdbcTemplate.update(PURGE_TOMBSTONES_SQL, overlapSeconds, before);
+    }
+}
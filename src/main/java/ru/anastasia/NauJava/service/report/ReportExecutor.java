@@ -0,0 +1,135 @@
+package ru.anastasia.NauJava.service.report;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.anastasia.NauJava.exception.report.ReportQueueFullException;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Исполнитель формирования отчетов
+ *
+ * <p>
+ * Одновременно формируется не больше {@code concurrency} отчетов, остальные ждут в очереди
+ * емкостью {@code queueCapacity}; при заполненной очереди новый отчет отклоняется.
+ * Задачи выполняются в виртуальных потоках и могут быть отменены по идентификатору отчета.
+ * </p>
+ */
+@Slf4j
+public class ReportExecutor {
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Задачи в очереди и в работе по идентификатору отчета
+     */
+    private final Map<Long, FutureTask<Void>> tasks = new ConcurrentHashMap<>();
+
+    public ReportExecutor(int concurrency, int queueCapacity) {
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofVirtual().name("report-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Поставить формирование отчета в очередь
+     *
+     * @param reportId Идентификатор отчета
+     * @param task     Задача формирования
+     * @return Результат, завершающийся вместе с задачей (отменяется при отмене задачи)
+     * @throws ReportQueueFullException если очередь заполнена
+     */
+    public CompletableFuture<Void> submit(Long reportId, Runnable task) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        FutureTask<Void> future = new FutureTask<>(task, null) {
+            @Override
+            protected void done() {
+                tasks.remove(reportId, this);
+                if (isCancelled()) {
+                    result.cancel(false);
+                    return;
+                }
+                try {
+                    get();
+                    result.complete(null);
+                } catch (ExecutionException e) {
+                    result.completeExceptionally(e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    result.completeExceptionally(e);
+                }
+            }
+        };
+
+        if (tasks.putIfAbsent(reportId, future) != null) {
+            result.completeExceptionally(new IllegalStateException("Отчет уже формируется: " + reportId));
+            return result;
+        }
+        try {
+            executor.execute(future);
+        } catch (RejectedExecutionException e) {
+            tasks.remove(reportId, future);
+            throw new ReportQueueFullException("В очереди уже " + executor.getQueue().size() + " отчетов");
+        }
+        return result;
+    }
+
+    /**
+     * Отменить формирование отчета: ожидающая задача убирается из очереди, выполняющаяся прерывается
+     *
+     * @param reportId Идентификатор отчета
+     * @return true, если задача была найдена и отменена
+     */
+    public boolean cancel(Long reportId) {
+        FutureTask<Void> future = tasks.get(reportId);
+        if (future == null) {
+            return false;
+        }
+        boolean cancelled = future.cancel(true);
+        executor.remove(future);
+        return cancelled;
+    }
+
+    /**
+     * @return Идентификаторы отчетов в очереди и в работе
+     */
+    public Set<Long> getReportIds() {
+        return Set.copyOf(tasks.keySet());
+    }
+
+    /**
+     * @return Сколько еще отчетов можно поставить без отказа
+     */
+    public int getFreeCapacity() {
+        return Math.max(0, executor.getMaximumPoolSize() - executor.getActiveCount())
+                + executor.getQueue().remainingCapacity();
+    }
+
+    /**
+     * @return Число отчетов, ожидающих в очереди
+     */
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * @return Число отчетов, формирующихся в данный момент
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public void shutdown() {
+        log.info("Остановка исполнителя отчетов: в работе {}, в очереди {}", getActiveCount(), getQueueSize());
+        executor.shutdownNow();
+    }
+}
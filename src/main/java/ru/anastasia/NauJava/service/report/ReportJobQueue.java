@@ -0,0 +1,133 @@
+package ru.anastasia.NauJava.service.report;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Очередь формирования отчетов в таблице reports
+ *
+ * <p>
+ * Узел берет отчет в работу, записывая в него себя как владельца аренды ({@code lease_owner}) и срок аренды
+ * ({@code lease_expires_at}); пока отчет формируется, аренда продлевается. Отчеты выбираются с
+ * {@code FOR UPDATE SKIP LOCKED}, поэтому несколько узлов разбирают очередь, не ожидая друг друга и не беря
+ * один отчет дважды. Отчет с истекшей арендой (узел остановлен или потерял связь с БД) снова доступен
+ * любому узлу, пока не исчерпано число попыток. Время аренды считается по часам БД.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+class ReportJobQueue {
+
+    /**
+     * Отчет доступен для взятия в работу: ожидает или формировался узлом, аренда которого истекла
+     */
+    private static final String CLAIMABLE_CONDITION =
+            "(status = 'CREATED' OR (status = 'RUNNING' AND (lease_expires_at IS NULL " +
+                    "OR lease_expires_at < LOCALTIMESTAMP))) AND COALESCE(attempts, 0) < ? ";
+
+    private static final String CLAIM_SET =
+            "UPDATE reports r SET status = 'RUNNING', progress = 0, error_message = NULL, " +
+                    "attempts = COALESCE(r.attempts, 0) + 1, lease_owner = ?, " +
+                    "lease_expires_at = LOCALTIMESTAMP + make_interval(secs => ?), heartbeat_at = LOCALTIMESTAMP, " +
+                    "started_at = LOCALTIMESTAMP, finished_at = NULL ";
+
+    private static final String CLAIM_NEXT_SQL = CLAIM_SET +
+            "WHERE r.id IN (SELECT id FROM reports WHERE " + CLAIMABLE_CONDITION +
+            "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) RETURNING r.id";
+
+    private static final String CLAIM_BY_ID_SQL = CLAIM_SET +
+            "WHERE r.id IN (SELECT id FROM reports WHERE id = ? AND " + CLAIMABLE_CONDITION +
+            "FOR UPDATE SKIP LOCKED) RETURNING r.id";
+
+    private static final String HEARTBEAT_SQL =
+            "UPDATE reports SET heartbeat_at = LOCALTIMESTAMP, " +
+                    "lease_expires_at = LOCALTIMESTAMP + make_interval(secs => ?) " +
+                    "WHERE id = ANY(CAST(? AS bigint[])) AND status = 'RUNNING' AND lease_owner = ? RETURNING id";
+
+    private static final String RELEASE_SQL =
+            "UPDATE reports SET status = 'CREATED', attempts = GREATEST(COALESCE(attempts, 1) - 1, 0), " +
+                    "lease_owner = NULL, lease_expires_at = NULL, started_at = NULL " +
+                    "WHERE id = ? AND status = 'RUNNING' AND lease_owner = ?";
+
+    private static final String FAIL_EXHAUSTED_SQL =
+            "UPDATE reports SET status = 'ERROR', error_message = ?, finished_at = LOCALTIMESTAMP, " +
+                    "lease_owner = NULL, lease_expires_at = NULL " +
+                    "WHERE status = 'RUNNING' AND (lease_expires_at IS NULL OR lease_expires_at < LOCALTIMESTAMP) " +
+                    "AND COALESCE(attempts, 0) >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Идентификатор узла (процесс@хост и случайный суффикс на случай одинаковых имен в контейнерах)
+     */
+    @Getter
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName() + "/"
+            + UUID.randomUUID().toString().substring(0, 8);
+
+    /**
+     * Взять в работу ожидающие отчеты
+     *
+     * @param limit        Максимальное число отчетов
+     * @param leaseSeconds Срок аренды в секундах
+     * @param maxAttempts  Максимальное число попыток формирования
+     * @return Идентификаторы взятых отчетов
+     */
+    List<Long> claimNext(int limit, int leaseSeconds, int maxAttempts) {
+        return jdbcTemplate.queryForList(CLAIM_NEXT_SQL, Long.class, owner, leaseSeconds, maxAttempts, limit);
+    }
+
+    /**
+     * Взять в работу конкретный отчет
+     *
+     * @param id           Идентификатор отчета
+     * @param leaseSeconds Срок аренды в секундах
+     * @param maxAttempts  Максимальное число попыток формирования
+     * @return true, если отчет взят; false, если он уже формируется другим узлом или завершен
+     */
+    boolean claim(Long id, int leaseSeconds, int maxAttempts) {
+        return !jdbcTemplate.queryForList(CLAIM_BY_ID_SQL, Long.class, owner, leaseSeconds, id, maxAttempts)
+                .isEmpty();
+    }
+
+    /**
+     * Продлить аренду отчетов этого узла
+     *
+     * @param ids          Идентификаторы отчетов, формируемых узлом
+     * @param leaseSeconds Срок аренды в секундах
+     * @return Идентификаторы отчетов, аренда которых продлена; остальные отменены или переданы другому узлу
+     */
+    Set<Long> heartbeat(Collection<Long> ids, int leaseSeconds) {
+        return new HashSet<>(jdbcTemplate.queryForList(HEARTBEAT_SQL, Long.class,
+                leaseSeconds, ids.toArray(Long[]::new), owner));
+    }
+
+    /**
+     * Вернуть взятый отчет в очередь, не засчитывая попытку
+     *
+     * @param id Идентификатор отчета
+     * @return true, если отчет возвращен
+     */
+    boolean release(Long id) {
+        return jdbcTemplate.update(RELEASE_SQL, id, owner) > 0;
+    }
+
+    /**
+     * Перевести в ERROR отчеты с истекшей арендой, исчерпавшие попытки формирования
+     *
+     * @param maxAttempts  Максимальное число попыток формирования
+     * @param errorMessage Причина ошибки
+     * @return Число отчетов
+     */
+    int failExhausted(int maxAttempts, String errorMessage) {
+        return jdbcTemplate.update(FAIL_EXHAUSTED_SQL, errorMessage, maxAttempts);
+    }
+}
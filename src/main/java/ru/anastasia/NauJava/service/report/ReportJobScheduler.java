@@ -0,0 +1,75 @@
+package ru.anastasia.NauJava.service.report;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.anastasia.NauJava.config.AppConfig;
+import ru.anastasia.NauJava.entity.report.Report;
+
+/**
+ * Периодический опрос очереди отчетов, продление аренды формируемых отчетов, удаление устаревших отчетов
+ * и формирование отчетов по расписанию
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class ReportJobScheduler {
+
+    /**
+     * Сервис отчетов
+     */
+    private final ReportService reportService;
+
+    /**
+     * Конфигурация приложения
+     */
+    private final AppConfig appConfig;
+
+    @Scheduled(initialDelayString = "${app.report.poll-interval-ms:5000}",
+            fixedDelayString = "${app.report.poll-interval-ms:5000}")
+    void poll() {
+        try {
+            reportService.dispatchQueuedReports();
+        } catch (Exception e) {
+            log.warn("Ошибка опроса очереди отчетов: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.report.heartbeat-interval-ms:15000}")
+    void heartbeat() {
+        try {
+            reportService.renewLeases();
+        } catch (Exception e) {
+            log.warn("Ошибка продления аренды отчетов: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.report.retention-interval-ms:3600000}",
+            fixedDelayString = "${app.report.retention-interval-ms:3600000}")
+    void purge() {
+        try {
+            reportService.purgeReports();
+        } catch (Exception e) {
+            log.warn("Ошибка удаления устаревших отчетов: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Поставить в очередь отчет по расписанию, чтобы к открытию был готов сформированный отчет
+     *
+     * <p>
+     * Расписание срабатывает на каждом узле, но запрос отчета по тем же данным возвращает уже созданный отчет,
+     * поэтому формируется один отчет; взять его в работу может любой узел при опросе очереди.
+     * </p>
+     */
+    @Scheduled(cron = "${app.report.schedule-cron:0 0 3 * * *}")
+    void scheduled() {
+        try {
+            Report report = reportService.requestReport(appConfig.getReportScheduleMode());
+            log.info("Отчет по расписанию: ID: {}, статус: {}", report.getId(), report.getStatus());
+        } catch (Exception e) {
+            log.warn("Ошибка постановки отчета по расписанию: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package ru.anastasia.NauJava.service.report;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.anastasia.NauJava.dto.report.ContactIdRange;
+import ru.anastasia.NauJava.dto.report.ContactReportView;
+import ru.anastasia.NauJava.service.contact.ContactService;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Параллельное чтение контактов отчета по диапазонам идентификаторов
+ *
+ * <p>
+ * Диапазон от наименьшего до наибольшего идентификатора делится на равные части, каждая читается
+ * порциями по ключу в своем виртуальном потоке, в своей транзакции только для чтения с уровнем
+ * изоляции REPEATABLE READ и, значит, на своем соединении и снимке данных. Строки части пишутся
+ * во временный файл, итоги частей объединяются по порядку диапазонов, после чего файлы переносятся
+ * в содержимое отчета в том же порядке: строки идут по возрастанию идентификаторов, как при
+ * последовательном чтении, а сжатие остается одним потоком.
+ * </p>
+ *
+ * <p>
+ * Потоки диапазонов только считают прочитанные строки. О прогрессе сообщает вызывающий поток вне
+ * транзакций диапазонов: запись прогресса, присоединившись к транзакции только для чтения, была бы отклонена БД.
+ * </p>
+ */
+@Slf4j
+@Component
+class ReportPartitionScanner {
+
+    /**
+     * Период уведомления о прогрессе, мс
+     */
+    static final long PROGRESS_INTERVAL_MS = 1000;
+
+    private final ContactService contactService;
+
+    /**
+     * Транзакция чтения одного диапазона
+     */
+    private final TransactionTemplate partitionTransaction;
+
+    ReportPartitionScanner(ContactService contactService, PlatformTransactionManager transactionManager) {
+        this.contactService = contactService;
+        this.partitionTransaction = new TransactionTemplate(transactionManager);
+        this.partitionTransaction.setReadOnly(true);
+        this.partitionTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.partitionTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Итоги чтения
+     *
+     * @param rows       Число прочитанных контактов
+     * @param favorites  Число избранных среди прочитанных
+     * @param partitions Число диапазонов, фактически прочитанных параллельно
+     */
+    record Result(long rows, long favorites, int partitions) {
+    }
+
+    /**
+     * Итоги прочитанных диапазонов и их файлы по порядку
+     */
+    private record Partial(long rows, long favorites, List<Path> files) {
+
+        private static final Partial EMPTY = new Partial(0, 0, List.of());
+
+        /**
+         * Объединить итоги соседних диапазонов; файлы левого идут первыми
+         */
+        private Partial combine(Partial right) {
+            return new Partial(rows + right.rows, favorites + right.favorites,
+                    Stream.concat(files.stream(), right.files.stream()).toList());
+        }
+    }
+
+    /**
+     * Прочитать все контакты параллельно и дописать строки в содержимое отчета
+     *
+     * @param reportId    Идентификатор отчета (для журнала)
+     * @param parallelism Наибольшее число одновременно читаемых диапазонов
+     * @param chunkSize   Размер порции чтения
+     * @param renderer    Запись порции строк; вызывается одновременно из разных потоков с разными приемниками
+     * @param onProgress  Уведомление об общем числе прочитанных строк; вызывается из вызывающего потока
+     *                    вне транзакций диапазонов
+     * @param writer      Содержимое отчета
+     * @return Объединенные итоги
+     */
+    Result scan(Long reportId, int parallelism, int chunkSize,
+                BiConsumer<List<ContactReportView>, Writer> renderer, LongConsumer onProgress, Writer writer)
+            throws IOException {
+        ContactIdRange range = contactService.findIdRange();
+        if (range == null || range.getMinId() == null || range.getMaxId() == null) {
+            return new Result(0, 0, 0);
+        }
+        List<long[]> bounds = split(range.getMinId(), range.getMaxId(), parallelism);
+        log.debug("Чтение контактов для отчета ID: {} по {} диапазонам идентификаторов [{}, {}]",
+                reportId, bounds.size(), range.getMinId(), range.getMaxId());
+
+        List<Future<Partial>> tasks = new ArrayList<>();
+        AtomicLong read = new AtomicLong();
+        try {
+            Partial merged;
+            try (ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor()) {
+                CompletionService<Partial> completion = new ExecutorCompletionService<>(scope);
+                for (long[] bound : bounds) {
+                    tasks.add(completion.submit(() -> scanPartition(bound[0], bound[1], chunkSize, renderer, read)));
+                }
+                int finished = 0;
+                while (finished < tasks.size()) {
+                    try {
+                        Future<Partial> task = completion.poll(PROGRESS_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                        if (task != null) {
+                            task.get();
+                            finished++;
+                        }
+                        onProgress.accept(read.get());
+                    } catch (ExecutionException e) {
+                        scope.shutdownNow();
+                        throw e.getCause() instanceof RuntimeException runtime ? runtime
+                                : new RuntimeException(e.getCause());
+                    } catch (InterruptedException e) {
+                        scope.shutdownNow();
+                        Thread.currentThread().interrupt();
+                        throw new CancellationException("Формирование отчета прервано");
+                    }
+                }
+                merged = tasks.stream().map(Future::resultNow).reduce(Partial.EMPTY, Partial::combine);
+            }
+
+            for (Path file : merged.files()) {
+                try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    reader.transferTo(writer);
+                }
+            }
+            return new Result(merged.rows(), merged.favorites(), bounds.size());
+        } finally {
+            // Задачи к этому моменту завершены: область ждет их при закрытии
+            for (Future<Partial> task : tasks) {
+                if (task.state() == Future.State.SUCCESS) {
+                    task.resultNow().files().forEach(ReportPartitionScanner::deleteQuietly);
+                }
+            }
+        }
+    }
+
+    /**
+     * Разделить диапазон идентификаторов на части
+     *
+     * @return Границы частей: нижняя не включается, верхняя включается
+     */
+    static List<long[]> split(long minId, long maxId, int parallelism) {
+        long size = maxId - minId + 1;
+        int parts = (int) Math.max(1, Math.min(parallelism, size));
+        long step = (size + parts - 1) / parts;
+        List<long[]> bounds = new ArrayList<>(parts);
+        for (long from = minId - 1; from < maxId; from += step) {
+            bounds.add(new long[]{from, Math.min(from + step, maxId)});
+        }
+        return bounds;
+    }
+
+    /**
+     * Прочитать диапазон в отдельной транзакции и записать его строки во временный файл
+     */
+    private Partial scanPartition(long afterId, long toId, int chunkSize,
+                                  BiConsumer<List<ContactReportView>, Writer> renderer, AtomicLong read)
+            throws IOException {
+        Path file = Files.createTempFile("report-rows-", ".html");
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            long[] totals = partitionTransaction.execute(status -> {
+                long cursor = afterId;
+                long rows = 0;
+                long favorites = 0;
+
+                List<ContactReportView> page;
+                while (!(page = contactService.findReportRowsInRange(cursor, toId, chunkSize)).isEmpty()) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new CancellationException("Формирование отчета прервано");
+                    }
+
+                    renderer.accept(page, out);
+
+                    cursor = page.getLast().getId();
+                    rows += page.size();
+                    favorites += page.stream().filter(row -> Boolean.TRUE.equals(row.getIsFavorite())).count();
+                    read.addAndGet(page.size());
+                }
+                return new long[]{rows, favorites};
+            });
+            log.trace("Диапазон ({}, {}] прочитан: {} контактов", afterId, toId, totals[0]);
+            return new Partial(totals[0], totals[1], List.of(file));
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Не удалось удалить временный файл отчета {}: {}", file, e.getMessage());
+        }
+    }
+}
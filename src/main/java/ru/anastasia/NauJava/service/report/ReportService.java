@@ -1,7 +1,12 @@
 package ru.anastasia.NauJava.service.report;
 
+import ru.anastasia.NauJava.dto.report.ReportStatusDto;
 import ru.anastasia.NauJava.entity.report.Report;
+import ru.anastasia.NauJava.entity.report.ReportMode;
+import ru.anastasia.NauJava.entity.report.ReportRun;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -17,12 +22,50 @@ public interface ReportService {
     Report createReport();
 
     /**
-     * Сгенерировать отчет асинхронно
+     * Получить отчет по текущим данным: присоединиться к формирующемуся, повторно отдать сформированный
+     * по тем же данным или создать новый
+     *
+     * <p>
+     * Разностный отчет считается от последнего сформированного отчета; если такого нет, создается полный.
+     * </p>
+     *
+     * @param mode Режим формирования
+     * @return Отчет в очереди, формирующийся или сформированный
+     */
+    Report requestReport(ReportMode mode);
+
+    /**
+     * Начать формирование отчета на этом узле, не дожидаясь опроса очереди
+     *
+     * <p>
+     * Если отчет уже взят другим узлом или локальная очередь заполнена, он остается в очереди в БД.
+     * </p>
      *
      * @param reportId Идентификатор отчета
+     * @return Результат формирования (отменяется при отмене отчета; сразу завершен, если отчет не взят)
      */
     CompletableFuture<Void> generateReportAsync(Long reportId);
 
+    /**
+     * Взять в работу ожидающие отчеты из очереди в БД в пределах свободного места локальной очереди
+     *
+     * @return Число взятых отчетов
+     */
+    int dispatchQueuedReports();
+
+    /**
+     * Продлить аренду отчетов, формируемых этим узлом, и прервать те, что отменены или переданы другому узлу
+     */
+    void renewLeases();
+
+    /**
+     * Отменить формирование отчета
+     *
+     * @param id Идентификатор отчета
+     * @return true, если отчет был в очереди или формировался и отменен
+     */
+    boolean cancelReport(Long id);
+
     /**
      * Получить отчет по идентификатору
      *
@@ -30,4 +73,42 @@ public interface ReportService {
      * @return Отчет
      */
     Report getReport(Long id);
+
+    /**
+     * Получить состояние отчета без загрузки сущности
+     *
+     * @param id Идентификатор отчета
+     * @return Состояние отчета
+     */
+    ReportStatusDto getReportStatus(Long id);
+
+    /**
+     * Получить сжатое gzip содержимое сформированного отчета
+     *
+     * @param id Идентификатор отчета
+     * @return Содержимое или пусто, если отчет еще не сформирован
+     */
+    Optional<ReportContentResource> findContent(Long id);
+
+    /**
+     * Получить последний сформированный отчет
+     *
+     * @return Идентификатор отчета или пусто, если сформированных отчетов нет
+     */
+    Optional<Long> findLatestCompletedId();
+
+    /**
+     * Получить историю последних запусков формирования отчетов
+     *
+     * @return Запуски, начиная с последнего
+     */
+    List<ReportRun> getRunHistory();
+
+    /**
+     * Удалить завершенные отчеты старше срока хранения, самые старые отчеты сверх лимита хранилища
+     * и историю запусков старше срока хранения истории
+     *
+     * @return Число удаленных отчетов
+     */
+    int purgeReports();
 }
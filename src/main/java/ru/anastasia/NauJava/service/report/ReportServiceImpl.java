@@ -2,28 +2,87 @@ package ru.anastasia.NauJava.service.report;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
-import ru.anastasia.NauJava.entity.contact.Contact;
+import ru.anastasia.NauJava.config.AppConfig;
+import ru.anastasia.NauJava.dto.report.ContactChangeRow;
+import ru.anastasia.NauJava.dto.report.ContactReportView;
+import ru.anastasia.NauJava.dto.report.ReportContentView;
+import ru.anastasia.NauJava.dto.report.ReportStatusDto;
 import ru.anastasia.NauJava.entity.report.Report;
+import ru.anastasia.NauJava.entity.report.ReportMode;
+import ru.anastasia.NauJava.entity.report.ReportRun;
 import ru.anastasia.NauJava.entity.report.ReportStatus;
+import ru.anastasia.NauJava.exception.report.ReportQueueFullException;
+import ru.anastasia.NauJava.repository.report.ReportChunkRepository;
 import ru.anastasia.NauJava.repository.report.ReportRepository;
+import ru.anastasia.NauJava.repository.report.ReportRunRepository;
 import ru.anastasia.NauJava.service.contact.ContactService;
+import ru.anastasia.NauJava.service.report.ReportAnalyticsQuery.Section;
 import ru.anastasia.NauJava.service.user.UserService;
 
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ReportServiceImpl implements ReportService {
 
+    /**
+     * Шаблон содержимого отчета (фрагменты summary, rows и footer)
+     */
+    private static final String CONTENT_TEMPLATE = "report/content";
+
+    /**
+     * Размер части сжатого содержимого отчета в байтах
+     */
+    private static final int CONTENT_CHUNK_SIZE = 256 * 1024;
+
+    /**
+     * Размер буфера сжатия
+     */
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Статусы, в которых отчет больше не меняется и может быть удален по сроку хранения
+     */
+    private static final List<ReportStatus> FINISHED_STATUSES =
+            List.of(ReportStatus.COMPLETED, ReportStatus.ERROR, ReportStatus.CANCELLED);
+
+    /**
+     * Статусы отчетов, к которым присоединяется запрос отчета по тем же данным
+     */
+    private static final List<ReportStatus> REUSABLE_STATUSES =
+            List.of(ReportStatus.CREATED, ReportStatus.RUNNING, ReportStatus.COMPLETED);
+
+    /**
+     * Максимальная длина сохраняемой причины ошибки
+     */
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 1000;
+
     /**
      * Репозиторий отчетов
      */
@@ -39,8 +98,53 @@ public class ReportServiceImpl implements ReportService {
      */
     private final ContactService contactService;
 
+    /**
+     * Репозиторий частей содержимого отчетов
+     */
+    private final ReportChunkRepository reportChunkRepository;
+
     private final SpringTemplateEngine templateEngine;
 
+    /**
+     * Конфигурация приложения
+     */
+    private final AppConfig appConfig;
+
+    /**
+     * Исполнитель формирования отчетов
+     */
+    private final ReportExecutor reportExecutor;
+
+    /**
+     * Очередь формирования отчетов в БД
+     */
+    private final ReportJobQueue reportJobQueue;
+
+    /**
+     * Аналитические разделы отчета
+     */
+    private final ReportAnalyticsQuery reportAnalyticsQuery;
+
+    /**
+     * Версия данных отчета
+     */
+    private final ReportDataVersionQuery reportDataVersionQuery;
+
+    /**
+     * Изменения контактов для разностных отчетов
+     */
+    private final ReportDeltaQuery reportDeltaQuery;
+
+    /**
+     * Репозиторий истории запусков формирования
+     */
+    private final ReportRunRepository reportRunRepository;
+
+    /**
+     * Параллельное чтение контактов по диапазонам идентификаторов
+     */
+    private final ReportPartitionScanner reportPartitionScanner;
+
     @Override
     @Transactional
     public Report createReport() {
@@ -57,135 +161,436 @@ public class ReportServiceImpl implements ReportService {
     }
 
     @Override
-    public CompletableFuture<Void> generateReportAsync(Long reportId) {
-        log.info("Запуск асинхронной генерации отчета ID: {}", reportId);
-
-        return CompletableFuture.runAsync(() -> {
-            log.debug("Начало генерации отчета ID: {} в потоке: {}",
-                    reportId, Thread.currentThread().getName());
+    @Transactional
+    public Report requestReport(ReportMode mode) {
+        // Версия считается до блокировки: если данные изменятся в промежутке, отчет просто сформируется заново
+        String dataVersion = reportDataVersionQuery.current();
+        reportDataVersionQuery.lockRequests();
+
+        Report base = null;
+        if (mode == ReportMode.DELTA) {
+            base = reportRepository.findFirstByStatusAndWatermarkIsNotNullOrderByWatermarkDescIdDesc(
+                    ReportStatus.COMPLETED).orElse(null);
+            if (base == null) {
+                log.info("Нет сформированного отчета для разностного отчета, создается полный отчет");
+                mode = ReportMode.FULL;
+            }
+        }
 
-            Report report = reportRepository.findById(reportId)
-                    .orElseThrow(() -> {
-                        log.error("Отчет не найден для генерации. ID: {}", reportId);
-                        return new RuntimeException("Не найден отчет с id: " + reportId);
-                    });
+        Optional<Report> existing = reportRepository.findFirstByDataVersionAndModeAndStatusInOrderByIdDesc(
+                dataVersion, mode, REUSABLE_STATUSES);
+        if (existing.isPresent()) {
+            log.info("Данные не изменились, используется отчет ID: {} в статусе {}",
+                    existing.get().getId(), existing.get().getStatus());
+            return existing.get();
+        }
 
-            long startTotal = System.currentTimeMillis();
-            LocalDateTime generationTime = LocalDateTime.now();
+        Report report = new Report();
+        report.setStatus(ReportStatus.CREATED);
+        report.setMode(mode);
+        report.setBaseReportId(base != null ? base.getId() : null);
+        report.setDataVersion(dataVersion);
+        Report savedReport = reportRepository.save(report);
 
-            log.debug("Генерация отчета ID: {} начата в {}", reportId, generationTime);
+        log.info("Создан отчет ID: {} [режим: {}, базовый отчет: {}, версия данных: {}]",
+                savedReport.getId(), mode, savedReport.getBaseReportId(), dataVersion);
 
-            try {
-                AtomicLong userCount = new AtomicLong(0);
-                AtomicLong userTime = new AtomicLong(0);
-                AtomicReference<Exception> userError = new AtomicReference<>();
-
-                AtomicReference<List<Contact>> contactsRef = new AtomicReference<>();
-                AtomicLong contactTime = new AtomicLong(0);
-                AtomicReference<Exception> contactError = new AtomicReference<>();
-
-                log.debug("Запуск параллельных потоков для сбора данных отчета ID: {}", reportId);
-
-                Thread userThread = new Thread(() -> {
-                    String threadName = Thread.currentThread().getName();
-                    log.trace("Поток пользователей начал работу: {}", threadName);
-
-                    long startUser = System.currentTimeMillis();
-                    try {
-                        long count = userService.countTotal();
-                        userCount.set(count);
-                        log.debug("Сбор данных пользователей завершен. Найдено: {} пользователей, время: {} мс",
-                                count, System.currentTimeMillis() - startUser);
-                    } catch (Exception e) {
-                        userError.set(e);
-                        log.error("Ошибка при подсчете пользователей для отчета ID: {}. Причина: {}",
-                                reportId, e.getMessage(), e);
-                    } finally {
-                        userTime.set(System.currentTimeMillis() - startUser);
-                        log.trace("Поток пользователей завершил работу: {}", threadName);
-                    }
-                });
+        return savedReport;
+    }
 
-                Thread contactThread = new Thread(() -> {
-                    String threadName = Thread.currentThread().getName();
-                    log.trace("Поток контактов начал работу: {}", threadName);
-
-                    long startContact = System.currentTimeMillis();
-                    try {
-                        List<Contact> contacts = contactService.findAll();
-                        contactsRef.set(contacts);
-                        log.debug("Сбор данных контактов завершен. Найдено: {} контактов, время: {} мс",
-                                contacts.size(), System.currentTimeMillis() - startContact);
-                    } catch (Exception e) {
-                        contactError.set(e);
-                        log.error("Ошибка при загрузке контактов для отчета ID: {}. Причина: {}",
-                                reportId, e.getMessage(), e);
-                    } finally {
-                        contactTime.set(System.currentTimeMillis() - startContact);
-                        log.trace("Поток контактов завершил работу: {}", threadName);
-                    }
-                });
+    @Override
+    public CompletableFuture<Void> generateReportAsync(Long reportId) {
+        if (!reportJobQueue.claim(reportId, leaseSeconds(), maxAttempts())) {
+            log.info("Отчет ID: {} уже формируется другим узлом или завершен", reportId);
+            return CompletableFuture.completedFuture(null);
+        }
+        return submit(reportId);
+    }
 
-                userThread.start();
-                contactThread.start();
+    @Override
+    public int dispatchQueuedReports() {
+        int failed = reportJobQueue.failExhausted(maxAttempts(), "Превышено число попыток формирования отчета");
+        if (failed > 0) {
+            log.warn("Отчетов, исчерпавших попытки формирования: {}", failed);
+        }
+
+        int capacity = reportExecutor.getFreeCapacity();
+        if (capacity == 0) {
+            return 0;
+        }
+
+        List<Long> claimed = reportJobQueue.claimNext(capacity, leaseSeconds(), maxAttempts());
+        for (Long reportId : claimed) {
+            submit(reportId);
+        }
+        if (!claimed.isEmpty()) {
+            log.info("Из очереди взято отчетов: {} {}", claimed.size(), claimed);
+        }
+        return claimed.size();
+    }
 
-                log.debug("Ожидание завершения потоков для отчета ID: {}", reportId);
-                userThread.join();
-                contactThread.join();
-                log.debug("Все потоки завершены для отчета ID: {}", reportId);
+    @Override
+    public void renewLeases() {
+        Set<Long> local = reportExecutor.getReportIds();
+        if (local.isEmpty()) {
+            return;
+        }
+
+        Set<Long> renewed = reportJobQueue.heartbeat(local, leaseSeconds());
+        for (Long reportId : local) {
+            if (!renewed.contains(reportId)) {
+                log.warn("Отчет ID: {} отменен или передан другому узлу, формирование прерывается", reportId);
+                reportExecutor.cancel(reportId);
+            }
+        }
+    }
 
-                if (userError.get() != null) {
-                    throw new RuntimeException("Ошибка подсчета пользователей: " + userError.get().getMessage(), userError.get());
-                }
-                if (contactError.get() != null) {
-                    throw new RuntimeException("Ошибка загрузки контактов: " + contactError.get().getMessage(), contactError.get());
-                }
+    @Override
+    public boolean cancelReport(Long id) {
+        log.info("Отмена формирования отчета ID: {}", id);
+
+        ReportStatusDto report = getReportStatus(id);
+        // Статус меняется до прерывания потока, чтобы формирование не успело завершиться успешно
+        int updated = reportRepository.finish(id, List.of(ReportStatus.CREATED, ReportStatus.RUNNING),
+                ReportStatus.CANCELLED, report.getProgress() != null ? report.getProgress() : 0, null,
+                LocalDateTime.now());
+        // Отчет, формируемый другим узлом, прерывается им при следующем продлении аренды
+        boolean interrupted = reportExecutor.cancel(id);
+
+        log.info("Отчет ID: {} {} [задача прервана: {}]", id,
+                updated > 0 ? "отменен" : "уже завершен, отмена не требуется", interrupted);
+        return updated > 0;
+    }
 
-                long totalTime = System.currentTimeMillis() - startTotal;
+    /**
+     * Поставить взятый отчет в локальную очередь; при заполненной очереди вернуть его в очередь в БД
+     */
+    private CompletableFuture<Void> submit(Long reportId) {
+        log.info("Постановка в очередь генерации отчета ID: {} [в работе: {}, в очереди: {}]",
+                reportId, reportExecutor.getActiveCount(), reportExecutor.getQueueSize());
+
+        try {
+            return reportExecutor.submit(reportId, () -> generate(reportId));
+        } catch (ReportQueueFullException e) {
+            log.warn("Локальная очередь отчетов заполнена, отчет ID: {} возвращен в общую очередь", reportId);
+            reportJobQueue.release(reportId);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
 
-                log.debug("Данные собраны для отчета ID: {}. Пользователи: {}, контакты: {}, общее время: {} мс",
-                        reportId, userCount.get(), contactsRef.get().size(), totalTime);
+    /**
+     * Сформировать взятый в работу отчет в потоке исполнителя
+     */
+    private void generate(Long reportId) {
+        log.debug("Начало генерации отчета ID: {} в потоке: {}", reportId, Thread.currentThread());
 
-                log.debug("Генерация HTML контента для отчета ID: {}", reportId);
+        Report report = reportRepository.findById(reportId)
+                .orElseThrow(() -> {
+                    log.error("Отчет не найден для генерации. ID: {}", reportId);
+                    return new RuntimeException("Не найден отчет с id: " + reportId);
+                });
 
-                Context context = new Context();
-                context.setVariable("userCount", userCount.get());
-                context.setVariable("contacts", contactsRef.get());
-                context.setVariable("timeUsers", userTime.get());
-                context.setVariable("timeContacts", contactTime.get());
-                context.setVariable("totalTime", totalTime);
-                context.setVariable("generationTime", generationTime);
+        String owner = reportJobQueue.getOwner();
+        long startTotal = System.currentTimeMillis();
+        LocalDateTime generationTime = LocalDateTime.now();
+        // Отметка берется по часам БД до чтения данных: изменения во время формирования попадут в следующий отчет
+        LocalDateTime watermark = reportDeltaQuery.currentTime();
+
+        log.debug("Генерация отчета ID: {} начата в {} [попытка: {}, узел: {}]",
+                reportId, generationTime, report.getAttempts(), owner);
+
+        ReportRun.ReportRunBuilder run = ReportRun.builder()
+                .reportId(reportId)
+                .mode(report.getMode() != null ? report.getMode() : ReportMode.FULL)
+                .node(owner)
+                .startedAt(generationTime);
+
+        try {
+            Report base = report.getMode() == ReportMode.DELTA ? findDeltaBase(report) : null;
+            Snapshot snapshot = base != null
+                    ? writeDelta(report, base, owner, generationTime, startTotal)
+                    : writeFull(report, owner, generationTime, startTotal);
+            ReportChunkOutputStream content = snapshot.content();
+
+            reportRepository.saveSnapshot(reportId, owner, watermark, snapshot.contacts(), snapshot.favorites());
+            if (reportRepository.complete(reportId, owner, content.getLength(), content.getEtag(),
+                    LocalDateTime.now()) == 0) {
+                throw new CancellationException("Отчет отменен или передан другому узлу при завершении формирования");
+            }
+            recordRun(run.mode(base != null ? ReportMode.DELTA : ReportMode.FULL)
+                    .status(ReportStatus.COMPLETED)
+                    .contactCount(snapshot.contacts())
+                    .rowCount(snapshot.scanned())
+                    .contentLength(content.getLength()), startTotal);
+
+            log.info("Отчет успешно сгенерирован. ID: {}, режим: {}, контактов: {}, строк: {}, " +
+                            "частей: {}, байт (gzip): {}, общее время: {} мс",
+                    reportId, base != null ? ReportMode.DELTA : ReportMode.FULL, snapshot.contacts(),
+                    snapshot.scanned(), content.getChunkCount(), content.getLength(),
+                    System.currentTimeMillis() - startTotal);
+
+        } catch (CancellationException e) {
+            log.info("Формирование отчета ID: {} отменено через {} мс", reportId,
+                    System.currentTimeMillis() - startTotal);
+            deleteContent(reportId, owner);
+            recordRun(run.status(ReportStatus.CANCELLED), startTotal);
+        } catch (Exception e) {
+            long errorTime = System.currentTimeMillis() - startTotal;
+            log.error("Ошибка генерации отчета ID: {}. Время выполнения: {} мс. Причина: {}",
+                    reportId, errorTime, e.getMessage(), e);
+
+            reportRepository.finishLease(reportId, owner, ReportStatus.ERROR, 0,
+                    abbreviate(e.getMessage()), LocalDateTime.now());
+            deleteContent(reportId, owner);
+            recordRun(run.status(ReportStatus.ERROR).errorMessage(abbreviate(e.getMessage())), startTotal);
+
+            log.warn("Отчет ID: {} переведен в статус ERROR", reportId);
+
+            throw new RuntimeException("Ошибка генерации отчета: " + e.getMessage());
+        } finally {
+            log.debug("Завершение генерации отчета ID: {} в потоке: {}", reportId, Thread.currentThread());
+        }
+    }
 
-                String htmlContent = templateEngine.process("report/content", context);
+    /**
+     * Записать полный отчет по всем контактам
+     */
+    private Snapshot writeFull(Report report, String owner, LocalDateTime generationTime, long startTotal)
+            throws IOException {
+        Long reportId = report.getId();
+        Counts counts = countInParallel(reportId);
+
+        log.debug("Данные собраны для отчета ID: {}. Пользователи: {}, контакты: {}, время: {} мс",
+                reportId, counts.users().value(), counts.contacts().value(),
+                System.currentTimeMillis() - startTotal);
+
+        Context context = new Context();
+        context.setVariable("userCount", counts.users().value());
+        context.setVariable("contactCount", counts.contacts().value());
+        context.setVariable("generationTime", generationTime);
+        setAnalyticsVariables(context, counts.contactStats().value(), counts.groupStats().value());
+
+        // Сводка пишется первой, затем строки контактов порциями, затем итог с временем формирования
+        ReportChunkOutputStream content = openContent(report);
+        Writer writer = gzipWriter(content);
+        templateEngine.process(CONTENT_TEMPLATE, Set.of("summary"), context, writer);
+
+        long startScan = System.currentTimeMillis();
+        int parallelism = Math.max(1, appConfig.getReportScanParallelism());
+        long favorites = counts.contactStats().value().favorites();
+        long scanned;
+        if (parallelism > 1) {
+            ReportPartitionScanner.Result scan = writeContactRowsInParallel(reportId, owner, writer,
+                    counts.contacts().value(), parallelism);
+            scanned = scan.rows();
+            favorites = scan.favorites();
+            parallelism = Math.max(1, scan.partitions());
+        } else {
+            scanned = writeContactRows(reportId, owner, writer, counts.contacts().value());
+        }
+        long scanTime = System.currentTimeMillis() - startScan;
+        long contactTime = counts.contacts().time() + scanTime;
+
+        context.setVariable("scannedCount", scanned);
+        context.setVariable("parallelism", parallelism);
+        context.setVariable("timeScan", scanTime);
+        context.setVariable("timeUsers", counts.users().time());
+        context.setVariable("timeContacts", contactTime);
+        context.setVariable("timeContactStats", counts.contactStats().time());
+        context.setVariable("timeGroupStats", counts.groupStats().time());
+        context.setVariable("totalTime", System.currentTimeMillis() - startTotal);
+        templateEngine.process(CONTENT_TEMPLATE, Set.of("footer"), context, writer);
+        writer.close();
+
+        return new Snapshot(counts.contacts().value(), favorites, scanned, content);
+    }
 
-                report.setContent(htmlContent);
-                report.setStatus(ReportStatus.COMPLETED);
-                reportRepository.save(report);
+    /**
+     * Записать разностный отчет: изменения контактов с отметки базового отчета за вычетом перекрытия
+     * и текущие итоги (см. {@link ReportDeltaQuery})
+     */
+    private Snapshot writeDelta(Report report, Report base, String owner, LocalDateTime generationTime,
+                                long startTotal) throws IOException {
+        Long reportId = report.getId();
+        LocalDateTime since = base.getWatermark().minusSeconds(Math.max(0, appConfig.getReportDeltaOverlapSeconds()));
+
+        long startCount = System.currentTimeMillis();
+        ReportDeltaQuery.Changes changes = reportDeltaQuery.countChanges(since);
+        long userCount = userService.countTotal();
+        long countTime = System.currentTimeMillis() - startCount;
+        long contactCount = changes.contacts();
+
+        log.debug("Изменения для отчета ID: {} с {} (отчет ID: {}): добавлено {}, изменено {}, удалено {}, время: {} мс",
+                reportId, since, base.getId(), changes.added(), changes.updated(), changes.deleted(), countTime);
+
+        Context context = new Context();
+        context.setVariable("generationTime", generationTime);
+        context.setVariable("since", since);
+        context.setVariable("baseReportId", base.getId());
+        context.setVariable("userCount", userCount);
+        context.setVariable("contactCount", contactCount);
+        context.setVariable("contactDelta", contactCount - base.getContactCount());
+        context.setVariable("favoriteCount", changes.favorites());
+        context.setVariable("favoriteDelta", changes.favorites() - base.getFavoriteCount());
+        context.setVariable("addedCount", changes.added());
+        context.setVariable("updatedCount", changes.updated());
+        context.setVariable("deletedCount", changes.deleted());
+
+        ReportChunkOutputStream content = openContent(report);
+        Writer writer = gzipWriter(content);
+        templateEngine.process(CONTENT_TEMPLATE, Set.of("deltaSummary"), context, writer);
+
+        long startScan = System.currentTimeMillis();
+        long scanned = writeChangeRows(reportId, owner, writer, since, changes.total(), 0,
+                reportDeltaQuery::findChangedAfter);
+        scanned = writeChangeRows(reportId, owner, writer, since, changes.total(), scanned,
+                reportDeltaQuery::findDeletedAfter);
+
+        context.setVariable("scannedCount", scanned);
+        context.setVariable("timeCounts", countTime);
+        context.setVariable("timeChanges", System.currentTimeMillis() - startScan);
+        context.setVariable("totalTime", System.currentTimeMillis() - startTotal);
+        templateEngine.process(CONTENT_TEMPLATE, Set.of("deltaFooter"), context, writer);
+        writer.close();
+
+        return new Snapshot(contactCount, changes.favorites(), scanned, content);
+    }
 
-                log.info("Отчет успешно сгенерирован. ID: {}, статус: {}, пользователей: {}, контактов: {}, общее время: {} мс",
-                        reportId, report.getStatus(), userCount.get(), contactsRef.get().size(), totalTime);
+    /**
+     * Найти базовый отчет разностного отчета
+     *
+     * @return Базовый отчет или null, если он удален или не содержит отметки (тогда формируется полный отчет)
+     */
+    private Report findDeltaBase(Report report) {
+        Report base = Optional.ofNullable(report.getBaseReportId())
+                .flatMap(reportRepository::findById)
+                .filter(candidate -> candidate.getStatus() == ReportStatus.COMPLETED
+                        && candidate.getWatermark() != null
+                        && candidate.getContactCount() != null
+                        && candidate.getFavoriteCount() != null)
+                .orElse(null);
+        if (base == null) {
+            log.warn("Базовый отчет ID: {} для отчета ID: {} недоступен, формируется полный отчет",
+                    report.getBaseReportId(), report.getId());
+        }
+        return base;
+    }
 
-            } catch (Exception e) {
-                long errorTime = System.currentTimeMillis() - startTotal;
-                log.error("Ошибка генерации отчета ID: {}. Время выполнения: {} мс. Причина: {}",
-                        reportId, errorTime, e.getMessage(), e);
+    /**
+     * Удалить содержимое предыдущей попытки формирования и открыть приемник нового содержимого
+     */
+    private ReportChunkOutputStream openContent(Report report) {
+        reportChunkRepository.deleteByReportId(report.getId());
+        return new ReportChunkOutputStream(reportChunkRepository, report, CONTENT_CHUNK_SIZE);
+    }
 
-                report.setStatus(ReportStatus.ERROR);
-                String errorContent = "<div class='alert alert-danger'>" +
-                        "<h4>Ошибка при формировании отчёта</h4>" +
-                        "<p><strong>Причина:</strong> " + escapeHtml(e.getMessage()) + "</p>" +
-                        "</div>";
-                report.setContent(errorContent);
-                reportRepository.save(report);
+    /**
+     * Содержимое сжимается на лету и хранится сжатым: при выдаче оно отдается без перекодирования
+     */
+    private static Writer gzipWriter(ReportChunkOutputStream content) throws IOException {
+        return new OutputStreamWriter(new GZIPOutputStream(content, GZIP_BUFFER_SIZE), StandardCharsets.UTF_8);
+    }
 
-                log.warn("Отчет ID: {} переведен в статус ERROR", reportId);
+    /**
+     * Подсчитать пользователей, контакты и аналитические разделы параллельно в виртуальных потоках
+     *
+     * <p>
+     * Подзадачи живут не дольше этого вызова: при ошибке одной из них остальные прерываются,
+     * а ошибка пробрасывается вызывающему.
+     * </p>
+     */
+    private Counts countInParallel(Long reportId) {
+        log.debug("Запуск параллельного подсчета для отчета ID: {}", reportId);
+
+        try (ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletionService<Timed<?>> completion = new ExecutorCompletionService<>(scope);
+            List<Future<Timed<?>>> tasks = List.of(
+                    completion.submit(timed(reportId, "Ошибка подсчета пользователей: ", userService::countTotal)),
+                    completion.submit(timed(reportId, "Ошибка подсчета контактов: ", contactService::countTotal)),
+                    completion.submit(timed(reportId, "Ошибка расчета итогов по контактам: ",
+                            reportAnalyticsQuery::contactStats)),
+                    completion.submit(timed(reportId, "Ошибка расчета разделов отчета: ",
+                            reportAnalyticsQuery::groupStats)));
+
+            for (int i = 0; i < tasks.size(); i++) {
+                try {
+                    completion.take().get();
+                } catch (ExecutionException e) {
+                    scope.shutdownNow();
+                    throw e.getCause() instanceof RuntimeException runtime ? runtime : new RuntimeException(e.getCause());
+                } catch (InterruptedException e) {
+                    scope.shutdownNow();
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException("Формирование отчета прервано");
+                }
+            }
+            return new Counts(result(tasks.get(0)), result(tasks.get(1)), result(tasks.get(2)),
+                    result(tasks.get(3)));
+        }
+    }
 
-                throw new RuntimeException("Ошибка генерации отчета: " + e.getMessage());
-            } finally {
-                log.debug("Завершение генерации отчета ID: {} в потоке: {}",
-                        reportId, Thread.currentThread().getName());
+    private static <T> Callable<Timed<?>> timed(Long reportId, String errorPrefix, Supplier<T> task) {
+        return () -> {
+            long start = System.currentTimeMillis();
+            try {
+                T value = task.get();
+                long time = System.currentTimeMillis() - start;
+                log.debug("Подсчет для отчета ID: {} завершен за {} мс", reportId, time);
+                return new Timed<T>(value, time);
+            } catch (RuntimeException e) {
+                log.error("{}отчет ID: {}. Причина: {}", errorPrefix, reportId, e.getMessage(), e);
+                throw new RuntimeException(errorPrefix + e.getMessage(), e);
             }
-        });
+        };
+    }
+
+    /**
+     * Результат завершенной подзадачи; тип задан порядком подзадач в {@link #countInParallel}
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Timed<T> result(Future<Timed<?>> task) {
+        return (Timed<T>) task.resultNow();
+    }
+
+    /**
+     * Передать в шаблон аналитические разделы отчета
+     */
+    private static void setAnalyticsVariables(Context context, ReportAnalyticsQuery.ContactStats contactStats,
+                                              Map<Section, ReportAnalyticsQuery.GroupSection> groups) {
+        context.setVariable("favoriteCount", contactStats.favorites());
+        context.setVariable("favoriteRatio", contactStats.total() > 0
+                ? (double) contactStats.favorites() / contactStats.total() : 0.0);
+        context.setVariable("growth", contactStats.growth());
+        context.setVariable("companies", groups.get(Section.COMPANY));
+        context.setVariable("jobTitles", groups.get(Section.JOB_TITLE));
+        context.setVariable("tags", groups.get(Section.TAG));
+        context.setVariable("detailTypes", groups.get(Section.DETAIL_TYPE));
+        context.setVariable("upcomingEvents", groups.get(Section.EVENT_MONTH));
+    }
+
+    /**
+     * Сохранить запуск в истории; ошибка сохранения не влияет на результат формирования
+     */
+    private void recordRun(ReportRun.ReportRunBuilder run, long startTotal) {
+        try {
+            reportRunRepository.save(run
+                    .finishedAt(LocalDateTime.now())
+                    .durationMs(System.currentTimeMillis() - startTotal)
+                    .build());
+        } catch (Exception e) {
+            log.warn("Не удалось сохранить запуск формирования в истории: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Удалить частично записанное содержимое, если отчет не формирует другой узел
+     */
+    private void deleteContent(Long reportId, String owner) {
+        try {
+            reportChunkRepository.deleteByReportIdUnlessReclaimed(reportId, owner);
+        } catch (Exception cleanupError) {
+            log.warn("Не удалось удалить частично записанное содержимое отчета ID: {}", reportId, cleanupError);
+        }
     }
 
     @Override
@@ -199,19 +604,230 @@ public class ReportServiceImpl implements ReportService {
                     return new RuntimeException("Отчет не найден: " + id);
                 });
 
-        log.debug("Отчет найден: ID: {}, статус: {}, длина контента: {} символов",
-                report.getId(), report.getStatus(),
-                report.getContent() != null ? report.getContent().length() : 0);
+        log.debug("Отчет найден: ID: {}, статус: {}", report.getId(), report.getStatus());
 
         return report;
     }
 
-    private String escapeHtml(String s) {
-        if (s == null) return "";
-        return s.replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;")
-                .replace("\"", "&quot;")
-                .replace("'", "&#39;");
+    @Override
+    @Transactional(readOnly = true)
+    public ReportStatusDto getReportStatus(Long id) {
+        return reportRepository.findStatusById(id)
+                .orElseThrow(() -> {
+                    log.warn("Отчет не найден при запросе состояния. ID: {}", id);
+                    return new RuntimeException("Отчет не найден: " + id);
+                });
+    }
+
+    @Override
+    public Optional<ReportContentResource> findContent(Long id) {
+        ReportContentView content = reportRepository.findContentById(id)
+                .orElseThrow(() -> {
+                    log.warn("Отчет не найден при запросе содержимого. ID: {}", id);
+                    return new RuntimeException("Отчет не найден: " + id);
+                });
+
+        if (content.getStatus() != ReportStatus.COMPLETED || content.getContentEtag() == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new ReportContentResource(reportChunkRepository, id, content.getContentLength(),
+                content.getContentEtag()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> findLatestCompletedId() {
+        return reportRepository.findLatestCompletedId();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReportRun> getRunHistory() {
+        return reportRunRepository.findLatest(PageRequest.of(0, Math.max(1, appConfig.getReportHistorySize())));
+    }
+
+    @Override
+    public int purgeReports() {
+        LocalDateTime before = LocalDateTime.now().minusDays(Math.max(1, appConfig.getReportRetentionDays()));
+        int expired = reportRepository.deleteFinishedBefore(FINISHED_STATUSES, before);
+
+        long maxBytes = Math.max(1, appConfig.getReportMaxStorageMb()) * 1024L * 1024L;
+        List<Long> evicted = reportRepository.findCompletedBeyondStorageLimit(maxBytes);
+        if (!evicted.isEmpty()) {
+            reportRepository.deleteAllByIdInBatch(evicted);
+        }
+
+        int tombstones = reportDeltaQuery.purgeTombstones(Math.max(0, appConfig.getReportDeltaOverlapSeconds()), before);
+        if (tombstones > 0) {
+            log.info("Удалено отметок об удалении контактов: {}", tombstones);
+        }
+
+        int changes = reportDataVersionQuery.compact();
+        int counts = reportDeltaQuery.compactCounts();
+        if (changes > 0 || counts > 0) {
+            log.debug("Журналы сокращены: изменений данных отчета на {} строк, числа контактов на {} строк",
+                    changes, counts);
+        }
+
+        int runs = reportRunRepository.deleteFinishedBefore(
+                LocalDateTime.now().minusDays(Math.max(1, appConfig.getReportHistoryDays())));
+        if (runs > 0) {
+            log.info("Удалено записей истории запусков отчетов: {}", runs);
+        }
+
+        if (expired > 0 || !evicted.isEmpty()) {
+            log.info("Удалено отчетов: {} по сроку хранения (завершены до {}), {} сверх лимита хранилища {} байт",
+                    expired, before, evicted.size(), maxBytes);
+        }
+        return expired + evicted.size();
+    }
+
+    /**
+     * Прочитать контакты порциями по ключу и дописать строки таблицы отчета
+     *
+     * @return Число прочитанных контактов
+     */
+    private long writeContactRows(Long reportId, String owner, Writer writer, long total) {
+        int chunkSize = Math.max(1, appConfig.getReportScanChunkSize());
+        Context context = new Context();
+        long afterId = 0;
+        long scanned = 0;
+        int reportedProgress = 0;
+
+        List<ContactReportView> rows;
+        while (!(rows = contactService.findReportRowsAfter(afterId, chunkSize)).isEmpty()) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Формирование отчета прервано");
+            }
+
+            context.setVariable("contacts", rows);
+            templateEngine.process(CONTENT_TEMPLATE, Set.of("rows"), context, writer);
+
+            afterId = rows.getLast().getId();
+            scanned += rows.size();
+            reportedProgress = updateProgress(reportId, owner, scanned, total, reportedProgress);
+            log.trace("Отчет ID: {} - записано {} контактов", reportId, scanned);
+        }
+        return scanned;
+    }
+
+    /**
+     * Прочитать контакты параллельно по диапазонам идентификаторов и дописать строки таблицы отчета
+     *
+     * <p>
+     * Итоги берутся из прочитанных строк, а не из предварительного подсчета: каждый диапазон читается
+     * на своем снимке, и строки отчета согласованы с его итогами.
+     * </p>
+     *
+     * @return Итоги чтения
+     */
+    private ReportPartitionScanner.Result writeContactRowsInParallel(Long reportId, String owner, Writer writer,
+                                                                     long total, int parallelism)
+            throws IOException {
+        int chunkSize = Math.max(1, appConfig.getReportScanChunkSize());
+        AtomicInteger reportedProgress = new AtomicInteger();
+
+        ReportPartitionScanner.Result result = reportPartitionScanner.scan(reportId, parallelism, chunkSize,
+                (rows, out) -> {
+                    Context context = new Context();
+                    context.setVariable("contacts", rows);
+                    templateEngine.process(CONTENT_TEMPLATE, Set.of("rows"), context, out);
+                },
+                scanned -> reportedProgress.set(
+                        updateProgress(reportId, owner, scanned, total, reportedProgress.get())),
+                writer);
+
+        log.debug("Отчет ID: {} - прочитано {} контактов по {} диапазонам", reportId, result.rows(),
+                result.partitions());
+        return result;
+    }
+
+    /**
+     * Прочитать изменения порциями по ключу (дата изменения, идентификатор) и дописать строки отчета
+     *
+     * @param scanned Число уже записанных строк
+     * @return Число записанных строк вместе с уже записанными
+     */
+    private long writeChangeRows(Long reportId, String owner, Writer writer, LocalDateTime since, long total,
+                                 long scanned, ChangePage page) {
+        int chunkSize = Math.max(1, appConfig.getReportScanChunkSize());
+        Context context = new Context();
+        LocalDateTime afterChangedAt = since;
+        long afterId = 0;
+        int reportedProgress = (int) Math.min(99, scanned * 100 / Math.max(1, total));
+
+        List<ContactChangeRow> rows;
+        while (!(rows = page.find(since, afterChangedAt, afterId, chunkSize)).isEmpty()) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Формирование отчета прервано");
+            }
+
+            context.setVariable("changes", rows);
+            templateEngine.process(CONTENT_TEMPLATE, Set.of("deltaRows"), context, writer);
+
+            afterChangedAt = rows.getLast().getChangedAt();
+            afterId = rows.getLast().getId();
+            scanned += rows.size();
+            reportedProgress = updateProgress(reportId, owner, scanned, total, reportedProgress);
+        }
+        return scanned;
+    }
+
+    /**
+     * Сохранить прогресс, если он вырос
+     *
+     * @return Сохраненный прогресс
+     */
+    private int updateProgress(Long reportId, String owner, long scanned, long total, int reportedProgress) {
+        // 100% выставляется только при завершении; число строк могло вырасти после подсчета
+        int progress = (int) Math.min(99, scanned * 100 / Math.max(1, total));
+        if (progress > reportedProgress) {
+            reportRepository.updateProgress(reportId, owner, progress);
+            return progress;
+        }
+        return reportedProgress;
+    }
+
+    private int leaseSeconds() {
+        return Math.max(1, appConfig.getReportLeaseSeconds());
+    }
+
+    private int maxAttempts() {
+        return Math.max(1, appConfig.getReportMaxAttempts());
+    }
+
+    private static String abbreviate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_MESSAGE_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_MESSAGE_LENGTH - 3) + "...";
+    }
+
+    /**
+     * Результат подзадачи и время ее выполнения
+     */
+    private record Timed<T>(T value, long time) {
+    }
+
+    /**
+     * Записанное содержимое и итоги, сохраняемые с отметкой отчета
+     */
+    private record Snapshot(long contacts, long favorites, long scanned, ReportChunkOutputStream content) {
+    }
+
+    /**
+     * Чтение порции изменений по ключу
+     */
+    @FunctionalInterface
+    private interface ChangePage {
+        List<ContactChangeRow> find(LocalDateTime since, LocalDateTime afterChangedAt, long afterId, int limit);
+    }
+
+    /**
+     * Результаты параллельного подсчета
+     */
+    private record Counts(Timed<Long> users, Timed<Long> contacts,
+                          Timed<ReportAnalyticsQuery.ContactStats> contactStats,
+                          Timed<Map<Section, ReportAnalyticsQuery.GroupSection>> groupStats) {
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package ru.anastasia.NauJava.service.socialprofile;
 
 import ru.anastasia.NauJava.entity.socialprofile.SocialProfile;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -34,6 +35,14 @@ public interface SocialProfileService {
      */
     List<SocialProfile> findByContactId(Long contactId);
 
+    /**
+     * Получить профили нескольких контактов одним запросом
+     *
+     * @param contactIds Идентификаторы контактов
+     * @return Список профилей
+     */
+    List<SocialProfile> findByContactIds(Collection<Long> contactIds);
+
     /**
      * Получить профиль в соцсети по идентификатору
      *
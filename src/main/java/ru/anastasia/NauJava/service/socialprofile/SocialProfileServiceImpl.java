@@ -12,6 +12,7 @@ import ru.anastasia.NauJava.exception.socialprofile.SocialProfileNotFoundExcepti
 import ru.anastasia.NauJava.repository.socialprofile.SocialProfileRepository;
 import ru.anastasia.NauJava.service.contact.ContactService;
 
+import java.util.Collection;
 import java.util.List;
 
 @Slf4j
@@ -75,6 +76,16 @@ public class SocialProfileServiceImpl implements SocialProfileService {
         return profiles;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<SocialProfile> findByContactIds(Collection<Long> contactIds) {
+        log.debug("Поиск профилей в соцсетях для {} контактов", contactIds.size());
+        if (contactIds.isEmpty()) {
+            return List.of();
+        }
+        return socialProfileRepository.findByContactIdIn(contactIds);
+    }
+
     @Override
     public SocialProfile findById(Long id) {
         log.debug("Поиск профиля в соцсети по ID: {}", id);
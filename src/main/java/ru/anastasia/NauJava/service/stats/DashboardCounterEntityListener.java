@@ -0,0 +1,56 @@
+package ru.anastasia.NauJava.service.stats;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import ru.anastasia.NauJava.entity.company.Company;
+import ru.anastasia.NauJava.entity.contact.Contact;
+import ru.anastasia.NauJava.entity.user.User;
+import ru.anastasia.NauJava.service.stats.DashboardCounters.Counter;
+
+/**
+ * Слушатель жизненного цикла сущностей, поддерживающий счетчики панелей управления
+ *
+ * <p>
+ * Учитывает создание и удаление контактов, компаний и пользователей. Смена признака избранного
+ * у существующего контакта учитывается сервисами: старое значение в событии JPA недоступно.
+ * Массовые JPQL/SQL-операции событий не порождают и учитываются там, где выполняются.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class DashboardCounterEntityListener {
+
+    /**
+     * Счетчики (получаются лениво: слушатель создается вместе с фабрикой EntityManager)
+     */
+    private final ObjectProvider<DashboardCounters> dashboardCounters;
+
+    @PostPersist
+    public void onPersist(Object entity) {
+        count(entity, 1);
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        count(entity, -1);
+    }
+
+    private void count(Object entity, long delta) {
+        DashboardCounters counters = dashboardCounters.getObject();
+        switch (entity) {
+            case Contact contact -> {
+                counters.add(Counter.CONTACTS, delta);
+                if (Boolean.TRUE.equals(contact.getIsFavorite())) {
+                    counters.add(Counter.FAVORITES, delta);
+                }
+            }
+            case Company company -> counters.add(Counter.COMPANIES, delta);
+            case User user -> counters.add(Counter.USERS, delta);
+            default -> {
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ru.anastasia.NauJava.service.stats;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Периодическая сверка счетчиков панелей управления с БД
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class DashboardCounterScheduler {
+
+    /**
+     * Сервис статистики дашбордов
+     */
+    private final StatisticsService statisticsService;
+
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval-ms:60000}")
+    void reconcile() {
+        try {
+            statisticsService.reconcileCounters();
+        } catch (Exception e) {
+            log.warn("Ошибка сверки счетчиков панелей управления: {}", e.getMessage(), e);
+        }
+    }
+}
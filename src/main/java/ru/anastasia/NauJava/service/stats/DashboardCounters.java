@@ -0,0 +1,124 @@
+package ru.anastasia.NauJava.service.stats;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счетчики панелей управления в памяти
+ *
+ * <p>
+ * Значения изменяются сервисами и слушателем сущностей при создании и удалении контактов, компаний
+ * и пользователей и при изменении признака избранного; изменение применяется после фиксации транзакции,
+ * поэтому откаченные изменения счетчики не меняют. Чтение - сумма {@link LongAdder} без обращения к БД.
+ * </p>
+ *
+ * <p>
+ * Изменения с других узлов и изменения в обход сервисов здесь не видны, поэтому счетчики периодически
+ * сверяются с БД ({@link StatisticsService#reconcileCounters}) и отстают от нее не больше чем на
+ * интервал сверки {@code app.stats.reconcile-interval-ms}. Число ближайших дней рождения только
+ * обновляется при сверке: оно зависит от текущей даты, а не от изменений.
+ * </p>
+ */
+@Slf4j
+@Component
+public class DashboardCounters {
+
+    /**
+     * Счетчик
+     */
+    public enum Counter {
+        USERS, CONTACTS, COMPANIES, FAVORITES, UPCOMING_BIRTHDAYS
+    }
+
+    private final Map<Counter, LongAdder> values = new EnumMap<>(Counter.class);
+
+    /**
+     * Выполнялась ли сверка с БД хотя бы раз
+     */
+    private volatile boolean loaded;
+
+    public DashboardCounters() {
+        for (Counter counter : Counter.values()) {
+            values.put(counter, new LongAdder());
+        }
+    }
+
+    /**
+     * Изменить счетчик после фиксации текущей транзакции (сразу, если транзакции нет)
+     *
+     * @param counter Счетчик
+     * @param delta   Изменение
+     */
+    public void add(Counter counter, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        LongAdder value = values.get(counter);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            value.add(delta);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                value.add(delta);
+            }
+        });
+    }
+
+    /**
+     * Изменить счетчик избранных при смене признака избранного
+     *
+     * @param before Признак до изменения
+     * @param after  Признак после изменения
+     */
+    public void favoriteChanged(Boolean before, Boolean after) {
+        add(Counter.FAVORITES, (Boolean.TRUE.equals(after) ? 1 : 0) - (Boolean.TRUE.equals(before) ? 1 : 0));
+    }
+
+    /**
+     * Текущее значение счетчика
+     *
+     * @param counter Счетчик
+     * @return Значение (не меньше нуля)
+     */
+    public long get(Counter counter) {
+        return Math.max(0, values.get(counter).sum());
+    }
+
+    /**
+     * Заменить значения счетчиков значениями из БД
+     *
+     * <p>
+     * Изменения, зафиксированные во время подсчета в БД, могут быть учтены дважды или потеряны;
+     * такое расхождение исправляется следующей сверкой.
+     * </p>
+     *
+     * @param actual Значения из БД
+     */
+    public void reconcile(Map<Counter, Long> actual) {
+        actual.forEach((counter, value) -> {
+            LongAdder adder = values.get(counter);
+            long previous = adder.sumThenReset();
+            adder.add(value);
+            if (loaded && previous != value) {
+                log.debug("Счетчик {} сверен с БД: было {}, стало {}", counter, previous, value);
+            }
+        });
+        loaded = true;
+    }
+
+    /**
+     * @return true, если значения уже сверены с БД
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+}
@@ -5,6 +5,11 @@ import ru.anastasia.NauJava.dto.stats.UserDashboardStats;
 
 /**
  * Сервис статистики дашбордов
+ *
+ * <p>
+ * Статистика читается из счетчиков в памяти ({@link DashboardCounters}) и может отставать от БД
+ * не больше чем на интервал сверки {@code app.stats.reconcile-interval-ms}.
+ * </p>
  */
 public interface StatisticsService {
 
@@ -21,4 +26,9 @@ public interface StatisticsService {
      * @return Статистика администратора
      */
     AdminDashboardStats getAdminDashboardStats();
+
+    /**
+     * Сверить счетчики панелей управления с БД
+     */
+    void reconcileCounters();
 }
@@ -8,13 +8,22 @@ import ru.anastasia.NauJava.dto.stats.UserDashboardStats;
 import ru.anastasia.NauJava.service.company.CompanyService;
 import ru.anastasia.NauJava.service.contact.ContactService;
 import ru.anastasia.NauJava.service.event.EventService;
+import ru.anastasia.NauJava.service.stats.DashboardCounters.Counter;
 import ru.anastasia.NauJava.service.user.UserService;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class StatisticsServiceImpl implements StatisticsService {
 
+    /**
+     * Горизонт ближайших дней рождения в днях
+     */
+    private static final int BIRTHDAYS_DAYS = 30;
+
     /**
      * Сервис пользователей
      */
@@ -35,79 +44,80 @@ public class StatisticsServiceImpl implements StatisticsService {
      */
     private final EventService eventService;
 
+    /**
+     * Счетчики панелей управления
+     */
+    private final DashboardCounters dashboardCounters;
+
     @Override
     public UserDashboardStats getUserDashboardStats() {
         log.debug("Получение статистики для пользовательской панели управления");
-
-        long startTime = System.currentTimeMillis();
-
-        try {
-            Long contacts = contactService.countTotal();
-            Long companies = companyService.countTotal();
-            Long favorites = contactService.countFavorites();
-            Long birthdays = eventService.countUpcomingBirthdays(30);
-
-            log.trace("Сырые данные статистики пользователя: контакты={}, компании={}, избранные={}, дни рождения={}",
-                    contacts, companies, favorites, birthdays);
-
-            UserDashboardStats stats = UserDashboardStats.builder()
-                    .contactsCount(contacts != null ? contacts : 0L)
-                    .companiesCount(companies != null ? companies : 0L)
-                    .favoritesCount(favorites != null ? favorites : 0L)
-                    .upcomingBirthdays(birthdays != null ? birthdays : 0L)
-                    .build();
-
-            long executionTime = System.currentTimeMillis() - startTime;
-
-            log.debug("Статистика пользовательской панели сгенерирована за {} мс. " +
-                            "Контакты: {}, компании: {}, избранные: {}, дни рождения (30 дней): {}",
-                    executionTime, stats.getContactsCount(), stats.getCompaniesCount(),
-                    stats.getFavoritesCount(), stats.getUpcomingBirthdays());
-
-            return stats;
-
-        } catch (Exception e) {
-            long errorTime = System.currentTimeMillis() - startTime;
-            log.error("Ошибка при получении статистики пользовательской панели. Время выполнения: {} мс. Причина: {}",
-                    errorTime, e.getMessage(), e);
-            throw e;
-        }
+        ensureLoaded();
+
+        UserDashboardStats stats = UserDashboardStats.builder()
+                .contactsCount(dashboardCounters.get(Counter.CONTACTS))
+                .companiesCount(dashboardCounters.get(Counter.COMPANIES))
+                .favoritesCount(dashboardCounters.get(Counter.FAVORITES))
+                .upcomingBirthdays(dashboardCounters.get(Counter.UPCOMING_BIRTHDAYS))
+                .build();
+
+        log.debug("Статистика пользовательской панели: контакты: {}, компании: {}, избранные: {}, " +
+                        "дни рождения ({} дней): {}",
+                stats.getContactsCount(), stats.getCompaniesCount(), stats.getFavoritesCount(),
+                BIRTHDAYS_DAYS, stats.getUpcomingBirthdays());
+        return stats;
     }
 
     @Override
     public AdminDashboardStats getAdminDashboardStats() {
         log.debug("Получение статистики для административной панели управления");
+        ensureLoaded();
 
-        long startTime = System.currentTimeMillis();
+        AdminDashboardStats stats = AdminDashboardStats.builder()
+                .usersCount(dashboardCounters.get(Counter.USERS))
+                .contactsCount(dashboardCounters.get(Counter.CONTACTS))
+                .companiesCount(dashboardCounters.get(Counter.COMPANIES))
+                .build();
 
-        try {
-            Long users = userService.countTotal();
-            Long contacts = contactService.countTotal();
-            Long companies = companyService.countTotal();
-
-            log.trace("Сырые данные статистики администратора: пользователи={}, контакты={}, компании={}",
-                    users, contacts, companies);
-
-            AdminDashboardStats stats = AdminDashboardStats.builder()
-                    .usersCount(users != null ? users : 0L)
-                    .contactsCount(contacts != null ? contacts : 0L)
-                    .companiesCount(companies != null ? companies : 0L)
-                    .build();
+        log.debug("Статистика административной панели: пользователи: {}, контакты: {}, компании: {}",
+                stats.getUsersCount(), stats.getContactsCount(), stats.getCompaniesCount());
+        return stats;
+    }
 
-            long executionTime = System.currentTimeMillis() - startTime;
+    @Override
+    public synchronized void reconcileCounters() {
+        long startTime = System.currentTimeMillis();
 
-            log.debug("Статистика административной панели сгенерирована за {} мс. " +
-                            "Пользователи: {}, контакты: {}, компании: {}",
-                    executionTime, stats.getUsersCount(), stats.getContactsCount(),
-                    stats.getCompaniesCount());
+        try {
+            Map<Counter, Long> actual = new EnumMap<>(Counter.class);
+            actual.put(Counter.USERS, orZero(userService.countTotal()));
+            actual.put(Counter.CONTACTS, orZero(contactService.countTotal()));
+            actual.put(Counter.COMPANIES, orZero(companyService.countTotal()));
+            actual.put(Counter.FAVORITES, orZero(contactService.countFavorites()));
+            actual.put(Counter.UPCOMING_BIRTHDAYS, orZero(eventService.countUpcomingBirthdays(BIRTHDAYS_DAYS)));
 
-            return stats;
+            log.trace("Сырые данные статистики: {}", actual);
+            dashboardCounters.reconcile(actual);
 
+            log.debug("Счетчики панелей управления сверены с БД за {} мс", System.currentTimeMillis() - startTime);
         } catch (Exception e) {
             long errorTime = System.currentTimeMillis() - startTime;
-            log.error("Ошибка при получении статистики административной панели. Время выполнения: {} мс. Причина: {}",
+            log.error("Ошибка при сверке счетчиков панелей управления. Время выполнения: {} мс. Причина: {}",
                     errorTime, e.getMessage(), e);
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Сверить счетчики при первом обращении, если плановая сверка еще не выполнялась
+     */
+    private void ensureLoaded() {
+        if (!dashboardCounters.isLoaded()) {
+            reconcileCounters();
+        }
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0L;
+    }
+}
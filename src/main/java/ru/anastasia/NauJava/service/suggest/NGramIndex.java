@@ -0,0 +1,636 @@
+package ru.anastasia.NauJava.service.suggest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Инвертированный n-граммный индекс для поиска по подстроке
+ *
+ * <p>
+ * Каждая запись получает внутренний номер документа (int). Для каждой триграммы нормализованного текста
+ * и для одно- и двухсимвольных начал слов хранится возрастающий массив номеров документов.
+ * N-граммы и внешние ключи хранятся в хеш-таблицах с примитивными ключами, без упаковки в Long.
+ * Поиск пересекает списки вхождений триграмм запроса, начиная с самого короткого, и проверяет по тексту
+ * всех кандидатов, поэтому ложных срабатываний нет, а лучшие совпадения не зависят от порядка добавления.
+ * Удаленные документы только помечаются; списки вхождений перестраиваются, когда удаленных
+ * становится больше половины.
+ * </p>
+ *
+ * <p>
+ * Потокобезопасен: поиск выполняется параллельно, изменения - под блокировкой записи.
+ * </p>
+ */
+public class NGramIndex {
+
+    /**
+     * Длина n-граммы для запросов от трех символов
+     */
+    private static final int GRAM_LENGTH = 3;
+
+    /**
+     * Признак n-граммы начала слова (для запросов из одного-двух символов)
+     */
+    private static final long WORD_START_FLAG = 1L << 52;
+
+    /**
+     * Наибольшая длина текста, различаемая при ранжировании (более длинные считаются равными)
+     */
+    private static final int MAX_RANKED_LENGTH = (1 << 30) - 1;
+
+    /**
+     * Минимальное число удаленных документов для перестроения списков вхождений
+     */
+    private static final int MIN_COMPACTION_SIZE = 1024;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Номер списка вхождений по упакованной n-грамме
+     */
+    private final LongIntMap gramSlots = new LongIntMap();
+
+    /**
+     * Списки вхождений (возрастающие номера документов) по номеру списка
+     */
+    private int[][] postingIds = new int[INITIAL_CAPACITY][];
+
+    /**
+     * Длины списков вхождений по номеру списка
+     */
+    private int[] postingSizes = new int[INITIAL_CAPACITY];
+
+    private int gramCount;
+
+    /**
+     * Номер документа по внешнему ключу
+     */
+    private final LongIntMap documentsByKey = new LongIntMap();
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+
+    private String[] labels = new String[INITIAL_CAPACITY];
+
+    /**
+     * Нормализованные тексты документов (null - документ удален)
+     */
+    private String[] texts = new String[INITIAL_CAPACITY];
+
+    private int documentCount;
+
+    private int removedCount;
+
+    /**
+     * Найденная запись
+     *
+     * @param key   Внешний ключ записи
+     * @param label Отображаемый текст
+     */
+    public record Hit(long key, String label) {
+    }
+
+    /**
+     * Размеры индекса
+     *
+     * @param documents      Число записей
+     * @param grams          Число различных n-грамм
+     * @param postings       Суммарная длина списков вхождений
+     * @param estimatedBytes Оценка занимаемой памяти кучи, байт
+     */
+    public record Stats(int documents, int grams, long postings, long estimatedBytes) {
+    }
+
+    /**
+     * Добавить или заменить запись
+     *
+     * @param key   Внешний ключ записи
+     * @param label Отображаемый текст
+     * @param text  Текст для поиска
+     */
+    public void put(long key, String label, String text) {
+        String normalized = normalize(text);
+
+        lock.writeLock().lock();
+        try {
+            int existing = documentsByKey.get(key);
+            if (existing != LongIntMap.ABSENT) {
+                if (normalized.equals(texts[existing])) {
+                    labels[existing] = label;
+                    return;
+                }
+                documentsByKey.remove(key);
+                markRemoved(existing);
+            }
+
+            if (!normalized.isEmpty()) {
+                int document = append(key, label, normalized);
+                documentsByKey.put(key, document);
+                for (long gram : grams(normalized)) {
+                    addPosting(gram, document);
+                }
+            }
+
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удалить запись
+     *
+     * @param key Внешний ключ записи
+     */
+    public void remove(long key) {
+        lock.writeLock().lock();
+        try {
+            int document = documentsByKey.remove(key);
+            if (document != LongIntMap.ABSENT) {
+                markRemoved(document);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Найти записи, текст которых содержит запрос
+     *
+     * <p>
+     * Сначала идут записи, начинающиеся с запроса, затем записи со словом, начинающимся с запроса,
+     * затем остальные; внутри группы - более короткие, при равной длине - добавленные раньше.
+     * Время поиска пропорционально числу кандидатов после пересечения списков вхождений.
+     * </p>
+     *
+     * @param query Запрос
+     * @param limit Максимальное число результатов
+     * @return Найденные записи
+     */
+    public List<Hit> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Candidates candidates = candidates(normalized);
+
+            // Куча с наибольшим (худшим) совпадением в корне; совпадение упаковано в long по порядку ранжирования
+            long[] best = new long[Math.min(limit, candidates.size())];
+            int found = 0;
+            for (int i = 0; i < candidates.size(); i++) {
+                int document = candidates.ids()[i];
+                String text = texts[document];
+                if (text == null) {
+                    continue;
+                }
+
+                int position = text.indexOf(normalized);
+                if (position < 0) {
+                    continue;
+                }
+
+                int rank = position == 0 ? 0 : text.charAt(position - 1) == ' ' ? 1 : 2;
+                long match = match(rank, text.length(), document);
+                if (found < best.length) {
+                    best[found] = match;
+                    siftUp(best, found++);
+                } else if (match < best[0]) {
+                    best[0] = match;
+                    siftDown(best, found);
+                }
+            }
+
+            long[] matches = Arrays.copyOf(best, found);
+            Arrays.sort(matches);
+            List<Hit> hits = new ArrayList<>(found);
+            for (long match : matches) {
+                int document = (int) (match & Integer.MAX_VALUE);
+                hits.add(new Hit(keys[document], labels[document]));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Получить размеры индекса
+     *
+     * <p>
+     * Память оценивается по размерам массивов и типичным накладным расходам объектов
+     * 64-битной JVM со сжатыми ссылками; это оценка, а не точное измерение.
+     * </p>
+     *
+     * @return Размеры индекса
+     */
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            long totalPostings = 0;
+            long bytes = gramSlots.estimatedBytes() + 2 * 16 + 4L * postingIds.length + 4L * postingSizes.length;
+            for (int slot = 0; slot < gramCount; slot++) {
+                totalPostings += postingSizes[slot];
+                bytes += 16 + 4L * postingIds[slot].length;
+            }
+
+            bytes += 16 + 8L * keys.length + 2 * (16 + 4L * labels.length);
+            bytes += documentsByKey.estimatedBytes();
+
+            for (int document = 0; document < documentCount; document++) {
+                if (texts[document] != null) {
+                    bytes += 2 * (40 + 2L * texts[document].length());
+                }
+            }
+
+            return new Stats(documentsByKey.size(), gramCount, totalPostings, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Нормализовать текст: нижний регистр, "ё" как "е", одиночные пробелы
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String lower = text.toLowerCase(Locale.ROOT).replace('ё', 'е').trim();
+        return WHITESPACE.matcher(lower).replaceAll(" ");
+    }
+
+    private Candidates candidates(String normalized) {
+        if (normalized.length() < GRAM_LENGTH) {
+            int slot = gramSlots.get(pack(normalized, 0, normalized.length(), WORD_START_FLAG));
+            return slot == LongIntMap.ABSENT ? Candidates.EMPTY : new Candidates(postingIds[slot], postingSizes[slot]);
+        }
+
+        long[] grams = new long[normalized.length() - GRAM_LENGTH + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = pack(normalized, i, GRAM_LENGTH, 0);
+        }
+        grams = Arrays.stream(grams).distinct().toArray();
+
+        int[] slots = new int[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            slots[i] = gramSlots.get(grams[i]);
+            if (slots[i] == LongIntMap.ABSENT) {
+                return Candidates.EMPTY;
+            }
+        }
+        sortBySize(slots);
+
+        Candidates result = new Candidates(postingIds[slots[0]], postingSizes[slots[0]]);
+        for (int i = 1; i < slots.length && result.size() > 0; i++) {
+            result = intersect(result, postingIds[slots[i]], postingSizes[slots[i]]);
+        }
+        return result;
+    }
+
+    /**
+     * Упорядочить списки вхождений от самого короткого (в запросе единицы n-грамм - сортировка вставками)
+     */
+    private void sortBySize(int[] slots) {
+        for (int i = 1; i < slots.length; i++) {
+            int slot = slots[i];
+            int j = i - 1;
+            while (j >= 0 && postingSizes[slots[j]] > postingSizes[slot]) {
+                slots[j + 1] = slots[j];
+                j--;
+            }
+            slots[j + 1] = slot;
+        }
+    }
+
+    /**
+     * Пересечь кандидатов со списком вхождений не короче их: по списку кандидатов идем подряд,
+     * по длинному списку - экспоненциальным поиском
+     */
+    private static Candidates intersect(Candidates left, int[] right, int rightSize) {
+        int[] result = new int[Math.min(left.size(), rightSize)];
+        int size = 0;
+        int j = 0;
+        for (int i = 0; i < left.size() && j < rightSize; i++) {
+            int document = left.ids()[i];
+            j = advance(right, j, rightSize, document);
+            if (j < rightSize && right[j] == document) {
+                result[size++] = document;
+                j++;
+            }
+        }
+        return new Candidates(result, size);
+    }
+
+    /**
+     * Найти в возрастающем списке первую позицию от from со значением не меньше value
+     */
+    private static int advance(int[] ids, int from, int size, int value) {
+        if (from >= size || ids[from] >= value) {
+            return from;
+        }
+
+        // ids[low] < value; high - конец списка или позиция со значением не меньше value
+        int low = from;
+        int step = 1;
+        while (low + step < size && ids[low + step] < value) {
+            low += step;
+            step <<= 1;
+        }
+        int high = Math.min(low + step, size);
+        while (low + 1 < high) {
+            int middle = (low + high) >>> 1;
+            if (ids[middle] < value) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Упаковать совпадение так, чтобы порядок long совпадал с порядком ранжирования
+     */
+    private static long match(int rank, int length, int document) {
+        return (long) rank << 61 | (long) Math.min(length, MAX_RANKED_LENGTH) << 31 | document;
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        long value = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] >= value) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = value;
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        long value = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] > heap[child]) {
+                child++;
+            }
+            if (heap[child] <= value) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = value;
+    }
+
+    private static long[] grams(String text) {
+        long[] result = new long[Math.max(0, text.length() - GRAM_LENGTH + 1) + 2 * text.length()];
+        int size = 0;
+
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            result[size++] = pack(text, i, GRAM_LENGTH, 0);
+        }
+
+        for (int i = 0; i < text.length(); i++) {
+            boolean wordStart = text.charAt(i) != ' ' && (i == 0 || text.charAt(i - 1) == ' ');
+            if (!wordStart) {
+                continue;
+            }
+            result[size++] = pack(text, i, 1, WORD_START_FLAG);
+            if (i + 1 < text.length() && text.charAt(i + 1) != ' ') {
+                result[size++] = pack(text, i, 2, WORD_START_FLAG);
+            }
+        }
+
+        return Arrays.stream(result, 0, size).distinct().toArray();
+    }
+
+    /**
+     * Упаковать n-грамму (до трех UTF-16 символов) вместе с длиной и признаком в long
+     */
+    private static long pack(String text, int start, int length, long flag) {
+        long key = flag | ((long) length << 48);
+        for (int i = 0; i < length; i++) {
+            key |= (long) text.charAt(start + i) << (16 * (GRAM_LENGTH - 1 - i));
+        }
+        return key;
+    }
+
+    private void addPosting(long gram, int document) {
+        int slot = gramSlots.get(gram);
+        if (slot == LongIntMap.ABSENT) {
+            if (gramCount == postingIds.length) {
+                postingIds = Arrays.copyOf(postingIds, gramCount * 2);
+                postingSizes = Arrays.copyOf(postingSizes, gramCount * 2);
+            }
+            slot = gramCount++;
+            postingIds[slot] = new int[4];
+            gramSlots.put(gram, slot);
+        }
+
+        int size = postingSizes[slot];
+        if (size == postingIds[slot].length) {
+            postingIds[slot] = Arrays.copyOf(postingIds[slot], size * 2);
+        }
+        postingIds[slot][size] = document;
+        postingSizes[slot] = size + 1;
+    }
+
+    private int append(long key, String label, String normalized) {
+        if (documentCount == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            labels = Arrays.copyOf(labels, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+        }
+        keys[documentCount] = key;
+        labels[documentCount] = label;
+        texts[documentCount] = normalized;
+        return documentCount++;
+    }
+
+    private void markRemoved(int document) {
+        labels[document] = null;
+        texts[document] = null;
+        removedCount++;
+    }
+
+    /**
+     * Перенумеровать живые документы и заново построить списки вхождений
+     */
+    private void compactIfNeeded() {
+        if (removedCount < MIN_COMPACTION_SIZE || removedCount * 2 < documentCount) {
+            return;
+        }
+
+        long[] oldKeys = keys;
+        String[] oldLabels = labels;
+        String[] oldTexts = texts;
+        int oldCount = documentCount;
+
+        int capacity = Math.max(INITIAL_CAPACITY, (oldCount - removedCount) * 2);
+        keys = new long[capacity];
+        labels = new String[capacity];
+        texts = new String[capacity];
+        documentCount = 0;
+        removedCount = 0;
+        gramSlots.clear();
+        postingIds = new int[INITIAL_CAPACITY][];
+        postingSizes = new int[INITIAL_CAPACITY];
+        gramCount = 0;
+        documentsByKey.clear();
+
+        for (int document = 0; document < oldCount; document++) {
+            if (oldTexts[document] == null) {
+                continue;
+            }
+            int renumbered = append(oldKeys[document], oldLabels[document], oldTexts[document]);
+            documentsByKey.put(oldKeys[document], renumbered);
+            for (long gram : grams(oldTexts[document])) {
+                addPosting(gram, renumbered);
+            }
+        }
+    }
+
+    private record Candidates(int[] ids, int size) {
+        private static final Candidates EMPTY = new Candidates(new int[0], 0);
+    }
+
+    /**
+     * Хеш-таблица long -> неотрицательный int с открытой адресацией (линейное пробирование)
+     */
+    private static final class LongIntMap {
+
+        /**
+         * Значение отсутствующего ключа и признак свободной ячейки
+         */
+        private static final int ABSENT = -1;
+
+        private static final int MIN_CAPACITY = 16;
+
+        private long[] keys;
+
+        private int[] values;
+
+        private int size;
+
+        private LongIntMap() {
+            allocate(MIN_CAPACITY);
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private int get(long key) {
+            int mask = keys.length - 1;
+            for (int i = slot(key, mask); values[i] != ABSENT; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            return ABSENT;
+        }
+
+        private void put(long key, int value) {
+            // Заполнение не больше половины: цепочки пробирования остаются короткими
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int i = slot(key, mask);
+            while (values[i] != ABSENT) {
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = value;
+            size++;
+        }
+
+        private int remove(long key) {
+            int mask = keys.length - 1;
+            for (int i = slot(key, mask); values[i] != ABSENT; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    int removed = values[i];
+                    closeGap(i, mask);
+                    size--;
+                    return removed;
+                }
+            }
+            return ABSENT;
+        }
+
+        private void clear() {
+            allocate(MIN_CAPACITY);
+            size = 0;
+        }
+
+        private long estimatedBytes() {
+            return 2 * 16 + 8L * keys.length + 4L * values.length;
+        }
+
+        /**
+         * Сдвинуть на место удаленной ячейки следующие записи цепочки, чтобы поиск не обрывался на пустой ячейке
+         */
+        private void closeGap(int gap, int mask) {
+            for (int i = (gap + 1) & mask; values[i] != ABSENT; i = (i + 1) & mask) {
+                int home = slot(keys[i], mask);
+                // Запись можно перенести, если ее исходная ячейка не лежит между пустой ячейкой и ею самой
+                if (((i - home) & mask) >= ((i - gap) & mask)) {
+                    keys[gap] = keys[i];
+                    values[gap] = values[i];
+                    gap = i;
+                }
+            }
+            values[gap] = ABSENT;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            allocate(capacity);
+            int mask = capacity - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldValues[j] == ABSENT) {
+                    continue;
+                }
+                int i = slot(oldKeys[j], mask);
+                while (values[i] != ABSENT) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            values = new int[capacity];
+            Arrays.fill(values, ABSENT);
+        }
+
+        private static int slot(long key, int mask) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package ru.anastasia.NauJava.service.suggest;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.anastasia.NauJava.entity.company.Company;
+import ru.anastasia.NauJava.entity.company.JobTitle;
+import ru.anastasia.NauJava.entity.contact.Contact;
+import ru.anastasia.NauJava.entity.enums.SuggestionType;
+import ru.anastasia.NauJava.entity.tag.Tag;
+
+/**
+ * Слушатель жизненного цикла сущностей, поддерживающий индекс быстрого поиска
+ *
+ * <p>
+ * Значения полей снимаются в момент события, а индекс изменяется только после фиксации транзакции,
+ * поэтому откаченные изменения в индекс не попадают. Массовые JPQL/SQL-операции событий не порождают.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SuggestIndexEntityListener {
+
+    /**
+     * Сервис подсказок (получается лениво: слушатель создается вместе с фабрикой EntityManager)
+     */
+    private final ObjectProvider<SuggestService> suggestService;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        switch (entity) {
+            case Contact contact -> {
+                Long id = contact.getId();
+                String firstName = contact.getFirstName();
+                String lastName = contact.getLastName();
+                String displayName = contact.getDisplayName();
+                afterCommit(() -> suggestService.getObject().indexContact(id, firstName, lastName, displayName));
+            }
+            case Company company -> indexName(SuggestionType.COMPANY, company.getId(), company.getName());
+            case JobTitle jobTitle -> indexName(SuggestionType.JOB_TITLE, jobTitle.getId(), jobTitle.getTitle());
+            case Tag tag -> indexName(SuggestionType.TAG, tag.getId(), tag.getName());
+            default -> {
+            }
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        switch (entity) {
+            case Contact contact -> remove(SuggestionType.CONTACT, contact.getId());
+            case Company company -> remove(SuggestionType.COMPANY, company.getId());
+            case JobTitle jobTitle -> remove(SuggestionType.JOB_TITLE, jobTitle.getId());
+            case Tag tag -> remove(SuggestionType.TAG, tag.getId());
+            default -> {
+            }
+        }
+    }
+
+    private void indexName(SuggestionType type, Long id, String name) {
+        afterCommit(() -> suggestService.getObject().indexName(type, id, name));
+    }
+
+    private void remove(SuggestionType type, Long id) {
+        afterCommit(() -> suggestService.getObject().remove(type, id));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runSafely(action);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                runSafely(action);
+            }
+        });
+    }
+
+    private void runSafely(Runnable action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            log.warn("Не удалось обновить индекс быстрого поиска", e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ru.anastasia.NauJava.service.suggest;
+
+import ru.anastasia.NauJava.dto.suggest.SuggestIndexStats;
+import ru.anastasia.NauJava.dto.suggest.SuggestionDto;
+import ru.anastasia.NauJava.entity.enums.SuggestionType;
+
+import java.util.List;
+
+/**
+ * Сервис подсказок быстрого поиска
+ *
+ * <p>
+ * Подсказки ищутся в n-граммном индексе в памяти процесса, без обращения к базе данных.
+ * Индекс строится при старте приложения и обновляется после фиксации транзакций,
+ * изменивших контакты, компании, должности и теги.
+ * </p>
+ */
+public interface SuggestService {
+
+    /**
+     * Получить подсказки по началу или части названия
+     *
+     * @param query Запрос
+     * @param limit Максимальное число подсказок
+     * @return Список подсказок
+     */
+    List<SuggestionDto> suggest(String query, int limit);
+
+    /**
+     * Добавить или обновить контакт в индексе
+     *
+     * @param id          Идентификатор контакта
+     * @param firstName   Имя
+     * @param lastName    Фамилия
+     * @param displayName Имя для отображения
+     */
+    void indexContact(Long id, String firstName, String lastName, String displayName);
+
+    /**
+     * Добавить или обновить в индексе сущность с названием (компанию, должность или тег)
+     *
+     * @param type Тип сущности
+     * @param id   Идентификатор сущности
+     * @param name Название
+     */
+    void indexName(SuggestionType type, Long id, String name);
+
+    /**
+     * Удалить сущность из индекса
+     *
+     * @param type Тип сущности
+     * @param id   Идентификатор сущности
+     */
+    void remove(SuggestionType type, Long id);
+
+    /**
+     * Полностью перестроить индекс по данным базы
+     */
+    void rebuild();
+
+    /**
+     * Получить статистику индекса
+     *
+     * @return Статистика индекса
+     */
+    SuggestIndexStats getStats();
+}
@@ -0,0 +1,216 @@
+package ru.anastasia.NauJava.service.suggest.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+import ru.anastasia.NauJava.dto.suggest.ContactNameView;
+import ru.anastasia.NauJava.dto.suggest.NamedEntityView;
+import ru.anastasia.NauJava.dto.suggest.SuggestIndexStats;
+import ru.anastasia.NauJava.dto.suggest.SuggestionDto;
+import ru.anastasia.NauJava.entity.enums.SuggestionType;
+import ru.anastasia.NauJava.repository.company.CompanyRepository;
+import ru.anastasia.NauJava.repository.company.JobTitleRepository;
+import ru.anastasia.NauJava.repository.contact.ContactRepository;
+import ru.anastasia.NauJava.repository.tag.TagRepository;
+import ru.anastasia.NauJava.service.suggest.NGramIndex;
+import ru.anastasia.NauJava.service.suggest.SuggestService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SuggestServiceImpl implements SuggestService {
+
+    /**
+     * Максимальное число подсказок в одном ответе
+     */
+    private static final int MAX_LIMIT = 50;
+
+    /**
+     * Число бит под идентификатор сущности в ключе индекса
+     */
+    private static final int TYPE_SHIFT = 56;
+
+    private static final long ID_MASK = (1L << TYPE_SHIFT) - 1;
+
+    /**
+     * Репозиторий контактов
+     */
+    private final ContactRepository contactRepository;
+
+    /**
+     * Репозиторий компаний
+     */
+    private final CompanyRepository companyRepository;
+
+    /**
+     * Репозиторий должностей
+     */
+    private final JobTitleRepository jobTitleRepository;
+
+    /**
+     * Репозиторий тегов
+     */
+    private final TagRepository tagRepository;
+
+    /**
+     * Монитор изменений индекса и его перестроения
+     */
+    private final Object updateMonitor = new Object();
+
+    /**
+     * Текущий индекс
+     */
+    private volatile NGramIndex index = new NGramIndex();
+
+    /**
+     * Изменения, пришедшие во время перестроения (null, если перестроение не идет)
+     */
+    private List<Consumer<NGramIndex>> pendingUpdates;
+
+    private volatile long lastRebuildMillis;
+
+    @Override
+    public List<SuggestionDto> suggest(String query, int limit) {
+        if (!StringUtils.hasText(query)) {
+            return List.of();
+        }
+
+        int effectiveLimit = Math.clamp(limit, 1, MAX_LIMIT);
+        return index.search(query, effectiveLimit).stream()
+                .map(hit -> SuggestionDto.builder()
+                        .type(SuggestionType.values()[(int) (hit.key() >>> TYPE_SHIFT)])
+                        .id(hit.key() & ID_MASK)
+                        .label(hit.label())
+                        .build())
+                .toList();
+    }
+
+    @Override
+    public void indexContact(Long id, String firstName, String lastName, String displayName) {
+        String label = contactLabel(firstName, lastName, displayName);
+        String text = contactText(firstName, lastName, displayName);
+        long key = key(SuggestionType.CONTACT, id);
+        update(target -> target.put(key, label, text));
+    }
+
+    @Override
+    public void indexName(SuggestionType type, Long id, String name) {
+        long key = key(type, id);
+        update(target -> target.put(key, name, name));
+    }
+
+    @Override
+    public void remove(SuggestionType type, Long id) {
+        long key = key(type, id);
+        update(target -> target.remove(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Новый индекс заполняется потоковым чтением таблиц, не блокируя поиск по текущему.
+     * Изменения, зафиксированные во время чтения, применяются к обоим индексам
+     * и повторяются на новом перед его подменой.
+     * </p>
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (updateMonitor) {
+            if (pendingUpdates != null) {
+                log.warn("Перестроение индекса быстрого поиска уже выполняется");
+                return;
+            }
+            pendingUpdates = new ArrayList<>();
+        }
+
+        long start = System.currentTimeMillis();
+        NGramIndex rebuilt = new NGramIndex();
+        try {
+            try (Stream<ContactNameView> contacts = contactRepository.streamNamesBy()) {
+                contacts.forEach(contact -> rebuilt.put(key(SuggestionType.CONTACT, contact.getId()),
+                        contactLabel(contact.getFirstName(), contact.getLastName(), contact.getDisplayName()),
+                        contactText(contact.getFirstName(), contact.getLastName(), contact.getDisplayName())));
+            }
+            try (Stream<NamedEntityView> companies = companyRepository.streamNamesBy()) {
+                companies.forEach(company -> putName(rebuilt, SuggestionType.COMPANY, company));
+            }
+            try (Stream<NamedEntityView> jobTitles = jobTitleRepository.streamNamesBy()) {
+                jobTitles.forEach(jobTitle -> putName(rebuilt, SuggestionType.JOB_TITLE, jobTitle));
+            }
+            try (Stream<NamedEntityView> tags = tagRepository.streamNamesBy()) {
+                tags.forEach(tag -> putName(rebuilt, SuggestionType.TAG, tag));
+            }
+
+            synchronized (updateMonitor) {
+                pendingUpdates.forEach(pending -> pending.accept(rebuilt));
+                index = rebuilt;
+            }
+        } finally {
+            synchronized (updateMonitor) {
+                pendingUpdates = null;
+            }
+        }
+
+        lastRebuildMillis = System.currentTimeMillis() - start;
+        NGramIndex.Stats stats = rebuilt.stats();
+        log.info("Индекс быстрого поиска построен за {} мс: записей {}, n-грамм {}, вхождений {}, память ~{} КБ",
+                lastRebuildMillis, stats.documents(), stats.grams(), stats.postings(), stats.estimatedBytes() / 1024);
+    }
+
+    @Override
+    public SuggestIndexStats getStats() {
+        NGramIndex.Stats stats = index.stats();
+        return SuggestIndexStats.builder()
+                .documents(stats.documents())
+                .grams(stats.grams())
+                .postings(stats.postings())
+                .estimatedHeapBytes(stats.estimatedBytes())
+                .lastRebuildMillis(lastRebuildMillis)
+                .build();
+    }
+
+    private void update(Consumer<NGramIndex> change) {
+        synchronized (updateMonitor) {
+            change.accept(index);
+            if (pendingUpdates != null) {
+                pendingUpdates.add(change);
+            }
+        }
+    }
+
+    private static void putName(NGramIndex target, SuggestionType type, NamedEntityView view) {
+        target.put(key(type, view.getId()), view.getName(), view.getName());
+    }
+
+    private static long key(SuggestionType type, Long id) {
+        return ((long) type.ordinal() << TYPE_SHIFT) | (id & ID_MASK);
+    }
+
+    private static String contactLabel(String firstName, String lastName, String displayName) {
+        if (StringUtils.hasText(displayName)) {
+            return displayName;
+        }
+        return Stream.of(firstName, lastName)
+                .filter(StringUtils::hasText)
+                .collect(Collectors.joining(" "));
+    }
+
+    private static String contactText(String firstName, String lastName, String displayName) {
+        return Stream.of(firstName, lastName, displayName)
+                .filter(StringUtils::hasText)
+                .collect(Collectors.joining(" "));
+    }
+}
@@ -5,6 +5,7 @@ import ru.anastasia.NauJava.entity.tag.Tag;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Сервис тегов
@@ -47,10 +48,17 @@ public interface TagService {
     /**
      * Получить все теги
      *
-     * @return Список тегов
+     * @return Неизменяемый список тегов (из кэша справочников)
      */
     List<Tag> findAll();
 
+    /**
+     * Подсчитать связи с контактами по тегам одним запросом
+     *
+     * @return Число связей по идентификатору (записи без связей отсутствуют)
+     */
+    Map<Long, Long> countContactsByTag();
+
     /**
      * Получить тег по идентификатору
      *
@@ -90,6 +98,14 @@ public interface TagService {
      */
     List<ContactTag> findContactTagsByContactId(Long contactId);
 
+    /**
+     * Получить теги нескольких контактов одним запросом
+     *
+     * @param contactIds Идентификаторы контактов
+     * @return Список тегов контактов с загруженными тегами
+     */
+    List<ContactTag> findContactTagsByContactIds(Collection<Long> contactIds);
+
     /**
      * Удалить связь контакта с тегом
      *
@@ -2,9 +2,13 @@ package ru.anastasia.NauJava.service.tag;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.anastasia.NauJava.config.CacheConfig;
+import ru.anastasia.NauJava.dto.stats.ContactCountView;
 import ru.anastasia.NauJava.entity.contact.Contact;
 import ru.anastasia.NauJava.entity.tag.ContactTag;
 import ru.anastasia.NauJava.entity.tag.Tag;
@@ -16,6 +20,7 @@ import ru.anastasia.NauJava.service.contact.ContactService;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -40,6 +45,7 @@ public class TagServiceImpl implements TagService {
     private final ContactService contactService;
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.TAGS, allEntries = true)
     public Tag create(Tag tag) {
         log.info("Создание тега: {}", tag.getName());
 
@@ -124,17 +130,26 @@ public class TagServiceImpl implements TagService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(CacheConfig.TAGS)
     public List<Tag> findAll() {
         log.debug("Получение всех тегов");
 
         List<Tag> tags = StreamSupport.stream(tagRepository.findAll().spliterator(), false)
-                .collect(Collectors.toList());
+                .toList();
 
         log.debug("Найдено {} тегов в системе", tags.size());
 
         return tags;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Long> countContactsByTag() {
+        return contactTagRepository.countContactsByTag().stream()
+                .collect(Collectors.toMap(ContactCountView::getId, ContactCountView::getContacts));
+    }
+
     @Override
     public Tag findById(Long id) {
         log.debug("Поиск тега по ID: {}", id);
@@ -161,6 +176,7 @@ public class TagServiceImpl implements TagService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.TAGS, allEntries = true)
     public Tag update(Tag tag) {
         log.info("Обновление тега ID: {}, новое имя: {}", tag.getId(), tag.getName());
 
@@ -191,6 +207,7 @@ public class TagServiceImpl implements TagService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.TAGS, allEntries = true)
     public void delete(Long id) {
         log.info("Удаление тега ID: {}", id);
 
@@ -219,6 +236,16 @@ public class TagServiceImpl implements TagService {
         return contactTags;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ContactTag> findContactTagsByContactIds(Collection<Long> contactIds) {
+        log.debug("Поиск связей контакт-тег для {} контактов", contactIds.size());
+        if (contactIds.isEmpty()) {
+            return List.of();
+        }
+        return contactTagRepository.findWithTagByContactIdIn(contactIds);
+    }
+
     @Override
     public void deleteContactTag(Long contactTagId) {
         log.info("Удаление связи контакт-тег ID: {}", contactTagId);
@@ -0,0 +1,331 @@
+-- Объекты БД, которые не создаются Hibernate (ddl-auto).
+-- Скрипт выполняется после инициализации схемы JPA (spring.jpa.defer-datasource-initialization)
+-- и должен оставаться идемпотентным.
+
+-- ================ Поиск контактов ================
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE contacts ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('russian', COALESCE(first_name, '')), 'A') ||
+    setweight(to_tsvector('russian', COALESCE(last_name, '')), 'A') ||
+    setweight(to_tsvector('russian', COALESCE(display_name, '')), 'B') ||
+    setweight(to_tsvector('simple',
+        COALESCE(first_name, '') || ' ' || COALESCE(last_name, '') || ' ' || COALESCE(display_name, '')), 'C')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_contacts_search_vector ON contacts USING gin (search_vector);
+CREATE INDEX IF NOT EXISTS idx_contacts_first_name_trgm ON contacts USING gin (LOWER(first_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_contacts_last_name_trgm ON contacts USING gin (LOWER(last_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_contacts_display_name_trgm ON contacts USING gin (LOWER(display_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_companies_name_trgm ON companies USING gin (LOWER(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_tags_name_trgm ON tags USING gin (LOWER(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_contact_companies_contact_id ON contact_companies (contact_id);
+CREATE INDEX IF NOT EXISTS idx_contact_tags_contact_id ON contact_tags (contact_id);
+
+-- ================ Keyset-пагинация контактов ================
+CREATE INDEX IF NOT EXISTS idx_contacts_name_keyset ON contacts (last_name, first_name, id);
+CREATE INDEX IF NOT EXISTS idx_contacts_favorite_name_keyset ON contacts (last_name, first_name, id) WHERE is_favorite;
+
+-- ================ Ежегодные даты событий ================
+-- Столбец events.month_day (MMdd) вычисляется БД и создается Hibernate по определению в сущности Event
+CREATE INDEX IF NOT EXISTS idx_events_type_month_day ON events (event_type, month_day) INCLUDE (contact_id);
+
+-- ================ Массовые операции с контактами ================
+-- Прежнее создание контакта не проверяло повторы тегов: дубликаты удаляются до создания индекса
+DELETE FROM contact_tags a USING contact_tags b
+WHERE a.contact_id = b.contact_id AND a.tag_id = b.tag_id AND a.id > b.id;
+CREATE UNIQUE INDEX IF NOT EXISTS ux_contact_tags_contact_tag ON contact_tags (contact_id, tag_id);
+
+-- ================ Очередь отчетов ================
+-- Ограничение статуса, созданное Hibernate, не обновляется при ddl-auto=update
+ALTER TABLE reports DROP CONSTRAINT IF EXISTS reports_status_check;
+ALTER TABLE reports ADD CONSTRAINT reports_status_check
+    CHECK (status IN ('CREATED', 'RUNNING', 'COMPLETED', 'ERROR', 'CANCELLED'));
+CREATE INDEX IF NOT EXISTS idx_reports_queue ON reports (id) WHERE status IN ('CREATED', 'RUNNING');
+
+-- ================ Сжатое содержимое отчетов ================
+-- Содержимое хранится в report_chunks.data (gzip); части в прежнем текстовом формате удаляются
+DELETE FROM report_chunks WHERE data IS NULL;
+ALTER TABLE report_chunks DROP COLUMN IF EXISTS content;
+UPDATE reports SET status = 'ERROR', error_message = 'Содержимое отчета в устаревшем формате удалено, сформируйте отчет заново'
+WHERE status = 'COMPLETED' AND content_etag IS NULL;
+CREATE INDEX IF NOT EXISTS idx_reports_finished ON reports (status, finished_at);
+
+-- ================ Повторное использование отчетов ================
+CREATE INDEX IF NOT EXISTS idx_reports_data_version ON reports (data_version, id);
+-- Журнал изменений таблиц, из которых строится отчет (версия данных - хеш сумм по таблицам).
+-- Триггер уровня оператора только дописывает строку в транзакции изменения, поэтому новая строка видна
+-- вместе с изменением, а одновременные транзакции не ждут друг друга: общих строк, заблокированных
+-- до фиксации, нет. Задача очистки отчетов сворачивает журнал в одну строку на таблицу с той же суммой.
+DROP TABLE IF EXISTS report_data_changes;
+CREATE TABLE IF NOT EXISTS report_data_change_log (
+    id         bigserial PRIMARY KEY,
+    table_name text   NOT NULL,
+    changes    bigint NOT NULL DEFAULT 1
+);
+CREATE OR REPLACE FUNCTION count_report_data_change() RETURNS trigger LANGUAGE plpgsql AS '
+BEGIN
+    INSERT INTO report_data_change_log (table_name) VALUES (TG_TABLE_NAME);
+    RETURN NULL;
+END';
+DROP TRIGGER IF EXISTS trg_users_report_version ON users;
+CREATE TRIGGER trg_users_report_version AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON users
+    FOR EACH STATEMENT EXECUTE FUNCTION count_report_data_change();
+DROP TRIGGER IF EXISTS trg_contacts_report_version ON contacts;
+CREATE TRIGGER trg_contacts_report_version AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON contacts
+    FOR EACH STATEMENT EXECUTE FUNCTION count_report_data_change();
+DROP TRIGGER IF EXISTS trg_contact_companies_report_version ON contact_companies;
+CREATE TRIGGER trg_contact_companies_report_version AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON contact_companies
+    FOR EACH STATEMENT EXECUTE FUNCTION count_report_data_change();
+DROP TRIGGER IF EXISTS trg_companies_report_version ON companies;
+CREATE TRIGGER trg_companies_report_version AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON companies
+    FOR EACH STATEMENT EXECUTE FUNCTION count_report_data_change();
+DROP TRIGGER IF EXISTS trg_job_titles_report_version ON job_titles;
+CREATE TRIGGER trg_job_titles_report_version AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON job_titles
+    FOR EACH STATEMENT EXECUTE FUNCTION count_report_data_change();
+DROP TRIGGER IF EXISTS trg_contact_tags_report_version ON contact_tags;
+CREATE TRIGGER trg_contact_tags_report_version AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON contact_tags
+    FOR EACH STATEMENT EXECUTE FUNCTION count_report_data_change();
+DROP TRIGGER IF EXISTS trg_tags_report_version ON tags;
+CREATE TRIGGER trg_tags_report_version AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON tags
+    FOR EACH STATEMENT EXECUTE FUNCTION count_report_data_change();
+DROP TRIGGER IF EXISTS trg_contact_details_report_version ON contact_details;
+CREATE TRIGGER trg_contact_details_report_version AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON contact_details
+    FOR EACH STATEMENT EXECUTE FUNCTION count_report_data_change();
+DROP TRIGGER IF EXISTS trg_events_report_version ON events;
+CREATE TRIGGER trg_events_report_version AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON events
+    FOR EACH STATEMENT EXECUTE FUNCTION count_report_data_change();
+
+-- ================ Разностные отчеты ================
+-- Отметки об удаленных контактах; хранятся не дольше срока хранения отчетов
+CREATE TABLE IF NOT EXISTS contact_tombstones (
+    contact_id   bigint PRIMARY KEY,
+    first_name   varchar(255),
+    last_name    varchar(255),
+    was_favorite boolean NOT NULL DEFAULT false,
+    created_at   timestamp,
+    deleted_at   timestamp NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_contact_tombstones_deleted ON contact_tombstones (deleted_at, contact_id);
+CREATE INDEX IF NOT EXISTS idx_contacts_updated_keyset ON contacts (updated_at, id);
+-- Журнал изменений числа контактов и избранных: текущие значения - суммы по журналу в снимке читающего,
+-- поэтому разностный отчет получает их без подсчета всех контактов. Триггеры только дописывают строки и не
+-- блокируют друг друга, задача очистки отчетов сворачивает журнал в одну строку с теми же суммами.
+CREATE TABLE IF NOT EXISTS contact_count_log (
+    id        bigserial PRIMARY KEY,
+    contacts  bigint NOT NULL,
+    favorites bigint NOT NULL
+);
+CREATE OR REPLACE FUNCTION count_contacts_change() RETURNS trigger LANGUAGE plpgsql AS '
+BEGIN
+    IF TG_OP = ''INSERT'' THEN
+        INSERT INTO contact_count_log (contacts, favorites)
+        SELECT COUNT(*), COUNT(*) FILTER (WHERE is_favorite) FROM new_rows HAVING COUNT(*) > 0;
+    ELSIF TG_OP = ''DELETE'' THEN
+        INSERT INTO contact_count_log (contacts, favorites)
+        SELECT -COUNT(*), -COUNT(*) FILTER (WHERE is_favorite) FROM old_rows HAVING COUNT(*) > 0;
+    ELSIF TG_OP = ''UPDATE'' THEN
+        INSERT INTO contact_count_log (contacts, favorites)
+        SELECT 0, delta FROM (SELECT (SELECT COUNT(*) FROM new_rows WHERE is_favorite)
+                                     - (SELECT COUNT(*) FROM old_rows WHERE is_favorite) AS delta) favorite
+        WHERE delta <> 0;
+    ELSE
+        INSERT INTO contact_count_log (contacts, favorites)
+        SELECT -SUM(contacts), -SUM(favorites) FROM contact_count_log HAVING COUNT(*) > 0;
+    END IF;
+    RETURN NULL;
+END';
+-- Начальные значения записываются один раз под блокировкой контактов в одной транзакции с созданием
+-- триггеров, поэтому ни одно изменение не попадает между подсчетом и триггерами
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM contact_count_log) THEN
+        LOCK TABLE contacts IN SHARE ROW EXCLUSIVE MODE;
+        IF NOT EXISTS (SELECT 1 FROM contact_count_log) THEN
+            INSERT INTO contact_count_log (contacts, favorites)
+            SELECT COUNT(*), COUNT(*) FILTER (WHERE is_favorite) FROM contacts;
+        END IF;
+    END IF;
+    CREATE OR REPLACE TRIGGER trg_contacts_count_insert AFTER INSERT ON contacts REFERENCING NEW TABLE AS new_rows
+        FOR EACH STATEMENT EXECUTE FUNCTION count_contacts_change();
+    CREATE OR REPLACE TRIGGER trg_contacts_count_update AFTER UPDATE ON contacts
+        REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+        FOR EACH STATEMENT EXECUTE FUNCTION count_contacts_change();
+    CREATE OR REPLACE TRIGGER trg_contacts_count_delete AFTER DELETE ON contacts REFERENCING OLD TABLE AS old_rows
+        FOR EACH STATEMENT EXECUTE FUNCTION count_contacts_change();
+    CREATE OR REPLACE TRIGGER trg_contacts_count_truncate AFTER TRUNCATE ON contacts
+        FOR EACH STATEMENT EXECUTE FUNCTION count_contacts_change();
+END';
+
+-- ================ Сброс кэшей на всех узлах ================
+-- Триггеры уровня оператора отправляют в канал cache_invalidation сообщения "таблица.столбец:id,id,..."
+-- по каждому столбцу-ключу из аргументов триггера: идентификаторы делятся на части по 300, чтобы сообщение
+-- не превысило предел pg_notify в 8000 байт. Только если затронуто больше 10000 значений, отправляется
+-- "таблица.столбец:*" (сброс всего региона). Транзакция с app.cache_invalidation = off (SET LOCAL)
+-- уведомлений не отправляет: так пишет импорт, новые контакты которого еще нет ни в одном кэше.
+-- Уведомление доставляется после фиксации транзакции, одинаковые уведомления транзакции объединяются.
+-- Тело функции - строка в одинарных кавычках: скрипт делится на операторы по ';' вне кавычек.
+CREATE OR REPLACE FUNCTION notify_cache_invalidation() RETURNS trigger LANGUAGE plpgsql AS '
+DECLARE
+    chunk_size CONSTANT int := 300;
+    max_ids    CONSTANT int := 10000;
+    key_column text;
+    prefix     text;
+    ids        bigint[];
+BEGIN
+    IF current_setting(''app.cache_invalidation'', true) = ''off'' THEN
+        RETURN NULL;
+    END IF;
+    FOREACH key_column IN ARRAY TG_ARGV LOOP
+        EXECUTE format(''SELECT array_agg(DISTINCT %I) FROM changed_rows WHERE %I IS NOT NULL'',
+                       key_column, key_column) INTO ids;
+        CONTINUE WHEN ids IS NULL;
+        prefix := TG_TABLE_NAME || ''.'' || key_column || '':'';
+        IF cardinality(ids) > max_ids THEN
+            PERFORM pg_notify(''cache_invalidation'', prefix || ''*'');
+            CONTINUE;
+        END IF;
+        FOR i IN 1 .. cardinality(ids) BY chunk_size LOOP
+            PERFORM pg_notify(''cache_invalidation'', prefix || array_to_string(ids[i:i + chunk_size - 1], '',''));
+        END LOOP;
+    END LOOP;
+    RETURN NULL;
+END';
+
+-- Контакты: новые строки не закэшированы ни на одном узле
+DROP TRIGGER IF EXISTS trg_contacts_cache_update ON contacts;
+CREATE TRIGGER trg_contacts_cache_update AFTER UPDATE ON contacts REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('id');
+DROP TRIGGER IF EXISTS trg_contacts_cache_delete ON contacts;
+CREATE TRIGGER trg_contacts_cache_delete AFTER DELETE ON contacts REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('id');
+
+-- Дочерние таблицы контакта: добавление меняет коллекцию контакта, изменение и удаление - еще и саму строку
+DROP TRIGGER IF EXISTS trg_contact_details_cache_insert ON contact_details;
+CREATE TRIGGER trg_contact_details_cache_insert AFTER INSERT ON contact_details REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('contact_id');
+DROP TRIGGER IF EXISTS trg_contact_details_cache_update ON contact_details;
+CREATE TRIGGER trg_contact_details_cache_update AFTER UPDATE ON contact_details REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('id', 'contact_id');
+DROP TRIGGER IF EXISTS trg_contact_details_cache_delete ON contact_details;
+CREATE TRIGGER trg_contact_details_cache_delete AFTER DELETE ON contact_details REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('id', 'contact_id');
+
+DROP TRIGGER IF EXISTS trg_events_cache_insert ON events;
+CREATE TRIGGER trg_events_cache_insert AFTER INSERT ON events REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('contact_id');
+DROP TRIGGER IF EXISTS trg_events_cache_update ON events;
+CREATE TRIGGER trg_events_cache_update AFTER UPDATE ON events REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('id', 'contact_id');
+DROP TRIGGER IF EXISTS trg_events_cache_delete ON events;
+CREATE TRIGGER trg_events_cache_delete AFTER DELETE ON events REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('id', 'contact_id');
+
+DROP TRIGGER IF EXISTS trg_notes_cache_insert ON notes;
+CREATE TRIGGER trg_notes_cache_insert AFTER INSERT ON notes REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('contact_id');
+DROP TRIGGER IF EXISTS trg_notes_cache_update ON notes;
+CREATE TRIGGER trg_notes_cache_update AFTER UPDATE ON notes REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('id', 'contact_id');
+DROP TRIGGER IF EXISTS trg_notes_cache_delete ON notes;
+CREATE TRIGGER trg_notes_cache_delete AFTER DELETE ON notes REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('id', 'contact_id');
+
+DROP TRIGGER IF EXISTS trg_social_profiles_cache_insert ON social_profiles;
+CREATE TRIGGER trg_social_profiles_cache_insert AFTER INSERT ON social_profiles REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('contact_id');
+DROP TRIGGER IF EXISTS trg_social_profiles_cache_update ON social_profiles;
+CREATE TRIGGER trg_social_profiles_cache_update AFTER UPDATE ON social_profiles REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('id', 'contact_id');
+DROP TRIGGER IF EXISTS trg_social_profiles_cache_delete ON social_profiles;
+CREATE TRIGGER trg_social_profiles_cache_delete AFTER DELETE ON social_profiles REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('id', 'contact_id');
+
+DROP TRIGGER IF EXISTS trg_contact_tags_cache_insert ON contact_tags;
+CREATE TRIGGER trg_contact_tags_cache_insert AFTER INSERT ON contact_tags REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('contact_id');
+DROP TRIGGER IF EXISTS trg_contact_tags_cache_update ON contact_tags;
+CREATE TRIGGER trg_contact_tags_cache_update AFTER UPDATE ON contact_tags REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('id', 'contact_id');
+DROP TRIGGER IF EXISTS trg_contact_tags_cache_delete ON contact_tags;
+CREATE TRIGGER trg_contact_tags_cache_delete AFTER DELETE ON contact_tags REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('id', 'contact_id');
+
+DROP TRIGGER IF EXISTS trg_contact_companies_cache_insert ON contact_companies;
+CREATE TRIGGER trg_contact_companies_cache_insert AFTER INSERT ON contact_companies REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('contact_id');
+DROP TRIGGER IF EXISTS trg_contact_companies_cache_update ON contact_companies;
+CREATE TRIGGER trg_contact_companies_cache_update AFTER UPDATE ON contact_companies REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('id', 'contact_id');
+DROP TRIGGER IF EXISTS trg_contact_companies_cache_delete ON contact_companies;
+CREATE TRIGGER trg_contact_companies_cache_delete AFTER DELETE ON contact_companies REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('id', 'contact_id');
+
+-- Справочники: добавление меняет закэшированные списки и результаты поиска по названию
+DROP TRIGGER IF EXISTS trg_companies_cache_insert ON companies;
+CREATE TRIGGER trg_companies_cache_insert AFTER INSERT ON companies REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('id');
+DROP TRIGGER IF EXISTS trg_companies_cache_update ON companies;
+CREATE TRIGGER trg_companies_cache_update AFTER UPDATE ON companies REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('id');
+DROP TRIGGER IF EXISTS trg_companies_cache_delete ON companies;
+CREATE TRIGGER trg_companies_cache_delete AFTER DELETE ON companies REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('id');
+
+DROP TRIGGER IF EXISTS trg_job_titles_cache_insert ON job_titles;
+CREATE TRIGGER trg_job_titles_cache_insert AFTER INSERT ON job_titles REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('id');
+DROP TRIGGER IF EXISTS trg_job_titles_cache_update ON job_titles;
+CREATE TRIGGER trg_job_titles_cache_update AFTER UPDATE ON job_titles REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('id');
+DROP TRIGGER IF EXISTS trg_job_titles_cache_delete ON job_titles;
+CREATE TRIGGER trg_job_titles_cache_delete AFTER DELETE ON job_titles REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('id');
+
+DROP TRIGGER IF EXISTS trg_tags_cache_insert ON tags;
+CREATE TRIGGER trg_tags_cache_insert AFTER INSERT ON tags REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('id');
+DROP TRIGGER IF EXISTS trg_tags_cache_update ON tags;
+CREATE TRIGGER trg_tags_cache_update AFTER UPDATE ON tags REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('id');
+DROP TRIGGER IF EXISTS trg_tags_cache_delete ON tags;
+CREATE TRIGGER trg_tags_cache_delete AFTER DELETE ON tags REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('id');
+
+-- ================ Идентификаторы из последовательностей ================
+-- Hibernate выбирает идентификаторы блоками по 50 (оптимизатор pooled: значение последовательности - верхняя
+-- граница блока) и вставляет строки пакетами. Последовательности <таблица>_seq создает Hibernate.
+-- В существующих БД столбцы id были IDENTITY: идентичность снимается, значением по умолчанию становится
+-- та же последовательность (для вставок в обход Hibernate: импорт, массовые операции), а последовательность
+-- сдвигается за наибольший идентификатор. Значение по умолчанию занимает целый блок, поэтому такие
+-- вставки не пересекаются с блоками Hibernate.
+ALTER TABLE contacts ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE contacts ALTER COLUMN id SET DEFAULT nextval('contacts_seq');
+SELECT setval('contacts_seq', GREATEST((SELECT last_value FROM contacts_seq), (SELECT COALESCE(MAX(id), 0) FROM contacts) + 50));
+ALTER TABLE contact_details ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE contact_details ALTER COLUMN id SET DEFAULT nextval('contact_details_seq');
+SELECT setval('contact_details_seq', GREATEST((SELECT last_value FROM contact_details_seq), (SELECT COALESCE(MAX(id), 0) FROM contact_details) + 50));
+ALTER TABLE events ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE events ALTER COLUMN id SET DEFAULT nextval('events_seq');
+SELECT setval('events_seq', GREATEST((SELECT last_value FROM events_seq), (SELECT COALESCE(MAX(id), 0) FROM events) + 50));
+ALTER TABLE notes ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE notes ALTER COLUMN id SET DEFAULT nextval('notes_seq');
+SELECT setval('notes_seq', GREATEST((SELECT last_value FROM notes_seq), (SELECT COALESCE(MAX(id), 0) FROM notes) + 50));
+ALTER TABLE social_profiles ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE social_profiles ALTER COLUMN id SET DEFAULT nextval('social_profiles_seq');
+SELECT setval('social_profiles_seq', GREATEST((SELECT last_value FROM social_profiles_seq), (SELECT COALESCE(MAX(id), 0) FROM social_profiles) + 50));
+ALTER TABLE contact_tags ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE contact_tags ALTER COLUMN id SET DEFAULT nextval('contact_tags_seq');
+SELECT setval('contact_tags_seq', GREATEST((SELECT last_value FROM contact_tags_seq), (SELECT COALESCE(MAX(id), 0) FROM contact_tags) + 50));
+ALTER TABLE contact_companies ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE contact_companies ALTER COLUMN id SET DEFAULT nextval('contact_companies_seq');
+SELECT setval('contact_companies_seq', GREATEST((SELECT last_value FROM contact_companies_seq), (SELECT COALESCE(MAX(id), 0) FROM contact_companies) + 50));
+ALTER TABLE companies ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE companies ALTER COLUMN id SET DEFAULT nextval('companies_seq');
+SELECT setval('companies_seq', GREATEST((SELECT last_value FROM companies_seq), (SELECT COALESCE(MAX(id), 0) FROM companies) + 50));
+ALTER TABLE job_titles ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE job_titles ALTER COLUMN id SET DEFAULT nextval('job_titles_seq');
+SELECT setval('job_titles_seq', GREATEST((SELECT last_value FROM job_titles_seq), (SELECT COALESCE(MAX(id), 0) FROM job_titles) + 50));
+ALTER TABLE tags ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE tags ALTER COLUMN id SET DEFAULT nextval('tags_seq');
+SELECT setval('tags_seq', GREATEST((SELECT last_value FROM tags_seq), (SELECT COALESCE(MAX(id), 0) FROM tags) + 50));
@@ -0,0 +1,124 @@
+package ru.anastasia.NauJava.controller.report;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.anastasia.NauJava.repository.report.ReportChunkRepository;
+import ru.anastasia.NauJava.service.report.ReportContentResource;
+import ru.anastasia.NauJava.service.report.ReportService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class ReportControllerTest {
+
+    private static final Long REPORT_ID = 1L;
+
+    private static final String HTML = "<html><body>Отчет</body></html>";
+
+    @Mock
+    private ReportService reportService;
+
+    @Mock
+    private ReportChunkRepository reportChunkRepository;
+
+    @InjectMocks
+    private ReportController reportController;
+
+    private MockMvc mockMvc;
+
+    private byte[] compressed;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mockMvc = MockMvcBuilders.standaloneSetup(reportController).build();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (OutputStream output = new GZIPOutputStream(buffer)) {
+            output.write(HTML.getBytes(StandardCharsets.UTF_8));
+        }
+        compressed = buffer.toByteArray();
+    }
+
+    @Test
+    void getReportContent_WithoutGzip_ShouldReturnInflatedHtml() throws Exception {
+        stubContent();
+
+        mockMvc.perform(get("/reports/{id}/content", REPORT_ID))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"etag-identity\""))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, HTML.getBytes(StandardCharsets.UTF_8).length))
+                .andExpect(content().contentTypeCompatibleWith("text/html"))
+                .andExpect(content().bytes(HTML.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void getReportContent_WithoutGzipAndRange_ShouldReturnInflatedPart() throws Exception {
+        stubContent();
+
+        mockMvc.perform(get("/reports/{id}/content", REPORT_ID).header(HttpHeaders.RANGE, "bytes=0-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().bytes(Arrays.copyOf(HTML.getBytes(StandardCharsets.UTF_8), 6)));
+    }
+
+    @Test
+    void getReportContent_WithGzip_ShouldReturnStoredBytes() throws Exception {
+        stubContent();
+
+        mockMvc.perform(get("/reports/{id}/content", REPORT_ID)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"etag\""))
+                .andExpect(content().bytes(compressed));
+    }
+
+    @Test
+    void getReportContent_WhenGzipRefused_ShouldReturnInflatedHtml() throws Exception {
+        stubContent();
+
+        mockMvc.perform(get("/reports/{id}/content", REPORT_ID)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().bytes(HTML.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void getReportContent_WhenNotFound_ShouldReturn404() throws Exception {
+        when(reportService.findContent(REPORT_ID)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/reports/{id}/content", REPORT_ID))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Содержимое хранится одной частью, как у небольшого отчета
+     */
+    private void stubContent() {
+        when(reportService.findContent(REPORT_ID)).thenReturn(Optional.of(
+                new ReportContentResource(reportChunkRepository, REPORT_ID, compressed.length, "etag")));
+        when(reportChunkRepository.findChunkLengthsByReportId(REPORT_ID)).thenReturn(List.of(compressed.length));
+        when(reportChunkRepository.findDataByReportIdAndSeq(REPORT_ID, 0)).thenReturn(compressed);
+    }
+}
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.anastasia.NauJava.entity.contact.Contact;
 
@@ -54,4 +56,24 @@ class ContactRepositoryTest {
 
         Assertions.assertNotNull(contacts);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFullTextSearch_IgnoresCaseAndMatchesSubstring() {
+        String marker = UUID.randomUUID().toString().substring(0, 8);
+        String lastName = "Подстрочная" + marker;
+
+        Contact contact = Contact.builder()
+                .firstName("Искомый")
+                .lastName(lastName)
+                .build();
+
+        contactRepository.save(contact);
+        contactRepository.flush();
+
+        Page<Contact> foundContacts = contactRepository.fullTextSearch(
+                "СТРОЧНАЯ" + marker.toUpperCase(), null, null, PageRequest.of(0, 10));
+
+        Assertions.assertEquals(1, foundContacts.getTotalElements());
+        Assertions.assertEquals(lastName, foundContacts.getContent().getFirst().getLastName());
+    }
+}
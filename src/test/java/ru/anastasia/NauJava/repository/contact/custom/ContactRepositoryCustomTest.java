@@ -1,13 +1,24 @@
 package ru.anastasia.NauJava.repository.contact.custom;
 
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.anastasia.NauJava.entity.contact.Contact;
+import ru.anastasia.NauJava.entity.contact.ContactDetail;
+import ru.anastasia.NauJava.entity.enums.DetailLabel;
+import ru.anastasia.NauJava.entity.enums.DetailType;
+import ru.anastasia.NauJava.entity.enums.EventType;
+import ru.anastasia.NauJava.entity.event.Event;
+import ru.anastasia.NauJava.entity.note.Note;
 import ru.anastasia.NauJava.repository.contact.ContactRepository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,9 +28,12 @@ class ContactRepositoryCustomTest {
 
     private final ContactRepository contactRepository;
 
+    private final EntityManager entityManager;
+
     @Autowired
-    ContactRepositoryCustomTest(ContactRepository contactRepository) {
+    ContactRepositoryCustomTest(ContactRepository contactRepository, EntityManager entityManager) {
         this.contactRepository = contactRepository;
+        this.entityManager = entityManager;
     }
 
     @Test
@@ -61,4 +75,93 @@ class ContactRepositoryCustomTest {
         Assertions.assertFalse(foundContacts.isEmpty());
         Assertions.assertEquals(firstName, foundContacts.getFirst().getFirstName());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFindAggregateById_InitializesAllCollections() {
+        Contact contact = Contact.builder()
+                .firstName("Aggregate" + UUID.randomUUID())
+                .lastName("Loader")
+                .build();
+        contact.addContactDetail(ContactDetail.builder()
+                .detailType(DetailType.EMAIL)
+                .label(DetailLabel.WORK)
+                .value("aggregate@example.com")
+                .isPrimary(true)
+                .build());
+        contact.addEvent(Event.builder()
+                .eventType(EventType.BIRTHDAY)
+                .eventDate(LocalDate.of(1990, 5, 17))
+                .yearlyRecurrence(true)
+                .build());
+        contact.addNote(Note.builder().content("Заметка").build());
+
+        Long id = contactRepository.save(contact).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        Contact found = contactRepository.findAggregateById(id).orElseThrow();
+
+        Assertions.assertTrue(Hibernate.isInitialized(found.getCompanies()));
+        Assertions.assertTrue(Hibernate.isInitialized(found.getContactDetails()));
+        Assertions.assertTrue(Hibernate.isInitialized(found.getSocialProfiles()));
+        Assertions.assertTrue(Hibernate.isInitialized(found.getEvents()));
+        Assertions.assertTrue(Hibernate.isInitialized(found.getNotes()));
+        Assertions.assertTrue(Hibernate.isInitialized(found.getContactTags()));
+        Assertions.assertEquals(1, found.getContactDetails().size());
+        Assertions.assertEquals(1, found.getEvents().size());
+        Assertions.assertEquals(1, found.getNotes().size());
+        Assertions.assertTrue(found.getCompanies().isEmpty());
+    }
+
+    @Test
+    void testFindAggregateById_UsesFixedNumberOfStatementsRegardlessOfCollectionSizes() {
+        long smallContactStatements = countAggregateStatements(aggregateContact(1));
+        long largeContactStatements = countAggregateStatements(aggregateContact(10));
+
+        // Контакт с местами работы и по одному запросу на каждую из пяти остальных коллекций
+        Assertions.assertEquals(6, smallContactStatements);
+        Assertions.assertEquals(smallContactStatements, largeContactStatements);
+    }
+
+    @Test
+    void testFindAggregateById_WhenContactMissing_ReturnsEmpty() {
+        Assertions.assertTrue(contactRepository.findAggregateById(-1L).isEmpty());
+    }
+
+    private Long aggregateContact(int childrenCount) {
+        Contact contact = Contact.builder()
+                .firstName("Aggregate" + UUID.randomUUID())
+                .lastName("Statements")
+                .build();
+        for (int i = 0; i < childrenCount; i++) {
+            contact.addContactDetail(ContactDetail.builder()
+                    .detailType(DetailType.PHONE)
+                    .label(DetailLabel.MOBILE)
+                    .value("+7900000000" + i)
+                    .isPrimary(i == 0)
+                    .build());
+            contact.addNote(Note.builder().content("Заметка " + i).build());
+        }
+
+        Long id = contactRepository.save(contact).getId();
+        entityManager.flush();
+        return id;
+    }
+
+    private long countAggregateStatements(Long id) {
+        entityManager.clear();
+        // Запрос не должен попасть в кэш второго уровня, иначе контакт соберется без обращения к БД
+        entityManager.getEntityManagerFactory().getCache().evict(Contact.class, id);
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        Contact found = contactRepository.findAggregateById(id).orElseThrow();
+        found.getContactDetails().forEach(detail -> Assertions.assertNotNull(detail.getValue()));
+        found.getNotes().forEach(note -> Assertions.assertNotNull(note.getContent()));
+
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,125 @@
+package ru.anastasia.NauJava.service.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Уведомления триггеров notify_cache_invalidation на реальной БД
+ */
+@SpringBootTest
+class CacheInvalidationNotifyTest {
+
+    private static final int CONTACTS_COUNT = 700;
+
+    /**
+     * Отрицательные идентификаторы не пересекаются со значениями последовательности
+     */
+    private static final long FIRST_ID = -1_000_000L;
+
+    private static final String PAYLOAD_PREFIX = "contacts.id:";
+
+    private static final String UPDATE_SQL =
+            "UPDATE contacts SET is_favorite = NOT is_favorite WHERE id <= ? AND id > ?";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO contacts (id, first_name, last_name, display_name, is_favorite, " +
+                        "created_at, updated_at) SELECT ? - g, 'Имя', 'Уведомлений', 'Имя Уведомлений', false, " +
+                        "now(), now() FROM generate_series(0, ? - 1) g",
+                FIRST_ID, CONTACTS_COUNT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM contacts WHERE id <= ? AND id > ?", FIRST_ID, FIRST_ID - CONTACTS_COUNT);
+    }
+
+    @Test
+    void update_WithManyRows_ShouldNotifyIdsInChunksInsteadOfAll() throws SQLException {
+        List<String> payloads = collect(() -> jdbcTemplate.update(UPDATE_SQL, FIRST_ID, FIRST_ID - CONTACTS_COUNT));
+
+        Set<Long> ids = new HashSet<>();
+        for (String payload : payloads) {
+            String value = payload.substring(PAYLOAD_PREFIX.length());
+            assertFalse(value.equals("*"), "Ожидались идентификаторы, а не сброс всего региона");
+            List<Long> chunk = Arrays.stream(value.split(",")).map(Long::valueOf).toList();
+            assertTrue(chunk.size() <= 300, "Идентификаторов в уведомлении: " + chunk.size());
+            ids.addAll(chunk);
+        }
+        assertEquals(3, payloads.size());
+        assertEquals(CONTACTS_COUNT, ids.size());
+        assertTrue(ids.contains(FIRST_ID));
+        assertTrue(ids.contains(FIRST_ID - CONTACTS_COUNT + 1));
+    }
+
+    @Test
+    void update_WhenInvalidationDisabledInTransaction_ShouldNotNotify() throws SQLException {
+        List<String> payloads = collect(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("SET LOCAL app.cache_invalidation = 'off'");
+            jdbcTemplate.update(UPDATE_SQL, FIRST_ID, FIRST_ID - CONTACTS_COUNT);
+        }));
+
+        assertTrue(payloads.isEmpty(), "Уведомления: " + payloads);
+    }
+
+    /**
+     * Выполнить изменение и собрать уведомления об изменении тестовых контактов
+     */
+    private List<String> collect(Runnable change) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN cache_invalidation");
+            }
+            try {
+                change.run();
+
+                List<String> payloads = new ArrayList<>();
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                PGNotification[] notifications = pgConnection.getNotifications(1000);
+                while (notifications != null && notifications.length > 0) {
+                    for (PGNotification notification : notifications) {
+                        if (notification.getParameter().startsWith(PAYLOAD_PREFIX)) {
+                            payloads.add(notification.getParameter());
+                        }
+                    }
+                    notifications = pgConnection.getNotifications(1000);
+                }
+                return payloads;
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("UNLISTEN *");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package ru.anastasia.NauJava.service.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import ru.anastasia.NauJava.config.CacheConfig;
+import ru.anastasia.NauJava.entity.contact.Contact;
+import ru.anastasia.NauJava.entity.note.Note;
+import ru.anastasia.NauJava.entity.tag.Tag;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidatorTest {
+
+    private static final String CONTACT_NOTES = Contact.class.getName() + ".notes";
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache hibernateCache;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private org.springframework.cache.Cache referenceCache;
+
+    @InjectMocks
+    private CacheInvalidator cacheInvalidator;
+
+    @Test
+    void invalidate_WhenChildRowsChanged_ShouldEvictRows() {
+        stubHibernateCache();
+
+        cacheInvalidator.invalidate("notes.id:5,7");
+
+        verify(hibernateCache).evictEntityData(Note.class, 5L);
+        verify(hibernateCache).evictEntityData(Note.class, 7L);
+        verify(hibernateCache, never()).evictQueryRegions();
+    }
+
+    @Test
+    void invalidate_WhenChildRowsAdded_ShouldEvictContactCollection() {
+        stubHibernateCache();
+
+        cacheInvalidator.invalidate("notes.contact_id:42");
+
+        verify(hibernateCache).evictCollectionData(CONTACT_NOTES, 42L);
+        verify(hibernateCache, never()).evictEntityData(any(Class.class), any());
+    }
+
+    @Test
+    void invalidate_WhenContactDeleted_ShouldEvictContactAndItsCollections() {
+        stubHibernateCache();
+
+        cacheInvalidator.invalidate("contacts.id:42");
+
+        verify(hibernateCache).evictEntityData(Contact.class, 42L);
+        verify(hibernateCache).evictCollectionData(CONTACT_NOTES, 42L);
+        verify(hibernateCache).evictCollectionData(Contact.class.getName() + ".contactTags", 42L);
+    }
+
+    @Test
+    void invalidate_WhenTooManyRowsChanged_ShouldEvictWholeRegion() {
+        stubHibernateCache();
+
+        cacheInvalidator.invalidate("notes.contact_id:*");
+
+        verify(hibernateCache).evictCollectionData(CONTACT_NOTES);
+        verify(hibernateCache, never()).evictCollectionData(anyString(), any());
+    }
+
+    @Test
+    void invalidate_WhenTagChanged_ShouldClearReferenceAndQueryCaches() {
+        stubHibernateCache();
+        when(cacheManager.getCache(CacheConfig.TAGS)).thenReturn(referenceCache);
+
+        cacheInvalidator.invalidate("tags.id:3");
+
+        verify(hibernateCache).evictEntityData(Tag.class, 3L);
+        verify(hibernateCache).evictQueryRegions();
+        verify(referenceCache).clear();
+    }
+
+    @Test
+    void invalidate_WhenPayloadMalformed_ShouldEvictAllCaches() {
+        stubHibernateCache();
+        when(cacheManager.getCacheNames()).thenReturn(List.of(CacheConfig.COMPANIES));
+        when(cacheManager.getCache(CacheConfig.COMPANIES)).thenReturn(referenceCache);
+
+        cacheInvalidator.invalidate("notes.id:abc");
+
+        verify(hibernateCache).evictAllRegions();
+        verify(referenceCache).clear();
+    }
+
+    private void stubHibernateCache() {
+        // SessionFactory тоже EntityManagerFactory: полем с @Mock ее не объявить, иначе она попадет в конструктор
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(hibernateCache);
+    }
+}
@@ -6,14 +6,17 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
+import ru.anastasia.NauJava.dto.stats.ContactCountView;
 import ru.anastasia.NauJava.entity.company.Company;
 import ru.anastasia.NauJava.exception.company.CompanyNotFoundException;
 import ru.anastasia.NauJava.exception.company.IllegalCompanyStateException;
 import ru.anastasia.NauJava.repository.company.CompanyRepository;
+import ru.anastasia.NauJava.repository.company.ContactCompanyRepository;
 import ru.anastasia.NauJava.service.company.impl.CompanyServiceImpl;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -33,6 +36,9 @@ class CompanyServiceTest {
     @Mock
     private CompanyRepository companyRepository;
 
+    @Mock
+    private ContactCompanyRepository contactCompanyRepository;
+
     @InjectMocks
     private CompanyServiceImpl companyService;
 
@@ -44,6 +50,20 @@ class CompanyServiceTest {
                 .build();
     }
 
+    private ContactCountView countView(Long id, Long contacts) {
+        return new ContactCountView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getContacts() {
+                return contacts;
+            }
+        };
+    }
+
     private Company createAnotherTestCompany() {
         return Company.builder()
                 .id(2L)
@@ -57,7 +77,7 @@ class CompanyServiceTest {
         Company testCompany = createTestCompany();
         Company savedCompany = createTestCompany();
 
-        when(companyRepository.save(testCompany)).thenReturn(savedCompany);
+        when(companyRepository.saveAndFlush(testCompany)).thenReturn(savedCompany);
 
         Company result = companyService.create(testCompany);
 
@@ -65,14 +85,14 @@ class CompanyServiceTest {
         assertEquals(savedCompany.getId(), result.getId());
         assertEquals(savedCompany.getName(), result.getName());
         assertEquals(savedCompany.getWebsite(), result.getWebsite());
-        verify(companyRepository, times(1)).save(testCompany);
+        verify(companyRepository, times(1)).saveAndFlush(testCompany);
     }
 
     @Test
     void create_WhenDuplicateCompanyName_ShouldThrowIllegalCompanyStateException() {
         Company testCompany = createTestCompany();
 
-        when(companyRepository.save(testCompany))
+        when(companyRepository.saveAndFlush(testCompany))
                 .thenThrow(new DataIntegrityViolationException("Duplicate company name"));
 
         IllegalCompanyStateException exception = assertThrows(
@@ -82,7 +102,7 @@ class CompanyServiceTest {
 
         assertTrue(exception.getMessage().contains("Не удалось создать компанию"));
         assertTrue(exception.getMessage().contains("Компания с таким именем уже существует"));
-        verify(companyRepository, times(1)).save(testCompany);
+        verify(companyRepository, times(1)).saveAndFlush(testCompany);
     }
 
     @Test
@@ -109,6 +129,17 @@ class CompanyServiceTest {
         verify(companyRepository, times(1)).findAll();
     }
 
+    @Test
+    void countContactsByCompany_ShouldReturnCountsByCompanyId() {
+        List<ContactCountView> counts = List.of(countView(1L, 3L), countView(2L, 1L));
+        when(contactCompanyRepository.countContactsByCompany()).thenReturn(counts);
+
+        Map<Long, Long> result = companyService.countContactsByCompany();
+
+        assertEquals(Map.of(1L, 3L, 2L, 1L), result);
+        verify(contactCompanyRepository, times(1)).countContactsByCompany();
+    }
+
     @Test
     void update_WhenValidCompany_ShouldReturnUpdatedCompany() {
         Long companyId = 1L;
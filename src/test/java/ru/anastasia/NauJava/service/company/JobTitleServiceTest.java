@@ -56,14 +56,14 @@ class JobTitleServiceTest {
         String title = "Тестовая должность";
         JobTitle savedJobTitle = createTestJobTitle();
 
-        when(jobTitleRepository.save(any(JobTitle.class))).thenReturn(savedJobTitle);
+        when(jobTitleRepository.saveAndFlush(any(JobTitle.class))).thenReturn(savedJobTitle);
 
         JobTitle result = jobTitleService.create(title);
 
         assertNotNull(result);
         assertEquals(savedJobTitle.getId(), result.getId());
         assertEquals(savedJobTitle.getTitle(), result.getTitle());
-        verify(jobTitleRepository, times(1)).save(any(JobTitle.class));
+        verify(jobTitleRepository, times(1)).saveAndFlush(any(JobTitle.class));
     }
 
     @Test
@@ -74,7 +74,7 @@ class JobTitleServiceTest {
                 .title(duplicateTitle)
                 .build();
 
-        when(jobTitleRepository.save(any(JobTitle.class)))
+        when(jobTitleRepository.saveAndFlush(any(JobTitle.class)))
                 .thenThrow(new DataIntegrityViolationException("Duplicate title"));
         when(jobTitleRepository.findByTitle(duplicateTitle)).thenReturn(Optional.of(existingJobTitle));
 
@@ -83,7 +83,7 @@ class JobTitleServiceTest {
         assertNotNull(result);
         assertEquals(existingJobTitle.getId(), result.getId());
         assertEquals(existingJobTitle.getTitle(), result.getTitle());
-        verify(jobTitleRepository, times(1)).save(any(JobTitle.class));
+        verify(jobTitleRepository, times(1)).saveAndFlush(any(JobTitle.class));
         verify(jobTitleRepository, times(1)).findByTitle(duplicateTitle);
     }
 
@@ -91,7 +91,7 @@ class JobTitleServiceTest {
     void create_WhenDuplicateTitleAndJobTitleNotExists_ShouldThrowIllegalJobTitleStateException() {
         String duplicateTitle = "Дублирующаяся должность";
 
-        when(jobTitleRepository.save(any(JobTitle.class)))
+        when(jobTitleRepository.saveAndFlush(any(JobTitle.class)))
                 .thenThrow(new DataIntegrityViolationException("Duplicate title"));
         when(jobTitleRepository.findByTitle(duplicateTitle)).thenReturn(Optional.empty());
 
@@ -102,7 +102,7 @@ class JobTitleServiceTest {
 
         assertTrue(exception.getMessage().contains("Не удалось создать название должности"));
         assertTrue(exception.getMessage().contains("Название должности с таким именем уже существует"));
-        verify(jobTitleRepository, times(1)).save(any(JobTitle.class));
+        verify(jobTitleRepository, times(1)).saveAndFlush(any(JobTitle.class));
         verify(jobTitleRepository, times(1)).findByTitle(duplicateTitle);
     }
 
@@ -0,0 +1,211 @@
+package ru.anastasia.NauJava.service.contact;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.anastasia.NauJava.entity.company.Company;
+import ru.anastasia.NauJava.entity.company.ContactCompany;
+import ru.anastasia.NauJava.entity.company.JobTitle;
+import ru.anastasia.NauJava.entity.contact.Contact;
+import ru.anastasia.NauJava.entity.contact.ContactDetail;
+import ru.anastasia.NauJava.entity.enums.DetailLabel;
+import ru.anastasia.NauJava.entity.enums.DetailType;
+import ru.anastasia.NauJava.entity.enums.EventType;
+import ru.anastasia.NauJava.entity.enums.SocialPlatform;
+import ru.anastasia.NauJava.entity.event.Event;
+import ru.anastasia.NauJava.entity.note.Note;
+import ru.anastasia.NauJava.entity.socialprofile.SocialProfile;
+import ru.anastasia.NauJava.entity.tag.ContactTag;
+import ru.anastasia.NauJava.entity.tag.Tag;
+import ru.anastasia.NauJava.service.facade.dto.ContactFullDetails;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка кэша второго уровня для карточки контакта
+ *
+ * <p>
+ * Данные создаются и изменяются в отдельных зафиксированных транзакциях: сущности, вставленные
+ * в откатываемой транзакции теста, в кэш не попадают.
+ * </p>
+ */
+@SpringBootTest
+class ContactAggregateCacheTest {
+
+    @Autowired
+    private ContactManagementService contactManagementService;
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long contactId;
+
+    private Long companyId;
+
+    private Long jobTitleId;
+
+    private Long tagId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Company company = Company.builder().name("Компания" + suffix).build();
+            JobTitle jobTitle = JobTitle.builder().title("Должность" + suffix).build();
+            Tag tag = Tag.builder().name("Тег" + suffix).color("#ffffff").build();
+            entityManager.persist(company);
+            entityManager.persist(jobTitle);
+            entityManager.persist(tag);
+
+            Contact contact = Contact.builder().firstName("Иван").lastName("Кэшев").build();
+            contact.addCompany(ContactCompany.builder().company(company).jobTitle(jobTitle).isCurrent(true).build());
+            contact.addContactDetail(ContactDetail.builder()
+                    .detailType(DetailType.EMAIL)
+                    .label(DetailLabel.WORK)
+                    .value("cache@example.com")
+                    .isPrimary(true)
+                    .build());
+            contact.addSocialProfile(SocialProfile.builder()
+                    .platform(SocialPlatform.TELEGRAM)
+                    .username("cache")
+                    .build());
+            contact.addEvent(Event.builder()
+                    .eventType(EventType.BIRTHDAY)
+                    .eventDate(LocalDate.of(1990, 5, 17))
+                    .yearlyRecurrence(true)
+                    .build());
+            contact.addNote(Note.builder().content("Первая заметка").build());
+            contact.addContactTag(ContactTag.builder().tag(tag).build());
+            entityManager.persist(contact);
+
+            contactId = contact.getId();
+            companyId = company.getId();
+            jobTitleId = jobTitle.getId();
+            tagId = tag.getId();
+        });
+
+        sessionFactory().getCache().evictAllRegions();
+    }
+
+    @AfterEach
+    void tearDown() {
+        contactService.deleteById(contactId);
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.remove(entityManager.find(Company.class, companyId));
+            entityManager.remove(entityManager.find(JobTitle.class, jobTitleId));
+            entityManager.remove(entityManager.find(Tag.class, tagId));
+        });
+    }
+
+    @Test
+    void getWithAllDetails_WhenViewedAgain_ShouldNotQueryDatabase() {
+        view();
+
+        Statistics statistics = startStatistics();
+        ContactFullDetails details = view();
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+        assertEquals(1, details.getContactDetails().size());
+        assertEquals(1, details.getNotes().size());
+    }
+
+    @Test
+    void getWithAllDetails_WhenNoteSavedWithoutCollection_ShouldReturnNewNote() {
+        view();
+
+        transactionTemplate.executeWithoutResult(status -> entityManager.persist(Note.builder()
+                .contact(entityManager.getReference(Contact.class, contactId))
+                .content("Вторая заметка")
+                .build()));
+
+        ContactFullDetails details = view();
+
+        assertEquals(2, details.getNotes().size());
+        assertEquals("Вторая заметка", details.getNotes().getLast().getContent());
+    }
+
+    @Test
+    void getWithAllDetails_WhenDetailRemovedAsOrphan_ShouldNotReturnRemovedDetail() {
+        view();
+
+        Long detailId = transactionTemplate.execute(status -> {
+            Contact contact = entityManager.find(Contact.class, contactId);
+            ContactDetail detail = contact.getContactDetails().getFirst();
+            contact.removeContactDetail(detail);
+            return detail.getId();
+        });
+
+        ContactFullDetails details = view();
+
+        assertTrue(details.getContactDetails().isEmpty());
+        assertFalse(sessionFactory().getCache().containsEntity(ContactDetail.class, detailId));
+    }
+
+    @Test
+    void getWithAllDetails_WhenCompanyRenamed_ShouldReturnNewName() {
+        view();
+
+        transactionTemplate.executeWithoutResult(status ->
+                entityManager.find(Company.class, companyId).setName("Переименованная" + companyId));
+
+        ContactFullDetails details = view();
+
+        assertEquals("Переименованная" + companyId,
+                details.getContact().getCompanies().getFirst().getCompany().getName());
+    }
+
+    /**
+     * Загружает карточку и обращается к ее полям так же, как шаблон, в одной транзакции
+     * (в приложении сессию держит open-in-view)
+     */
+    private ContactFullDetails view() {
+        return transactionTemplate.execute(status -> {
+            ContactFullDetails details = contactManagementService.getWithAllDetails(contactId);
+            details.getContact().getCompanies().forEach(company -> {
+                assertNotNull(company.getCompany().getName());
+                assertNotNull(company.getJobTitle().getTitle());
+            });
+            details.getContactDetails().forEach(detail -> assertNotNull(detail.getValue()));
+            details.getSocialProfiles().forEach(profile -> assertNotNull(profile.getPlatform()));
+            details.getEvents().forEach(event -> assertNotNull(event.getEventDate()));
+            details.getNotes().forEach(note -> assertNotNull(note.getContent()));
+            details.getTags().forEach(tag -> assertNotNull(tag.getName()));
+            return details;
+        });
+    }
+
+    private Statistics startStatistics() {
+        Statistics statistics = sessionFactory().getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return statistics;
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
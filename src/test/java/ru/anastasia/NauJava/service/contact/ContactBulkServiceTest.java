@@ -0,0 +1,198 @@
+package ru.anastasia.NauJava.service.contact;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.anastasia.NauJava.dto.contact.ContactBulkDto;
+import ru.anastasia.NauJava.dto.contact.ContactBulkResultDto;
+import ru.anastasia.NauJava.entity.company.Company;
+import ru.anastasia.NauJava.entity.company.JobTitle;
+import ru.anastasia.NauJava.entity.enums.SuggestionType;
+import ru.anastasia.NauJava.exception.company.IllegalCompanyStateException;
+import ru.anastasia.NauJava.repository.company.ContactCompanyRepository;
+import ru.anastasia.NauJava.repository.contact.ContactDetailRepository;
+import ru.anastasia.NauJava.repository.contact.ContactRepository;
+import ru.anastasia.NauJava.repository.event.EventRepository;
+import ru.anastasia.NauJava.repository.note.NoteRepository;
+import ru.anastasia.NauJava.repository.socialprofile.SocialProfileRepository;
+import ru.anastasia.NauJava.repository.tag.ContactTagRepository;
+import ru.anastasia.NauJava.service.company.CompanyService;
+import ru.anastasia.NauJava.service.company.JobTitleService;
+import ru.anastasia.NauJava.service.contact.impl.ContactBulkServiceImpl;
+import ru.anastasia.NauJava.service.stats.DashboardCounters;
+import ru.anastasia.NauJava.service.stats.DashboardCounters.Counter;
+import ru.anastasia.NauJava.service.suggest.SuggestService;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ContactBulkServiceTest {
+
+    @Mock
+    private ContactRepository contactRepository;
+
+    @Mock
+    private ContactDetailRepository contactDetailRepository;
+
+    @Mock
+    private SocialProfileRepository socialProfileRepository;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    @Mock
+    private ContactTagRepository contactTagRepository;
+
+    @Mock
+    private ContactCompanyRepository contactCompanyRepository;
+
+    @Mock
+    private CompanyService companyService;
+
+    @Mock
+    private JobTitleService jobTitleService;
+
+    @Mock
+    private SuggestService suggestService;
+
+    @Mock
+    private DashboardCounters dashboardCounters;
+
+    @InjectMocks
+    private ContactBulkServiceImpl contactBulkService;
+
+    @Test
+    void apply_WithFavorite_ShouldUpdateAllContactsInOneStatement() {
+        ContactBulkDto request = ContactBulkDto.builder()
+                .contactIds(Arrays.asList(1L, 2L, 2L, null, 3L))
+                .favorite(true)
+                .build();
+
+        when(contactRepository.updateFavoriteByIds(aryEq(new Long[]{1L, 2L, 3L}), eq(true))).thenReturn(2);
+
+        ContactBulkResultDto result = contactBulkService.apply(request);
+
+        assertEquals(3, result.getRequested());
+        assertEquals(2, result.getFavoritesUpdated());
+        verify(dashboardCounters).add(Counter.FAVORITES, 2);
+        verify(contactTagRepository, never()).insertAllByContactIdsAndTagIds(any(), any());
+        verify(contactCompanyRepository, never()).insertMissingByContactIds(any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    void apply_WithTags_ShouldReturnAddedAndRemovedCounts() {
+        ContactBulkDto request = ContactBulkDto.builder()
+                .contactIds(List.of(1L, 2L))
+                .addTagIds(List.of(10L))
+                .removeTagIds(List.of(20L, 21L))
+                .build();
+
+        when(contactTagRepository.insertAllByContactIdsAndTagIds(aryEq(new Long[]{1L, 2L}), aryEq(new Long[]{10L})))
+                .thenReturn(2);
+        when(contactTagRepository.deleteAllByContactIdsAndTagIds(aryEq(new Long[]{1L, 2L}), aryEq(new Long[]{20L, 21L})))
+                .thenReturn(3);
+
+        ContactBulkResultDto result = contactBulkService.apply(request);
+
+        assertEquals(2, result.getTagsAdded());
+        assertEquals(3, result.getTagsRemoved());
+        verify(contactRepository, never()).updateFavoriteByIds(any(), anyBoolean());
+    }
+
+    @Test
+    void apply_WithCurrentCompany_ShouldInsertMissingAndUpdateCurrentFlags() {
+        Long[] ids = {1L, 2L};
+        ContactBulkDto request = ContactBulkDto.builder()
+                .contactIds(List.of(1L, 2L))
+                .companyId(5L)
+                .jobTitleId(7L)
+                .isCurrent(true)
+                .build();
+
+        when(companyService.findById(5L)).thenReturn(Company.builder().id(5L).name("Рога и копыта").build());
+        when(jobTitleService.findById(7L)).thenReturn(JobTitle.builder().id(7L).title("Инженер").build());
+        when(contactCompanyRepository.insertMissingByContactIds(aryEq(ids), eq(5L), eq(7L), eq(true)))
+                .thenReturn(1);
+
+        ContactBulkResultDto result = contactBulkService.apply(request);
+
+        assertEquals(1, result.getCompaniesAssigned());
+        verify(contactCompanyRepository).updateCurrentByContactIds(aryEq(ids), eq(5L), eq(7L));
+    }
+
+    @Test
+    void apply_WithCompanyWithoutJobTitle_ShouldThrowIllegalCompanyStateException() {
+        ContactBulkDto request = ContactBulkDto.builder()
+                .contactIds(List.of(1L))
+                .companyId(5L)
+                .build();
+
+        assertThrows(IllegalCompanyStateException.class, () -> contactBulkService.apply(request));
+        verifyNoInteractions(contactCompanyRepository);
+    }
+
+    @Test
+    void apply_WithDelete_ShouldDeleteDependentRowsAndExistingContactsOnly() {
+        Long[] existing = {1L, 3L};
+        ContactBulkDto request = ContactBulkDto.builder()
+                .contactIds(List.of(1L, 2L, 3L))
+                .favorite(true)
+                .delete(true)
+                .build();
+
+        when(contactRepository.findExistingIds(aryEq(new Long[]{1L, 2L, 3L}))).thenReturn(List.of(1L, 3L));
+        when(contactRepository.countFavoritesByIds(aryEq(existing))).thenReturn(1L);
+        when(contactRepository.deleteAllByIds(aryEq(existing))).thenReturn(2);
+
+        ContactBulkResultDto result = contactBulkService.apply(request);
+
+        assertEquals(3, result.getRequested());
+        assertEquals(2, result.getDeleted());
+        verify(contactDetailRepository).deleteAllByContactIds(aryEq(existing));
+        verify(socialProfileRepository).deleteAllByContactIds(aryEq(existing));
+        verify(eventRepository).deleteAllByContactIds(aryEq(existing));
+        verify(noteRepository).deleteAllByContactIds(aryEq(existing));
+        verify(contactTagRepository).deleteAllByContactIds(aryEq(existing));
+        verify(contactCompanyRepository).deleteAllByContactIds(aryEq(existing));
+        verify(contactRepository).saveTombstones(aryEq(existing), any(LocalDateTime.class));
+        verify(contactRepository, never()).updateFavoriteByIds(any(), anyBoolean());
+        verify(suggestService).remove(SuggestionType.CONTACT, 1L);
+        verify(suggestService).remove(SuggestionType.CONTACT, 3L);
+        verify(dashboardCounters).add(Counter.CONTACTS, -2);
+        verify(dashboardCounters).add(Counter.FAVORITES, -1);
+    }
+
+    @Test
+    void apply_WithDeleteOfMissingContacts_ShouldNotIssueDeletes() {
+        ContactBulkDto request = ContactBulkDto.builder()
+                .contactIds(List.of(100L))
+                .delete(true)
+                .build();
+
+        when(contactRepository.findExistingIds(aryEq(new Long[]{100L}))).thenReturn(List.of());
+
+        ContactBulkResultDto result = contactBulkService.apply(request);
+
+        assertEquals(0, result.getDeleted());
+        verify(contactRepository, never()).deleteAllByIds(any());
+        verifyNoInteractions(contactDetailRepository, suggestService);
+    }
+}
@@ -0,0 +1,152 @@
+package ru.anastasia.NauJava.service.contact;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.anastasia.NauJava.entity.company.Company;
+import ru.anastasia.NauJava.entity.company.ContactCompany;
+import ru.anastasia.NauJava.entity.company.JobTitle;
+import ru.anastasia.NauJava.entity.contact.Contact;
+import ru.anastasia.NauJava.entity.contact.ContactDetail;
+import ru.anastasia.NauJava.entity.enums.DetailLabel;
+import ru.anastasia.NauJava.entity.enums.DetailType;
+import ru.anastasia.NauJava.entity.tag.ContactTag;
+import ru.anastasia.NauJava.entity.tag.Tag;
+import ru.anastasia.NauJava.service.facade.dto.ContactCard;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка бюджета запросов для страниц карточек контактов
+ */
+@SpringBootTest
+@Transactional
+class ContactCardQueryCountTest {
+
+    /**
+     * Максимальное число запросов на страницу: страница контактов, подсчет,
+     * места работы, основные способы связи и теги
+     */
+    private static final long QUERY_BUDGET = 5;
+
+    private static final int CONTACTS_COUNT = 40;
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private String tagName;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+
+        Company company = Company.builder().name("Компания" + suffix).build();
+        JobTitle jobTitle = JobTitle.builder().title("Должность" + suffix).build();
+        Tag tag = Tag.builder().name("Тег" + suffix).color("#ffffff").build();
+        entityManager.persist(company);
+        entityManager.persist(jobTitle);
+        entityManager.persist(tag);
+        tagName = tag.getName();
+
+        for (int i = 0; i < CONTACTS_COUNT; i++) {
+            Contact contact = Contact.builder()
+                    .firstName("Имя" + i)
+                    .lastName("Фамилия" + i)
+                    .isFavorite(true)
+                    .build();
+            contact.addCompany(ContactCompany.builder().company(company).jobTitle(jobTitle).isCurrent(true).build());
+            contact.addContactDetail(ContactDetail.builder()
+                    .detailType(DetailType.EMAIL)
+                    .label(DetailLabel.WORK)
+                    .value("user" + i + "@example.com")
+                    .isPrimary(true)
+                    .build());
+            contact.addContactDetail(ContactDetail.builder()
+                    .detailType(DetailType.PHONE)
+                    .label(DetailLabel.MOBILE)
+                    .value("+7900000000" + i)
+                    .isPrimary(false)
+                    .build());
+            contact.addContactTag(ContactTag.builder().tag(tag).build());
+            entityManager.persist(contact);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void searchContacts_ShouldUseConstantNumberOfQueriesRegardlessOfPageSize() {
+        long smallPageQueries = countSearchQueries(4);
+        long largePageQueries = countSearchQueries(20);
+
+        assertTrue(smallPageQueries <= QUERY_BUDGET, "Запросов на странице: " + smallPageQueries);
+        assertEquals(smallPageQueries, largePageQueries);
+    }
+
+    @Test
+    void findFavorites_ShouldUseConstantNumberOfQueriesRegardlessOfPageSize() {
+        long smallPageQueries = countFavoritesQueries(4);
+        long largePageQueries = countFavoritesQueries(20);
+
+        assertTrue(smallPageQueries <= QUERY_BUDGET, "Запросов на странице: " + smallPageQueries);
+        assertEquals(smallPageQueries, largePageQueries);
+    }
+
+    private long countSearchQueries(int pageSize) {
+        Statistics statistics = startStatistics();
+
+        Page<ContactCard> page = contactService.searchContacts(null, null, tagName, PageRequest.of(0, pageSize));
+        touchCards(page);
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long countFavoritesQueries(int pageSize) {
+        Statistics statistics = startStatistics();
+
+        Page<ContactCard> page = contactService.findFavorites(PageRequest.of(0, pageSize));
+        touchCards(page);
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Statistics startStatistics() {
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return statistics;
+    }
+
+    /**
+     * Обращается ко всем полям карточки так же, как шаблон списка контактов
+     */
+    private void touchCards(Page<ContactCard> page) {
+        assertEquals(page.getSize(), page.getContent().size());
+        page.getContent().forEach(card -> {
+            if (card.hasCompany()) {
+                assertNotNull(card.getCompany().getCompany().getName());
+                assertNotNull(card.getCompany().getJobTitle().getTitle());
+            }
+            card.getPrimaryDetails().forEach(detail -> assertNotNull(detail.getValue()));
+            card.getTags().forEach(tag -> assertNotNull(tag.getName()));
+        });
+    }
+}
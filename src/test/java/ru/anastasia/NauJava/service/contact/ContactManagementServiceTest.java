@@ -36,6 +36,7 @@ import ru.anastasia.NauJava.service.event.EventService;
 import ru.anastasia.NauJava.service.facade.dto.ContactFullDetails;
 import ru.anastasia.NauJava.service.note.NoteService;
 import ru.anastasia.NauJava.service.socialprofile.SocialProfileService;
+import ru.anastasia.NauJava.service.stats.DashboardCounters;
 import ru.anastasia.NauJava.service.tag.TagService;
 
 import java.time.LocalDate;
@@ -43,8 +44,10 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -52,9 +55,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.anyBoolean;
 import static org.mockito.Mockito.anyString;
-import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -85,6 +86,9 @@ public class ContactManagementServiceTest {
     @Mock
     private JobTitleService jobTitleService;
 
+    @Mock
+    private DashboardCounters dashboardCounters;
+
     @InjectMocks
     private ContactManagementServiceImpl contactManagementService;
 
@@ -284,6 +288,24 @@ public class ContactManagementServiceTest {
                 .build();
     }
 
+    private Contact createTestContactWithRelations() {
+        Contact contact = createTestContact();
+        contact.addContactDetail(createTestContactDetail());
+        contact.addContactDetail(ContactDetail.builder()
+                .id(2L)
+                .detailType(DetailType.PHONE)
+                .label(DetailLabel.WORK)
+                .value("+79991234567")
+                .isPrimary(false)
+                .build());
+        contact.addSocialProfile(createTestSocialProfile());
+        contact.addEvent(createTestEvent());
+        contact.addEvent(createTestBirthdayEvent());
+        contact.addNote(createTestNote());
+        contact.addContactTag(ContactTag.builder().id(1L).tag(createTestTag()).build());
+        return contact;
+    }
+
     private ContactTag createTestContactTag() {
         return ContactTag.builder()
                 .id(1L)
@@ -374,6 +396,32 @@ public class ContactManagementServiceTest {
         verify(contactService, times(1)).save(contact);
     }
 
+    @Test
+    void update_WhenTagKept_ShouldKeepExistingContactTag() {
+        ContactUpdateDto updateDto = createTestContactUpdateDto();
+        Contact contact = createTestContact();
+        Tag keptTag = Tag.builder().id(3L).name("друзья").build();
+        Tag addedTag = Tag.builder().id(4L).name("семья").build();
+        ContactTag existingContactTag = ContactTag.builder().id(10L).tag(keptTag).build();
+        ContactTag removedContactTag = ContactTag.builder().id(11L).tag(createTestTag()).build();
+        contact.addContactTag(existingContactTag);
+        contact.addContactTag(removedContactTag);
+
+        when(contactService.findById(1L)).thenReturn(contact);
+        when(companyService.findById(2L)).thenReturn(createTestCompany());
+        when(jobTitleService.findById(2L)).thenReturn(createTestJobTitle());
+        when(tagService.findAllById(any())).thenReturn(List.of(keptTag, addedTag));
+        when(contactService.save(contact)).thenReturn(contact);
+
+        contactManagementService.update(updateDto);
+
+        assertEquals(2, contact.getContactTags().size());
+        assertTrue(contact.getContactTags().stream().anyMatch(contactTag -> contactTag == existingContactTag));
+        assertFalse(contact.getContactTags().contains(removedContactTag));
+        assertTrue(contact.getContactTags().stream()
+                .anyMatch(contactTag -> contactTag.getId() == null && contactTag.getTag() == addedTag));
+    }
+
     @Test
     void update_WhenContactNotFound_ShouldThrowContactNotFoundException() {
         ContactUpdateDto updateDto = createTestContactUpdateDto();
@@ -392,80 +440,64 @@ public class ContactManagementServiceTest {
     }
 
     @Test
-    void getWithAllDetails_WhenContactExists_ShouldReturnFullDetails() {
+    void getWithAllDetails_WhenContactExists_ShouldDeriveDetailsFromLoadedGraph() {
         Long contactId = 1L;
-        Contact contact = createTestContact();
-        List<ContactDetail> contactDetails = Collections.singletonList(createTestContactDetail());
-        List<SocialProfile> socialProfiles = Collections.singletonList(createTestSocialProfile());
-        List<Event> events = Collections.singletonList(createTestEvent());
-        List<Note> notes = Collections.singletonList(createTestNote());
-        List<Tag> tags = Collections.singletonList(createTestTag());
-        List<ContactTag> contactTags = Collections.singletonList(createTestContactTag());
-        Event birthday = createTestBirthdayEvent();
-        List<ContactDetail> primaryDetails = Collections.singletonList(createTestContactDetail());
-
-        when(contactService.findById(contactId)).thenReturn(contact);
-        when(contactDetailService.findByContactId(contactId)).thenReturn(contactDetails);
-        when(socialProfileService.findByContactId(contactId)).thenReturn(socialProfiles);
-        when(eventService.findByContactId(contactId)).thenReturn(events);
-        when(noteService.findByContactId(contactId)).thenReturn(notes);
-        when(tagService.findByContactId(contactId)).thenReturn(tags);
-        when(tagService.findContactTagsByContactId(contactId)).thenReturn(contactTags);
-        when(eventService.findBirthdayByContactId(contactId)).thenReturn(birthday);
-        when(contactDetailService.findPrimaryByContactId(contactId)).thenReturn(primaryDetails);
+        Contact contact = createTestContactWithRelations();
+        ContactDetail primaryDetail = contact.getContactDetails().getFirst();
+        Event birthday = contact.getEvents().get(1);
+
+        when(contactService.findWithAllRelations(contactId)).thenReturn(contact);
 
         ContactFullDetails result = contactManagementService.getWithAllDetails(contactId);
 
         assertNotNull(result);
         assertEquals(contact, result.getContact());
-        assertEquals(contactDetails, result.getContactDetails());
-        assertEquals(socialProfiles, result.getSocialProfiles());
-        assertEquals(events, result.getEvents());
+        assertEquals(contact.getContactDetails(), result.getContactDetails());
+        assertEquals(List.of(primaryDetail), result.getPrimaryContactDetails());
+        assertEquals(contact.getSocialProfiles(), result.getSocialProfiles());
+        assertEquals(contact.getEvents(), result.getEvents());
         assertEquals(birthday, result.getBirthday());
-        assertEquals(notes, result.getNotes());
-        assertEquals(tags, result.getTags());
-        assertEquals(contactTags, result.getContactTags());
-        assertEquals(primaryDetails, result.getPrimaryContactDetails());
-
-        verify(contactService, times(1)).findById(contactId);
-        verify(contactDetailService, times(1)).findByContactId(contactId);
-        verify(socialProfileService, times(1)).findByContactId(contactId);
-        verify(eventService, times(1)).findByContactId(contactId);
-        verify(noteService, times(1)).findByContactId(contactId);
-        verify(tagService, times(1)).findByContactId(contactId);
-        verify(tagService, times(1)).findContactTagsByContactId(contactId);
-        verify(eventService, times(1)).findBirthdayByContactId(contactId);
-        verify(contactDetailService, times(1)).findPrimaryByContactId(contactId);
+        assertEquals(contact.getNotes(), result.getNotes());
+        assertEquals(contact.getContactTags(), result.getContactTags());
+        assertEquals(List.of(createTestTag()), result.getTags());
+
+        verify(contactService, times(1)).findWithAllRelations(contactId);
+        verify(contactService, never()).findById(contactId);
+        verify(eventService, never()).findBirthdayByContactId(contactId);
+        verify(tagService, never()).findByContactId(contactId);
     }
 
     @Test
-    void getSummary_WhenContactExists_ShouldReturnSummaryDetails() {
+    void getWithAllDetails_WhenContactHasNoRelations_ShouldReturnEmptyCollections() {
         Long contactId = 1L;
-        Contact contact = createTestContact();
-        List<ContactDetail> primaryDetails = Collections.singletonList(createTestContactDetail());
-        List<SocialProfile> mainSocialProfiles = Collections.singletonList(createTestSocialProfile());
-        Event birthday = createTestBirthdayEvent();
-        List<Tag> tags = Collections.singletonList(createTestTag());
+        when(contactService.findWithAllRelations(contactId)).thenReturn(createTestContact());
+
+        ContactFullDetails result = contactManagementService.getWithAllDetails(contactId);
+
+        assertTrue(result.getContactDetails().isEmpty());
+        assertTrue(result.getPrimaryContactDetails().isEmpty());
+        assertTrue(result.getTags().isEmpty());
+        assertFalse(result.hasBirthday());
+    }
+
+    @Test
+    void getSummary_WhenContactExists_ShouldUseAggregateLoader() {
+        Long contactId = 1L;
+        Contact contact = createTestContactWithRelations();
 
-        when(contactService.findById(contactId)).thenReturn(contact);
-        when(contactDetailService.findPrimaryByContactId(contactId)).thenReturn(primaryDetails);
-        when(socialProfileService.findByContactId(contactId)).thenReturn(mainSocialProfiles);
-        when(eventService.findBirthdayByContactId(contactId)).thenReturn(birthday);
-        when(tagService.findByContactId(contactId)).thenReturn(tags);
+        when(contactService.findWithAllRelations(contactId)).thenReturn(contact);
 
         ContactFullDetails result = contactManagementService.getSummary(contactId);
 
         assertNotNull(result);
         assertEquals(contact, result.getContact());
-        assertEquals(primaryDetails, result.getPrimaryContactDetails());
-        assertEquals(mainSocialProfiles, result.getSocialProfiles());
-        assertEquals(birthday, result.getBirthday());
-        assertEquals(tags, result.getTags());
+        assertEquals(1, result.getPrimaryContactDetails().size());
+        assertEquals(contact.getSocialProfiles(), result.getSocialProfiles());
+        assertEquals(EventType.BIRTHDAY, result.getBirthday().getEventType());
+        assertEquals(List.of(createTestTag()), result.getTags());
 
-        verify(contactDetailService, never()).findByContactId(contactId);
-        verify(eventService, never()).findByContactId(contactId);
-        verify(noteService, never()).findByContactId(contactId);
-        verify(tagService, never()).findContactTagsByContactId(contactId);
+        verify(contactService, times(1)).findWithAllRelations(contactId);
+        verify(socialProfileService, never()).findByContactId(contactId);
     }
 
     @Test
@@ -479,7 +511,7 @@ public class ContactManagementServiceTest {
         duplicateContact.setFirstName(newFirstName);
         duplicateContact.setLastName(newLastName);
 
-        when(contactService.findById(contactId)).thenReturn(originalDetails.getContact());
+        when(contactService.findWithAllRelations(contactId)).thenReturn(originalDetails.getContact());
         when(contactService.add(newFirstName, newLastName)).thenReturn(duplicateContact);
         when(contactService.update(anyLong(), anyString(), anyString(), anyString(), anyString(), anyBoolean()))
                 .thenReturn(duplicateContact);
@@ -504,7 +536,7 @@ public class ContactManagementServiceTest {
         duplicateContact.setFirstName(originalContact.getFirstName() + " (копия)");
         duplicateContact.setLastName(originalContact.getLastName());
 
-        when(contactService.findById(contactId)).thenReturn(originalContact);
+        when(contactService.findWithAllRelations(contactId)).thenReturn(originalContact);
         when(contactService.add(originalContact.getFirstName() + " (копия)", originalContact.getLastName()))
                 .thenReturn(duplicateContact);
         when(contactService.update(anyLong(), anyString(), anyString(), anyString(), anyString(), anyBoolean()))
@@ -519,26 +551,59 @@ public class ContactManagementServiceTest {
     }
 
     @Test
-    void getListWithUpcomingBirthdays_WhenContactsWithBirthdaysExist_ShouldReturnList() {
+    void getListWithUpcomingBirthdays_WhenContactsWithBirthdaysExist_ShouldLoadRelationsInBatches() {
         int daysAhead = 7;
-        List<Contact> contactsWithBirthdays = Collections.singletonList(createTestContact());
-        ContactFullDetails summaryDetails = createTestContactFullDetails();
-
-        Event birthdayEvent = new Event();
-        birthdayEvent.setEventDate(LocalDate.now().plusDays(3));
+        Contact first = createTestContact();
+        Contact second = createTestContact();
+        second.setId(2L);
 
-        when(contactService.findWithUpcomingBirthdays(daysAhead)).thenReturn(contactsWithBirthdays);
+        Event laterBirthday = Event.builder()
+                .id(10L)
+                .contact(first)
+                .eventType(EventType.BIRTHDAY)
+                .eventDate(LocalDate.now().plusDays(5).minusYears(30))
+                .build();
+        Event soonerBirthday = Event.builder()
+                .id(11L)
+                .contact(second)
+                .eventType(EventType.BIRTHDAY)
+                .eventDate(LocalDate.now().plusDays(1).minusYears(20))
+                .build();
 
-        ContactManagementServiceImpl serviceSpy = spy(contactManagementService);
+        ContactDetail detail = createTestContactDetail();
+        detail.setContact(first);
+        SocialProfile profile = createTestSocialProfile();
+        profile.setContact(second);
+        ContactTag contactTag = ContactTag.builder().id(1L).contact(first).tag(createTestTag()).build();
+
+        when(eventService.findUpcomingBirthdaysWithContacts(daysAhead)).thenReturn(List.of(laterBirthday, soonerBirthday));
+        when(contactDetailService.findPrimaryByContactIds(Set.of(1L, 2L))).thenReturn(List.of(detail));
+        when(socialProfileService.findByContactIds(Set.of(1L, 2L))).thenReturn(List.of(profile));
+        when(tagService.findContactTagsByContactIds(Set.of(1L, 2L))).thenReturn(List.of(contactTag));
+
+        List<ContactFullDetails> result = contactManagementService.getListWithUpcomingBirthdays(daysAhead);
+
+        assertEquals(2, result.size());
+        assertEquals(second, result.get(0).getContact());
+        assertEquals(1, result.get(0).getDaysUntil());
+        assertEquals(List.of(profile), result.get(0).getSocialProfiles());
+        assertTrue(result.get(0).getTags().isEmpty());
+        assertEquals(first, result.get(1).getContact());
+        assertEquals(List.of(detail), result.get(1).getPrimaryContactDetails());
+        assertEquals(List.of(createTestTag()), result.get(1).getTags());
+
+        verify(eventService, never()).findBirthdayByContactId(anyLong());
+        verify(contactService, never()).findWithAllRelations(anyLong());
+    }
 
-        doReturn(summaryDetails).when(serviceSpy).getSummary(anyLong());
-        when(eventService.findBirthdayByContactId(anyLong())).thenReturn(birthdayEvent);
+    @Test
+    void getListWithUpcomingBirthdays_WhenNoBirthdays_ShouldNotLoadRelations() {
+        when(eventService.findUpcomingBirthdaysWithContacts(30)).thenReturn(List.of());
 
-        List<ContactFullDetails> result = serviceSpy.getListWithUpcomingBirthdays(daysAhead);
+        assertTrue(contactManagementService.getListWithUpcomingBirthdays(30).isEmpty());
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(contactService, times(1)).findWithUpcomingBirthdays(daysAhead);
-        verify(eventService, times(1)).findBirthdayByContactId(anyLong());
+        verify(contactDetailService, never()).findPrimaryByContactIds(any());
+        verify(socialProfileService, never()).findByContactIds(any());
+        verify(tagService, never()).findContactTagsByContactIds(any());
     }
 }
@@ -10,11 +10,20 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import ru.anastasia.NauJava.config.AppConfig;
+import ru.anastasia.NauJava.dto.contact.ContactCursor;
 import ru.anastasia.NauJava.entity.contact.Contact;
 import ru.anastasia.NauJava.exception.contact.ContactNotFoundException;
+import ru.anastasia.NauJava.repository.company.ContactCompanyRepository;
+import ru.anastasia.NauJava.repository.contact.ContactDetailRepository;
 import ru.anastasia.NauJava.repository.contact.ContactRepository;
+import ru.anastasia.NauJava.repository.tag.ContactTagRepository;
 import ru.anastasia.NauJava.service.contact.impl.ContactServiceImpl;
+import ru.anastasia.NauJava.service.event.MonthDayRange;
+import ru.anastasia.NauJava.service.facade.dto.ContactCard;
+import ru.anastasia.NauJava.service.facade.dto.ContactCardSlice;
+import ru.anastasia.NauJava.service.stats.DashboardCounters;
 
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -23,12 +32,15 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -41,9 +53,21 @@ class ContactServiceTest {
     @Mock
     private ContactRepository contactRepository;
 
+    @Mock
+    private ContactCompanyRepository contactCompanyRepository;
+
+    @Mock
+    private ContactDetailRepository contactDetailRepository;
+
+    @Mock
+    private ContactTagRepository contactTagRepository;
+
     @Mock
     private AppConfig appConfig;
 
+    @Mock
+    private DashboardCounters dashboardCounters;
+
     @InjectMocks
     private ContactServiceImpl contactService;
 
@@ -332,6 +356,7 @@ class ContactServiceTest {
         contactService.addToFavorites(contactId);
 
         assertTrue(contact.getIsFavorite());
+        verify(dashboardCounters).favoriteChanged(false, true);
         verify(contactRepository, times(1)).findById(contactId);
         verify(contactRepository, times(1)).save(contact);
     }
@@ -375,17 +400,18 @@ class ContactServiceTest {
 
         when(contactRepository.findAll(pageable)).thenReturn(expectedPage);
 
-        Page<Contact> result = contactService.searchContacts(searchTerm, companyName, tagName, pageable);
+        Page<ContactCard> result = contactService.searchContacts(searchTerm, companyName, tagName, pageable);
 
         assertNotNull(result);
         assertEquals(2, result.getContent().size());
-        assertEquals(contacts, result.getContent());
+        assertEquals(contacts.stream().map(Contact::getId).toList(),
+                result.getContent().stream().map(ContactCard::getId).toList());
         verify(contactRepository, times(1)).findAll(pageable);
         verify(contactRepository, never()).searchWithFilters(any(), any(), any(), any());
     }
 
     @Test
-    void searchContacts_WithSearchTermOnly_ShouldUseSearchWithFilters() {
+    void searchContacts_WithSearchTermOnly_ShouldUseFullTextSearch() {
         String searchTerm = "Иван";
         String companyName = "";
         String tagName = "";
@@ -393,15 +419,17 @@ class ContactServiceTest {
         List<Contact> contacts = Collections.singletonList(createTestContact());
         Page<Contact> expectedPage = new PageImpl<>(contacts, pageable, contacts.size());
 
-        when(contactRepository.searchWithFilters(eq(searchTerm.trim()), isNull(), isNull(), eq(pageable)))
+        when(contactRepository.fullTextSearch(eq(searchTerm.trim()), isNull(), isNull(), eq(pageable)))
                 .thenReturn(expectedPage);
 
-        Page<Contact> result = contactService.searchContacts(searchTerm, companyName, tagName, pageable);
+        Page<ContactCard> result = contactService.searchContacts(searchTerm, companyName, tagName, pageable);
 
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
-        assertEquals(contacts, result.getContent());
-        verify(contactRepository, times(1)).searchWithFilters(eq(searchTerm.trim()), isNull(), isNull(), eq(pageable));
+        assertEquals(contacts.stream().map(Contact::getId).toList(),
+                result.getContent().stream().map(ContactCard::getId).toList());
+        verify(contactRepository, times(1)).fullTextSearch(eq(searchTerm.trim()), isNull(), isNull(), eq(pageable));
+        verify(contactRepository, never()).searchWithFilters(any(), any(), any(), any());
         verify(contactRepository, never()).findAll(pageable);
     }
 
@@ -417,7 +445,7 @@ class ContactServiceTest {
         when(contactRepository.searchWithFilters(isNull(), eq(companyName.trim()), isNull(), eq(pageable)))
                 .thenReturn(expectedPage);
 
-        Page<Contact> result = contactService.searchContacts(searchTerm, companyName, tagName, pageable);
+        Page<ContactCard> result = contactService.searchContacts(searchTerm, companyName, tagName, pageable);
 
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
@@ -436,7 +464,7 @@ class ContactServiceTest {
         when(contactRepository.searchWithFilters(isNull(), isNull(), eq(tagName.trim()), eq(pageable)))
                 .thenReturn(expectedPage);
 
-        Page<Contact> result = contactService.searchContacts(searchTerm, companyName, tagName, pageable);
+        Page<ContactCard> result = contactService.searchContacts(searchTerm, companyName, tagName, pageable);
 
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
@@ -444,7 +472,7 @@ class ContactServiceTest {
     }
 
     @Test
-    void searchContacts_WithAllFilters_ShouldUseSearchWithFilters() {
+    void searchContacts_WithAllFilters_ShouldUseFullTextSearch() {
         String searchTerm = "Иван";
         String companyName = "Компания";
         String tagName = "друзья";
@@ -452,18 +480,18 @@ class ContactServiceTest {
         List<Contact> contacts = Collections.singletonList(createTestContact());
         Page<Contact> expectedPage = new PageImpl<>(contacts, pageable, contacts.size());
 
-        when(contactRepository.searchWithFilters(
+        when(contactRepository.fullTextSearch(
                 eq(searchTerm.trim()),
                 eq(companyName.trim()),
                 eq(tagName.trim()),
                 eq(pageable)))
                 .thenReturn(expectedPage);
 
-        Page<Contact> result = contactService.searchContacts(searchTerm, companyName, tagName, pageable);
+        Page<ContactCard> result = contactService.searchContacts(searchTerm, companyName, tagName, pageable);
 
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
-        verify(contactRepository, times(1)).searchWithFilters(
+        verify(contactRepository, times(1)).fullTextSearch(
                 eq(searchTerm.trim()),
                 eq(companyName.trim()),
                 eq(tagName.trim()),
@@ -478,7 +506,7 @@ class ContactServiceTest {
 
         when(contactRepository.findByIsFavoriteTrue(pageable)).thenReturn(expectedPage);
 
-        Page<Contact> result = contactService.findFavorites(pageable);
+        Page<ContactCard> result = contactService.findFavorites(pageable);
 
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
@@ -493,7 +521,7 @@ class ContactServiceTest {
 
         when(contactRepository.findByIsFavoriteTrue(pageable)).thenReturn(expectedPage);
 
-        Page<Contact> result = contactService.findFavorites(pageable);
+        Page<ContactCard> result = contactService.findFavorites(pageable);
 
         assertNotNull(result);
         assertTrue(result.getContent().isEmpty());
@@ -502,49 +530,111 @@ class ContactServiceTest {
     }
 
     @Test
-    void findWithUpcomingBirthdays_WithinSameYear_ShouldCallFindBirthdaysInRange() {
-        int daysAhead = 7;
-        List<Contact> expectedContacts = Collections.singletonList(createTestContact());
+    void searchContactsByCursor_WhenMoreContactsThanSize_ShouldReturnNextCursorOnly() {
+        Contact first = createTestContact();
+        Contact second = createAnotherTestContact();
 
-        when(contactRepository.findBirthdaysInRange(anyString(), anyString()))
-                .thenReturn(expectedContacts);
+        when(contactRepository.findByKeyset(null, null, null, false, null, 2))
+                .thenReturn(Arrays.asList(first, second));
+        when(contactRepository.estimateCount()).thenReturn(2L);
 
-        List<Contact> result = contactService.findWithUpcomingBirthdays(daysAhead);
+        ContactCardSlice result = contactService.searchContactsByCursor(null, null, null, null, 1);
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(contactRepository, times(1)).findBirthdaysInRange(anyString(), anyString());
-        verify(contactRepository, never()).findBirthdaysCrossingYear(anyString(), anyString());
+        assertEquals(1, result.getContent().size());
+        assertEquals(first.getId(), result.getContent().getFirst().getId());
+        assertTrue(result.hasNext());
+        assertFalse(result.hasPrevious());
+        assertEquals(ContactCursor.after(first), ContactCursor.decode(result.getNextCursor()));
+        assertEquals(2L, result.getTotalEstimate());
+    }
+
+    @Test
+    void searchContactsByCursor_WithFilters_ShouldNotEstimateTotal() {
+        when(contactRepository.findByKeyset(eq("Иван"), isNull(), isNull(), eq(false), isNull(), eq(11)))
+                .thenReturn(Collections.singletonList(createTestContact()));
+
+        ContactCardSlice result = contactService.searchContactsByCursor("  Иван ", "", null, "", 10);
+
+        assertEquals(1, result.getContent().size());
+        assertFalse(result.hasNext());
+        assertNull(result.getTotalEstimate());
+        verify(contactRepository, never()).estimateCount();
+    }
+
+    @Test
+    void searchContactsByCursor_WithBackwardCursor_ShouldRestoreOrderAndLinkForward() {
+        Contact first = createTestContact();
+        Contact second = createAnotherTestContact();
+        Contact third = Contact.builder().id(3L).firstName("Сидор").lastName("Сидоров").isFavorite(false).build();
+        ContactCursor cursor = ContactCursor.before(third);
+
+        when(contactRepository.findByKeyset(null, null, null, false, cursor, 3))
+                .thenReturn(Arrays.asList(second, first));
+        when(contactRepository.estimateCount()).thenReturn(3L);
+
+        ContactCardSlice result = contactService.searchContactsByCursor(null, null, null, cursor.encode(), 2);
+
+        assertEquals(List.of(1L, 2L), result.getContent().stream().map(ContactCard::getId).toList());
+        assertFalse(result.hasPrevious());
+        assertEquals(ContactCursor.after(second), ContactCursor.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void findFavoritesByCursor_OnLastSlice_ShouldReturnPreviousCursorOnly() {
+        Contact previous = createAnotherTestContact();
+        Contact favorite = createTestContact();
+        ContactCursor cursor = ContactCursor.after(previous);
+
+        when(contactRepository.findByKeyset(null, null, null, true, cursor, 3))
+                .thenReturn(Collections.singletonList(favorite));
+        when(contactRepository.estimateFavoritesCount()).thenReturn(3L);
+
+        ContactCardSlice result = contactService.findFavoritesByCursor(cursor.encode(), 2);
+
+        assertEquals(1, result.getContent().size());
+        assertFalse(result.hasNext());
+        assertEquals(ContactCursor.before(favorite), ContactCursor.decode(result.getPrevCursor()));
+        assertEquals(3L, result.getTotalEstimate());
+        verify(contactRepository, never()).countByIsFavoriteTrue();
+    }
+
+    @Test
+    void findFavoritesByCursor_WhenCursorInvalid_ShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> contactService.findFavoritesByCursor("не-курсор", 10));
+        verify(contactRepository, never()).findByKeyset(any(), any(), any(), anyBoolean(), any(), anyInt());
     }
 
     @Test
-    void findWithUpcomingBirthdays_CrossingYearBoundary_ShouldCallFindBirthdaysCrossingYear() {
+    void findWithUpcomingBirthdays_ShouldQueryEachMonthDayRange() {
         int daysAhead = 30;
+        List<MonthDayRange> ranges = MonthDayRange.upcoming(LocalDate.now(), daysAhead);
+        MonthDayRange first = ranges.getFirst();
         List<Contact> expectedContacts = Collections.singletonList(createTestContact());
 
-        // Предположим, что сегодня 15 декабря, а daysAhead = 30, значит диапазон пересекает новый год
-        when(contactRepository.findBirthdaysCrossingYear(anyString(), anyString()))
+        when(contactRepository.findWithBirthdayByMonthDayBetween(first.from(), first.to()))
                 .thenReturn(expectedContacts);
 
         List<Contact> result = contactService.findWithUpcomingBirthdays(daysAhead);
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(contactRepository, times(1)).findBirthdaysCrossingYear(anyString(), anyString());
+        for (MonthDayRange range : ranges) {
+            verify(contactRepository, times(1)).findWithBirthdayByMonthDayBetween(range.from(), range.to());
+        }
     }
 
     @Test
     void findWithUpcomingBirthdays_WhenNoUpcomingBirthdays_ShouldReturnEmptyList() {
         int daysAhead = 7;
 
-        when(contactRepository.findBirthdaysInRange(anyString(), anyString()))
+        when(contactRepository.findWithBirthdayByMonthDayBetween(anyInt(), anyInt()))
                 .thenReturn(Collections.emptyList());
 
         List<Contact> result = contactService.findWithUpcomingBirthdays(daysAhead);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(contactRepository, times(1)).findBirthdaysInRange(anyString(), anyString());
+        verify(contactRepository, atLeastOnce()).findWithBirthdayByMonthDayBetween(anyInt(), anyInt());
     }
 
     @Test
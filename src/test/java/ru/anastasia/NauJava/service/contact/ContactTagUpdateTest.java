@@ -0,0 +1,70 @@
+package ru.anastasia.NauJava.service.contact;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.anastasia.NauJava.dto.contact.ContactUpdateDto;
+import ru.anastasia.NauJava.entity.contact.Contact;
+import ru.anastasia.NauJava.entity.tag.ContactTag;
+import ru.anastasia.NauJava.entity.tag.Tag;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка редактирования тегов контакта при уникальном индексе (contact_id, tag_id)
+ */
+@SpringBootTest
+@Transactional
+class ContactTagUpdateTest {
+
+    @Autowired
+    private ContactManagementService contactManagementService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void update_WhenTagKept_ShouldNotViolateUniqueIndex() {
+        String suffix = UUID.randomUUID().toString();
+        Tag keptTag = Tag.builder().name("Оставленный" + suffix).color("#ffffff").build();
+        Tag addedTag = Tag.builder().name("Добавленный" + suffix).color("#ffffff").build();
+        Tag removedTag = Tag.builder().name("Удаленный" + suffix).color("#ffffff").build();
+        entityManager.persist(keptTag);
+        entityManager.persist(addedTag);
+        entityManager.persist(removedTag);
+
+        Contact contact = Contact.builder().firstName("Иван").lastName("Тегов").build();
+        contact.addContactTag(ContactTag.builder().tag(keptTag).build());
+        contact.addContactTag(ContactTag.builder().tag(removedTag).build());
+        entityManager.persist(contact);
+        entityManager.flush();
+        Long keptContactTagId = contact.getContactTags().getFirst().getId();
+        entityManager.clear();
+
+        contactManagementService.update(ContactUpdateDto.builder()
+                .id(contact.getId())
+                .firstName("Иван")
+                .lastName("Тегов")
+                .isFavorite(false)
+                .tagIds(Set.of(keptTag.getId(), addedTag.getId()))
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ContactTag> contactTags = entityManager.createQuery(
+                        "SELECT ct FROM ContactTag ct JOIN FETCH ct.tag WHERE ct.contact.id = :contactId",
+                        ContactTag.class)
+                .setParameter("contactId", contact.getId())
+                .getResultList();
+        assertEquals(2, contactTags.size());
+        assertTrue(contactTags.stream().anyMatch(contactTag -> contactTag.getId().equals(keptContactTagId)));
+        assertTrue(contactTags.stream().anyMatch(contactTag -> contactTag.getTag().getId().equals(addedTag.getId())));
+    }
+}
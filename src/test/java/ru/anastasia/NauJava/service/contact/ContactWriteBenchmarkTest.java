@@ -0,0 +1,162 @@
+package ru.anastasia.NauJava.service.contact;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.anastasia.NauJava.dto.contact.ContactCreateDto;
+import ru.anastasia.NauJava.dto.contact.ContactDetailCreateDto;
+import ru.anastasia.NauJava.dto.event.EventCreateDto;
+import ru.anastasia.NauJava.dto.note.NoteCreateDto;
+import ru.anastasia.NauJava.entity.contact.Contact;
+import ru.anastasia.NauJava.entity.enums.DetailLabel;
+import ru.anastasia.NauJava.entity.enums.DetailType;
+import ru.anastasia.NauJava.entity.enums.EventType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Замер записи контакта с дочерними сущностями
+ *
+ * <p>
+ * Для каждого сценария выводится среднее время и число подготовленных JDBC-выражений на вставленные строки.
+ * При идентификаторах IDENTITY каждая строка вставлялась отдельным выражением; с последовательностями
+ * и пакетной записью выражений меньше, чем строк. В обычный прогон тестов не входит,
+ * запуск: {@code mvn -Pbenchmark test}.
+ * </p>
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+class ContactWriteBenchmarkTest {
+
+    private static final int WARMUP = 5;
+
+    private static final int ITERATIONS = 20;
+
+    private static final int DETAILS = 8;
+
+    private static final int EVENTS = 6;
+
+    private static final int NOTES = 6;
+
+    /**
+     * Контакт и его дочерние строки
+     */
+    private static final int ROWS = 1 + DETAILS + EVENTS + NOTES;
+
+    @Autowired
+    private ContactManagementService contactManagementService;
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> createdIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        createdIds.forEach(contactService::deleteById);
+        createdIds.clear();
+    }
+
+    @Test
+    void create_ShouldBatchChildInserts() {
+        Result result = measure("create", () -> contactManagementService.create(contactCreateDto()));
+
+        assertEquals(ROWS, result.insertsPerCall());
+        assertTrue(result.statementsPerCall() < result.insertsPerCall(),
+                "Ожидались пакетные вставки: " + result);
+    }
+
+    @Test
+    void duplicate_ShouldBatchChildInserts() {
+        Contact original = contactManagementService.create(contactCreateDto());
+        createdIds.add(original.getId());
+
+        Result result = measure("duplicate",
+                () -> contactManagementService.duplicate(original.getId(), null, null));
+
+        assertEquals(ROWS, result.insertsPerCall());
+    }
+
+    private Result measure(String name, Supplier<Contact> operation) {
+        for (int i = 0; i < WARMUP; i++) {
+            createdIds.add(operation.get().getId());
+        }
+
+        Statistics statistics = sessionFactory().getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            createdIds.add(operation.get().getId());
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Result result = new Result(
+                elapsed / 1_000_000.0 / ITERATIONS,
+                (double) statistics.getPrepareStatementCount() / ITERATIONS,
+                statistics.getEntityInsertCount() / ITERATIONS);
+        statistics.setStatisticsEnabled(false);
+
+        log.info("{}: {}", name, result);
+        return result;
+    }
+
+    private static ContactCreateDto contactCreateDto() {
+        ContactCreateDto dto = ContactCreateDto.builder()
+                .firstName("Петр")
+                .lastName("Пакетов")
+                .build();
+        for (int i = 0; i < DETAILS; i++) {
+            dto.getContactDetails().add(ContactDetailCreateDto.builder()
+                    .detailType(DetailType.PHONE)
+                    .label(DetailLabel.WORK)
+                    .value("+7900000000" + i)
+                    .isPrimary(i == 0)
+                    .build());
+        }
+        for (int i = 0; i < EVENTS; i++) {
+            dto.getEvents().add(EventCreateDto.builder()
+                    .eventType(EventType.CUSTOM)
+                    .customEventName("Событие " + i)
+                    .eventDate(LocalDate.of(2020, 1, 1).plusDays(i))
+                    .yearlyRecurrence(false)
+                    .build());
+        }
+        for (int i = 0; i < NOTES; i++) {
+            dto.getNotes().add(NoteCreateDto.builder().content("Заметка " + i).build());
+        }
+        return dto;
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    /**
+     * Средние значения на один вызов
+     */
+    private record Result(double millisPerCall, double statementsPerCall, long insertsPerCall) {
+
+        @Override
+        public String toString() {
+            return String.format("%.2f мс, %.1f выражений, %d вставок", millisPerCall, statementsPerCall, insertsPerCall);
+        }
+    }
+}
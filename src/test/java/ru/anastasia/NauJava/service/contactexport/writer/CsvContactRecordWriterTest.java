@@ -0,0 +1,57 @@
+package ru.anastasia.NauJava.service.contactexport.writer;
+
+import org.junit.jupiter.api.Test;
+import ru.anastasia.NauJava.dto.contactexport.ExportedContact;
+import ru.anastasia.NauJava.entity.enums.DetailLabel;
+import ru.anastasia.NauJava.entity.enums.DetailType;
+import ru.anastasia.NauJava.entity.enums.EventType;
+import ru.anastasia.NauJava.entity.enums.SocialPlatform;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvContactRecordWriterTest {
+
+    private static final String HEADER = "id,first_name,last_name,display_name,favorite,email,mobile,phone," +
+            "work_phone,home_phone,address,website,company,job_title,tags,birthday,social_profiles,note\r\n";
+
+    @Test
+    void write_ShouldWriteHeaderAndQuoteSpecialCharacters() throws IOException {
+        ExportedContact contact = new ExportedContact(1L, "Иван", "Иванов", "Иван \"Ваня\" Иванов", true,
+                null, null,
+                List.of(new ExportedContact.Detail(DetailType.EMAIL, DetailLabel.WORK, "ivan@example.com", true),
+                        new ExportedContact.Detail(DetailType.EMAIL, DetailLabel.HOME, "i@example.com", false),
+                        new ExportedContact.Detail(DetailType.PHONE, DetailLabel.MOBILE, "+79990000000", true),
+                        new ExportedContact.Detail(DetailType.PHONE, DetailLabel.MAIN, "+74950000000", false),
+                        new ExportedContact.Detail(DetailType.ADDRESS, DetailLabel.HOME, "Москва, Тверская 1", false)),
+                List.of(new ExportedContact.Company("Рога и копыта", "Инженер", true)),
+                List.of(new ExportedContact.Event(EventType.ANNIVERSARY, null, LocalDate.of(2015, 6, 1), null, true),
+                        new ExportedContact.Event(EventType.BIRTHDAY, null, LocalDate.of(1990, 4, 12), null, true)),
+                List.of(new ExportedContact.SocialProfile(SocialPlatform.TELEGRAM, null, "ivan", null)),
+                List.of("Друзья", "Работа"),
+                List.of("Первая", "Вторая"));
+
+        StringWriter output = new StringWriter();
+        try (ContactRecordWriter writer = new CsvContactRecordWriter(output)) {
+            writer.write(contact);
+        }
+
+        assertEquals(HEADER +
+                "1,Иван,Иванов,\"Иван \"\"Ваня\"\" Иванов\",true,ivan@example.com; i@example.com,+79990000000," +
+                "+74950000000,,,\"Москва, Тверская 1\",,Рога и копыта,Инженер,Друзья; Работа,1990-04-12," +
+                "TELEGRAM: ivan,\"Первая\n\nВторая\"\r\n", output.toString());
+    }
+
+    @Test
+    void close_WithoutContacts_ShouldWriteHeaderOnly() throws IOException {
+        StringWriter output = new StringWriter();
+
+        new CsvContactRecordWriter(output).close();
+
+        assertEquals(HEADER, output.toString());
+    }
+}
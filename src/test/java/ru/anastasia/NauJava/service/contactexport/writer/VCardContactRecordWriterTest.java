@@ -0,0 +1,67 @@
+package ru.anastasia.NauJava.service.contactexport.writer;
+
+import org.junit.jupiter.api.Test;
+import ru.anastasia.NauJava.dto.contactexport.ExportedContact;
+import ru.anastasia.NauJava.dto.contactimport.ImportedContact;
+import ru.anastasia.NauJava.dto.contactimport.ImportedDetail;
+import ru.anastasia.NauJava.entity.enums.ContactImportFormat;
+import ru.anastasia.NauJava.entity.enums.DetailLabel;
+import ru.anastasia.NauJava.entity.enums.DetailType;
+import ru.anastasia.NauJava.entity.enums.EventType;
+import ru.anastasia.NauJava.service.contactimport.reader.ContactRecordReader;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VCardContactRecordWriterTest {
+
+    @Test
+    void write_ShouldProduceCardReadableByImport() throws IOException {
+        ExportedContact contact = new ExportedContact(1L, "Иван", "Иванов", "Иван Иванов", false, null, null,
+                List.of(new ExportedContact.Detail(DetailType.EMAIL, DetailLabel.WORK, "ivan@example.com", true),
+                        new ExportedContact.Detail(DetailType.PHONE, DetailLabel.MOBILE, "+79990000000", true),
+                        new ExportedContact.Detail(DetailType.PHONE, DetailLabel.MAIN, "+74950000000", false)),
+                List.of(new ExportedContact.Company("Рога; копыта", "Инженер", true)),
+                List.of(new ExportedContact.Event(EventType.BIRTHDAY, null, LocalDate.of(1990, 4, 12), null, true)),
+                List.of(),
+                List.of("Друзья", "Работа, проекты"),
+                List.of("Очень длинная заметка, которая не помещается в одну строку vCard и должна быть свернута"));
+
+        StringWriter output = new StringWriter();
+        try (ContactRecordWriter writer = new VCardContactRecordWriter(output)) {
+            writer.write(contact);
+        }
+
+        for (String line : output.toString().split("\r\n")) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75, line);
+        }
+
+        try (ContactRecordReader reader = ContactRecordReader.of(ContactImportFormat.VCARD,
+                new StringReader(output.toString()))) {
+            ImportedContact imported = reader.next();
+
+            assertEquals("Иван", imported.getFirstName());
+            assertEquals("Иванов", imported.getLastName());
+            assertEquals("Иван Иванов", imported.getDisplayName());
+            assertEquals("Рога; копыта", imported.getCompany());
+            assertEquals("Инженер", imported.getJobTitle());
+            assertEquals(List.of(
+                    new ImportedDetail(DetailType.EMAIL, DetailLabel.WORK, "ivan@example.com"),
+                    new ImportedDetail(DetailType.PHONE, DetailLabel.MOBILE, "+79990000000"),
+                    new ImportedDetail(DetailType.PHONE, DetailLabel.MAIN, "+74950000000")), imported.getDetails());
+            assertEquals(LocalDate.of(1990, 4, 12), imported.getBirthday());
+            assertEquals(Set.of("Друзья", "Работа, проекты"), imported.getTags());
+            assertEquals(contact.notes().getFirst(), imported.getNote());
+            assertNull(reader.next());
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package ru.anastasia.NauJava.service.contactimport;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.anastasia.NauJava.config.AppConfig;
+import ru.anastasia.NauJava.dto.contactimport.ContactImportStatusDto;
+import ru.anastasia.NauJava.dto.contactimport.ImportedContact;
+import ru.anastasia.NauJava.dto.suggest.SuggestionDto;
+import ru.anastasia.NauJava.entity.enums.ContactImportFormat;
+import ru.anastasia.NauJava.entity.enums.ContactImportState;
+import ru.anastasia.NauJava.entity.enums.SuggestionType;
+import ru.anastasia.NauJava.exception.contactimport.ContactImportNotFoundException;
+import ru.anastasia.NauJava.exception.contactimport.ContactImportQueueFullException;
+import ru.anastasia.NauJava.service.stats.DashboardCounters;
+import ru.anastasia.NauJava.service.suggest.SuggestService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ContactImportServiceTest {
+
+    private static final long TIMEOUT_MS = 10_000;
+
+    @Mock
+    private ContactImportWriter contactImportWriter;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private SuggestService suggestService;
+
+    @Mock
+    private DashboardCounters dashboardCounters;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private AppConfig appConfig;
+
+    @TempDir
+    private Path tempDir;
+
+    private ContactImportServiceImpl contactImportService;
+
+    @BeforeEach
+    void setUp() {
+        contactImportService = new ContactImportServiceImpl(contactImportWriter, transactionTemplate, suggestService,
+                dashboardCounters, cacheManager, entityManagerFactory, appConfig);
+    }
+
+    @AfterEach
+    void tearDown() {
+        contactImportService.shutdown();
+    }
+
+    @Test
+    void start_WithCsvFile_ShouldImportValidRowsAndComplete() throws Exception {
+        when(appConfig.getContactImportMaxErrors()).thenReturn(100);
+        when(appConfig.getContactImportBatchSize()).thenReturn(1000);
+        executeInTransaction();
+        when(contactImportWriter.write(any(), any())).thenAnswer(written());
+        Path file = file("first_name,last_name\nИван,Иванов\n" + "Я".repeat(256) + ",Длинный\nАнна,Смирнова\n");
+
+        ContactImportStatusDto started = contactImportService.start(file, "contacts.csv", ContactImportFormat.CSV);
+        ContactImportStatusDto status = awaitFinished(started.getId());
+
+        assertEquals(ContactImportState.COMPLETED, status.getState(), status.getFailureMessage());
+        assertEquals(2, status.getImported());
+        assertEquals(1, status.getFailed());
+        assertEquals(1, status.getErrors().size());
+        assertEquals(100, status.getPercent());
+        assertTrue(awaitDeleted(file));
+        verify(suggestService).indexContact(1L, "Иван", "Иванов", "Иван Иванов");
+        verify(suggestService).indexContact(2L, "Анна", "Смирнова", "Анна Смирнова");
+        verify(contactImportWriter, never()).notifyDictionariesChanged(any());
+    }
+
+    @Test
+    void start_WhenDictionaryCreated_ShouldNotifyOnceAfterImport() throws Exception {
+        when(appConfig.getContactImportMaxErrors()).thenReturn(100);
+        when(appConfig.getContactImportBatchSize()).thenReturn(1);
+        executeInTransaction();
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(mock(SessionFactory.class, RETURNS_DEEP_STUBS));
+        when(contactImportWriter.write(any(), any())).thenAnswer(invocation -> {
+            List<ImportedContact> batch = invocation.getArgument(0);
+            return new ContactImportWriter.Result(List.of(batch.getFirst().getRow()), new ImportDictionaries(),
+                    List.of(new SuggestionDto(SuggestionType.COMPANY, batch.getFirst().getRow(), "Компания")));
+        });
+        Path file = file("first_name,company,job_title\nИван,Рога,Инженер\nАнна,Копыта,Инженер\n");
+
+        ContactImportStatusDto started = contactImportService.start(file, "contacts.csv", ContactImportFormat.CSV);
+        ContactImportStatusDto status = awaitFinished(started.getId());
+
+        assertEquals(ContactImportState.COMPLETED, status.getState(), status.getFailureMessage());
+        assertEquals(2, status.getImported());
+        // Уведомление отправляется после смены состояния импорта
+        verify(contactImportWriter, timeout(TIMEOUT_MS)).notifyDictionariesChanged(Set.of(SuggestionType.COMPANY));
+    }
+
+    @Test
+    void start_WhenWriterFails_ShouldMarkJobFailed() throws Exception {
+        when(appConfig.getContactImportMaxErrors()).thenReturn(100);
+        when(appConfig.getContactImportBatchSize()).thenReturn(1000);
+        executeInTransaction();
+        when(contactImportWriter.write(any(), any())).thenThrow(new IllegalStateException("Нет соединения"));
+        Path file = file("first_name,last_name\nИван,Иванов\n");
+
+        ContactImportStatusDto started = contactImportService.start(file, "contacts.csv", ContactImportFormat.CSV);
+        ContactImportStatusDto status = awaitFinished(started.getId());
+
+        assertEquals(ContactImportState.FAILED, status.getState());
+        assertEquals("Нет соединения", status.getFailureMessage());
+        assertEquals(0, status.getImported());
+        assertTrue(awaitDeleted(file));
+    }
+
+    @Test
+    void start_WhenInterrupted_ShouldMarkJobFailedInsteadOfCompleted() throws Exception {
+        when(appConfig.getContactImportMaxErrors()).thenReturn(100);
+        when(appConfig.getContactImportBatchSize()).thenReturn(1);
+        executeInTransaction();
+        Answer<ContactImportWriter.Result> written = written();
+        when(contactImportWriter.write(any(), any())).thenAnswer(invocation -> {
+            Thread.currentThread().interrupt();
+            return written.answer(invocation);
+        });
+        Path file = file("first_name,last_name\nИван,Иванов\nАнна,Смирнова\nПетр,Петров\n");
+
+        ContactImportStatusDto started = contactImportService.start(file, "contacts.csv", ContactImportFormat.CSV);
+        ContactImportStatusDto status = awaitFinished(started.getId());
+
+        assertEquals(ContactImportState.FAILED, status.getState());
+        assertNotNull(status.getFailureMessage());
+        assertEquals(1, status.getImported());
+        assertTrue(awaitDeleted(file));
+    }
+
+    @Test
+    void start_WhenAllJobsUnfinished_ShouldRejectAndDeleteFile() throws Exception {
+        when(appConfig.getContactImportMaxErrors()).thenReturn(100);
+        when(appConfig.getContactImportBatchSize()).thenReturn(1000);
+        executeInTransaction();
+        CountDownLatch release = new CountDownLatch(1);
+        Answer<ContactImportWriter.Result> written = written();
+        when(contactImportWriter.write(any(), any())).thenAnswer(invocation -> {
+            release.await();
+            return written.answer(invocation);
+        });
+
+        // Первый импорт ждет в потоке записи, остальные стоят в очереди исполнителя
+        UUID first = contactImportService.start(file("first_name\nИван\n"), "contacts.csv", ContactImportFormat.CSV)
+                .getId();
+        for (int i = 1; i < ContactImportServiceImpl.MAX_JOBS; i++) {
+            contactImportService.start(file("first_name\nИван\n"), "contacts.csv", ContactImportFormat.CSV);
+        }
+        Path rejected = file("first_name\nИван\n");
+
+        assertThrows(ContactImportQueueFullException.class,
+                () -> contactImportService.start(rejected, "contacts.csv", ContactImportFormat.CSV));
+        assertFalse(Files.exists(rejected));
+
+        release.countDown();
+        assertEquals(ContactImportState.COMPLETED, awaitFinished(first).getState());
+
+        // Завершенный импорт вытесняется новым
+        ContactImportStatusDto accepted = contactImportService.start(file("first_name\nИван\n"), "contacts.csv",
+                ContactImportFormat.CSV);
+        assertEquals(accepted.getId(), contactImportService.getStatus(accepted.getId()).getId());
+        assertThrows(ContactImportNotFoundException.class, () -> contactImportService.getStatus(first));
+    }
+
+    @Test
+    void getStatus_WhenUnknown_ShouldThrowNotFound() {
+        UUID id = UUID.randomUUID();
+
+        assertThrows(ContactImportNotFoundException.class, () -> contactImportService.getStatus(id));
+    }
+
+    private void executeInTransaction() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    /**
+     * Запись пакета: контактам выдаются идентификаторы 1, 2, ...
+     */
+    private static Answer<ContactImportWriter.Result> written() {
+        return invocation -> {
+            List<ImportedContact> batch = invocation.getArgument(0);
+            return new ContactImportWriter.Result(LongStream.rangeClosed(1, batch.size()).boxed().toList(),
+                    new ImportDictionaries(), List.of());
+        };
+    }
+
+    private Path file(String content) throws IOException {
+        return Files.writeString(Files.createTempFile(tempDir, "contact-import-", ".csv"), content);
+    }
+
+    /**
+     * Дождаться удаления временного файла: оно выполняется после смены состояния импорта
+     */
+    private static boolean awaitDeleted(Path file) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (Files.exists(file) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        return !Files.exists(file);
+    }
+
+    private ContactImportStatusDto awaitFinished(UUID id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        ContactImportStatusDto status = contactImportService.getStatus(id);
+        while ((status.getState() == ContactImportState.QUEUED || status.getState() == ContactImportState.RUNNING)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            status = contactImportService.getStatus(id);
+        }
+        return status;
+    }
+}
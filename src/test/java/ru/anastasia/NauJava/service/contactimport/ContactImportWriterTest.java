@@ -0,0 +1,135 @@
+package ru.anastasia.NauJava.service.contactimport;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.anastasia.NauJava.dto.contactimport.ImportedContact;
+import ru.anastasia.NauJava.dto.contactimport.ImportedDetail;
+import ru.anastasia.NauJava.dto.suggest.SuggestionDto;
+import ru.anastasia.NauJava.entity.contact.Contact;
+import ru.anastasia.NauJava.entity.enums.DetailLabel;
+import ru.anastasia.NauJava.entity.enums.DetailType;
+import ru.anastasia.NauJava.entity.enums.SuggestionType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Пакетная запись импортируемых контактов на реальной БД
+ */
+@SpringBootTest
+@Transactional
+class ContactImportWriterTest {
+
+    @Autowired
+    private ContactImportWriter contactImportWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void write_ShouldInsertContactsWithChildRowsAndCreateDictionaries() {
+        String suffix = UUID.randomUUID().toString();
+        ImportedContact ivan = contact("Иван", suffix);
+        ivan.setDetails(List.of(
+                new ImportedDetail(DetailType.EMAIL, DetailLabel.OTHER, "ivan@example.com"),
+                new ImportedDetail(DetailType.EMAIL, DetailLabel.OTHER, "i@example.com")));
+        ivan.setBirthday(LocalDate.of(1990, 4, 12));
+        ivan.setNote("Заметка");
+        ImportedContact anna = contact("Анна", suffix);
+
+        ContactImportWriter.Result result = contactImportWriter.write(List.of(ivan, anna), new ImportDictionaries());
+
+        assertEquals(2, Set.copyOf(result.contactIds()).size());
+        Long ivanId = result.contactIds().getFirst();
+        assertEquals("Иван", jdbcTemplate.queryForObject(
+                "SELECT first_name FROM contacts WHERE id = ?", String.class, ivanId));
+        assertEquals(2, count("SELECT COUNT(*) FROM contact_details WHERE contact_id = ?", ivanId));
+        assertEquals(1, count("SELECT COUNT(*) FROM contact_details WHERE contact_id = ? AND is_primary", ivanId));
+        assertEquals(1, count("SELECT COUNT(*) FROM events WHERE contact_id = ?", ivanId));
+        assertEquals(1, count("SELECT COUNT(*) FROM notes WHERE contact_id = ?", ivanId));
+        for (Long id : result.contactIds()) {
+            assertEquals(1, count("SELECT COUNT(*) FROM contact_companies WHERE contact_id = ?", id));
+            assertEquals(1, count("SELECT COUNT(*) FROM contact_tags WHERE contact_id = ?", id));
+        }
+
+        // Общие для пакета компания, должность и тег создаются по одному разу
+        assertEquals(Set.of(SuggestionType.COMPANY, SuggestionType.JOB_TITLE, SuggestionType.TAG),
+                result.createdNames().stream().map(SuggestionDto::getType).collect(Collectors.toSet()));
+        assertEquals(3, result.createdNames().size());
+        assertTrue(result.resolved().getCompanies().containsKey("Компания" + suffix));
+
+        // Триггеры сброса кэшей не отправляют уведомления до конца транзакции записи
+        assertEquals("off", jdbcTemplate.queryForObject(
+                "SELECT current_setting('app.cache_invalidation', true)", String.class));
+    }
+
+    @Test
+    void write_WithKnownDictionaries_ShouldNotResolveThemAgain() {
+        String suffix = UUID.randomUUID().toString();
+        ImportDictionaries known = new ImportDictionaries();
+        known.merge(contactImportWriter.write(List.of(contact("Иван", suffix)), known).resolved());
+
+        ContactImportWriter.Result result = contactImportWriter.write(List.of(contact("Анна", suffix)), known);
+
+        assertTrue(result.createdNames().isEmpty());
+        assertTrue(result.resolved().getCompanies().isEmpty());
+        assertTrue(result.resolved().getTags().isEmpty());
+        assertEquals(known.getCompanies().get("Компания" + suffix), jdbcTemplate.queryForObject(
+                "SELECT company_id FROM contact_companies WHERE contact_id = ?", Long.class,
+                result.contactIds().getFirst()));
+    }
+
+    @Test
+    void write_WithSeveralIdBlocks_ShouldAllocateUniqueIdsNotUsedByHibernate() {
+        int count = ContactImportWriter.ID_BLOCK_SIZE * 2 + 7;
+        List<ImportedContact> contacts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            contacts.add(ImportedContact.builder().row(i + 2).firstName("Имя" + i).lastName("Импортов")
+                    .displayName("Имя" + i + " Импортов").build());
+        }
+
+        List<Long> ids = contactImportWriter.write(contacts, new ImportDictionaries()).contactIds();
+
+        Set<Long> unique = new HashSet<>(ids);
+        assertEquals(count, unique.size());
+        assertEquals(count, count("SELECT COUNT(*) FROM contacts WHERE id = ANY(CAST(? AS bigint[]))",
+                (Object) ids.toArray(Long[]::new)));
+
+        Contact contact = Contact.builder().firstName("Иван").lastName("Сущностей").build();
+        entityManager.persist(contact);
+        entityManager.flush();
+        assertFalse(unique.contains(contact.getId()));
+    }
+
+    private static ImportedContact contact(String firstName, String suffix) {
+        return ImportedContact.builder()
+                .row(2)
+                .firstName(firstName)
+                .lastName("Импортов")
+                .displayName(firstName + " Импортов")
+                .company("Компания" + suffix)
+                .jobTitle("Должность" + suffix)
+                .tags(Set.of("Тег" + suffix))
+                .build();
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+}
@@ -0,0 +1,97 @@
+package ru.anastasia.NauJava.service.contactimport.reader;
+
+import org.junit.jupiter.api.Test;
+import ru.anastasia.NauJava.dto.contactimport.ImportedContact;
+import ru.anastasia.NauJava.dto.contactimport.ImportedDetail;
+import ru.anastasia.NauJava.entity.enums.ContactImportFormat;
+import ru.anastasia.NauJava.entity.enums.DetailLabel;
+import ru.anastasia.NauJava.entity.enums.DetailType;
+import ru.anastasia.NauJava.exception.contactimport.ContactImportRowException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvContactRecordReaderTest {
+
+    @Test
+    void next_WithCommaSeparatedFile_ShouldReadAllColumns() throws IOException {
+        String csv = """
+                first_name,last_name,email,mobile,company,job_title,tags,birthday,note
+                Иван,Иванов,ivan@example.com;i@example.com,+79990000000,Рога и копыта,Инженер,"Друзья, Работа",1990-04-12,Заметка
+                """;
+
+        try (ContactRecordReader reader = reader(csv)) {
+            ImportedContact contact = reader.next();
+
+            assertEquals(2, contact.getRow());
+            assertEquals("Иван", contact.getFirstName());
+            assertEquals("Иванов", contact.getLastName());
+            assertEquals(List.of(
+                    new ImportedDetail(DetailType.EMAIL, DetailLabel.OTHER, "ivan@example.com"),
+                    new ImportedDetail(DetailType.EMAIL, DetailLabel.OTHER, "i@example.com"),
+                    new ImportedDetail(DetailType.PHONE, DetailLabel.MOBILE, "+79990000000")), contact.getDetails());
+            assertEquals("Рога и копыта", contact.getCompany());
+            assertEquals("Инженер", contact.getJobTitle());
+            assertEquals(Set.of("Друзья", "Работа"), contact.getTags());
+            assertEquals(LocalDate.of(1990, 4, 12), contact.getBirthday());
+            assertEquals("Заметка", contact.getNote());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void next_WithSemicolonsQuotesAndRussianHeaders_ShouldParseMultilineFields() throws IOException {
+        String csv = "\uFEFFИмя;Фамилия;Заметка\r\n" +
+                "Пётр;\"Петров; мл.\";\"первая строка\r\nвторая \"\"строка\"\"\"\r\n" +
+                "\r\n" +
+                "Анна;Смирнова;\r\n";
+
+        try (ContactRecordReader reader = reader(csv)) {
+            ImportedContact first = reader.next();
+            ImportedContact second = reader.next();
+
+            assertEquals("Петров; мл.", first.getLastName());
+            assertEquals("первая строка\r\nвторая \"строка\"", first.getNote());
+            assertEquals(5, second.getRow());
+            assertEquals("Анна", second.getFirstName());
+            assertNull(second.getNote());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void next_WithInvalidBirthday_ShouldRejectRowAndContinue() throws IOException {
+        String csv = """
+                display_name,birthday
+                Иван Иванов,не дата
+                Анна Смирнова,12.04.1990
+                """;
+
+        try (ContactRecordReader reader = reader(csv)) {
+            ContactImportRowException error = assertThrows(ContactImportRowException.class, reader::next);
+            ImportedContact next = reader.next();
+
+            assertEquals(2, error.getRow());
+            assertEquals("Анна Смирнова", next.getDisplayName());
+            assertEquals(LocalDate.of(1990, 4, 12), next.getBirthday());
+        }
+    }
+
+    @Test
+    void next_WithoutNameColumns_ShouldThrowIllegalArgumentException() {
+        ContactRecordReader reader = reader("email,phone\nivan@example.com,123\n");
+
+        assertThrows(IllegalArgumentException.class, reader::next);
+    }
+
+    private static ContactRecordReader reader(String csv) {
+        return ContactRecordReader.of(ContactImportFormat.CSV, new StringReader(csv));
+    }
+}
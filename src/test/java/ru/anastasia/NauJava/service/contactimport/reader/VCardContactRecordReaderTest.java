@@ -0,0 +1,115 @@
+package ru.anastasia.NauJava.service.contactimport.reader;
+
+import org.junit.jupiter.api.Test;
+import ru.anastasia.NauJava.dto.contactimport.ImportedContact;
+import ru.anastasia.NauJava.dto.contactimport.ImportedDetail;
+import ru.anastasia.NauJava.entity.enums.ContactImportFormat;
+import ru.anastasia.NauJava.entity.enums.DetailLabel;
+import ru.anastasia.NauJava.entity.enums.DetailType;
+import ru.anastasia.NauJava.exception.contactimport.ContactImportRowException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VCardContactRecordReaderTest {
+
+    @Test
+    void next_WithVCard3_ShouldReadProperties() throws IOException {
+        String vcf = """
+                BEGIN:VCARD
+                VERSION:3.0
+                N:Иванов;Иван;;;
+                FN:Иван Иванов
+                ORG:Рога и копыта;Отдел продаж
+                TITLE:Инженер
+                EMAIL;TYPE=INTERNET,WORK:ivan@example.com
+                TEL;TYPE=CELL:+7 999 000-00-00
+                BDAY:1990-04-12
+                CATEGORIES:Друзья,Работа
+                NOTE:Первая строка\\nвторая\\, с запятой
+                END:VCARD
+                """;
+
+        try (ContactRecordReader reader = reader(vcf)) {
+            ImportedContact contact = reader.next();
+
+            assertEquals(1, contact.getRow());
+            assertEquals("Иван", contact.getFirstName());
+            assertEquals("Иванов", contact.getLastName());
+            assertEquals("Иван Иванов", contact.getDisplayName());
+            assertEquals("Рога и копыта", contact.getCompany());
+            assertEquals("Инженер", contact.getJobTitle());
+            assertEquals(List.of(
+                    new ImportedDetail(DetailType.EMAIL, DetailLabel.WORK, "ivan@example.com"),
+                    new ImportedDetail(DetailType.PHONE, DetailLabel.MOBILE, "+7 999 000-00-00")), contact.getDetails());
+            assertEquals(LocalDate.of(1990, 4, 12), contact.getBirthday());
+            assertEquals(Set.of("Друзья", "Работа"), contact.getTags());
+            assertEquals("Первая строка\nвторая, с запятой", contact.getNote());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void next_WithVCard4FoldedLinesAndUris_ShouldUnfoldAndStripScheme() throws IOException {
+        String vcf = "BEGIN:VCARD\r\n" +
+                "VERSION:4.0\r\n" +
+                "FN:Анна Смирнова\r\n" +
+                "NOTE:очень длинная\r\n" +
+                "  заметка\r\n" +
+                "item1.TEL;VALUE=uri;TYPE=\"home,voice\":tel:+7-495-000-00-00\r\n" +
+                "BDAY:--0412\r\n" +
+                "END:VCARD\r\n";
+
+        try (ContactRecordReader reader = reader(vcf)) {
+            ImportedContact contact = reader.next();
+
+            assertEquals("Анна Смирнова", contact.getDisplayName());
+            assertEquals("очень длинная заметка", contact.getNote());
+            assertEquals(List.of(new ImportedDetail(DetailType.PHONE, DetailLabel.HOME, "+7-495-000-00-00")),
+                    contact.getDetails());
+            assertNull(contact.getBirthday());
+        }
+    }
+
+    @Test
+    void next_WithInvalidBirthday_ShouldRejectCardAndContinue() throws IOException {
+        String vcf = """
+                BEGIN:VCARD
+                VERSION:3.0
+                FN:Иван Иванов
+                BDAY:вчера
+                END:VCARD
+                BEGIN:VCARD
+                VERSION:3.0
+                FN:Анна Смирнова
+                END:VCARD
+                """;
+
+        try (ContactRecordReader reader = reader(vcf)) {
+            ContactImportRowException error = assertThrows(ContactImportRowException.class, reader::next);
+            ImportedContact next = reader.next();
+
+            assertEquals(1, error.getRow());
+            assertEquals("Анна Смирнова", next.getDisplayName());
+            assertEquals(6, next.getRow());
+        }
+    }
+
+    @Test
+    void next_WithUnterminatedCard_ShouldRejectCard() {
+        ContactRecordReader reader = reader("BEGIN:VCARD\nFN:Иван Иванов\n");
+
+        assertThrows(ContactImportRowException.class, reader::next);
+    }
+
+    private static ContactRecordReader reader(String vcf) {
+        return ContactRecordReader.of(ContactImportFormat.VCARD, new StringReader(vcf));
+    }
+}
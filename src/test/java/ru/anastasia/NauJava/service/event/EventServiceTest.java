@@ -316,10 +316,11 @@ class EventServiceTest {
     @Test
     void findUpcomingBirthdays_WhenBirthdaysExist_ShouldReturnBirthdaysList() {
         int daysAhead = 30;
-        LocalDate today = LocalDate.now();
+        List<MonthDayRange> ranges = MonthDayRange.upcoming(LocalDate.now(), daysAhead);
+        MonthDayRange first = ranges.getFirst();
         List<Event> expectedBirthdays = Arrays.asList(createTestEvent(), createTestEvent());
 
-        when(eventRepository.findByEventTypeAndEventDateBetween(EventType.BIRTHDAY, today, today.plusDays(daysAhead)))
+        when(eventRepository.findBirthdaysWithContactByMonthDayBetween(first.from(), first.to()))
                 .thenReturn(expectedBirthdays);
 
         List<Event> result = eventService.findUpcomingBirthdays(daysAhead);
@@ -327,23 +328,28 @@ class EventServiceTest {
         assertNotNull(result);
         assertEquals(2, result.size());
         assertTrue(result.stream().allMatch(event -> event.getEventType() == EventType.BIRTHDAY));
-        verify(eventRepository, times(1)).findByEventTypeAndEventDateBetween(EventType.BIRTHDAY, today, today.plusDays(daysAhead));
+        for (MonthDayRange range : ranges) {
+            verify(eventRepository, times(1)).findBirthdaysWithContactByMonthDayBetween(range.from(), range.to());
+        }
     }
 
     @Test
     void countUpcomingBirthdays_WhenBirthdaysExist_ShouldReturnCount() {
         int daysAhead = 30;
         long expectedCount = 5L;
-        LocalDate start = LocalDate.now();
-        LocalDate end = start.plusDays(daysAhead);
+        List<MonthDayRange> ranges = MonthDayRange.upcoming(LocalDate.now(), daysAhead);
+        MonthDayRange first = ranges.getFirst();
 
-        when(eventRepository.countByEventTypeAndEventDateBetween(EventType.BIRTHDAY, start, end))
+        when(eventRepository.countBirthdaysByMonthDayBetween(first.from(), first.to()))
                 .thenReturn(expectedCount);
 
         Long result = eventService.countUpcomingBirthdays(daysAhead);
 
         assertEquals(expectedCount, result);
-        verify(eventRepository, times(1)).countByEventTypeAndEventDateBetween(EventType.BIRTHDAY, start, end);
+        for (MonthDayRange range : ranges) {
+            verify(eventRepository, times(1)).countBirthdaysByMonthDayBetween(range.from(), range.to());
+        }
+        verify(eventRepository, never()).countByEventTypeAndEventDateBetween(any(), any(), any());
     }
 
     @Test
@@ -0,0 +1,59 @@
+package ru.anastasia.NauJava.service.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MonthDayRangeTest {
+
+    @Test
+    void upcoming_WithinSameYear_ShouldReturnSingleRange() {
+        List<MonthDayRange> ranges = MonthDayRange.upcoming(LocalDate.of(2025, 3, 20), 5);
+
+        assertEquals(List.of(new MonthDayRange(320, 325)), ranges);
+    }
+
+    @Test
+    void upcoming_CrossingYearBoundary_ShouldSplitRange() {
+        List<MonthDayRange> ranges = MonthDayRange.upcoming(LocalDate.of(2025, 12, 20), 16);
+
+        assertEquals(List.of(new MonthDayRange(1220, 1231), new MonthDayRange(101, 105)), ranges);
+    }
+
+    @Test
+    void upcoming_EndingOnFebruary28InNonLeapYear_ShouldIncludeFebruary29() {
+        List<MonthDayRange> ranges = MonthDayRange.upcoming(LocalDate.of(2025, 2, 20), 8);
+
+        assertEquals(List.of(new MonthDayRange(220, 229)), ranges);
+    }
+
+    @Test
+    void upcoming_EndingOnFebruary28InLeapYear_ShouldNotIncludeFebruary29() {
+        List<MonthDayRange> ranges = MonthDayRange.upcoming(LocalDate.of(2024, 2, 20), 8);
+
+        assertEquals(List.of(new MonthDayRange(220, 228)), ranges);
+    }
+
+    @Test
+    void upcoming_CrossingIntoNonLeapYearUntilFebruary28_ShouldIncludeFebruary29() {
+        List<MonthDayRange> ranges = MonthDayRange.upcoming(LocalDate.of(2024, 12, 1), 89);
+
+        assertEquals(List.of(new MonthDayRange(1201, 1231), new MonthDayRange(101, 229)), ranges);
+    }
+
+    @Test
+    void upcoming_ForWholeYear_ShouldReturnWholeYearRange() {
+        List<MonthDayRange> ranges = MonthDayRange.upcoming(LocalDate.of(2025, 6, 15), 400);
+
+        assertEquals(List.of(new MonthDayRange(101, 1231)), ranges);
+    }
+
+    @Test
+    void of_ShouldEncodeMonthAndDay() {
+        assertEquals(229, MonthDayRange.of(LocalDate.of(2024, 2, 29)));
+        assertEquals(1231, MonthDayRange.of(LocalDate.of(2025, 12, 31)));
+    }
+}
@@ -0,0 +1,116 @@
+package ru.anastasia.NauJava.service.report;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.anastasia.NauJava.repository.report.ReportChunkRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReportContentResourceTest {
+
+    private static final Long REPORT_ID = 1L;
+
+    @Mock
+    private ReportChunkRepository reportChunkRepository;
+
+    @Test
+    void getInputStream_ShouldReadChunksInOrder() throws IOException {
+        stubChunks("abcd", "efgh", "ij");
+        ReportContentResource resource = new ReportContentResource(reportChunkRepository, REPORT_ID, 10, "etag");
+
+        try (InputStream input = resource.getInputStream()) {
+            assertEquals("abcdefghij", new String(input.readAllBytes(), StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    void skip_ShouldNotLoadSkippedChunks() throws IOException {
+        when(reportChunkRepository.findChunkLengthsByReportId(REPORT_ID)).thenReturn(List.of(4, 4, 2));
+        when(reportChunkRepository.findDataByReportIdAndSeq(REPORT_ID, 2)).thenReturn(bytes("ij"));
+        ReportContentResource resource = new ReportContentResource(reportChunkRepository, REPORT_ID, 10, "etag");
+
+        try (InputStream input = resource.getInputStream()) {
+            assertEquals(9, input.skip(9));
+            assertEquals('j', input.read());
+            assertEquals(-1, input.read());
+        }
+        verify(reportChunkRepository, never()).findDataByReportIdAndSeq(REPORT_ID, 0);
+        verify(reportChunkRepository, never()).findDataByReportIdAndSeq(REPORT_ID, 1);
+    }
+
+    @Test
+    void skip_WhenInsideCurrentChunk_ShouldContinueFromOffset() throws IOException {
+        stubChunks("abcd", "efgh");
+        ReportContentResource resource = new ReportContentResource(reportChunkRepository, REPORT_ID, 8, "etag");
+
+        try (InputStream input = resource.getInputStream()) {
+            assertEquals('a', input.read());
+            assertEquals(4, input.skip(4));
+            assertEquals("fgh", new String(input.readAllBytes(), StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    void read_WhenChunkDeleted_ShouldThrowException() throws IOException {
+        when(reportChunkRepository.findChunkLengthsByReportId(REPORT_ID)).thenReturn(List.of(4));
+        when(reportChunkRepository.findDataByReportIdAndSeq(REPORT_ID, 0)).thenReturn(null);
+        ReportContentResource resource = new ReportContentResource(reportChunkRepository, REPORT_ID, 4, "etag");
+
+        try (InputStream input = resource.getInputStream()) {
+            assertThrows(IOException.class, input::read);
+        }
+    }
+
+    @Test
+    void inflated_ShouldReadLengthFromGzipTrailerAcrossChunks() throws IOException {
+        byte[] html = bytes("<html>" + "x".repeat(1000) + "</html>");
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (OutputStream output = new GZIPOutputStream(buffer)) {
+            output.write(html);
+        }
+        byte[] compressed = buffer.toByteArray();
+        // Поле длины gzip разрезано между последними частями
+        int split = compressed.length - 2;
+        when(reportChunkRepository.findChunkLengthsByReportId(REPORT_ID)).thenReturn(List.of(split, 2));
+        when(reportChunkRepository.findDataByReportIdAndSeq(REPORT_ID, 0))
+                .thenReturn(Arrays.copyOfRange(compressed, 0, split));
+        when(reportChunkRepository.findDataByReportIdAndSeq(REPORT_ID, 1))
+                .thenReturn(Arrays.copyOfRange(compressed, split, compressed.length));
+        ReportContentResource resource = new ReportContentResource(reportChunkRepository, REPORT_ID,
+                compressed.length, "etag");
+
+        assertEquals(html.length, resource.inflated().contentLength());
+        try (InputStream input = resource.inflated().getInputStream()) {
+            assertEquals(new String(html, StandardCharsets.US_ASCII),
+                    new String(input.readAllBytes(), StandardCharsets.US_ASCII));
+        }
+    }
+
+    private void stubChunks(String... chunks) {
+        when(reportChunkRepository.findChunkLengthsByReportId(REPORT_ID))
+                .thenReturn(Arrays.stream(chunks).map(String::length).toList());
+        for (int i = 0; i < chunks.length; i++) {
+            when(reportChunkRepository.findDataByReportIdAndSeq(REPORT_ID, i)).thenReturn(bytes(chunks[i]));
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,47 @@
+package ru.anastasia.NauJava.service.report;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Журнал изменений report_data_change_log и версия данных отчета на реальной БД
+ */
+@SpringBootTest
+class ReportDataVersionQueryTest {
+
+    private static final String TOUCH_SQL = "UPDATE tags SET name = name WHERE id = -1";
+
+    @Autowired
+    private ReportDataVersionQuery reportDataVersionQuery;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void current_AfterChange_ShouldChange() {
+        String before = reportDataVersionQuery.current();
+
+        jdbcTemplate.update(TOUCH_SQL);
+
+        assertNotEquals(before, reportDataVersionQuery.current());
+    }
+
+    @Test
+    void compact_ShouldKeepVersionAndLeaveOneRowPerTable() {
+        jdbcTemplate.update(TOUCH_SQL);
+        jdbcTemplate.update(TOUCH_SQL);
+        String before = reportDataVersionQuery.current();
+
+        reportDataVersionQuery.compact();
+
+        assertEquals(before, reportDataVersionQuery.current());
+        Integer duplicates = jdbcTemplate.queryForObject("SELECT COUNT(*) - COUNT(DISTINCT table_name) " +
+                "FROM report_data_change_log", Integer.class);
+        assertEquals(0, duplicates);
+    }
+}
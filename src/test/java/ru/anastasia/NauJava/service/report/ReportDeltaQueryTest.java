@@ -0,0 +1,66 @@
+package ru.anastasia.NauJava.service.report;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Число контактов и избранных по журналу contact_count_log на реальной БД
+ */
+@SpringBootTest
+class ReportDeltaQueryTest {
+
+    private static final int CONTACTS_COUNT = 20;
+
+    /**
+     * Отрицательные идентификаторы не пересекаются со значениями последовательности
+     */
+    private static final long FIRST_ID = -2_000_000L;
+
+    @Autowired
+    private ReportDeltaQuery reportDeltaQuery;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM contacts WHERE id <= ? AND id > ?", FIRST_ID, FIRST_ID - CONTACTS_COUNT);
+    }
+
+    @Test
+    void countChanges_ShouldMatchFullCountAfterEachChange() {
+        assertCountsMatch();
+
+        jdbcTemplate.update("INSERT INTO contacts (id, first_name, last_name, display_name, is_favorite, " +
+                        "created_at, updated_at) SELECT ? - g, 'Имя', 'Счетчика', 'Имя Счетчика', g % 4 = 0, " +
+                        "now(), now() FROM generate_series(0, ? - 1) g",
+                FIRST_ID, CONTACTS_COUNT);
+        assertCountsMatch();
+
+        jdbcTemplate.update("UPDATE contacts SET is_favorite = NOT is_favorite WHERE id <= ? AND id > ?",
+                FIRST_ID, FIRST_ID - CONTACTS_COUNT / 2);
+        assertCountsMatch();
+
+        jdbcTemplate.update("DELETE FROM contacts WHERE id <= ? AND id > ?",
+                FIRST_ID - CONTACTS_COUNT / 2, FIRST_ID - CONTACTS_COUNT);
+        assertCountsMatch();
+
+        reportDeltaQuery.compactCounts();
+        assertCountsMatch();
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM contact_count_log", Integer.class));
+    }
+
+    private void assertCountsMatch() {
+        ReportDeltaQuery.Changes changes = reportDeltaQuery.countChanges(LocalDateTime.now());
+        assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM contacts", Long.class), changes.contacts());
+        assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM contacts WHERE is_favorite", Long.class),
+                changes.favorites());
+    }
+}
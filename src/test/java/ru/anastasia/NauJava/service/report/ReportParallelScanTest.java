@@ -0,0 +1,93 @@
+package ru.anastasia.NauJava.service.report;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.anastasia.NauJava.dto.report.ReportStatusDto;
+import ru.anastasia.NauJava.entity.contact.Contact;
+import ru.anastasia.NauJava.entity.report.Report;
+import ru.anastasia.NauJava.entity.report.ReportStatus;
+import ru.anastasia.NauJava.service.contact.ContactService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Формирование полного отчета с параллельным чтением диапазонов на реальной БД
+ *
+ * <p>
+ * Порция чтения меньше числа контактов, поэтому прогресс сохраняется несколько раз за время чтения.
+ * </p>
+ */
+@SpringBootTest(properties = {
+        "app.report.scan-parallelism=4",
+        "app.report.scan-chunk-size=5"
+})
+class ReportParallelScanTest {
+
+    private static final int CONTACTS_COUNT = 60;
+
+    private static final long TIMEOUT_MS = 60_000;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Long> contactIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < CONTACTS_COUNT; i++) {
+                Contact contact = Contact.builder().firstName("Имя" + i).lastName("Отчетов").build();
+                entityManager.persist(contact);
+                contactIds.add(contact.getId());
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        contactIds.forEach(contactService::deleteById);
+    }
+
+    @Test
+    void generateReportAsync_WhenScannedInParallel_ShouldComplete() throws Exception {
+        Report report = reportService.createReport();
+
+        reportService.generateReportAsync(report.getId()).get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+        ReportStatusDto status = awaitFinished(report.getId());
+        assertEquals(ReportStatus.COMPLETED, status.getStatus(), status.getErrorMessage());
+        assertEquals(100, status.getProgress());
+    }
+
+    /**
+     * Дождаться завершения: отчет может взять в работу и планировщик очереди
+     */
+    private ReportStatusDto awaitFinished(Long reportId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        ReportStatusDto status = reportService.getReportStatus(reportId);
+        while ((status.getStatus() == ReportStatus.CREATED || status.getStatus() == ReportStatus.RUNNING)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            status = reportService.getReportStatus(reportId);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,127 @@
+package ru.anastasia.NauJava.service.report;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import ru.anastasia.NauJava.dto.report.ContactIdRange;
+import ru.anastasia.NauJava.dto.report.ContactReportView;
+import ru.anastasia.NauJava.service.contact.ContactService;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReportPartitionScannerTest {
+
+    private static final Long REPORT_ID = 1L;
+
+    @Mock
+    private ContactService contactService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReportPartitionScanner scanner;
+
+    private final BiConsumer<List<ContactReportView>, Writer> renderer = (rows, out) -> {
+        try {
+            for (ContactReportView row : rows) {
+                out.write(row.getId() + ";");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        scanner = new ReportPartitionScanner(contactService, transactionManager);
+    }
+
+    @Test
+    void scan_ShouldWritePartitionsInIdOrderAndCombineTotals() throws IOException {
+        List<ContactReportView> first = List.of(row(1L, false), row(2L, true));
+        List<ContactReportView> second = List.of(row(3L, true), row(4L, true));
+        when(contactService.findIdRange()).thenReturn(new ContactIdRange(1L, 4L));
+        when(contactService.findReportRowsInRange(0L, 2L, 10)).thenReturn(first);
+        when(contactService.findReportRowsInRange(2L, 2L, 10)).thenReturn(List.of());
+        when(contactService.findReportRowsInRange(2L, 4L, 10)).thenReturn(second);
+        when(contactService.findReportRowsInRange(4L, 4L, 10)).thenReturn(List.of());
+        AtomicLong scanned = new AtomicLong();
+        Thread caller = Thread.currentThread();
+        StringWriter writer = new StringWriter();
+
+        ReportPartitionScanner.Result result = scanner.scan(REPORT_ID, 2, 10, renderer, rows -> {
+            // Прогресс пишется в БД: вызывать его можно только вне транзакций диапазонов
+            assertSame(caller, Thread.currentThread());
+            scanned.set(rows);
+        }, writer);
+
+        assertEquals("1;2;3;4;", writer.toString());
+        assertEquals(new ReportPartitionScanner.Result(4, 3, 2), result);
+        assertEquals(4, scanned.get());
+        verify(transactionManager, times(2)).getTransaction(argThat(definition -> definition.isReadOnly()
+                && definition.getIsolationLevel() == TransactionDefinition.ISOLATION_REPEATABLE_READ));
+    }
+
+    @Test
+    void scan_WhenNoContacts_ShouldWriteNothing() throws IOException {
+        when(contactService.findIdRange()).thenReturn(new ContactIdRange(null, null));
+        StringWriter writer = new StringWriter();
+
+        ReportPartitionScanner.Result result = scanner.scan(REPORT_ID, 4, 10, renderer, rows -> {
+        }, writer);
+
+        assertEquals("", writer.toString());
+        assertEquals(new ReportPartitionScanner.Result(0, 0, 0), result);
+    }
+
+    @Test
+    void scan_WhenPartitionFails_ShouldThrowException() {
+        when(contactService.findIdRange()).thenReturn(new ContactIdRange(1L, 1L));
+        when(contactService.findReportRowsInRange(0L, 1L, 10)).thenThrow(new RuntimeException("Ошибка БД"));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> scanner.scan(REPORT_ID, 4, 10, renderer, rows -> {
+                }, new StringWriter()));
+
+        assertEquals("Ошибка БД", exception.getMessage());
+    }
+
+    @Test
+    void split_ShouldCoverRangeWithoutGaps() {
+        List<long[]> bounds = ReportPartitionScanner.split(1, 10, 3);
+
+        assertEquals(3, bounds.size());
+        assertArrayEquals(new long[]{0, 4}, bounds.get(0));
+        assertArrayEquals(new long[]{4, 8}, bounds.get(1));
+        assertArrayEquals(new long[]{8, 10}, bounds.get(2));
+        assertEquals(1, ReportPartitionScanner.split(5, 5, 4).size());
+    }
+
+    private static ContactReportView row(Long id, boolean favorite) {
+        ContactReportView row = mock(ContactReportView.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getIsFavorite()).thenReturn(favorite);
+        return row;
+    }
+}
@@ -1,32 +1,73 @@
 package ru.anastasia.NauJava.service.report;
 
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.thymeleaf.context.IContext;
 import org.thymeleaf.spring6.SpringTemplateEngine;
-import ru.anastasia.NauJava.entity.contact.Contact;
+import ru.anastasia.NauJava.config.AppConfig;
+import ru.anastasia.NauJava.dto.report.ContactChangeRow;
+import ru.anastasia.NauJava.dto.report.ContactChangeType;
+import ru.anastasia.NauJava.dto.report.ContactReportView;
+import ru.anastasia.NauJava.dto.report.ReportContentView;
+import ru.anastasia.NauJava.dto.report.ReportGroupRow;
+import ru.anastasia.NauJava.dto.report.ReportMonthRow;
+import ru.anastasia.NauJava.dto.report.ReportStatusDto;
 import ru.anastasia.NauJava.entity.report.Report;
+import ru.anastasia.NauJava.entity.report.ReportMode;
+import ru.anastasia.NauJava.entity.report.ReportRun;
 import ru.anastasia.NauJava.entity.report.ReportStatus;
+import ru.anastasia.NauJava.repository.report.ReportChunkRepository;
 import ru.anastasia.NauJava.repository.report.ReportRepository;
+import ru.anastasia.NauJava.repository.report.ReportRunRepository;
 import ru.anastasia.NauJava.service.contact.ContactService;
 import ru.anastasia.NauJava.service.user.UserService;
 
-import java.util.Arrays;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -35,6 +76,8 @@ import static org.mockito.Mockito.when;
 @ExtendWith(MockitoExtension.class)
 public class ReportServiceTest {
 
+    private static final String OWNER = "node-1";
+
     @Mock
     private ReportRepository reportRepository;
 
@@ -44,25 +87,54 @@ public class ReportServiceTest {
     @Mock
     private ContactService contactService;
 
+    @Mock
+    private ReportChunkRepository reportChunkRepository;
+
     @Mock
     private SpringTemplateEngine templateEngine;
 
+    @Mock
+    private AppConfig appConfig;
+
+    @Mock
+    private ReportJobQueue reportJobQueue;
+
+    @Mock
+    private ReportAnalyticsQuery reportAnalyticsQuery;
+
+    @Mock
+    private ReportDataVersionQuery reportDataVersionQuery;
+
+    @Mock
+    private ReportDeltaQuery reportDeltaQuery;
+
+    @Mock
+    private ReportRunRepository reportRunRepository;
+
+    @Mock
+    private ReportPartitionScanner reportPartitionScanner;
+
+    @Spy
+    private ReportExecutor reportExecutor = new ReportExecutor(1, 1);
+
     @InjectMocks
     private ReportServiceImpl reportService;
 
-    private Contact createTestContact() {
-        return Contact.builder()
-                .id(1L)
-                .firstName("Иван")
-                .lastName("Иванов")
-                .build();
+    @BeforeEach
+    void setUp() {
+        lenient().when(reportAnalyticsQuery.contactStats())
+                .thenReturn(new ReportAnalyticsQuery.ContactStats(0, 0, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        reportExecutor.shutdown();
     }
 
     private Report createTestReport() {
         return Report.builder()
                 .id(1L)
                 .status(ReportStatus.CREATED)
-                .content("Тестовое содержимое отчета")
                 .build();
     }
 
@@ -81,6 +153,122 @@ public class ReportServiceTest {
         verify(reportRepository, times(1)).save(any(Report.class));
     }
 
+    @Test
+    void requestReport_WhenSameDataReportExists_ShouldReuseIt() {
+        Report running = createTestReport();
+        running.setStatus(ReportStatus.RUNNING);
+
+        when(reportDataVersionQuery.current()).thenReturn("v1");
+        when(reportRepository.findFirstByDataVersionAndModeAndStatusInOrderByIdDesc(eq("v1"), eq(ReportMode.FULL),
+                eq(List.of(ReportStatus.CREATED, ReportStatus.RUNNING, ReportStatus.COMPLETED))))
+                .thenReturn(Optional.of(running));
+
+        Report result = reportService.requestReport(ReportMode.FULL);
+
+        assertEquals(running, result);
+        verify(reportDataVersionQuery).lockRequests();
+        verify(reportRepository, never()).save(any(Report.class));
+    }
+
+    @Test
+    void requestReport_WhenDataChanged_ShouldCreateReportWithDataVersion() {
+        when(reportDataVersionQuery.current()).thenReturn("v2");
+        when(reportRepository.findFirstByDataVersionAndModeAndStatusInOrderByIdDesc(eq("v2"), eq(ReportMode.FULL),
+                anyCollection())).thenReturn(Optional.empty());
+        when(reportRepository.save(any(Report.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Report result = reportService.requestReport(ReportMode.FULL);
+
+        assertEquals(ReportStatus.CREATED, result.getStatus());
+        assertEquals("v2", result.getDataVersion());
+        verify(reportDataVersionQuery).lockRequests();
+    }
+
+    @Test
+    void requestReport_WhenDeltaWithoutCompletedReport_ShouldCreateFullReport() {
+        when(reportDataVersionQuery.current()).thenReturn("v3");
+        when(reportRepository.findFirstByStatusAndWatermarkIsNotNullOrderByWatermarkDescIdDesc(ReportStatus.COMPLETED))
+                .thenReturn(Optional.empty());
+        when(reportRepository.findFirstByDataVersionAndModeAndStatusInOrderByIdDesc(eq("v3"), eq(ReportMode.FULL),
+                anyCollection())).thenReturn(Optional.empty());
+        when(reportRepository.save(any(Report.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Report result = reportService.requestReport(ReportMode.DELTA);
+
+        assertEquals(ReportMode.FULL, result.getMode());
+        assertNull(result.getBaseReportId());
+    }
+
+    @Test
+    void requestReport_WhenDelta_ShouldReferenceLatestCompletedReport() {
+        Report base = createTestReport();
+        base.setId(7L);
+        base.setStatus(ReportStatus.COMPLETED);
+        base.setWatermark(LocalDateTime.now().minusDays(1));
+
+        when(reportDataVersionQuery.current()).thenReturn("v4");
+        when(reportRepository.findFirstByStatusAndWatermarkIsNotNullOrderByWatermarkDescIdDesc(ReportStatus.COMPLETED))
+                .thenReturn(Optional.of(base));
+        when(reportRepository.findFirstByDataVersionAndModeAndStatusInOrderByIdDesc(eq("v4"), eq(ReportMode.DELTA),
+                anyCollection())).thenReturn(Optional.empty());
+        when(reportRepository.save(any(Report.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Report result = reportService.requestReport(ReportMode.DELTA);
+
+        assertEquals(ReportMode.DELTA, result.getMode());
+        assertEquals(7L, result.getBaseReportId());
+    }
+
+    @Test
+    void generateReportAsync_WhenDelta_ShouldMergeChangesIntoBaseTotals() throws Exception {
+        Long reportId = 1L;
+        LocalDateTime watermark = LocalDateTime.now().minusDays(1);
+        Report report = createTestReport();
+        report.setMode(ReportMode.DELTA);
+        report.setBaseReportId(7L);
+        Report base = Report.builder()
+                .id(7L)
+                .status(ReportStatus.COMPLETED)
+                .watermark(watermark)
+                .contactCount(100L)
+                .favoriteCount(10L)
+                .build();
+        ContactChangeRow added = new ContactChangeRow(201L, "Иван", "Иванов", false, ContactChangeType.ADDED,
+                watermark.plusHours(1));
+        ContactChangeRow deleted = new ContactChangeRow(5L, "Петр", "Петров", true, ContactChangeType.DELETED,
+                watermark.plusHours(2));
+
+        when(reportRepository.findById(reportId)).thenReturn(Optional.of(report));
+        when(reportRepository.findById(7L)).thenReturn(Optional.of(base));
+        // Изменения читаются с перекрытием: транзакции, зафиксированные после снимка базового отчета, не теряются
+        LocalDateTime since = watermark.minusSeconds(600);
+        LocalDateTime newWatermark = LocalDateTime.now();
+        when(appConfig.getReportDeltaOverlapSeconds()).thenReturn(600);
+        when(reportDeltaQuery.currentTime()).thenReturn(newWatermark);
+        when(reportDeltaQuery.countChanges(since)).thenReturn(new ReportDeltaQuery.Changes(3, 2, 1, 102, 11));
+        when(userService.countTotal()).thenReturn(5L);
+        when(appConfig.getReportScanChunkSize()).thenReturn(10);
+        when(reportDeltaQuery.findChangedAfter(since, since, 0L, 10)).thenReturn(List.of(added));
+        when(reportDeltaQuery.findChangedAfter(since, added.getChangedAt(), 201L, 10))
+                .thenReturn(Collections.emptyList());
+        when(reportDeltaQuery.findDeletedAfter(since, since, 0L, 10)).thenReturn(List.of(deleted));
+        when(reportDeltaQuery.findDeletedAfter(since, deleted.getChangedAt(), 5L, 10))
+                .thenReturn(Collections.emptyList());
+        when(reportJobQueue.claim(eq(reportId), anyInt(), anyInt())).thenReturn(true);
+        when(reportJobQueue.getOwner()).thenReturn(OWNER);
+        when(reportRepository.complete(eq(reportId), eq(OWNER), anyLong(), anyString(), any(LocalDateTime.class)))
+                .thenReturn(1);
+
+        reportService.generateReportAsync(reportId).get();
+
+        verify(reportRepository).saveSnapshot(reportId, OWNER, newWatermark, 102L, 11L);
+        verify(templateEngine).process(eq("report/content"), eq(Set.of("deltaSummary")), any(IContext.class), any(Writer.class));
+        verify(templateEngine, times(2)).process(eq("report/content"), eq(Set.of("deltaRows")), any(IContext.class), any(Writer.class));
+        verify(templateEngine).process(eq("report/content"), eq(Set.of("deltaFooter")), any(IContext.class), any(Writer.class));
+        verify(contactService, never()).findReportRowsAfter(anyLong(), anyInt());
+        verify(reportAnalyticsQuery, never()).groupStats();
+    }
+
     @Test
     void getReport_WhenReportExists_ShouldReturnReport() {
         Long reportId = 1L;
@@ -111,34 +299,143 @@ public class ReportServiceTest {
     }
 
     @Test
-    void generateReportAsync_WhenValidData_ShouldCompleteSuccessfully() throws Exception {
+    void generateReportAsync_WhenValidData_ShouldWriteContentInChunks() throws Exception {
         Long reportId = 1L;
         Report report = createTestReport();
-        List<Contact> contacts = Arrays.asList(createTestContact(), createTestContact());
+        ContactReportView first = createTestRow(1L);
+        ContactReportView second = createTestRow(2L);
 
         when(reportRepository.findById(reportId)).thenReturn(Optional.of(report));
         when(userService.countTotal()).thenReturn(5L);
-        when(contactService.findAll()).thenReturn(contacts);
-        when(templateEngine.process(anyString(), any())).thenReturn("<html>Отчет</html>");
-        when(reportRepository.save(any(Report.class))).thenReturn(report);
+        when(contactService.countTotal()).thenReturn(2L);
+        when(appConfig.getReportScanChunkSize()).thenReturn(1);
+        when(contactService.findReportRowsAfter(0L, 1)).thenReturn(List.of(first));
+        when(contactService.findReportRowsAfter(1L, 1)).thenReturn(List.of(second));
+        when(contactService.findReportRowsAfter(2L, 1)).thenReturn(Collections.emptyList());
+        doAnswer(invocation -> {
+            invocation.<Writer>getArgument(3).write("<p>часть</p>");
+            return null;
+        }).when(templateEngine).process(anyString(), anySet(), any(IContext.class), any(Writer.class));
+        when(reportJobQueue.claim(eq(reportId), anyInt(), anyInt())).thenReturn(true);
+        when(reportJobQueue.getOwner()).thenReturn(OWNER);
+        when(reportRepository.complete(eq(reportId), eq(OWNER), anyLong(), anyString(), any(LocalDateTime.class)))
+                .thenReturn(1);
 
         CompletableFuture<Void> future = reportService.generateReportAsync(reportId);
         future.get();
 
-        assertEquals(ReportStatus.COMPLETED, report.getStatus());
-        assertNotNull(report.getContent());
+        verify(reportRepository).updateProgress(reportId, OWNER, 50);
+        verify(reportRepository).updateProgress(reportId, OWNER, 99);
+
+        verify(reportChunkRepository).deleteByReportId(reportId);
+        verify(templateEngine).process(eq("report/content"), eq(Set.of("summary")), any(IContext.class), any(Writer.class));
+        verify(templateEngine, times(2)).process(eq("report/content"), eq(Set.of("rows")), any(IContext.class), any(Writer.class));
+        verify(templateEngine).process(eq("report/content"), eq(Set.of("footer")), any(IContext.class), any(Writer.class));
+        verify(reportChunkRepository).save(argThat(chunk -> chunk.getSeq() == 0
+                && gunzip(chunk.getData()).equals("<p>часть</p>".repeat(4))));
+        verify(contactService, never()).findAll();
+        verify(reportRunRepository).save(argThat(run -> run.getReportId().equals(reportId)
+                && run.getStatus() == ReportStatus.COMPLETED
+                && run.getMode() == ReportMode.FULL
+                && run.getRowCount() == 2
+                && run.getDurationMs() >= 0));
+    }
+
+    @Test
+    void generateReportAsync_WhenParallelScan_ShouldMergePartitionsAndReportParallelism() throws Exception {
+        Long reportId = 1L;
+        List<IContext> footers = new ArrayList<>();
+
+        when(reportRepository.findById(reportId)).thenReturn(Optional.of(createTestReport()));
+        when(userService.countTotal()).thenReturn(1L);
+        when(contactService.countTotal()).thenReturn(4L);
+        when(appConfig.getReportScanChunkSize()).thenReturn(10);
+        when(appConfig.getReportScanParallelism()).thenReturn(4);
+        doAnswer(invocation -> {
+            LongConsumer onProgress = invocation.getArgument(4);
+            onProgress.accept(2);
+            onProgress.accept(4);
+            invocation.<Writer>getArgument(5).write("<p>строки</p>");
+            return new ReportPartitionScanner.Result(4, 3, 2);
+        }).when(reportPartitionScanner).scan(eq(reportId), eq(4), eq(10), any(), any(), any(Writer.class));
+        doAnswer(invocation -> {
+            footers.add(invocation.getArgument(2));
+            return null;
+        }).when(templateEngine).process(eq("report/content"), eq(Set.of("footer")), any(IContext.class), any(Writer.class));
+        when(reportJobQueue.claim(eq(reportId), anyInt(), anyInt())).thenReturn(true);
+        when(reportJobQueue.getOwner()).thenReturn(OWNER);
+        when(reportRepository.complete(eq(reportId), eq(OWNER), anyLong(), anyString(), any(LocalDateTime.class)))
+                .thenReturn(1);
+
+        reportService.generateReportAsync(reportId).get();
+
+        IContext footer = footers.getFirst();
+        assertEquals(2, footer.getVariable("parallelism"));
+        assertEquals(4L, footer.getVariable("scannedCount"));
+        verify(reportRepository).updateProgress(reportId, OWNER, 50);
+        verify(reportRepository).updateProgress(reportId, OWNER, 99);
+        verify(reportRepository).saveSnapshot(eq(reportId), eq(OWNER), any(), eq(4L), eq(3L));
+        verify(contactService, never()).findReportRowsAfter(anyLong(), anyInt());
+    }
+
+    @Test
+    void generateReportAsync_ShouldPassAnalyticsToSummary() throws Exception {
+        Long reportId = 1L;
+        ReportMonthRow month = new ReportMonthRow(YearMonth.now(), 4, 1, 4);
+        ReportAnalyticsQuery.GroupSection companies = new ReportAnalyticsQuery.GroupSection(
+                List.of(new ReportGroupRow("ООО Ромашка", 3, 3)), new ReportGroupRow(null, 3, 3));
+        List<IContext> summaries = new ArrayList<>();
+
+        when(reportRepository.findById(reportId)).thenReturn(Optional.of(createTestReport()));
+        when(userService.countTotal()).thenReturn(1L);
+        when(contactService.countTotal()).thenReturn(4L);
+        when(reportAnalyticsQuery.contactStats()).thenReturn(new ReportAnalyticsQuery.ContactStats(4, 1, List.of(month)));
+        when(reportAnalyticsQuery.groupStats()).thenReturn(Map.of(ReportAnalyticsQuery.Section.COMPANY, companies));
+        when(appConfig.getReportScanChunkSize()).thenReturn(10);
+        when(contactService.findReportRowsAfter(0L, 10)).thenReturn(Collections.emptyList());
+        doAnswer(invocation -> {
+            summaries.add(invocation.getArgument(2));
+            return null;
+        }).when(templateEngine).process(eq("report/content"), eq(Set.of("summary")), any(IContext.class), any(Writer.class));
+        when(reportJobQueue.claim(eq(reportId), anyInt(), anyInt())).thenReturn(true);
+        when(reportJobQueue.getOwner()).thenReturn(OWNER);
+        when(reportRepository.complete(eq(reportId), eq(OWNER), anyLong(), anyString(), any(LocalDateTime.class)))
+                .thenReturn(1);
+
+        reportService.generateReportAsync(reportId).get();
+
+        IContext summary = summaries.getFirst();
+        assertEquals(1L, summary.getVariable("favoriteCount"));
+        assertEquals(0.25, summary.getVariable("favoriteRatio"));
+        assertEquals(List.of(month), summary.getVariable("growth"));
+        assertEquals(companies, summary.getVariable("companies"));
+        verify(reportAnalyticsQuery, times(1)).contactStats();
+        verify(reportAnalyticsQuery, times(1)).groupStats();
+    }
+
+    @Test
+    void generateReportAsync_WhenAnalyticsFails_ShouldSetErrorStatus() {
+        Long reportId = 1L;
+
+        when(reportRepository.findById(reportId)).thenReturn(Optional.of(createTestReport()));
+        lenient().when(userService.countTotal()).thenReturn(1L);
+        lenient().when(contactService.countTotal()).thenReturn(1L);
+        when(reportAnalyticsQuery.groupStats()).thenThrow(new RuntimeException("Ошибка агрегатов"));
+        when(reportJobQueue.claim(eq(reportId), anyInt(), anyInt())).thenReturn(true);
+        when(reportJobQueue.getOwner()).thenReturn(OWNER);
 
-        verify(reportRepository, atLeastOnce()).findById(reportId);
-        verify(reportRepository, atLeastOnce()).save(any(Report.class));
-        verify(userService, times(1)).countTotal();
-        verify(contactService, times(1)).findAll();
-        verify(templateEngine, times(1)).process(anyString(), any());
+        CompletableFuture<Void> future = reportService.generateReportAsync(reportId);
+
+        assertThrows(ExecutionException.class, future::get);
+
+        verifyFinishedWithError(reportId, "Ошибка агрегатов");
     }
 
     @Test
     void generateReportAsync_WhenReportNotFound_ShouldThrowException() {
         Long nonExistentId = 999L;
 
+        when(reportJobQueue.claim(eq(nonExistentId), anyInt(), anyInt())).thenReturn(true);
         when(reportRepository.findById(nonExistentId)).thenReturn(Optional.empty());
 
         CompletableFuture<Void> future = reportService.generateReportAsync(nonExistentId);
@@ -150,7 +447,7 @@ public class ReportServiceTest {
 
         assertTrue(exception.getCause().getMessage().contains("Не найден отчет с id: " + nonExistentId));
         verify(reportRepository, times(1)).findById(nonExistentId);
-        verify(reportRepository, never()).save(any(Report.class));
+        verify(reportChunkRepository, never()).deleteByReportId(any());
     }
 
     @Test
@@ -159,18 +456,16 @@ public class ReportServiceTest {
         Report report = createTestReport();
 
         when(reportRepository.findById(reportId)).thenReturn(Optional.of(report));
+        when(reportJobQueue.claim(eq(reportId), anyInt(), anyInt())).thenReturn(true);
+        when(reportJobQueue.getOwner()).thenReturn(OWNER);
         when(userService.countTotal()).thenThrow(new RuntimeException("Ошибка базы данных пользователей"));
-        when(reportRepository.save(any(Report.class))).thenReturn(report);
+        lenient().when(contactService.countTotal()).thenReturn(1L);
 
         CompletableFuture<Void> future = reportService.generateReportAsync(reportId);
 
         assertThrows(ExecutionException.class, future::get);
 
-        assertEquals(ReportStatus.ERROR, report.getStatus());
-        assertTrue(report.getContent().contains("Ошибка при формировании отчёта"));
-        assertTrue(report.getContent().contains("Ошибка базы данных пользователей"));
-
-        verify(reportRepository, atLeastOnce()).save(any(Report.class));
+        verifyFinishedWithError(reportId, "Ошибка базы данных пользователей");
     }
 
     @Test
@@ -180,40 +475,269 @@ public class ReportServiceTest {
 
         when(reportRepository.findById(reportId)).thenReturn(Optional.of(report));
         when(userService.countTotal()).thenReturn(5L);
-        when(contactService.findAll()).thenThrow(new RuntimeException("Ошибка базы данных контактов"));
-        when(reportRepository.save(any(Report.class))).thenReturn(report);
+        when(contactService.countTotal()).thenThrow(new RuntimeException("Ошибка базы данных контактов"));
+        when(reportJobQueue.claim(eq(reportId), anyInt(), anyInt())).thenReturn(true);
+        when(reportJobQueue.getOwner()).thenReturn(OWNER);
 
         CompletableFuture<Void> future = reportService.generateReportAsync(reportId);
 
         assertThrows(ExecutionException.class, future::get);
 
-        assertEquals(ReportStatus.ERROR, report.getStatus());
-        assertTrue(report.getContent().contains("Ошибка при формировании отчёта"));
-        assertTrue(report.getContent().contains("Ошибка базы данных контактов"));
-
-        verify(reportRepository, atLeastOnce()).save(any(Report.class));
+        verifyFinishedWithError(reportId, "Ошибка базы данных контактов");
     }
 
     @Test
     void generateReportAsync_WhenTemplateEngineFails_ShouldSetErrorStatus() {
         Long reportId = 1L;
         Report report = createTestReport();
-        List<Contact> contacts = Collections.singletonList(createTestContact());
 
         when(reportRepository.findById(reportId)).thenReturn(Optional.of(report));
         when(userService.countTotal()).thenReturn(5L);
-        when(contactService.findAll()).thenReturn(contacts);
-        when(templateEngine.process(anyString(), any())).thenThrow(new RuntimeException("Ошибка шаблонизатора"));
-        when(reportRepository.save(any(Report.class))).thenReturn(report);
+        when(contactService.countTotal()).thenReturn(1L);
+        doThrow(new RuntimeException("Ошибка шаблонизатора"))
+                .when(templateEngine).process(anyString(), anySet(), any(IContext.class), any(Writer.class));
+        when(reportJobQueue.claim(eq(reportId), anyInt(), anyInt())).thenReturn(true);
+        when(reportJobQueue.getOwner()).thenReturn(OWNER);
 
         CompletableFuture<Void> future = reportService.generateReportAsync(reportId);
 
         assertThrows(ExecutionException.class, future::get);
 
-        assertEquals(ReportStatus.ERROR, report.getStatus());
-        assertTrue(report.getContent().contains("Ошибка при формировании отчёта"));
-        assertTrue(report.getContent().contains("Ошибка шаблонизатора"));
+        verifyFinishedWithError(reportId, "Ошибка шаблонизатора");
+        verify(reportChunkRepository).deleteByReportId(reportId);
+        verify(reportChunkRepository).deleteByReportIdUnlessReclaimed(reportId, OWNER);
+    }
+
+    @Test
+    void generateReportAsync_WhenClaimedByAnotherNode_ShouldNotSubmit() throws Exception {
+        Long reportId = 1L;
+
+        when(reportJobQueue.claim(eq(reportId), anyInt(), anyInt())).thenReturn(false);
+
+        CompletableFuture<Void> future = reportService.generateReportAsync(reportId);
+
+        assertTrue(future.isDone());
+        verify(reportExecutor, never()).submit(any(), any());
+        verify(reportRepository, never()).findById(any());
+    }
+
+    @Test
+    void generateReportAsync_WhenLocalQueueFull_ShouldReleaseReport() {
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            reportExecutor.submit(100L, () -> awaitQuietly(release));
+            reportExecutor.submit(101L, () -> awaitQuietly(release));
+            when(reportJobQueue.claim(eq(1L), anyInt(), anyInt())).thenReturn(true);
+
+            CompletableFuture<Void> future = reportService.generateReportAsync(1L);
+
+            assertTrue(future.isDone());
+            verify(reportJobQueue).release(1L);
+            verify(reportRepository, never()).findById(1L);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void dispatchQueuedReports_ShouldClaimUpToFreeCapacity() {
+        when(reportJobQueue.claimNext(eq(2), anyInt(), anyInt())).thenReturn(Collections.emptyList());
+
+        assertEquals(0, reportService.dispatchQueuedReports());
+
+        verify(reportJobQueue).failExhausted(anyInt(), anyString());
+        verify(reportJobQueue).claimNext(eq(2), anyInt(), anyInt());
+    }
+
+    @Test
+    void dispatchQueuedReports_WhenLocalQueueFull_ShouldNotClaim() {
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            reportExecutor.submit(100L, () -> awaitQuietly(release));
+            reportExecutor.submit(101L, () -> awaitQuietly(release));
+
+            assertEquals(0, reportService.dispatchQueuedReports());
+
+            verify(reportJobQueue, never()).claimNext(anyInt(), anyInt(), anyInt());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void renewLeases_WhenLeaseLost_ShouldInterruptLocalTask() {
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CompletableFuture<Void> kept = reportExecutor.submit(1L, () -> awaitQuietly(release));
+            CompletableFuture<Void> lost = reportExecutor.submit(2L, () -> awaitQuietly(release));
+            when(reportJobQueue.heartbeat(eq(Set.of(1L, 2L)), anyInt())).thenReturn(Set.of(1L));
+
+            reportService.renewLeases();
+
+            assertFalse(kept.isCancelled());
+            assertTrue(lost.isCancelled());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void cancelReport_WhenRunning_ShouldSetCancelledAndInterruptTask() {
+        Long reportId = 1L;
+        ReportStatusDto report = ReportStatusDto.builder()
+                .id(reportId)
+                .status(ReportStatus.RUNNING)
+                .progress(40)
+                .build();
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(reportRepository.findStatusById(reportId)).thenReturn(Optional.of(report));
+        when(reportRepository.finish(eq(reportId), eq(List.of(ReportStatus.CREATED, ReportStatus.RUNNING)),
+                eq(ReportStatus.CANCELLED), eq(40), isNull(), any(LocalDateTime.class))).thenReturn(1);
+
+        try {
+            CompletableFuture<Void> future = reportExecutor.submit(reportId, () -> awaitQuietly(release));
+
+            assertTrue(reportService.cancelReport(reportId));
+            assertTrue(future.isCancelled());
+            verify(reportExecutor).cancel(reportId);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void cancelReport_WhenAlreadyFinished_ShouldReturnFalse() {
+        Long reportId = 1L;
+        ReportStatusDto report = ReportStatusDto.builder()
+                .id(reportId)
+                .status(ReportStatus.COMPLETED)
+                .progress(100)
+                .build();
+
+        when(reportRepository.findStatusById(reportId)).thenReturn(Optional.of(report));
+
+        assertFalse(reportService.cancelReport(reportId));
+    }
+
+    @Test
+    void getReportStatus_WhenReportExists_ShouldReturnStatusWithoutLoadingEntity() {
+        Long reportId = 1L;
+        ReportStatusDto status = ReportStatusDto.builder()
+                .id(reportId)
+                .status(ReportStatus.RUNNING)
+                .progress(30)
+                .build();
+
+        when(reportRepository.findStatusById(reportId)).thenReturn(Optional.of(status));
+
+        ReportStatusDto result = reportService.getReportStatus(reportId);
+
+        assertEquals(ReportStatus.RUNNING, result.getStatus());
+        assertEquals(30, result.getProgress());
+        assertTrue(result.isActive());
+        verify(reportRepository, never()).findById(any());
+    }
+
+    @Test
+    void getReportStatus_WhenReportNotExists_ShouldThrowException() {
+        Long nonExistentId = 999L;
+
+        when(reportRepository.findStatusById(nonExistentId)).thenReturn(Optional.empty());
+
+        RuntimeException exception = assertThrows(
+                RuntimeException.class,
+                () -> reportService.getReportStatus(nonExistentId)
+        );
+
+        assertTrue(exception.getMessage().contains("Отчет не найден: " + nonExistentId));
+    }
+
+    @Test
+    void getRunHistory_ShouldReturnLatestRunsUpToConfiguredSize() {
+        ReportRun run = ReportRun.builder().reportId(1L).status(ReportStatus.COMPLETED).durationMs(10L).build();
+
+        when(appConfig.getReportHistorySize()).thenReturn(50);
+        when(reportRunRepository.findLatest(PageRequest.of(0, 50))).thenReturn(List.of(run));
+
+        assertEquals(List.of(run), reportService.getRunHistory());
+    }
+
+    @Test
+    void findContent_WhenCompleted_ShouldReturnStoredContent() {
+        Long reportId = 1L;
+        ReportContentView view = mock(ReportContentView.class);
+        when(view.getStatus()).thenReturn(ReportStatus.COMPLETED);
+        when(view.getContentLength()).thenReturn(42L);
+        when(view.getContentEtag()).thenReturn("abc");
+
+        when(reportRepository.findContentById(reportId)).thenReturn(Optional.of(view));
+
+        ReportContentResource content = reportService.findContent(reportId).orElseThrow();
+
+        assertEquals(42L, content.contentLength());
+        assertEquals("abc", content.getEtag());
+    }
+
+    @Test
+    void findContent_WhenNotCompleted_ShouldReturnEmpty() {
+        Long reportId = 1L;
+        ReportContentView view = mock(ReportContentView.class);
+        when(view.getStatus()).thenReturn(ReportStatus.RUNNING);
+
+        when(reportRepository.findContentById(reportId)).thenReturn(Optional.of(view));
+
+        assertTrue(reportService.findContent(reportId).isEmpty());
+    }
+
+    @Test
+    void purgeReports_ShouldDeleteExpiredAndEvictBeyondStorageLimit() {
+        when(appConfig.getReportRetentionDays()).thenReturn(30);
+        when(appConfig.getReportMaxStorageMb()).thenReturn(10);
+        when(appConfig.getReportHistoryDays()).thenReturn(365);
+        when(reportRepository.deleteFinishedBefore(anyCollection(), any(LocalDateTime.class))).thenReturn(2);
+        when(reportRepository.findCompletedBeyondStorageLimit(10L * 1024 * 1024)).thenReturn(List.of(3L, 4L));
+
+        int purged = reportService.purgeReports();
+
+        assertEquals(4, purged);
+        verify(reportRepository).deleteFinishedBefore(
+                eq(List.of(ReportStatus.COMPLETED, ReportStatus.ERROR, ReportStatus.CANCELLED)),
+                argThat(before -> before.isBefore(LocalDateTime.now().minusDays(29))));
+        verify(reportRepository).deleteAllByIdInBatch(List.of(3L, 4L));
+        verify(reportDataVersionQuery).compact();
+        verify(reportDeltaQuery).compactCounts();
+        verify(reportRunRepository).deleteFinishedBefore(
+                argThat(before -> before.isBefore(LocalDateTime.now().minusDays(364))));
+    }
+
+    private static String gunzip(byte[] data) {
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void verifyFinishedWithError(Long reportId, String message) {
+        verify(reportRepository).finishLease(eq(reportId), eq(OWNER), eq(ReportStatus.ERROR),
+                anyInt(), argThat(error -> error != null && error.contains(message)), any(LocalDateTime.class));
+        verify(reportRepository, never()).complete(any(), any(), anyLong(), any(), any());
+        verify(reportRunRepository).save(argThat(run -> run.getStatus() == ReportStatus.ERROR
+                && run.getErrorMessage().contains(message)));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-        verify(reportRepository, atLeastOnce()).save(any(Report.class));
+    private ContactReportView createTestRow(Long id) {
+        ContactReportView row = mock(ContactReportView.class);
+        when(row.getId()).thenReturn(id);
+        return row;
     }
 }
@@ -4,12 +4,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.anastasia.NauJava.dto.stats.AdminDashboardStats;
 import ru.anastasia.NauJava.dto.stats.UserDashboardStats;
 import ru.anastasia.NauJava.service.company.CompanyService;
 import ru.anastasia.NauJava.service.contact.ContactService;
 import ru.anastasia.NauJava.service.event.EventService;
+import ru.anastasia.NauJava.service.stats.DashboardCounters.Counter;
 import ru.anastasia.NauJava.service.user.UserService;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -33,6 +35,9 @@ public class StatisticsServiceTest {
     @Mock
     private EventService eventService;
 
+    @Spy
+    private DashboardCounters dashboardCounters = new DashboardCounters();
+
     @InjectMocks
     private StatisticsServiceImpl statisticsService;
 
@@ -134,4 +139,42 @@ public class StatisticsServiceTest {
         assertEquals(0L, result.getContactsCount());
         assertEquals(0L, result.getCompaniesCount());
     }
+
+    @Test
+    void getUserDashboardStatsShouldReadCountersWithoutQueriesAfterReconcile() {
+        when(contactService.countTotal()).thenReturn(150L);
+        when(companyService.countTotal()).thenReturn(25L);
+        when(contactService.countFavorites()).thenReturn(30L);
+        when(eventService.countUpcomingBirthdays(30)).thenReturn(5L);
+
+        statisticsService.getUserDashboardStats();
+        dashboardCounters.add(Counter.CONTACTS, 1);
+        dashboardCounters.favoriteChanged(false, true);
+        UserDashboardStats result = statisticsService.getUserDashboardStats();
+
+        assertEquals(151L, result.getContactsCount());
+        assertEquals(31L, result.getFavoritesCount());
+        verify(contactService, times(1)).countTotal();
+        verify(contactService, times(1)).countFavorites();
+        verify(companyService, times(1)).countTotal();
+    }
+
+    @Test
+    void reconcileCountersShouldReplaceDriftedValues() {
+        when(userService.countTotal()).thenReturn(50L);
+        when(contactService.countTotal()).thenReturn(200L);
+        when(companyService.countTotal()).thenReturn(40L);
+
+        statisticsService.reconcileCounters();
+        dashboardCounters.add(Counter.CONTACTS, -500);
+        assertEquals(0L, statisticsService.getAdminDashboardStats().getContactsCount());
+
+        statisticsService.reconcileCounters();
+        AdminDashboardStats result = statisticsService.getAdminDashboardStats();
+
+        assertEquals(50L, result.getUsersCount());
+        assertEquals(200L, result.getContactsCount());
+        assertEquals(40L, result.getCompaniesCount());
+        verify(contactService, times(2)).countTotal();
+    }
 }
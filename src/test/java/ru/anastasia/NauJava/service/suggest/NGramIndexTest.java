@@ -0,0 +1,110 @@
+package ru.anastasia.NauJava.service.suggest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NGramIndexTest {
+
+    private NGramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NGramIndex();
+        index.put(1L, "Иван Иванов", "Иван Иванов");
+        index.put(2L, "Пётр Петров", "Пётр Петров");
+        index.put(3L, "Рога и копыта", "Рога и копыта");
+        index.put(4L, "Диван", "Диван");
+    }
+
+    @Test
+    void search_WithSubstringInAnyCase_ShouldFindDocument() {
+        assertEquals(List.of(3L), keys(index.search("КОПЫТ", 10)));
+    }
+
+    @Test
+    void search_WithLetterE_ShouldMatchLetterYo() {
+        assertEquals(List.of(2L), keys(index.search("петр п", 10)));
+    }
+
+    @Test
+    void search_WithShortQuery_ShouldMatchWordStartsOnly() {
+        assertEquals(List.of(1L), keys(index.search("ив", 10)));
+    }
+
+    @Test
+    void search_ShouldRankPrefixMatchesFirst() {
+        assertEquals(List.of(1L, 4L), keys(index.search("иван", 10)));
+    }
+
+    @Test
+    void search_ShouldRespectLimit() {
+        assertEquals(1, index.search("иван", 1).size());
+    }
+
+    @Test
+    void put_WithExistingKey_ShouldReplaceText() {
+        index.put(4L, "Кресло", "Кресло");
+
+        assertEquals(List.of(1L), keys(index.search("иван", 10)));
+        assertEquals(List.of(4L), keys(index.search("кре", 10)));
+    }
+
+    @Test
+    void remove_ShouldExcludeDocumentFromResults() {
+        index.remove(1L);
+
+        assertEquals(List.of(4L), keys(index.search("иван", 10)));
+        assertEquals(3, index.stats().documents());
+    }
+
+    @Test
+    void remove_WhenMostDocumentsRemoved_ShouldKeepSearchConsistent() {
+        for (long key = 100; key < 3100; key++) {
+            index.put(key, "Контакт " + key, "Контакт " + key);
+        }
+        for (long key = 100; key < 3000; key++) {
+            index.remove(key);
+        }
+
+        assertEquals(List.of(3050L), keys(index.search("контакт 3050", 10)));
+        assertEquals(104, index.stats().documents());
+        assertTrue(index.stats().estimatedBytes() > 0);
+    }
+
+    @Test
+    void search_WithManyCandidates_ShouldFindBestMatchAddedLast() {
+        for (long key = 100; key < 30_100; key++) {
+            index.put(key, "Старый контакт " + key, "Старый контакт " + key);
+        }
+        index.put(5L, "Контакт", "Контакт");
+
+        assertEquals(List.of(5L, 100L), keys(index.search("контакт", 2)));
+        assertEquals(List.of(5L), keys(index.search("ко", 1)));
+    }
+
+    @Test
+    void put_WithManyKeysReplacedAndRemoved_ShouldKeepKeyLookupConsistent() {
+        for (long key = -15_000; key < -5_000; key++) {
+            index.put(key, "Запись " + key, "Запись " + key);
+        }
+        for (long key = -15_000; key < -5_000; key += 2) {
+            index.remove(key);
+        }
+        for (long key = -14_999; key < -5_000; key += 2) {
+            index.put(key, "Замена " + key, "Замена " + key);
+        }
+
+        assertEquals(List.of(-14_999L), keys(index.search("замена -14999", 10)));
+        assertEquals(List.of(), keys(index.search("запись", 10)));
+        assertEquals(5004, index.stats().documents());
+    }
+
+    private static List<Long> keys(List<NGramIndex.Hit> hits) {
+        return hits.stream().map(NGramIndex.Hit::key).toList();
+    }
+}